@@ -0,0 +1,55 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a method annotated with {@link Query} to be executed once per element of its single {@link Iterable} (or
+ * array) parameter, in batches.
+ * <p>
+ * The query is prefixed with <code>UNWIND {rows} AS row</code> and every batch of elements is sent to the database
+ * in a single round trip, so the query refers to the values of the current element via <code>row</code>, e.g.
+ * <code>MERGE (p:Person {name: row.name}) SET p.age = row.age</code>. Elements must be {@link java.util.Map}s
+ * or simple values: entities are not converted to their graph properties, so property names, converters and ids of
+ * entity elements do not match what the query expects. All other method parameters are bound as usual and are shared
+ * by every row.
+ * <p>
+ * Within a transaction all batches commit or roll back together. Outside of one every batch commits on its own; if a
+ * batch fails after others have been committed, a
+ * {@link org.springframework.data.neo4j.exception.BatchQueryFailedException} reports how many rows were committed.
+ * <p>
+ * Concurrent batches merging the same nodes in different orders deadlock; setting {@link #orderBy()} sends the rows
+ * ordered by one of their values so that all writers lock the nodes in the same order.
+ * <p>
+ * Batch query methods must return {@literal void}, {@link org.neo4j.ogm.model.QueryStatistics} or
+ * {@link org.neo4j.ogm.model.Result}; the statistics of all batches are summed up into a single result.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface BatchQuery {
+
+	/**
+	 * @return the maximum number of rows sent to the database per round trip.
+	 */
+	int batchSize() default 1000;
+
+	/**
+	 * @return the key of the {@link java.util.Map} rows whose values, typically the natural key of the written nodes,
+	 * the rows are sorted by before they are batched. Rows that are simple values are sorted by their own value. Empty
+	 * by default, sending the rows in iteration order.
+	 */
+	String orderBy() default "";
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the results of a read-only repository method, keyed by the method and its arguments.
+ * <p>
+ * Cached results are shared between callers and must not be modified. Entries expire after the given time to live and
+ * are evicted early once a repository write touches one of the labels or relationship types the method reads: the
+ * labels of the repository domain type and its direct neighbours, plus those mentioned in a <code>&#064;Query</code>.
+ * Writes within a transaction take effect once it has committed.
+ *
+ * @see org.springframework.data.neo4j.repository.cache.QueryResultCache
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface CachedQuery {
+
+	/**
+	 * @return the time to live of cached results, in the given {@link #unit()}.
+	 */
+	long ttl() default 60;
+
+	TimeUnit unit() default TimeUnit.SECONDS;
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.data.neo4j.metrics.plan.PlanMode;
+
+/**
+ * Selects a repository method, or all methods of a repository interface, for execution plan capture. Plans are only
+ * captured while the {@link org.springframework.data.neo4j.metrics.plan.QueryPlanCapture} is enabled.
+ *
+ * @see org.springframework.data.neo4j.metrics.plan.QueryPlanCapture
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Documented
+public @interface CapturePlan {
+
+	PlanMode value() default PlanMode.EXPLAIN;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lists the relationship paths loaded along with the entities returned by a repository query method, instead of
+ * expanding every relationship up to a {@link Depth}. Each path is a dot-separated chain of relationship fields,
+ * starting at the domain type, e.g. {@code @FetchPlan(paths = {"addresses", "orders.items"})}; relationships not on a
+ * listed path are not loaded.
+ *
+ * @see org.springframework.data.neo4j.repository.Fetch
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface FetchPlan {
+
+	/**
+	 * @return the relationship paths to load, relative to the domain type.
+	 */
+	String[] paths();
+}
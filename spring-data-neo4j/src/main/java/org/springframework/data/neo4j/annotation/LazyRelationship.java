@@ -0,0 +1,42 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a <code>&#064;Relationship</code> collection field as lazy: when an entity is returned by a repository and the
+ * field was left {@literal null} or empty, e.g. because the entity was loaded at depth 0, it is set to a collection
+ * loading its neighbours on first access. Touching the field on one of the entities returned by the same repository
+ * call loads it for up to {@link #batchSize()} of them at once.
+ * <p>
+ * The field must be declared as {@link java.util.Collection}, {@link java.util.List} or {@link java.util.Set} of node
+ * entities.
+ *
+ * @see org.springframework.data.neo4j.repository.support.LazyRelationships
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+@Documented
+public @interface LazyRelationship {
+
+	/**
+	 * @return the maximum number of entities whose field is loaded by a single query.
+	 */
+	int batchSize() default 100;
+}
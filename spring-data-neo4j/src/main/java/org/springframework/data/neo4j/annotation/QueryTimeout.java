@@ -0,0 +1,45 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the time a repository method may take. When used on a repository interface the timeout applies to all of
+ * its methods that do not declare their own.
+ * <p>
+ * Once the timeout has elapsed a {@link org.springframework.data.neo4j.exception.QueryTimeoutException} is thrown. Within a
+ * transaction the transaction is ended on the server, which aborts the running statement, and can only be rolled back.
+ * Outside of a transaction every statement runs in a transaction of its own that cannot be ended, so the method runs to
+ * completion before the exception is thrown. The calling thread is never interrupted.
+ *
+ * @see org.springframework.data.neo4j.transaction.QueryTimeoutWatchdog
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Documented
+public @interface QueryTimeout {
+
+	/**
+	 * @return the timeout, in the given {@link #unit()}.
+	 */
+	long value();
+
+	TimeUnit unit() default TimeUnit.SECONDS;
+}
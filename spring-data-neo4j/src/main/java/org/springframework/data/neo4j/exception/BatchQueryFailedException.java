@@ -0,0 +1,38 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.exception;
+
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Exception thrown when a batch of a {@link org.springframework.data.neo4j.annotation.BatchQuery} method failed outside
+ * of a transaction after preceding batches had been committed. Those rows are not rolled back; the call can be resumed
+ * from {@link #getCommittedRowCount()}. Such failures are not retried, as the committed rows would be written again.
+ */
+public class BatchQueryFailedException extends DataAccessException {
+
+	private final int committedRowCount;
+
+	public BatchQueryFailedException(String msg, int committedRowCount, Throwable cause) {
+		super(msg, cause);
+		this.committedRowCount = committedRowCount;
+	}
+
+	/**
+	 * @return the number of rows committed before the failed batch, in the order they were sent, i.e. sorted by
+	 *         {@link org.springframework.data.neo4j.annotation.BatchQuery#orderBy()} if set.
+	 */
+	public int getCommittedRowCount() {
+		return committedRowCount;
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.exception;
+
+import org.springframework.transaction.TransactionException;
+
+/**
+ * Exception thrown when a chunk of a {@link org.springframework.data.neo4j.transaction.ChunkedTransactionTemplate} job
+ * failed and was rolled back. All preceding chunks are committed; the job can be resumed from
+ * {@link #getCommittedCount()}.
+ */
+public class ChunkFailedException extends TransactionException {
+
+	private final long committedCount;
+	private final int chunkNumber;
+
+	public ChunkFailedException(String msg, long committedCount, int chunkNumber, Throwable cause) {
+		super(msg, cause);
+		this.committedCount = committedCount;
+		this.chunkNumber = chunkNumber;
+	}
+
+	/**
+	 * @return the number of items committed before the failed chunk, i.e. the position to resume from.
+	 */
+	public long getCommittedCount() {
+		return committedCount;
+	}
+
+	/**
+	 * @return the number of the failed chunk, starting at {@literal 1}.
+	 */
+	public int getChunkNumber() {
+		return chunkNumber;
+	}
+}
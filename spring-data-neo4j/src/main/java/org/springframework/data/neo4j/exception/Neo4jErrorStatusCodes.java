@@ -23,6 +23,8 @@ import org.springframework.dao.*;
  */
 public class Neo4jErrorStatusCodes {
 
+	private static final String TRANSIENT_ERROR_PREFIX = "Neo.TransientError.";
+
 	private static HashMap<String, Class<? extends DataAccessException>> errors;
 
 	static {
@@ -104,4 +106,14 @@ public class Neo4jErrorStatusCodes {
 	public static Class<? extends DataAccessException> translate(String errorCode) {
 		return errors.get(errorCode);
 	}
+
+	/**
+	 * @param errorCode a Neo4j status code.
+	 * @return whether the code is a {@code TransientError} that may succeed when the transaction is retried, such as
+	 * deadlocks or leader switches. Transient codes signalling resource exhaustion are not retryable.
+	 */
+	public static boolean isRetryable(String errorCode) {
+		return errorCode != null && errorCode.startsWith(TRANSIENT_ERROR_PREFIX)
+				&& !NonTransientDataAccessResourceException.class.equals(errors.get(errorCode));
+	}
 }
@@ -19,12 +19,32 @@ import org.neo4j.ogm.metadata.ClassInfo;
 import org.neo4j.ogm.metadata.FieldInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.data.mapping.context.AbstractMappingContext;
 import org.springframework.data.mapping.model.SimpleTypeHolder;
+import org.springframework.data.util.ClassTypeInformation;
 import org.springframework.data.util.TypeInformation;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
 
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.util.Collections.singleton;
 
@@ -35,6 +55,10 @@ import static java.util.Collections.singleton;
  * The main thing to note is that this class is effectively a container shim for {@code ClassInfo} objects. We don't reload all
  * the mapping information again.
  *
+ * Entity classes are loaded and introspected in parallel before they are added to the context one by one, as adding
+ * persistent entities is serialised by {@link AbstractMappingContext}. The time spent per entity is logged at debug
+ * level and available from {@link #getEntityInitialisationTimes()}.
+ *
  * @author Vince Bickers
  * @author Adam George
  * @since 4.0.0
@@ -44,24 +68,123 @@ public class Neo4jMappingContext extends AbstractMappingContext<Neo4jPersistentE
     private static final Logger logger = LoggerFactory.getLogger(Neo4jMappingContext.class);
 
     private final MetaData metaData;
+    private final Map<String, Long> entityInitialisationTimes;
+
+    private SimpleTypeHolder simpleTypeHolder = new SimpleTypeHolder();
 
     /**
-     * Constructs a new {@link Neo4jMappingContext} based on the persistent entities in the given {@link MetaData}.
+     * Constructs a new {@link Neo4jMappingContext} based on the persistent entities in the given {@link MetaData}, loading
+     * and introspecting entity classes with one thread per available processor.
      *
      * @param metaData The OGM {@link MetaData} from which to extract the persistent entities
      */
     public Neo4jMappingContext(MetaData metaData) {
+        this(metaData, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new {@link Neo4jMappingContext} based on the persistent entities in the given {@link MetaData}.
+     *
+     * @param metaData The OGM {@link MetaData} from which to extract the persistent entities
+     * @param parallelism The maximum number of threads loading and introspecting entity classes, {@literal 1} to do so
+     *        on the calling thread
+     */
+    public Neo4jMappingContext(MetaData metaData, int parallelism) {
+        Assert.isTrue(parallelism > 0, "parallelism must be greater than 0");
         this.metaData = metaData;
 
-        for (ClassInfo classInfo : metaData.persistentEntities()) {
-            try {
-                addPersistentEntity( MetaDataClassLoader.loadClass( classInfo.name() ));
-            } catch (ClassNotFoundException e) {
-                logger.error("Failed to load class: " + classInfo.name() + " named in ClassInfo due to exception", e);
+        long start = System.nanoTime();
+        List<ClassInfo> classInfos = new ArrayList<>(metaData.persistentEntities());
+        List<EntityClass> entityClasses = loadEntityClasses(classInfos, Math.min(parallelism, classInfos.size()));
+        long loaded = System.nanoTime();
+
+        Set<Class<?>> convertedTypes = new LinkedHashSet<>();
+        for (EntityClass entityClass : entityClasses) {
+            if (entityClass.type != null) {
+                convertedTypes.addAll(entityClass.convertedTypes);
+            }
+        }
+        addSimpleTypes(convertedTypes);
+
+        Map<String, Long> times = new LinkedHashMap<>();
+        for (EntityClass entityClass : entityClasses) {
+            if (entityClass.type != null) {
+                long entityStart = System.nanoTime();
+                addPersistentEntity(entityClass.type);
+                times.put(entityClass.name, entityClass.loadingNanos + System.nanoTime() - entityStart);
             }
         }
+        this.entityInitialisationTimes = Collections.unmodifiableMap(times);
 
-        logger.info("Neo4jMappingContext initialisation completed");
+        logger.info("Neo4jMappingContext initialisation completed: {} entities in {} ms (loading and introspection {} ms)",
+                times.size(), (System.nanoTime() - start) / 1000000, (loaded - start) / 1000000);
+        if (logger.isDebugEnabled()) {
+            logInitialisationTimes(times);
+        }
+    }
+
+    /**
+     * @return the OGM {@link MetaData} the persistent entities were taken from
+     */
+    public MetaData getMetaData() {
+        return metaData;
+    }
+
+    /**
+     * @return the time spent loading, introspecting and adding each persistent entity class named in the OGM
+     *         {@link MetaData} in nanoseconds, by class name.
+     */
+    public Map<String, Long> getEntityInitialisationTimes() {
+        return entityInitialisationTimes;
+    }
+
+    @Override
+    public synchronized void setSimpleTypeHolder(SimpleTypeHolder simpleTypes) {
+        super.setSimpleTypeHolder(simpleTypes);
+        this.simpleTypeHolder = simpleTypes;
+    }
+
+    private static List<EntityClass> loadEntityClasses(List<ClassInfo> classInfos, int parallelism) {
+        List<EntityClass> entityClasses = new ArrayList<>(classInfos.size());
+        for (ClassInfo classInfo : classInfos) {
+            entityClasses.add(new EntityClass(classInfo.name()));
+        }
+        if (parallelism <= 1) {
+            for (EntityClass entityClass : entityClasses) {
+                entityClass.call();
+            }
+            return entityClasses;
+        }
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("neo4j-mapping-");
+        threadFactory.setDaemon(true);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+        try {
+            for (Future<EntityClass> future : executor.invokeAll(entityClasses)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading entity classes", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to load entity classes", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return entityClasses;
+    }
+
+    private static void logInitialisationTimes(Map<String, Long> times) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(times.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> first, Map.Entry<String, Long> second) {
+                return second.getValue().compareTo(first.getValue());
+            }
+        });
+        for (Map.Entry<String, Long> entry : entries) {
+            logger.debug("Initialised {} in {} ms", entry.getKey(), String.format("%.3f", entry.getValue() / 1000000.0));
+        }
     }
 
     @Override
@@ -103,13 +226,29 @@ public class Neo4jMappingContext extends AbstractMappingContext<Neo4jPersistentE
         final Class<?> fieldType = field.getType().isArray() ? field.getType().getComponentType() : field.getType();
 
         if (shouldUpdateSimpleTypes(currentSimpleTypeHolder, field, fieldType)) {
-            SimpleTypeHolder updatedSimpleTypeHolder = new SimpleTypeHolder(singleton(fieldType), currentSimpleTypeHolder);
-            setSimpleTypeHolder(updatedSimpleTypeHolder);
-            return updatedSimpleTypeHolder;
+            return addSimpleTypes(singleton(fieldType));
         }
         return currentSimpleTypeHolder;
     }
 
+    /**
+     * Registers the given types as simple types, replacing the current {@link SimpleTypeHolder} at most once.
+     *
+     * @return the resulting {@link SimpleTypeHolder}
+     */
+    private synchronized SimpleTypeHolder addSimpleTypes(Collection<Class<?>> types) {
+        Set<Class<?>> newTypes = new LinkedHashSet<>();
+        for (Class<?> type : types) {
+            if (!simpleTypeHolder.isSimpleType(type)) {
+                newTypes.add(type);
+            }
+        }
+        if (!newTypes.isEmpty()) {
+            setSimpleTypeHolder(new SimpleTypeHolder(newTypes, simpleTypeHolder));
+        }
+        return simpleTypeHolder;
+    }
+
     private boolean shouldUpdateSimpleTypes(SimpleTypeHolder currentSimpleTypeHolder, Field field, Class<?> rawFieldType) {
         if (field.isAnnotationPresent(Convert.class)) {
             return true;
@@ -125,4 +264,51 @@ public class Neo4jMappingContext extends AbstractMappingContext<Neo4jPersistentE
         return false;
     }
 
+    /**
+     * Loads an entity class and warms up the reflection caches used when adding it as a persistent entity. Safe to
+     * run in parallel as it does not touch the OGM {@link MetaData}.
+     */
+    private static class EntityClass implements Callable<EntityClass> {
+
+        private final String name;
+        private final Set<Class<?>> convertedTypes = new LinkedHashSet<>();
+        private Class<?> type;
+        private long loadingNanos;
+
+        EntityClass(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public EntityClass call() {
+            long start = System.nanoTime();
+            try {
+                type = MetaDataClassLoader.loadClass(name);
+            } catch (ClassNotFoundException e) {
+                logger.error("Failed to load class: " + name + " named in ClassInfo due to exception", e);
+                return this;
+            }
+            try {
+                BeanUtils.getPropertyDescriptors(type);
+                final TypeInformation<?> typeInformation = ClassTypeInformation.from(type);
+                ReflectionUtils.doWithFields(type, new ReflectionUtils.FieldCallback() {
+                    @Override
+                    public void doWith(Field field) {
+                        if (Modifier.isStatic(field.getModifiers())) {
+                            return;
+                        }
+                        typeInformation.getProperty(field.getName());
+                        if (field.isAnnotationPresent(Convert.class)) {
+                            convertedTypes.add(field.getType().isArray() ? field.getType().getComponentType() : field.getType());
+                        }
+                    }
+                });
+            } catch (RuntimeException | LinkageError e) {
+                // reported when the entity is added to the context
+                logger.debug("Failed to introspect {}", name, e);
+            }
+            loadingNanos = System.nanoTime() - start;
+            return this;
+        }
+    }
 }
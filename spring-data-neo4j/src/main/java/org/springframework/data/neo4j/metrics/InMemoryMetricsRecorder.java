@@ -0,0 +1,114 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link MetricsRecorder} keeping call counts, error counts, latency histograms, row counts and projection times per
+ * repository method in memory, e.g. to expose them via JMX or an admin endpoint.
+ */
+public class InMemoryMetricsRecorder implements MetricsRecorder {
+
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	private final ConcurrentMap<String, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	@Override
+	public void recordRepositoryInvocation(RepositoryInvocation invocation) {
+		MethodMetrics methodMetrics = getMethodMetrics(invocation.getName());
+		methodMetrics.calls.incrementAndGet();
+		if (!invocation.isSuccessful()) {
+			methodMetrics.errors.incrementAndGet();
+		}
+		if (invocation.isTimedOut()) {
+			methodMetrics.timeouts.incrementAndGet();
+		}
+		if (invocation.getRows() > 0) {
+			methodMetrics.rows.addAndGet(invocation.getRows());
+		}
+		methodMetrics.totalNanos.addAndGet(invocation.getDurationNanos());
+		methodMetrics.projectionNanos.addAndGet(invocation.getProjectionNanos());
+		methodMetrics.latencies.record(invocation.getDurationNanos());
+	}
+
+	/**
+	 * @return a snapshot of the statistics of all measured repository methods, by name.
+	 */
+	public Map<String, MethodStatistics> getStatistics() {
+		Map<String, MethodStatistics> statistics = new TreeMap<>();
+		for (Map.Entry<String, MethodMetrics> entry : metrics.entrySet()) {
+			statistics.put(entry.getKey(), entry.getValue().snapshot(entry.getKey()));
+		}
+		return Collections.unmodifiableMap(statistics);
+	}
+
+	/**
+	 * @param name the name of a repository method, e.g. {@code PersonRepository.findByName}.
+	 * @return a snapshot of the statistics of the given method, or {@literal null} if it was not called yet.
+	 */
+	public MethodStatistics getStatistics(String name) {
+		MethodMetrics methodMetrics = metrics.get(name);
+		return methodMetrics == null ? null : methodMetrics.snapshot(name);
+	}
+
+	/**
+	 * Discards all measurements.
+	 */
+	public void reset() {
+		metrics.clear();
+	}
+
+	private MethodMetrics getMethodMetrics(String name) {
+		MethodMetrics methodMetrics = metrics.get(name);
+		if (methodMetrics == null) {
+			MethodMetrics newMetrics = new MethodMetrics();
+			methodMetrics = metrics.putIfAbsent(name, newMetrics);
+			if (methodMetrics == null) {
+				methodMetrics = newMetrics;
+			}
+		}
+		return methodMetrics;
+	}
+
+	private static class MethodMetrics {
+
+		private final AtomicLong calls = new AtomicLong();
+		private final AtomicLong errors = new AtomicLong();
+		private final AtomicLong timeouts = new AtomicLong();
+		private final AtomicLong rows = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong projectionNanos = new AtomicLong();
+		private final LatencyHistogram latencies = new LatencyHistogram();
+
+		MethodStatistics snapshot(String name) {
+			long callCount = calls.get();
+			return new MethodStatistics(name, callCount, errors.get(), timeouts.get(),
+					latencies.getPercentile(0.5) / NANOS_PER_MILLI, latencies.getPercentile(0.95) / NANOS_PER_MILLI,
+					latencies.getPercentile(0.99) / NANOS_PER_MILLI,
+					callCount == 0 ? 0 : totalNanos.get() / NANOS_PER_MILLI / callCount, rows.get(),
+					projectionNanos.get() / NANOS_PER_MILLI);
+		}
+	}
+}
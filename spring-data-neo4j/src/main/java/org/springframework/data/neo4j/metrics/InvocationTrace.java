@@ -0,0 +1,205 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects measurements taken while a repository method executes on the current thread.
+ * <p>
+ * A trace is only active while a repository method is measured; all static methods are cheap no-ops otherwise.
+ * Nested repository invocations get their own trace.
+ * <p>Mainly intended for internal use within the framework.
+ */
+public final class InvocationTrace {
+
+	private static final ThreadLocal<InvocationTrace> CURRENT = new ThreadLocal<>();
+
+	private final InvocationTrace previous;
+
+	private final List<String> statements = new ArrayList<>(2);
+
+	private Map<String, ?> parameters = Collections.emptyMap();
+	private Map<String, Map<String, ?>> cypherStatements;
+	private long projectionNanos;
+	private long ogmNanos;
+	private long queryStartProjectionNanos;
+
+	private InvocationTrace(InvocationTrace previous) {
+		this.previous = previous;
+	}
+
+	/**
+	 * Starts a new trace for the current thread.
+	 *
+	 * @return the started trace, to be {@link #end() ended} by the current thread.
+	 */
+	public static InvocationTrace start() {
+		InvocationTrace trace = new InvocationTrace(CURRENT.get());
+		CURRENT.set(trace);
+		return trace;
+	}
+
+	/**
+	 * @return the active trace of the current thread, or {@literal null}.
+	 */
+	public static InvocationTrace current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * @return the current time if a trace is active, {@literal 0} otherwise; to be passed to
+	 * {@link #projectionFinished(long)}.
+	 */
+	public static long projectionStarted() {
+		return CURRENT.get() != null ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Adds the time elapsed since the given start to the projection time of the active trace, if any: the time spent
+	 * converting results already returned by Neo4j OGM to the declared return type of the method.
+	 *
+	 * @param startNanos the value returned by {@link #projectionStarted()}.
+	 */
+	public static void projectionFinished(long startNanos) {
+		InvocationTrace trace = CURRENT.get();
+		if (trace != null && startNanos != 0L) {
+			trace.projectionNanos += System.nanoTime() - startNanos;
+		}
+	}
+
+	/**
+	 * @return the current time if a trace is active, {@literal 0} otherwise; to be passed to
+	 * {@link #queryFinished(long)}.
+	 */
+	public static long queryStarted() {
+		InvocationTrace trace = CURRENT.get();
+		if (trace == null) {
+			return 0L;
+		}
+		trace.queryStartProjectionNanos = trace.projectionNanos;
+		return System.nanoTime();
+	}
+
+	/**
+	 * Adds the time elapsed since the given start to the OGM time of the active trace, if any. Neo4j OGM executes the
+	 * statement and hydrates the entities of its result in a single call, so this time covers both. Projection time
+	 * measured in between is not counted as OGM time.
+	 *
+	 * @param startNanos the value returned by {@link #queryStarted()}.
+	 */
+	public static void queryFinished(long startNanos) {
+		InvocationTrace trace = CURRENT.get();
+		if (trace != null && startNanos != 0L) {
+			long projected = trace.projectionNanos - trace.queryStartProjectionNanos;
+			trace.ogmNanos += Math.max(0L, System.nanoTime() - startNanos - projected);
+		}
+	}
+
+	/**
+	 * Records a Cypher statement sent to the database with the active trace, if any. Repeated statements are only
+	 * recorded once.
+	 *
+	 * @param statement the final Cypher statement.
+	 * @param parameters the parameters of the statement, only copied if {@link #captureCypher() requested}.
+	 */
+	public static void statement(String statement, Map<String, ?> parameters) {
+		InvocationTrace trace = CURRENT.get();
+		if (trace != null) {
+			trace.record(statement, parameters);
+			if (trace.cypherStatements != null && !trace.cypherStatements.containsKey(statement)) {
+				trace.cypherStatements.put(statement, parameters == null ? Collections.<String, Object>emptyMap()
+						: new HashMap<String, Object>(parameters));
+			}
+		}
+	}
+
+	/**
+	 * Records a query whose Cypher is generated by Neo4j OGM with the active trace, if any.
+	 *
+	 * @param description a description of the query.
+	 * @param parameters the parameters of the query, not copied.
+	 */
+	public static void derivedStatement(String description, Map<String, ?> parameters) {
+		InvocationTrace trace = CURRENT.get();
+		if (trace != null) {
+			trace.record(description, parameters);
+		}
+	}
+
+	private void record(String statement, Map<String, ?> parameters) {
+		if (statements.isEmpty() || !statements.get(statements.size() - 1).equals(statement)) {
+			statements.add(statement);
+		}
+		if (parameters != null) {
+			this.parameters = parameters;
+		}
+	}
+
+	/**
+	 * Requests the Cypher statements recorded from now on to be kept along with a copy of their parameters.
+	 */
+	public void captureCypher() {
+		if (cypherStatements == null) {
+			cypherStatements = new LinkedHashMap<>();
+		}
+	}
+
+	/**
+	 * Ends this trace, reactivating the trace of an enclosing invocation.
+	 */
+	public void end() {
+		if (previous != null) {
+			CURRENT.set(previous);
+		} else {
+			CURRENT.remove();
+		}
+	}
+
+	public long getProjectionNanos() {
+		return projectionNanos;
+	}
+
+	public long getOgmNanos() {
+		return ogmNanos;
+	}
+
+	/**
+	 * @return the statements sent to the database, in order.
+	 */
+	public List<String> getStatements() {
+		return Collections.unmodifiableList(statements);
+	}
+
+	/**
+	 * @return the distinct Cypher statements recorded since {@link #captureCypher()} was called with their parameters,
+	 * in order.
+	 */
+	public Map<String, Map<String, ?>> getCypherStatements() {
+		return cypherStatements == null ? Collections.<String, Map<String, ?>>emptyMap()
+				: Collections.unmodifiableMap(cypherStatements);
+	}
+
+	/**
+	 * @return the parameters of the last recorded statement.
+	 */
+	public Map<String, ?> getParameters() {
+		return parameters;
+	}
+}
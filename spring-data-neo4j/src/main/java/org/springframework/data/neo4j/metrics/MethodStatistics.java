@@ -0,0 +1,101 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+/**
+ * Snapshot of the measurements of a single repository method, as collected by {@link InMemoryMetricsRecorder}.
+ * All durations are in milliseconds.
+ */
+public class MethodStatistics {
+
+	private final String name;
+	private final long calls;
+	private final long errors;
+	private final long timeouts;
+	private final double p50;
+	private final double p95;
+	private final double p99;
+	private final double mean;
+	private final long rows;
+	private final double projectionTime;
+
+	public MethodStatistics(String name, long calls, long errors, long timeouts, double p50, double p95, double p99,
+			double mean, long rows, double projectionTime) {
+		this.name = name;
+		this.calls = calls;
+		this.errors = errors;
+		this.timeouts = timeouts;
+		this.p50 = p50;
+		this.p95 = p95;
+		this.p99 = p99;
+		this.mean = mean;
+		this.rows = rows;
+		this.projectionTime = projectionTime;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCalls() {
+		return calls;
+	}
+
+	/**
+	 * @return the number of calls that threw an exception, including timeouts.
+	 */
+	public long getErrors() {
+		return errors;
+	}
+
+	public long getTimeouts() {
+		return timeouts;
+	}
+
+	public double getP50() {
+		return p50;
+	}
+
+	public double getP95() {
+		return p95;
+	}
+
+	public double getP99() {
+		return p99;
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * @return the total number of results returned.
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return the total time spent projecting results returned by Neo4j OGM to the declared return type.
+	 */
+	public double getProjectionTime() {
+		return projectionTime;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: calls=%d, errors=%d, timeouts=%d, p50=%.3fms, p95=%.3fms, p99=%.3fms, mean=%.3fms, rows=%d, projection=%.3fms",
+				name, calls, errors, timeouts, p50, p95, p99, mean, rows, projectionTime);
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+/**
+ * SPI receiving measurements of repository method invocations.
+ * <p>
+ * Implementations are called on the invoking thread after every repository method has returned and must therefore be
+ * fast and thread-safe. A single bean of this type is picked up by the repository factories; without one, nothing is
+ * measured.
+ *
+ * @see NoOpMetricsRecorder
+ * @see InMemoryMetricsRecorder
+ * @see MicrometerMetricsRecorder
+ */
+public interface MetricsRecorder {
+
+	/**
+	 * @return whether measurements should be taken at all. Returning {@literal false} skips any timing overhead.
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Records a completed repository method invocation.
+	 *
+	 * @param invocation the measurements of the invocation, never {@literal null}.
+	 */
+	void recordRepositoryInvocation(RepositoryInvocation invocation);
+}
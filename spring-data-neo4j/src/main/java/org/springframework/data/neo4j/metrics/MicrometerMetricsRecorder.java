@@ -0,0 +1,232 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.util.Assert;
+
+/**
+ * {@link MetricsRecorder} and {@link TransactionMetricsRecorder} publishing repository and transaction metrics to a
+ * Micrometer {@link MeterRegistry}:
+ * <ul>
+ * <li>{@code neo4j.repository.invocations}: timer of the repository method invocations with client side percentiles,
+ * tagged with {@code repository}, {@code method} and {@code outcome} ({@code SUCCESS}, {@code ERROR} or
+ * {@code TIMEOUT}).</li>
+ * <li>{@code neo4j.repository.projection}: timer of the time spent projecting results to the declared return type
+ * after Neo4j OGM returned them, tagged with {@code repository} and {@code method}.</li>
+ * <li>{@code neo4j.repository.rows}: distribution of the number of results returned, tagged with {@code repository}
+ * and {@code method}.</li>
+ * <li>{@code neo4j.transactions.begin} and {@code neo4j.transactions.commit}: timers of beginning and committing
+ * transactions with client side percentiles, tagged with {@code readOnly} and {@code outcome} ({@code SUCCESS} or
+ * {@code ERROR}).</li>
+ * <li>{@code neo4j.transactions.rollbacks}: counter of the rolled back transactions, tagged with {@code readOnly} and
+ * {@code cause}, see {@link TransactionRollbackCause}.</li>
+ * <li>{@code neo4j.transactions.duration}: timer of the lifetime of transactions from begin to completion, tagged
+ * with {@code readOnly}.</li>
+ * <li>{@code neo4j.transactions.active}: gauge of the currently active transactions, tagged with
+ * {@code readOnly}.</li>
+ * </ul>
+ * Nothing is recorded until the recorder is bound to a registry, either through its constructor or
+ * {@link #bindTo(MeterRegistry)}. Requires {@code io.micrometer:micrometer-core} on the classpath.
+ */
+public class MicrometerMetricsRecorder implements MetricsRecorder, TransactionMetricsRecorder, MeterBinder {
+
+	public static final String INVOCATIONS = "neo4j.repository.invocations";
+	public static final String PROJECTION = "neo4j.repository.projection";
+	public static final String ROWS = "neo4j.repository.rows";
+	public static final String TRANSACTION_BEGIN = "neo4j.transactions.begin";
+	public static final String TRANSACTION_COMMIT = "neo4j.transactions.commit";
+	public static final String TRANSACTION_ROLLBACKS = "neo4j.transactions.rollbacks";
+	public static final String TRANSACTION_DURATION = "neo4j.transactions.duration";
+	public static final String TRANSACTIONS_ACTIVE = "neo4j.transactions.active";
+
+	private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<>();
+	private final AtomicInteger activeReadOnlyTransactions = new AtomicInteger();
+	private final AtomicInteger activeReadWriteTransactions = new AtomicInteger();
+
+	private volatile MeterRegistry registry;
+	private volatile TransactionMeters readOnlyTransactionMeters;
+	private volatile TransactionMeters readWriteTransactionMeters;
+
+	public MicrometerMetricsRecorder() {}
+
+	public MicrometerMetricsRecorder(MeterRegistry registry) {
+		bindTo(registry);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see io.micrometer.core.instrument.binder.MeterBinder#bindTo(io.micrometer.core.instrument.MeterRegistry)
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Assert.notNull(registry, "MeterRegistry must not be null!");
+		this.meters.clear();
+		this.readOnlyTransactionMeters = new TransactionMeters(registry, true, activeReadOnlyTransactions);
+		this.readWriteTransactionMeters = new TransactionMeters(registry, false, activeReadWriteTransactions);
+		this.registry = registry;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return registry != null;
+	}
+
+	@Override
+	public void recordRepositoryInvocation(RepositoryInvocation invocation) {
+		MeterRegistry currentRegistry = registry;
+		if (currentRegistry == null) {
+			return;
+		}
+		Meters methodMeters = getMeters(currentRegistry, invocation);
+		Timer timer = invocation.isSuccessful() ? methodMeters.success
+				: invocation.isTimedOut() ? methodMeters.timeout : methodMeters.error;
+		timer.record(invocation.getDurationNanos(), TimeUnit.NANOSECONDS);
+		if (invocation.isSuccessful()) {
+			methodMeters.projection.record(invocation.getProjectionNanos(), TimeUnit.NANOSECONDS);
+			if (invocation.getRows() != RepositoryInvocation.UNKNOWN_ROWS) {
+				methodMeters.rows.record(invocation.getRows());
+			}
+		}
+	}
+
+	@Override
+	public void recordTransactionBegin(boolean readOnly, long durationNanos, boolean successful) {
+		if (successful) {
+			activeTransactions(readOnly).incrementAndGet();
+		}
+		TransactionMeters transactionMeters = getTransactionMeters(readOnly);
+		if (transactionMeters != null) {
+			(successful ? transactionMeters.beginSuccess : transactionMeters.beginError).record(durationNanos,
+					TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public void recordTransactionCommit(boolean readOnly, long durationNanos, boolean successful) {
+		TransactionMeters transactionMeters = getTransactionMeters(readOnly);
+		if (transactionMeters != null) {
+			(successful ? transactionMeters.commitSuccess : transactionMeters.commitError).record(durationNanos,
+					TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public void recordTransactionRollback(boolean readOnly, TransactionRollbackCause cause) {
+		TransactionMeters transactionMeters = getTransactionMeters(readOnly);
+		if (transactionMeters != null) {
+			transactionMeters.rollbacks.get(cause).increment();
+		}
+	}
+
+	@Override
+	public void recordTransactionCompletion(boolean readOnly, long lifetimeNanos) {
+		activeTransactions(readOnly).decrementAndGet();
+		TransactionMeters transactionMeters = getTransactionMeters(readOnly);
+		if (transactionMeters != null) {
+			transactionMeters.duration.record(lifetimeNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private AtomicInteger activeTransactions(boolean readOnly) {
+		return readOnly ? activeReadOnlyTransactions : activeReadWriteTransactions;
+	}
+
+	private TransactionMeters getTransactionMeters(boolean readOnly) {
+		return readOnly ? readOnlyTransactionMeters : readWriteTransactionMeters;
+	}
+
+	private Meters getMeters(MeterRegistry currentRegistry, RepositoryInvocation invocation) {
+		String name = invocation.getName();
+		Meters methodMeters = meters.get(name);
+		if (methodMeters == null) {
+			methodMeters = new Meters(currentRegistry, invocation.getRepositoryInterface().getSimpleName(),
+					invocation.getMethod().getName());
+			Meters existing = meters.putIfAbsent(name, methodMeters);
+			if (existing != null) {
+				methodMeters = existing;
+			}
+		}
+		return methodMeters;
+	}
+
+	private static class Meters {
+
+		private final Timer success;
+		private final Timer error;
+		private final Timer timeout;
+		private final Timer projection;
+		private final DistributionSummary rows;
+
+		Meters(MeterRegistry registry, String repository, String method) {
+			this.success = invocationTimer(registry, repository, method, "SUCCESS");
+			this.error = invocationTimer(registry, repository, method, "ERROR");
+			this.timeout = invocationTimer(registry, repository, method, "TIMEOUT");
+			this.projection = Timer.builder(PROJECTION).description("Time spent projecting repository method results")
+					.tag("repository", repository).tag("method", method).register(registry);
+			this.rows = DistributionSummary.builder(ROWS).description("Results returned by repository methods")
+					.baseUnit("rows").tag("repository", repository).tag("method", method).register(registry);
+		}
+
+		private static Timer invocationTimer(MeterRegistry registry, String repository, String method, String outcome) {
+			return Timer.builder(INVOCATIONS).description("Repository method invocations").tag("repository", repository)
+					.tag("method", method).tag("outcome", outcome).publishPercentiles(0.5, 0.95, 0.99).register(registry);
+		}
+	}
+
+	private static class TransactionMeters {
+
+		private final Timer beginSuccess;
+		private final Timer beginError;
+		private final Timer commitSuccess;
+		private final Timer commitError;
+		private final Timer duration;
+		private final Map<TransactionRollbackCause, Counter> rollbacks = new EnumMap<>(TransactionRollbackCause.class);
+
+		TransactionMeters(MeterRegistry registry, boolean readOnly, AtomicInteger active) {
+			String type = String.valueOf(readOnly);
+			this.beginSuccess = transactionTimer(registry, TRANSACTION_BEGIN, "Beginning transactions", type, "SUCCESS");
+			this.beginError = transactionTimer(registry, TRANSACTION_BEGIN, "Beginning transactions", type, "ERROR");
+			this.commitSuccess = transactionTimer(registry, TRANSACTION_COMMIT, "Committing transactions", type,
+					"SUCCESS");
+			this.commitError = transactionTimer(registry, TRANSACTION_COMMIT, "Committing transactions", type, "ERROR");
+			this.duration = Timer.builder(TRANSACTION_DURATION).description("Lifetime of transactions")
+					.tag("readOnly", type).publishPercentiles(0.5, 0.95, 0.99).register(registry);
+			for (TransactionRollbackCause cause : TransactionRollbackCause.values()) {
+				rollbacks.put(cause, Counter.builder(TRANSACTION_ROLLBACKS).description("Rolled back transactions")
+						.tag("readOnly", type).tag("cause", cause.name()).register(registry));
+			}
+			registry.gauge(TRANSACTIONS_ACTIVE, Collections.singletonList(Tag.of("readOnly", type)), active);
+		}
+
+		private static Timer transactionTimer(MeterRegistry registry, String name, String description, String readOnly,
+				String outcome) {
+			return Timer.builder(name).description(description).tag("readOnly", readOnly).tag("outcome", outcome)
+					.publishPercentiles(0.5, 0.95, 0.99).register(registry);
+		}
+	}
+}
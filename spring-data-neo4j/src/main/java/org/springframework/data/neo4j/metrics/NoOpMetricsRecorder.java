@@ -0,0 +1,51 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+/**
+ * {@link MetricsRecorder} and {@link TransactionMetricsRecorder} discarding all measurements, used when no other
+ * recorder is configured.
+ */
+public final class NoOpMetricsRecorder implements MetricsRecorder, TransactionMetricsRecorder {
+
+	public static final NoOpMetricsRecorder INSTANCE = new NoOpMetricsRecorder();
+
+	private NoOpMetricsRecorder() {
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return false;
+	}
+
+	@Override
+	public void recordRepositoryInvocation(RepositoryInvocation invocation) {
+	}
+
+	@Override
+	public void recordTransactionBegin(boolean readOnly, long durationNanos, boolean successful) {
+	}
+
+	@Override
+	public void recordTransactionCommit(boolean readOnly, long durationNanos, boolean successful) {
+	}
+
+	@Override
+	public void recordTransactionRollback(boolean readOnly, TransactionRollbackCause cause) {
+	}
+
+	@Override
+	public void recordTransactionCompletion(boolean readOnly, long lifetimeNanos) {
+	}
+}
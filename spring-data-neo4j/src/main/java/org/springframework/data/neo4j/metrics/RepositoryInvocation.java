@@ -0,0 +1,109 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.lang.reflect.Method;
+
+import org.springframework.dao.QueryTimeoutException;
+
+/**
+ * Measurements of a single repository method invocation.
+ */
+public class RepositoryInvocation {
+
+	/**
+	 * Row count of invocations whose number of results is not known, e.g. because they return a lazy result.
+	 */
+	public static final long UNKNOWN_ROWS = -1;
+
+	private final Class<?> repositoryInterface;
+	private final Method method;
+	private final long durationNanos;
+	private final long ogmNanos;
+	private final long projectionNanos;
+	private final long rows;
+	private final Throwable error;
+
+	public RepositoryInvocation(Class<?> repositoryInterface, Method method, long durationNanos, long ogmNanos,
+			long projectionNanos, long rows, Throwable error) {
+		this.repositoryInterface = repositoryInterface;
+		this.method = method;
+		this.durationNanos = durationNanos;
+		this.ogmNanos = ogmNanos;
+		this.projectionNanos = projectionNanos;
+		this.rows = rows;
+		this.error = error;
+	}
+
+	public Class<?> getRepositoryInterface() {
+		return repositoryInterface;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	/**
+	 * @return the name identifying the repository method, e.g. {@code PersonRepository.findByName}.
+	 */
+	public String getName() {
+		return repositoryInterface.getSimpleName() + "." + method.getName();
+	}
+
+	/**
+	 * @return the total time spent in the repository method.
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * @return the time spent in Neo4j OGM executing query methods: the database call together with the hydration of
+	 * the returned entities, which Neo4j OGM does not report separately. Always {@literal 0} for methods not backed by a
+	 * repository query, such as {@code findOne} or {@code save}.
+	 */
+	public long getOgmNanos() {
+		return ogmNanos;
+	}
+
+	/**
+	 * @return the time spent projecting results returned by Neo4j OGM to the declared return type, e.g. to DTOs,
+	 * interface projections or {@code @QueryResult} types.
+	 */
+	public long getProjectionNanos() {
+		return projectionNanos;
+	}
+
+	/**
+	 * @return the number of results returned, or {@link #UNKNOWN_ROWS}.
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return the exception thrown by the method, or {@literal null} if it completed normally.
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	public boolean isSuccessful() {
+		return error == null;
+	}
+
+	public boolean isTimedOut() {
+		return error instanceof QueryTimeoutException;
+	}
+}
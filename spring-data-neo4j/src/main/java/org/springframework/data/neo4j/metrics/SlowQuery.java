@@ -0,0 +1,111 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry of the {@link SlowQueryLog}: a repository query method invocation that exceeded the configured threshold.
+ * All durations are in milliseconds.
+ */
+public class SlowQuery {
+
+	private final long timestamp;
+	private final String name;
+	private final List<String> statements;
+	private final Map<String, String> parameters;
+	private final long rows;
+	private final double duration;
+	private final double ogmTime;
+	private final double projectionTime;
+	private final boolean successful;
+
+	public SlowQuery(long timestamp, String name, List<String> statements, Map<String, String> parameters, long rows,
+			double duration, double ogmTime, double projectionTime, boolean successful) {
+		this.timestamp = timestamp;
+		this.name = name;
+		this.statements = statements;
+		this.parameters = parameters;
+		this.rows = rows;
+		this.duration = duration;
+		this.ogmTime = ogmTime;
+		this.projectionTime = projectionTime;
+		this.successful = successful;
+	}
+
+	/**
+	 * @return the time the invocation completed, in milliseconds since the epoch.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @return the name of the repository method, e.g. {@code PersonRepository.findByName}.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the final Cypher statements sent to the database, after sorting and paging have been applied. Derived
+	 * finders are described by their filters, as their Cypher is generated by Neo4j OGM.
+	 */
+	public List<String> getStatements() {
+		return statements;
+	}
+
+	/**
+	 * @return the parameters of the last statement, redacted unless {@link SlowQueryLog#setLogParameterValues(boolean)}
+	 * is enabled.
+	 */
+	public Map<String, String> getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * @return the number of results returned, or {@link RepositoryInvocation#UNKNOWN_ROWS}.
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	public double getDuration() {
+		return duration;
+	}
+
+	/**
+	 * @return the time spent in Neo4j OGM, including entity hydration.
+	 */
+	public double getOgmTime() {
+		return ogmTime;
+	}
+
+	/**
+	 * @return the time spent projecting results returned by Neo4j OGM to the declared return type.
+	 */
+	public double getProjectionTime() {
+		return projectionTime;
+	}
+
+	public boolean isSuccessful() {
+		return successful;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s took %.3fms (ogm %.3fms, projection %.3fms, rows %d%s): %s %s", name, duration,
+				ogmTime, projectionTime, rows, successful ? "" : ", failed", statements, parameters);
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Logs repository query method invocations exceeding a threshold, with their final Cypher, redacted parameters, row
+ * count, the time spent in Neo4j OGM, covering the database call and entity hydration, and the time spent projecting
+ * results.
+ * <p>
+ * Entries are written to the {@value #LOGGER_NAME} logger at {@code WARN} level and kept in a bounded ring buffer that
+ * can be read at runtime through {@link #getEntries()}. The threshold defaults to one second; a negative threshold
+ * disables the log. One instance is registered per repository configuration.
+ */
+public class SlowQueryLog {
+
+	public static final String LOGGER_NAME = "org.springframework.data.neo4j.SlowQueries";
+
+	private static final Logger logger = LoggerFactory.getLogger(LOGGER_NAME);
+
+	private static final long DEFAULT_THRESHOLD_MILLIS = 1000;
+	private static final int DEFAULT_CAPACITY = 100;
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	private volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_THRESHOLD_MILLIS);
+	private volatile boolean logParameterValues;
+
+	private SlowQuery[] entries = new SlowQuery[DEFAULT_CAPACITY];
+	private int next;
+	private int size;
+
+	/**
+	 * Sets the duration from which repository query method invocations are logged. A negative value disables the log.
+	 */
+	public void setThreshold(long threshold, TimeUnit unit) {
+		this.thresholdNanos = threshold < 0 ? -1 : unit.toNanos(threshold);
+	}
+
+	/**
+	 * Sets the threshold in milliseconds, see {@link #setThreshold(long, TimeUnit)}.
+	 */
+	public void setThresholdMillis(long thresholdMillis) {
+		setThreshold(thresholdMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public long getThresholdMillis() {
+		long threshold = thresholdNanos;
+		return threshold < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(threshold);
+	}
+
+	/**
+	 * Sets the number of entries kept in memory. Defaults to {@literal 100}.
+	 */
+	public synchronized void setCapacity(int capacity) {
+		Assert.isTrue(capacity > 0, "capacity must be greater than 0");
+		List<SlowQuery> retained = getEntries();
+		entries = new SlowQuery[capacity];
+		next = 0;
+		size = 0;
+		for (SlowQuery entry : retained.subList(Math.max(0, retained.size() - capacity), retained.size())) {
+			add(entry);
+		}
+	}
+
+	public synchronized int getCapacity() {
+		return entries.length;
+	}
+
+	/**
+	 * Whether parameter values are logged as is. Disabled by default, in which case only their types and sizes are
+	 * logged.
+	 */
+	public void setLogParameterValues(boolean logParameterValues) {
+		this.logParameterValues = logParameterValues;
+	}
+
+	public boolean isEnabled() {
+		return thresholdNanos >= 0;
+	}
+
+	/**
+	 * Logs the given invocation if it took longer than the threshold.
+	 *
+	 * @param invocation the measurements of the invocation.
+	 * @param trace the trace of the invocation holding the statements sent to the database.
+	 * @return whether the invocation was logged.
+	 */
+	public boolean log(RepositoryInvocation invocation, InvocationTrace trace) {
+		long threshold = thresholdNanos;
+		if (threshold < 0 || invocation.getDurationNanos() < threshold || trace.getStatements().isEmpty()) {
+			return false;
+		}
+		SlowQuery entry = new SlowQuery(System.currentTimeMillis(), invocation.getName(),
+				new ArrayList<>(trace.getStatements()), redact(trace.getParameters()), invocation.getRows(),
+				invocation.getDurationNanos() / NANOS_PER_MILLI, invocation.getOgmNanos() / NANOS_PER_MILLI,
+				invocation.getProjectionNanos() / NANOS_PER_MILLI, invocation.isSuccessful());
+		synchronized (this) {
+			add(entry);
+		}
+		logger.warn("Slow query: {}", entry);
+		return true;
+	}
+
+	/**
+	 * @return the logged entries still held in memory, oldest first.
+	 */
+	public synchronized List<SlowQuery> getEntries() {
+		List<SlowQuery> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(entries[(next - size + i + entries.length) % entries.length]);
+		}
+		return result;
+	}
+
+	public synchronized void clear() {
+		Arrays.fill(entries, null);
+		next = 0;
+		size = 0;
+	}
+
+	private void add(SlowQuery entry) {
+		entries[next] = entry;
+		next = (next + 1) % entries.length;
+		size = Math.min(size + 1, entries.length);
+	}
+
+	private Map<String, String> redact(Map<String, ?> parameters) {
+		if (parameters.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, String> redacted = new LinkedHashMap<>();
+		for (Map.Entry<String, ?> parameter : parameters.entrySet()) {
+			redacted.put(parameter.getKey(), logParameterValues ? String.valueOf(parameter.getValue())
+					: describe(parameter.getValue()));
+		}
+		return redacted;
+	}
+
+	private static String describe(Object value) {
+		if (value == null) {
+			return "null";
+		}
+		if (value instanceof Collection) {
+			return "<" + value.getClass().getSimpleName() + "[" + ((Collection<?>) value).size() + "]>";
+		}
+		if (value instanceof Map) {
+			return "<" + value.getClass().getSimpleName() + "[" + ((Map<?, ?>) value).size() + "]>";
+		}
+		if (value.getClass().isArray()) {
+			return "<" + value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]>";
+		}
+		return "<" + value.getClass().getSimpleName() + ">";
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics;
+
+/**
+ * SPI receiving measurements of the transactions managed by a
+ * {@link org.springframework.data.neo4j.transaction.Neo4jTransactionManager}.
+ * <p>
+ * Only transactions begun by the transaction manager are reported, not the ones merely participating in an existing
+ * transaction. Implementations are called on the thread running the transaction and must therefore be fast and
+ * thread-safe. A single bean of this type is picked up by the transaction manager; without one, the transactions are
+ * only measured by the statistics the transaction manager exposes itself.
+ *
+ * @see NoOpMetricsRecorder
+ * @see MicrometerMetricsRecorder
+ */
+public interface TransactionMetricsRecorder {
+
+	/**
+	 * Records the begin of a transaction. A successfully begun transaction is active until
+	 * {@link #recordTransactionCompletion(boolean, long) completed}.
+	 *
+	 * @param readOnly whether the transaction is read-only.
+	 * @param durationNanos the time spent opening the session and beginning the transaction.
+	 * @param successful whether the transaction could be begun.
+	 */
+	void recordTransactionBegin(boolean readOnly, long durationNanos, boolean successful);
+
+	/**
+	 * Records the commit of a transaction.
+	 *
+	 * @param readOnly whether the transaction is read-only.
+	 * @param durationNanos the time spent committing.
+	 * @param successful whether the commit succeeded. A failed commit is followed by a rollback.
+	 */
+	void recordTransactionCommit(boolean readOnly, long durationNanos, boolean successful);
+
+	/**
+	 * Records the rollback of a transaction.
+	 *
+	 * @param readOnly whether the transaction is read-only.
+	 * @param cause why the transaction was rolled back, never {@literal null}.
+	 */
+	void recordTransactionRollback(boolean readOnly, TransactionRollbackCause cause);
+
+	/**
+	 * Records the completion of a successfully begun transaction, after it was either committed or rolled back.
+	 *
+	 * @param readOnly whether the transaction is read-only.
+	 * @param lifetimeNanos the time from the begin of the transaction to its completion.
+	 */
+	void recordTransactionCompletion(boolean readOnly, long lifetimeNanos);
+}
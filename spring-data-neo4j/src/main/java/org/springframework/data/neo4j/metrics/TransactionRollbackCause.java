@@ -0,0 +1,39 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics;
+
+/**
+ * Why a transaction was rolled back, as reported to a {@link TransactionMetricsRecorder}.
+ */
+public enum TransactionRollbackCause {
+
+	/**
+	 * Rolled back by the application, usually because the transactional code threw an exception.
+	 */
+	APPLICATION,
+
+	/**
+	 * Marked rollback-only, either by the application or by a participating transaction that failed.
+	 */
+	ROLLBACK_ONLY,
+
+	/**
+	 * The transaction timeout elapsed.
+	 */
+	TIMEOUT,
+
+	/**
+	 * Committing the transaction failed.
+	 */
+	COMMIT_FAILURE
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics.plan;
+
+/**
+ * Execution plan captured for a statement of a repository method, along with the result of the comparison with the
+ * plan previously captured for the same statement.
+ */
+public class CapturedPlan {
+
+	private final String name;
+	private final String statement;
+	private final PlanMode mode;
+	private final long timestamp;
+	private final QueryPlan plan;
+	private final QueryPlan previousPlan;
+	private final String regression;
+
+	public CapturedPlan(String name, String statement, PlanMode mode, long timestamp, QueryPlan plan,
+			QueryPlan previousPlan, String regression) {
+		this.name = name;
+		this.statement = statement;
+		this.mode = mode;
+		this.timestamp = timestamp;
+		this.plan = plan;
+		this.previousPlan = previousPlan;
+		this.regression = regression;
+	}
+
+	/**
+	 * @return the name of the repository method, e.g. {@code PersonRepository.findByName}.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	public String getStatement() {
+		return statement;
+	}
+
+	public PlanMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * @return the time the plan was captured, in milliseconds since the epoch.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public QueryPlan getPlan() {
+		return plan;
+	}
+
+	/**
+	 * @return the plan captured before for the same statement, or {@literal null}.
+	 */
+	public QueryPlan getPreviousPlan() {
+		return previousPlan;
+	}
+
+	/**
+	 * @return whether the plan is worse than the previous one: its operators changed, or it needed significantly more
+	 * database hits.
+	 */
+	public boolean isRegression() {
+		return regression != null;
+	}
+
+	/**
+	 * @return a description of the regression, or {@literal null}.
+	 */
+	public String getRegression() {
+		return regression;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + mode + (regression != null ? ", regression: " + regression : "") + "): " + statement
+				+ "\n" + plan;
+	}
+}
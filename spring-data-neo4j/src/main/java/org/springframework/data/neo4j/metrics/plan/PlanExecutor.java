@@ -0,0 +1,34 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics.plan;
+
+import java.util.Map;
+
+/**
+ * SPI executing a statement prefixed with {@code EXPLAIN} or {@code PROFILE} and returning its execution plan.
+ * <p>
+ * Implementations must not make the effects of profiled statements visible, e.g. by running them in a transaction
+ * that is rolled back.
+ *
+ * @see HttpPlanExecutor
+ */
+public interface PlanExecutor {
+
+	/**
+	 * @param mode how to capture the plan.
+	 * @param statement the Cypher statement, without prefix.
+	 * @param parameters the parameters of the statement.
+	 * @return the plan of the statement.
+	 */
+	QueryPlan execute(PlanMode mode, String statement, Map<String, ?> parameters);
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics.plan;
+
+/**
+ * How the execution plan of a statement is captured.
+ */
+public enum PlanMode {
+
+	/**
+	 * Captures the plan chosen by the planner with estimated row counts, without executing the statement.
+	 */
+	EXPLAIN,
+
+	/**
+	 * Executes the statement and captures the plan with the actual rows and database hits of every operator.
+	 */
+	PROFILE
+}
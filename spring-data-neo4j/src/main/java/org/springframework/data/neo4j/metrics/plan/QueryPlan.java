@@ -0,0 +1,144 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operator of an execution plan, with its children. The root operator represents the whole plan.
+ */
+public class QueryPlan {
+
+	/**
+	 * Value of {@link #getRows()} and {@link #getDbHits()} for plans captured with {@link PlanMode#EXPLAIN}.
+	 */
+	public static final long NOT_PROFILED = -1;
+
+	private final String operatorType;
+	private final List<String> identifiers;
+	private final long rows;
+	private final long dbHits;
+	private final double estimatedRows;
+	private final Map<String, Object> arguments;
+	private final List<QueryPlan> children;
+
+	public QueryPlan(String operatorType, List<String> identifiers, long rows, long dbHits, double estimatedRows,
+			Map<String, Object> arguments, List<QueryPlan> children) {
+		this.operatorType = operatorType;
+		this.identifiers = identifiers == null ? Collections.<String>emptyList() : identifiers;
+		this.rows = rows;
+		this.dbHits = dbHits;
+		this.estimatedRows = estimatedRows;
+		this.arguments = arguments == null ? Collections.<String, Object>emptyMap() : arguments;
+		this.children = children == null ? Collections.<QueryPlan>emptyList() : children;
+	}
+
+	public String getOperatorType() {
+		return operatorType;
+	}
+
+	public List<String> getIdentifiers() {
+		return identifiers;
+	}
+
+	/**
+	 * @return the rows produced by this operator, or {@link #NOT_PROFILED}.
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return the database hits of this operator, or {@link #NOT_PROFILED}.
+	 */
+	public long getDbHits() {
+		return dbHits;
+	}
+
+	public double getEstimatedRows() {
+		return estimatedRows;
+	}
+
+	/**
+	 * @return the remaining operator arguments reported by the database, such as the expressions evaluated.
+	 */
+	public Map<String, Object> getArguments() {
+		return arguments;
+	}
+
+	public List<QueryPlan> getChildren() {
+		return children;
+	}
+
+	public boolean isProfiled() {
+		return dbHits != NOT_PROFILED;
+	}
+
+	/**
+	 * @return the database hits of this operator and all its descendants, or {@link #NOT_PROFILED}.
+	 */
+	public long getTotalDbHits() {
+		if (!isProfiled()) {
+			return NOT_PROFILED;
+		}
+		long total = dbHits;
+		for (QueryPlan child : children) {
+			total += Math.max(0, child.getTotalDbHits());
+		}
+		return total;
+	}
+
+	/**
+	 * @return the operator types of this plan in depth-first order, identifying the shape of the plan.
+	 */
+	public List<String> getOperatorTypes() {
+		List<String> operatorTypes = new ArrayList<>();
+		collectOperatorTypes(operatorTypes);
+		return operatorTypes;
+	}
+
+	private void collectOperatorTypes(List<String> operatorTypes) {
+		operatorTypes.add(operatorType);
+		for (QueryPlan child : children) {
+			child.collectOperatorTypes(operatorTypes);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		render(builder, 0);
+		return builder.toString();
+	}
+
+	private void render(StringBuilder builder, int depth) {
+		for (int i = 0; i < depth; i++) {
+			builder.append("  ");
+		}
+		builder.append(operatorType);
+		if (!identifiers.isEmpty()) {
+			builder.append(' ').append(identifiers);
+		}
+		builder.append(" estimatedRows=").append(estimatedRows);
+		if (isProfiled()) {
+			builder.append(" rows=").append(rows).append(" dbHits=").append(dbHits);
+		}
+		builder.append('\n');
+		for (QueryPlan child : children) {
+			child.render(builder, depth + 1);
+		}
+	}
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics.plan;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.neo4j.annotation.CapturePlan;
+import org.springframework.data.neo4j.repository.cache.EntityLabels;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.PatternMatchUtils;
+
+/**
+ * Diagnostic mode capturing the execution plans of the Cypher statements of selected repository methods.
+ * <p>
+ * Methods are selected by annotating them, or their repository interface, with {@link CapturePlan}, or by
+ * {@link #setMethodPatterns(String...) name patterns} such as {@code PersonRepository.find*}. While the capture is
+ * {@link #setEnabled(boolean) enabled}, the statements of a selected method are run again prefixed with
+ * {@code EXPLAIN} or {@code PROFILE} by a {@link PlanExecutor} after the method has returned, at most once per
+ * {@link #setCaptureInterval(long, TimeUnit) capture interval}. Plans are captured on a background thread so that the
+ * caller does not wait for them. Statements containing write clauses, and statements of methods called within a
+ * transaction, are only explained, as profiling executes them again and takes locks. Every plan is compared with the one captured before
+ * for the same statement and flagged as a regression if its operators changed or it needed significantly more database
+ * hits. Regressions are logged at {@code WARN} level.
+ * <p>
+ * The capture is disabled by default and can be controlled through JMX once exported, e.g. with
+ * {@code @EnableMBeanExport}. Statements of derived finders are generated by Neo4j OGM and cannot be captured.
+ */
+@ManagedResource(objectName = "org.springframework.data.neo4j:type=QueryPlanCapture",
+		description = "Execution plans of repository methods")
+public class QueryPlanCapture implements DisposableBean {
+
+	private static final int MAX_PENDING_CAPTURES = 100;
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryPlanCapture.class);
+
+	private final ConcurrentMap<String, Object> annotatedModes = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Long> lastCaptures = new ConcurrentHashMap<>();
+	private final Map<String, Map<String, CapturedPlan>> plans = new TreeMap<>();
+
+	private volatile boolean enabled;
+	private volatile String[] methodPatterns = new String[0];
+	private volatile PlanMode defaultMode = PlanMode.EXPLAIN;
+	private volatile long captureIntervalMillis = TimeUnit.MINUTES.toMillis(1);
+	private volatile double dbHitsRegressionFactor = 2.0;
+
+	private PlanExecutor planExecutor;
+	private boolean planExecutorResolved;
+
+	private Executor executor;
+	private ThreadPoolExecutor threadPoolExecutor;
+
+	/**
+	 * Sets the {@link PlanExecutor} running the prefixed statements. Defaults to an {@link HttpPlanExecutor} for the
+	 * server Neo4j OGM is configured for.
+	 */
+	public synchronized void setPlanExecutor(PlanExecutor planExecutor) {
+		this.planExecutor = planExecutor;
+		this.planExecutorResolved = true;
+	}
+
+	/**
+	 * Sets the {@link Executor} capturing plans. Defaults to a single daemon thread discarding captures while
+	 * {@value #MAX_PENDING_CAPTURES} are pending.
+	 */
+	public synchronized void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	@ManagedAttribute(description = "Whether plans of selected repository methods are captured")
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@ManagedAttribute
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@ManagedAttribute(description = "Patterns selecting repository methods by name, e.g. PersonRepository.find*")
+	public String[] getMethodPatterns() {
+		return methodPatterns.clone();
+	}
+
+	/**
+	 * Selects repository methods by name, in addition to those annotated with {@link CapturePlan}. Patterns are matched
+	 * against names such as {@code PersonRepository.findByName} and may contain {@code *} wildcards.
+	 */
+	@ManagedAttribute
+	public void setMethodPatterns(String... methodPatterns) {
+		this.methodPatterns = methodPatterns == null ? new String[0] : methodPatterns.clone();
+	}
+
+	/**
+	 * Sets the mode used for methods selected by {@link #setMethodPatterns(String...) name patterns}. Defaults to
+	 * {@link PlanMode#EXPLAIN}.
+	 */
+	public void setDefaultMode(PlanMode defaultMode) {
+		Assert.notNull(defaultMode, "PlanMode must not be null!");
+		this.defaultMode = defaultMode;
+	}
+
+	public PlanMode getDefaultMode() {
+		return defaultMode;
+	}
+
+	/**
+	 * Sets the minimum time between two captures of the same repository method. Defaults to one minute.
+	 */
+	public void setCaptureInterval(long interval, TimeUnit unit) {
+		this.captureIntervalMillis = unit.toMillis(interval);
+	}
+
+	@ManagedAttribute(description = "Minimum time between two captures of the same repository method")
+	public long getCaptureIntervalMillis() {
+		return captureIntervalMillis;
+	}
+
+	@ManagedAttribute
+	public void setCaptureIntervalMillis(long captureIntervalMillis) {
+		this.captureIntervalMillis = captureIntervalMillis;
+	}
+
+	/**
+	 * Sets the factor by which the database hits of a profiled statement must grow to be flagged as a regression.
+	 * Defaults to {@literal 2}.
+	 */
+	@ManagedAttribute
+	public void setDbHitsRegressionFactor(double dbHitsRegressionFactor) {
+		Assert.isTrue(dbHitsRegressionFactor >= 1, "dbHitsRegressionFactor must be at least 1");
+		this.dbHitsRegressionFactor = dbHitsRegressionFactor;
+	}
+
+	@ManagedAttribute(description = "Growth of database hits flagged as a regression")
+	public double getDbHitsRegressionFactor() {
+		return dbHitsRegressionFactor;
+	}
+
+	/**
+	 * @param repositoryInterface the repository interface.
+	 * @param method the invoked repository method.
+	 * @param name the name of the method, e.g. {@code PersonRepository.findByName}.
+	 * @return the mode to capture the plans of the given method with now, or {@literal null} if they should not be
+	 * captured.
+	 */
+	public PlanMode getModeIfDue(Class<?> repositoryInterface, Method method, String name) {
+		if (!enabled) {
+			return null;
+		}
+		PlanMode mode = getAnnotatedMode(repositoryInterface, method, name);
+		if (mode == null && PatternMatchUtils.simpleMatch(methodPatterns, name)) {
+			mode = defaultMode;
+		}
+		if (mode == null) {
+			return null;
+		}
+		Long lastCapture = lastCaptures.get(name);
+		return lastCapture == null || System.currentTimeMillis() - lastCapture >= captureIntervalMillis ? mode : null;
+	}
+
+	/**
+	 * Captures the plans of the given statements in the background, comparing them with the plans captured before.
+	 * {@link PlanMode#PROFILE} is downgraded to {@link PlanMode#EXPLAIN} for statements containing write clauses and
+	 * while a transaction is active on the calling thread. Failures are logged and never propagated.
+	 *
+	 * @param name the name of the repository method.
+	 * @param mode how to capture the plans.
+	 * @param statements the Cypher statements of the method with their parameters.
+	 */
+	public void capture(final String name, PlanMode mode, Map<String, Map<String, ?>> statements) {
+		if (statements.isEmpty()) {
+			return;
+		}
+		lastCaptures.put(name, System.currentTimeMillis());
+		final PlanExecutor planExecutor = getPlanExecutor();
+		if (planExecutor == null) {
+			return;
+		}
+		final boolean transactionActive = TransactionSynchronizationManager.isActualTransactionActive();
+		final Map<String, PlanMode> modes = new LinkedHashMap<>();
+		for (String statement : statements.keySet()) {
+			modes.put(statement, mode == PlanMode.PROFILE && (transactionActive || EntityLabels.isWriteQuery(statement))
+					? PlanMode.EXPLAIN : mode);
+		}
+		final Map<String, Map<String, ?>> parameters = new LinkedHashMap<>(statements);
+		getExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				for (Map.Entry<String, PlanMode> statement : modes.entrySet()) {
+					capture(planExecutor, name, statement.getKey(), statement.getValue(),
+							parameters.get(statement.getKey()));
+				}
+			}
+		});
+	}
+
+	private void capture(PlanExecutor planExecutor, String name, String statement, PlanMode mode,
+			Map<String, ?> parameters) {
+		QueryPlan plan;
+		try {
+			plan = planExecutor.execute(mode, statement, parameters);
+		} catch (RuntimeException e) {
+			logger.warn("Could not capture the plan of {}: {}", name, e.getMessage());
+			return;
+		}
+		CapturedPlan captured = record(name, statement, mode, plan);
+		if (captured.isRegression()) {
+			logger.warn("Plan regression in {}: {}\n{}", name, captured.getRegression(), captured);
+		}
+	}
+
+	/**
+	 * @return the plans captured last, by repository method name and statement.
+	 */
+	public synchronized Map<String, List<CapturedPlan>> getCapturedPlans() {
+		Map<String, List<CapturedPlan>> capturedPlans = new LinkedHashMap<>();
+		for (Map.Entry<String, Map<String, CapturedPlan>> entry : plans.entrySet()) {
+			capturedPlans.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+		}
+		return capturedPlans;
+	}
+
+	/**
+	 * @param name the name of a repository method, e.g. {@code PersonRepository.findByName}.
+	 * @return the plans captured last for the statements of the given method.
+	 */
+	public synchronized List<CapturedPlan> getCapturedPlans(String name) {
+		Map<String, CapturedPlan> methodPlans = plans.get(name);
+		return methodPlans == null ? Collections.<CapturedPlan>emptyList() : new ArrayList<>(methodPlans.values());
+	}
+
+	/**
+	 * @return the captured plans flagged as regressions.
+	 */
+	public synchronized List<CapturedPlan> getRegressions() {
+		List<CapturedPlan> regressions = new ArrayList<>();
+		for (Map<String, CapturedPlan> methodPlans : plans.values()) {
+			for (CapturedPlan plan : methodPlans.values()) {
+				if (plan.isRegression()) {
+					regressions.add(plan);
+				}
+			}
+		}
+		return regressions;
+	}
+
+	@ManagedAttribute(description = "Repository methods with captured plans")
+	public synchronized String[] getCapturedMethods() {
+		return plans.keySet().toArray(new String[plans.size()]);
+	}
+
+	@ManagedAttribute(description = "Repository methods whose latest plan is a regression")
+	public String[] getRegressionDescriptions() {
+		List<String> descriptions = new ArrayList<>();
+		for (CapturedPlan plan : getRegressions()) {
+			descriptions.add(plan.getName() + ": " + plan.getRegression());
+		}
+		return descriptions.toArray(new String[descriptions.size()]);
+	}
+
+	@ManagedOperation(description = "Renders the plans captured last for a repository method, e.g. PersonRepository.findByName")
+	public String describePlans(String name) {
+		StringBuilder description = new StringBuilder();
+		for (CapturedPlan plan : getCapturedPlans(name)) {
+			description.append(plan).append('\n');
+		}
+		return description.toString();
+	}
+
+	@ManagedOperation(description = "Discards all captured plans")
+	public synchronized void clear() {
+		plans.clear();
+		lastCaptures.clear();
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (threadPoolExecutor != null) {
+			threadPoolExecutor.shutdown();
+		}
+	}
+
+	private synchronized CapturedPlan record(String name, String statement, PlanMode mode, QueryPlan plan) {
+		Map<String, CapturedPlan> methodPlans = plans.get(name);
+		if (methodPlans == null) {
+			methodPlans = new LinkedHashMap<>();
+			plans.put(name, methodPlans);
+		}
+		CapturedPlan previous = methodPlans.get(statement);
+		QueryPlan previousPlan = previous != null ? previous.getPlan() : null;
+		CapturedPlan captured = new CapturedPlan(name, statement, mode, System.currentTimeMillis(), plan, previousPlan,
+				previousPlan != null ? compare(previousPlan, plan) : null);
+		methodPlans.put(statement, captured);
+		return captured;
+	}
+
+	/**
+	 * @return a description of the regression from the previous to the current plan, or {@literal null}.
+	 */
+	String compare(QueryPlan previous, QueryPlan current) {
+		boolean shapeChanged = !previous.getOperatorTypes().equals(current.getOperatorTypes());
+		if (previous.isProfiled() && current.isProfiled()) {
+			long previousDbHits = previous.getTotalDbHits();
+			long currentDbHits = current.getTotalDbHits();
+			if (currentDbHits > Math.max(1, previousDbHits) * dbHitsRegressionFactor) {
+				return "db hits grew from " + previousDbHits + " to " + currentDbHits
+						+ (shapeChanged ? ", operators changed from " + previous.getOperatorTypes() + " to "
+								+ current.getOperatorTypes() : "");
+			}
+			if (!shapeChanged || currentDbHits <= previousDbHits) {
+				return null;
+			}
+		}
+		return shapeChanged
+				? "operators changed from " + previous.getOperatorTypes() + " to " + current.getOperatorTypes() : null;
+	}
+
+	private PlanMode getAnnotatedMode(Class<?> repositoryInterface, Method method, String name) {
+		Object mode = annotatedModes.get(name);
+		if (mode == null) {
+			CapturePlan annotation = AnnotationUtils.findAnnotation(method, CapturePlan.class);
+			if (annotation == null) {
+				annotation = AnnotationUtils.findAnnotation(repositoryInterface, CapturePlan.class);
+			}
+			mode = annotation != null ? annotation.value() : Boolean.FALSE;
+			annotatedModes.put(name, mode);
+		}
+		return mode instanceof PlanMode ? (PlanMode) mode : null;
+	}
+
+	private synchronized PlanExecutor getPlanExecutor() {
+		if (!planExecutorResolved) {
+			planExecutorResolved = true;
+			try {
+				planExecutor = HttpPlanExecutor.fromOgmConfiguration();
+			} catch (RuntimeException e) {
+				logger.warn("Could not determine the Neo4j server to capture plans from: {}", e.getMessage());
+			}
+			if (planExecutor == null) {
+				logger.warn("Query plans are only captured with the Neo4j OGM HTTP driver unless a PlanExecutor is configured");
+			}
+		}
+		return planExecutor;
+	}
+
+	private synchronized Executor getExecutor() {
+		if (executor == null) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("neo4j-plan-capture-");
+			threadFactory.setDaemon(true);
+			threadPoolExecutor = new ThreadPoolExecutor(1, 1, 10L, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<Runnable>(MAX_PENDING_CAPTURES), threadFactory,
+					new ThreadPoolExecutor.DiscardPolicy());
+			threadPoolExecutor.allowCoreThreadTimeOut(true);
+			executor = threadPoolExecutor;
+		}
+		return executor;
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.reactive;
+
+import java.util.List;
+
+/**
+ * Callback used by a {@link ChunkedPublisher} to pull the next chunk of mapped results from the database.
+ * <p>
+ * Implementations are invoked on a thread of the {@link ReactiveQueryExecutor} and may block.
+ *
+ * @param <T> the type of the mapped results
+ */
+public interface ChunkSource<T> {
+
+	/**
+	 * Fetches a single chunk of results.
+	 *
+	 * @param chunkNumber the zero based number of the chunk to fetch
+	 * @param chunkSize the maximum number of results to fetch
+	 * @return the mapped results, never {@literal null}. Returning fewer than {@code chunkSize} results signals that
+	 * there are no more chunks.
+	 */
+	List<T> fetch(int chunkNumber, int chunkSize);
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.reactive;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.neo4j.transaction.SessionFactoryUtils;
+import org.springframework.util.Assert;
+
+/**
+ * Cold {@link Publisher} that pulls results from a {@link ChunkSource} on demand.
+ * <p>
+ * A chunk is only fetched once the subscriber has signalled demand via {@link Subscription#request(long)} and all
+ * results of the previous chunk have been emitted, so the number of rows held in memory never exceeds a single
+ * chunk per subscription. Every subscriber gets its own subscription and triggers its own queries. All fetching
+ * and emission happens on the given {@link Executor}, signals to a subscriber are never issued concurrently.
+ *
+ * @param <T> the type of the emitted results
+ */
+public class ChunkedPublisher<T> implements Publisher<T> {
+
+	private final ChunkSource<T> source;
+	private final int chunkSize;
+	private final Executor executor;
+
+	/**
+	 * Creates a new {@link ChunkedPublisher}.
+	 *
+	 * @param source the source to pull chunks from, must not be {@literal null}.
+	 * @param chunkSize the number of results to fetch per chunk, must be greater than 0.
+	 * @param executor the executor to fetch and emit on, must not be {@literal null}.
+	 */
+	public ChunkedPublisher(ChunkSource<T> source, int chunkSize, Executor executor) {
+		Assert.notNull(source, "ChunkSource must not be null!");
+		Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0!");
+		Assert.notNull(executor, "Executor must not be null!");
+		this.source = source;
+		this.chunkSize = chunkSize;
+		this.executor = executor;
+	}
+
+	/**
+	 * Creates a {@link Publisher} that computes all of its results with a single call once demand is signalled.
+	 *
+	 * @param callable the call producing the results, may return {@literal null} for no results.
+	 * @param executor the executor to run the call on.
+	 * @return a new publisher.
+	 */
+	public static <T> ChunkedPublisher<T> deferred(final Callable<? extends Iterable<? extends T>> callable, Executor executor) {
+		return new ChunkedPublisher<>(new ChunkSource<T>() {
+			@Override
+			public List<T> fetch(int chunkNumber, int chunkSize) {
+				Iterable<? extends T> results;
+				try {
+					results = callable.call();
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new IllegalStateException(e.getMessage(), e);
+				}
+				if (results == null) {
+					return Collections.emptyList();
+				}
+				List<T> list = new ArrayList<>();
+				for (T result : results) {
+					list.add(result);
+				}
+				return list;
+			}
+		}, Integer.MAX_VALUE, executor);
+	}
+
+	/**
+	 * Creates a {@link Publisher} that emits at most the single value produced by the given call.
+	 *
+	 * @param callable the call producing the value, may return {@literal null} for no value.
+	 * @param executor the executor to run the call on.
+	 * @return a new publisher.
+	 */
+	public static <T> ChunkedPublisher<T> single(final Callable<? extends T> callable, Executor executor) {
+		return deferred(new Callable<Iterable<T>>() {
+			@Override
+			public Iterable<T> call() throws Exception {
+				T value = callable.call();
+				return value == null ? Collections.<T>emptyList() : Collections.singletonList(value);
+			}
+		}, executor);
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("Subscriber must not be null");
+		}
+		ChunkSubscription subscription = new ChunkSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+	}
+
+	private class ChunkSubscription implements Subscription, Runnable {
+
+		private final Subscriber<? super T> subscriber;
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+		private final Deque<T> buffer = new ArrayDeque<>();
+
+		private volatile boolean cancelled;
+		private volatile Throwable invalidRequest;
+
+		private int nextChunk;
+		private boolean exhausted;
+		private boolean done;
+
+		ChunkSubscription(Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				invalidRequest = new IllegalArgumentException(
+						"Rule 3.9: non-positive subscription request " + n + " is not allowed");
+			} else {
+				long current;
+				long next;
+				do {
+					current = requested.get();
+					next = current + n;
+					if (next < 0) {
+						next = Long.MAX_VALUE;
+					}
+				} while (!requested.compareAndSet(current, next));
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (wip.getAndIncrement() == 0) {
+				try {
+					executor.execute(this);
+				} catch (RuntimeException e) {
+					cancelled = true;
+					if (!done) {
+						done = true;
+						subscriber.onError(e);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				drain();
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void drain() {
+			while (!done) {
+				if (cancelled) {
+					done = true;
+					buffer.clear();
+					return;
+				}
+				if (invalidRequest != null) {
+					fail(invalidRequest);
+					return;
+				}
+				if (buffer.isEmpty()) {
+					if (exhausted) {
+						done = true;
+						subscriber.onComplete();
+						return;
+					}
+					if (requested.get() == 0) {
+						return;
+					}
+					try {
+						List<T> chunk = source.fetch(nextChunk++, chunkSize);
+						buffer.addAll(chunk);
+						exhausted = chunk.size() < chunkSize;
+					} catch (RuntimeException e) {
+						DataAccessException dae = SessionFactoryUtils.convertOgmAccessException(e);
+						fail(dae != null ? dae : e);
+						return;
+					}
+					continue;
+				}
+				if (requested.get() == 0) {
+					return;
+				}
+				T next = buffer.poll();
+				if (requested.get() != Long.MAX_VALUE) {
+					requested.decrementAndGet();
+				}
+				subscriber.onNext(next);
+			}
+		}
+
+		private void fail(Throwable e) {
+			done = true;
+			cancelled = true;
+			buffer.clear();
+			subscriber.onError(e);
+		}
+	}
+}
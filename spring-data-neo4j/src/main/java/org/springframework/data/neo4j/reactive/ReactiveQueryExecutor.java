@@ -0,0 +1,122 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.reactive;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Bounded {@link Executor} on which reactive repositories run their blocking Neo4j OGM calls.
+ * <p>
+ * The number of worker threads caps the number of queries in flight against the underlying
+ * {@link org.neo4j.ogm.session.SessionFactory}. Work that cannot be started straight away waits in a bounded queue;
+ * once the queue is full further work is rejected, which the {@link ChunkedPublisher} reports to its subscriber as an
+ * error. One instance is registered per repository configuration, so all reactive repositories sharing a
+ * {@link org.neo4j.ogm.session.SessionFactory} share the same bound. Threads are only created on first use.
+ */
+public class ReactiveQueryExecutor implements Executor, DisposableBean {
+
+	private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+	private static final int DEFAULT_CHUNK_SIZE = 100;
+
+	private int maxInFlightQueries = Runtime.getRuntime().availableProcessors() * 2;
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	private volatile ThreadPoolExecutor threadPoolExecutor;
+
+	/**
+	 * Sets the maximum number of queries executed concurrently. Defaults to twice the number of available processors.
+	 */
+	public void setMaxInFlightQueries(int maxInFlightQueries) {
+		Assert.isTrue(maxInFlightQueries > 0, "maxInFlightQueries must be greater than 0");
+		this.maxInFlightQueries = maxInFlightQueries;
+	}
+
+	public int getMaxInFlightQueries() {
+		return maxInFlightQueries;
+	}
+
+	/**
+	 * Sets the number of pending executions accepted before work is rejected. Defaults to {@literal 1000}.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity >= 0, "queueCapacity must not be negative");
+		this.queueCapacity = queueCapacity;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Sets the number of results fetched from the database per round trip when a subscriber signals demand.
+	 * Defaults to {@literal 100}.
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "chunkSize must be greater than 0");
+		this.chunkSize = chunkSize;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @return the number of queries currently executing.
+	 */
+	public int getActiveCount() {
+		ThreadPoolExecutor executor = this.threadPoolExecutor;
+		return executor == null ? 0 : executor.getActiveCount();
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		getThreadPoolExecutor().execute(command);
+	}
+
+	@Override
+	public void destroy() {
+		ThreadPoolExecutor executor = this.threadPoolExecutor;
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	private ThreadPoolExecutor getThreadPoolExecutor() {
+		ThreadPoolExecutor executor = this.threadPoolExecutor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = this.threadPoolExecutor;
+				if (executor == null) {
+					CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("neo4j-reactive-");
+					threadFactory.setDaemon(true);
+					executor = new ThreadPoolExecutor(maxInFlightQueries, maxInFlightQueries, 60L, TimeUnit.SECONDS,
+							queueCapacity > 0 ? new LinkedBlockingQueue<Runnable>(queueCapacity) : new SynchronousQueue<Runnable>(),
+							threadFactory);
+					executor.allowCoreThreadTimeOut(true);
+					this.threadPoolExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+}
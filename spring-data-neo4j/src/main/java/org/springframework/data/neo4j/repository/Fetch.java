@@ -0,0 +1,79 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.data.neo4j.annotation.FetchPlan;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The relationship paths to load along with the entities returned by {@link Neo4jRepository#findOne(java.io.Serializable, Fetch)}
+ * and the {@code findAll} variants taking a {@link Fetch}. The programmatic counterpart of {@link FetchPlan}.
+ */
+public final class Fetch {
+
+	private final Set<String> paths;
+
+	private Fetch(Set<String> paths) {
+		this.paths = Collections.unmodifiableSet(paths);
+	}
+
+	/**
+	 * Creates a fetch plan loading the given relationship paths.
+	 *
+	 * @param paths dot-separated chains of relationship fields, starting at the domain type, e.g. {@code orders.items}.
+	 * @return the fetch plan
+	 */
+	public static Fetch paths(String... paths) {
+		Assert.notNull(paths, "Paths must not be null!");
+		for (String path : paths) {
+			Assert.hasText(path, "Paths must not be empty!");
+			for (String segment : StringUtils.delimitedListToStringArray(path, ".")) {
+				Assert.hasText(segment, "Invalid fetch path " + path);
+			}
+		}
+		return new Fetch(new LinkedHashSet<>(Arrays.asList(paths)));
+	}
+
+	/**
+	 * @return the fetch plan declared by the given annotation
+	 */
+	public static Fetch of(FetchPlan fetchPlan) {
+		return paths(fetchPlan.paths());
+	}
+
+	public Set<String> getPaths() {
+		return paths;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return this == other || other instanceof Fetch && paths.equals(((Fetch) other).paths);
+	}
+
+	@Override
+	public int hashCode() {
+		return paths.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "Fetch" + paths;
+	}
+}
@@ -70,4 +70,62 @@ public interface Neo4jRepository<T, ID extends Serializable> extends PagingAndSo
 	 * @return a page of entities
 	 */
 	Page<T> findAll(Pageable pageable, int depth);
+
+	/**
+	 * Loads the entity with the given id along with the relationships on the paths of the given fetch plan only.
+	 *
+	 * @param id the id
+	 * @param fetch the relationship paths to load
+	 * @return the entity, or {@literal null} if none exists
+	 */
+	T findOne(ID id, Fetch fetch);
+
+	/**
+	 * Loads all entities along with the relationships on the paths of the given fetch plan only.
+	 *
+	 * @param fetch the relationship paths to load
+	 * @return all entities
+	 */
+	Iterable<T> findAll(Fetch fetch);
+
+	/**
+	 * Loads the entities with the given ids along with the relationships on the paths of the given fetch plan only.
+	 *
+	 * @param ids the ids
+	 * @param fetch the relationship paths to load
+	 * @return the entities found, ids without an entity are skipped
+	 */
+	Iterable<T> findAll(Iterable<ID> ids, Fetch fetch);
+
+	/**
+	 * Loads all entities in the given order along with the relationships on the paths of the given fetch plan only.
+	 *
+	 * @param sort the order of the entities
+	 * @param fetch the relationship paths to load
+	 * @return all entities, sorted
+	 */
+	Iterable<T> findAll(Sort sort, Fetch fetch);
+
+	/**
+	 * Returns a {@link Page} of entities meeting the paging restriction provided in the {@code Pageable} object, along
+	 * with the relationships on the paths of the given fetch plan only.
+	 * {@link Page#getTotalPages()} returns an estimation of the total number of pages and should not be relied upon for accuracy.
+	 *
+	 * @param pageable the page to load
+	 * @param fetch the relationship paths to load
+	 * @return a page of entities
+	 */
+	Page<T> findAll(Pageable pageable, Fetch fetch);
+
+	/**
+	 * Returns a {@link Page} of the neighbours of the given entity over relationships of the given type, in either
+	 * direction, e.g. to access those left out by {@link org.springframework.data.neo4j.repository.query.FanOutLimits}.
+	 *
+	 * @param entity a persisted entity
+	 * @param relationshipType the relationship type
+	 * @param neighbourType the domain type of the neighbours
+	 * @param pageable the page to load
+	 * @return a page of neighbours, ordered by relationship id
+	 */
+	<N> Page<N> findNeighbours(T entity, String relationshipType, Class<N> neighbourType, Pageable pageable);
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository;
+
+import java.util.Map;
+
+/**
+ * Implemented by entities that want to know whether their relationships were loaded completely when loaded with
+ * {@link org.springframework.data.neo4j.repository.query.FanOutLimits}. The value should be kept in a
+ * {@code @Transient} field; the remaining neighbours can be paged through with
+ * {@link Neo4jRepository#findNeighbours(Object, String, Class, org.springframework.data.domain.Pageable)}.
+ */
+public interface PartialLoadAware {
+
+	/**
+	 * Called after every load with fan-out limits.
+	 *
+	 * @param truncatedDegrees the total number of relationships of each type of which only some were loaded, empty if
+	 *            all relationships of the entity were loaded.
+	 */
+	void setTruncatedRelationships(Map<String, Long> truncatedDegrees);
+}
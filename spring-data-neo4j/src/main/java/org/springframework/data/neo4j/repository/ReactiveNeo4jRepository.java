@@ -0,0 +1,64 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository;
+
+import java.io.Serializable;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+
+/**
+ * Neo4j OGM specific {@link Repository} returning Reactive Streams {@link Publisher}s.
+ * <p>
+ * Results are fetched lazily: nothing is executed before a subscriber requests elements and collection results are
+ * pulled from the database in chunks as demand is signalled. The blocking Neo4j OGM calls are run on a bounded
+ * {@link org.springframework.data.neo4j.reactive.ReactiveQueryExecutor}, so the calling thread is never blocked.
+ * Each chunk is loaded in its own unit of work, so results spanning several chunks are not read from a single
+ * consistent snapshot.
+ *
+ * @param <T> the type of the entity to handle
+ */
+@NoRepositoryBean
+public interface ReactiveNeo4jRepository<T, ID extends Serializable> extends Repository<T, ID> {
+
+	<S extends T> Publisher<S> save(S entity);
+
+	<S extends T> Publisher<S> save(S entity, int depth);
+
+	<S extends T> Publisher<S> save(Iterable<S> entities);
+
+	Publisher<T> findOne(ID id);
+
+	Publisher<T> findOne(ID id, int depth);
+
+	Publisher<Boolean> exists(ID id);
+
+	Publisher<T> findAll();
+
+	Publisher<T> findAll(int depth);
+
+	Publisher<T> findAll(Sort sort);
+
+	Publisher<T> findAll(Sort sort, int depth);
+
+	Publisher<Long> count();
+
+	Publisher<Void> delete(ID id);
+
+	Publisher<Void> delete(T entity);
+
+	Publisher<Void> deleteAll();
+}
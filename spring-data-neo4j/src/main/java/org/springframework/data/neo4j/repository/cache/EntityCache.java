@@ -0,0 +1,385 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.repository.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Size-bounded cache of entities shared by all Sessions, consulted by
+ * {@link org.springframework.data.neo4j.repository.support.SimpleNeo4jRepository#findOne(java.io.Serializable, int)}
+ * and {@link org.springframework.data.neo4j.repository.support.SimpleNeo4jRepository#findAll(Iterable, int)}.
+ * <p>
+ * Entries are keyed by label, or relationship type, and id, and remember the depth they were loaded with, so that a
+ * request is only served from an entry loaded at least as deep. Once {@link #setMaxSize(int) the maximum size} is
+ * reached, a new entry only replaces the least recently used one if its key was requested more often; request counts
+ * are halved periodically so that formerly popular entities age out. Writes reported through
+ * {@link #evictAfterCommit(Class, Object)} and {@link #evictAfterCommit(Collection)} evict entries once the writing
+ * transaction has completed, whether it committed or rolled back.
+ * <p>
+ * The cache stores whatever it is given; the repositories store detached copies and hand out a copy of their own to
+ * every caller, so that no caller sees changes made by another. Entries are neither served nor stored within
+ * read-write transactions, so that entities loaded to be modified always come from the Session. The statistics
+ * can be read through JMX once exported, e.g. with {@code @EnableMBeanExport}.
+ */
+@ManagedResource(objectName = "org.springframework.data.neo4j:type=EntityCache",
+		description = "Entities shared by all Sessions")
+public class EntityCache {
+
+	private static final int DEFAULT_MAX_SIZE = 10000;
+	private static final int AGING_FACTOR = 10;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong rejections = new AtomicLong();
+
+	private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<Key, Integer> frequencies = new HashMap<>();
+	private int maxSize;
+	private int requestsSinceAging;
+	private long invalidations;
+
+	/**
+	 * Creates a cache of at most {@literal 10000} entities.
+	 */
+	public EntityCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param maxSize the maximum number of cached entities.
+	 */
+	public EntityCache(int maxSize) {
+		setMaxSize(maxSize);
+	}
+
+	@ManagedAttribute(description = "Maximum number of cached entities")
+	public synchronized int getMaxSize() {
+		return maxSize;
+	}
+
+	@ManagedAttribute
+	public synchronized void setMaxSize(int maxSize) {
+		Assert.isTrue(maxSize > 0, "maxSize must be greater than 0");
+		this.maxSize = maxSize;
+		Iterator<Key> keys = entries.keySet().iterator();
+		while (entries.size() > maxSize && keys.hasNext()) {
+			keys.next();
+			keys.remove();
+			evictions.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return whether the cache may be used by the current thread, i.e. it is not within a read-write transaction.
+	 */
+	public boolean isUsable() {
+		return !TransactionSynchronizationManager.isActualTransactionActive()
+				|| TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+
+	/**
+	 * @param label the label or relationship type the entity is looked up by.
+	 * @param id the id of the entity.
+	 * @param depth the depth requested, {@literal -1} for the whole reachable graph.
+	 * @return the cached entity, or {@literal null} if there is none loaded at least as deep.
+	 */
+	public synchronized Object get(String label, Object id, int depth) {
+		Key key = new Key(label, id);
+		recordRequest(key);
+		Entry entry = entries.get(key);
+		if (entry == null || !covers(entry.depth, depth)) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return entry.value;
+	}
+
+	/**
+	 * @return a stamp to pass to {@link #put(String, Object, int, Object, Collection, long)} before loading an entity.
+	 */
+	public synchronized long getInvalidationCount() {
+		return invalidations;
+	}
+
+	/**
+	 * Caches the given entity, unless an eviction happened since the given stamp was taken, as the entity might have
+	 * been loaded before the write was committed.
+	 *
+	 * @param label the label or relationship type the entity is looked up by.
+	 * @param id the id of the entity.
+	 * @param depth the depth the entity was loaded with.
+	 * @param entity the entity, {@literal null} is not cached.
+	 * @param labels the labels and relationship types read to load the entity at the given depth.
+	 * @param stamp the {@link #getInvalidationCount() invalidation count} before the entity was loaded.
+	 */
+	public synchronized void put(String label, Object id, int depth, Object entity, Collection<String> labels,
+			long stamp) {
+		if (entity == null || stamp != invalidations) {
+			return;
+		}
+		Key key = new Key(label, id);
+		Entry existing = entries.get(key);
+		if (existing != null) {
+			if (covers(depth, existing.depth)) {
+				entries.put(key, new Entry(entity, depth, labels));
+			}
+			return;
+		}
+		if (entries.size() >= maxSize) {
+			Key victim = entries.keySet().iterator().next();
+			if (frequencyOf(key) <= frequencyOf(victim)) {
+				rejections.incrementAndGet();
+				return;
+			}
+			entries.remove(victim);
+			evictions.incrementAndGet();
+		}
+		entries.put(key, new Entry(entity, depth, labels));
+	}
+
+	/**
+	 * Reports a write to a single entity which did not change its relationships. Within a transaction the entity and
+	 * all entries loaded with a depth that may contain it are evicted once it has completed, otherwise straight away.
+	 *
+	 * @param type the type of the entity.
+	 * @param id the id of the entity.
+	 */
+	public void evictAfterCommit(Class<?> type, Object id) {
+		Set<String> labels = EntityLabels.labelsOf(type);
+		Set<Key> keys = new HashSet<>();
+		for (String label : labels) {
+			keys.add(new Key(label, id));
+		}
+		PendingEviction pending = getPendingEviction();
+		if (pending == null) {
+			evict(keys, labels, Collections.<String>emptySet());
+		} else {
+			pending.keys.addAll(keys);
+			pending.neighbourLabels.addAll(labels);
+		}
+	}
+
+	/**
+	 * Reports a write to the given labels. Within a transaction all entries that read one of them are evicted once it
+	 * has completed, otherwise straight away.
+	 *
+	 * @param labels the labels written to, {@link EntityLabels#ANY} evicts all entries.
+	 */
+	public void evictAfterCommit(Collection<String> labels) {
+		PendingEviction pending = getPendingEviction();
+		if (pending == null) {
+			evict(Collections.<Key>emptySet(), Collections.<String>emptySet(), labels);
+		} else {
+			pending.labels.addAll(labels);
+		}
+	}
+
+	@ManagedOperation(description = "Evicts all entities")
+	public synchronized void clear() {
+		entries.clear();
+		frequencies.clear();
+		invalidations++;
+	}
+
+	@ManagedAttribute(description = "Number of cached entities")
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	@ManagedAttribute(description = "Number of lookups served from the cache")
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	@ManagedAttribute(description = "Number of lookups not served from the cache")
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	@ManagedAttribute(description = "Ratio of lookups served from the cache")
+	public double getHitRatio() {
+		long hitCount = hits.get();
+		long total = hitCount + misses.get();
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	@ManagedAttribute(description = "Number of entities evicted to stay within the maximum size")
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	@ManagedAttribute(description = "Number of entities not cached as they were requested less often than the eldest")
+	public long getRejectionCount() {
+		return rejections.get();
+	}
+
+	@ManagedOperation(description = "Resets the hit, miss, eviction and rejection counts")
+	public void resetStatistics() {
+		hits.set(0);
+		misses.set(0);
+		evictions.set(0);
+		rejections.set(0);
+	}
+
+	synchronized void evict(Set<Key> keys, Set<String> neighbourLabels, Collection<String> labels) {
+		invalidations++;
+		if (labels.contains(EntityLabels.ANY)) {
+			entries.clear();
+			return;
+		}
+		Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Key, Entry> candidate = iterator.next();
+			Entry entry = candidate.getValue();
+			if (keys.contains(candidate.getKey()) || entry.labels.contains(EntityLabels.ANY)
+					|| !Collections.disjoint(entry.labels, labels)
+					|| entry.depth != 0 && !Collections.disjoint(entry.labels, neighbourLabels)) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private PendingEviction getPendingEviction() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return null;
+		}
+		PendingEviction pending = (PendingEviction) TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			pending = new PendingEviction();
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(new EvictionSynchronization(pending));
+		}
+		return pending;
+	}
+
+	/*
+	 * Request counts are kept for more keys than are cached, and halved once enough requests were seen
+	 */
+	private void recordRequest(Key key) {
+		Integer frequency = frequencies.get(key);
+		frequencies.put(key, frequency == null ? 1 : frequency + 1);
+		if (++requestsSinceAging >= AGING_FACTOR * maxSize || frequencies.size() > AGING_FACTOR * maxSize) {
+			requestsSinceAging = 0;
+			Iterator<Map.Entry<Key, Integer>> iterator = frequencies.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<Key, Integer> candidate = iterator.next();
+				if (candidate.getValue() <= 1) {
+					iterator.remove();
+				} else {
+					candidate.setValue(candidate.getValue() / 2);
+				}
+			}
+		}
+	}
+
+	private int frequencyOf(Key key) {
+		Integer frequency = frequencies.get(key);
+		return frequency == null ? 0 : frequency;
+	}
+
+	private static boolean covers(int loadedDepth, int requestedDepth) {
+		return loadedDepth < 0 || requestedDepth >= 0 && loadedDepth >= requestedDepth;
+	}
+
+	static final class Key {
+
+		private final String label;
+		private final Object id;
+
+		Key(String label, Object id) {
+			Assert.notNull(label, "Label must not be null!");
+			Assert.notNull(id, "Id must not be null!");
+			this.label = label;
+			this.id = id instanceof Number ? (Object) ((Number) id).longValue() : id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return label.equals(other.label) && id.equals(other.id);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * label.hashCode() + id.hashCode();
+		}
+	}
+
+	private static class Entry {
+
+		private final Object value;
+		private final int depth;
+		private final Collection<String> labels;
+
+		Entry(Object value, int depth, Collection<String> labels) {
+			this.value = value;
+			this.depth = depth;
+			this.labels = labels;
+		}
+	}
+
+	private static class PendingEviction {
+
+		private final Set<Key> keys = new HashSet<>();
+		private final Set<String> neighbourLabels = new HashSet<>();
+		private final Set<String> labels = new HashSet<>();
+	}
+
+	private class EvictionSynchronization extends TransactionSynchronizationAdapter {
+
+		private final PendingEviction pending;
+
+		EvictionSynchronization(PendingEviction pending) {
+			this.pending = pending;
+		}
+
+		@Override
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResource(EntityCache.this);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(EntityCache.this, pending);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(EntityCache.this);
+			evict(pending.keys, pending.neighbourLabels, pending.labels);
+		}
+	}
+}
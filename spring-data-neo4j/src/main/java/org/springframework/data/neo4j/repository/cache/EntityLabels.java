@@ -0,0 +1,207 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.cache;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.neo4j.ogm.annotation.NodeEntity;
+import org.neo4j.ogm.annotation.Relationship;
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.annotation.Transient;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolves the labels and relationship types touched by entity classes and Cypher statements, used to decide which
+ * cached query results a write invalidates.
+ * <p>
+ * Resolution works on types rather than the actual graph and errs on the side of reporting too many labels.
+ * <p>Mainly intended for internal use within the framework.
+ */
+public abstract class EntityLabels {
+
+	/**
+	 * Label standing for any label, matched by every invalidation.
+	 */
+	public static final String ANY = "*";
+
+	private static final Pattern LABEL = Pattern.compile(":(?:`([^`]+)`|([A-Za-z_][A-Za-z0-9_]*))");
+	private static final Pattern WRITE_CLAUSE = Pattern.compile("\\b(CREATE|MERGE|SET|DELETE|REMOVE)\\b",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'|\"(?:[^\"\\\\]|\\\\.)*\"");
+
+	private static final Map<Class<?>, Set<String>> OWN_LABELS = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Set<String>> NEIGHBOURHOOD_LABELS = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Set<String>> REACHABLE_LABELS = new ConcurrentHashMap<>();
+
+	/**
+	 * @param type an entity class.
+	 * @return the labels of the given class and its super classes, or its relationship type.
+	 */
+	public static Set<String> labelsOf(Class<?> type) {
+		Set<String> labels = OWN_LABELS.get(type);
+		if (labels == null) {
+			labels = new LinkedHashSet<>();
+			for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+				RelationshipEntity relationshipEntity = current.getAnnotation(RelationshipEntity.class);
+				if (relationshipEntity != null) {
+					labels.add(StringUtils.hasText(relationshipEntity.type()) ? relationshipEntity.type()
+							: current.getSimpleName().toUpperCase());
+					continue;
+				}
+				NodeEntity nodeEntity = current.getAnnotation(NodeEntity.class);
+				labels.add(nodeEntity != null && StringUtils.hasText(nodeEntity.label()) ? nodeEntity.label()
+						: current.getSimpleName());
+			}
+			labels = Collections.unmodifiableSet(labels);
+			OWN_LABELS.put(type, labels);
+		}
+		return labels;
+	}
+
+	/**
+	 * @param type an entity class.
+	 * @return the labels of the given class, of the entity classes it directly references and the relationship types
+	 * connecting them. Reading an entity at depth one touches these labels.
+	 */
+	public static Set<String> neighbourhoodLabelsOf(Class<?> type) {
+		Set<String> labels = NEIGHBOURHOOD_LABELS.get(type);
+		if (labels == null) {
+			labels = new LinkedHashSet<>(labelsOf(type));
+			for (Class<?> neighbour : collectNeighbours(type, labels)) {
+				labels.addAll(labelsOf(neighbour));
+			}
+			labels = Collections.unmodifiableSet(labels);
+			NEIGHBOURHOOD_LABELS.put(type, labels);
+		}
+		return labels;
+	}
+
+	/**
+	 * @param type an entity class.
+	 * @return the labels of all entity classes transitively referenced by the given class and the relationship types
+	 * connecting them. Saving or deleting an entity may touch these labels.
+	 */
+	public static Set<String> reachableLabelsOf(Class<?> type) {
+		Set<String> labels = REACHABLE_LABELS.get(type);
+		if (labels == null) {
+			labels = new LinkedHashSet<>();
+			Set<Class<?>> visited = new HashSet<>();
+			Deque<Class<?>> pending = new ArrayDeque<>();
+			pending.add(type);
+			while (!pending.isEmpty()) {
+				Class<?> current = pending.poll();
+				if (visited.add(current)) {
+					labels.addAll(labelsOf(current));
+					pending.addAll(collectNeighbours(current, labels));
+				}
+			}
+			labels = Collections.unmodifiableSet(labels);
+			REACHABLE_LABELS.put(type, labels);
+		}
+		return labels;
+	}
+
+	/**
+	 * @param cypher a Cypher statement.
+	 * @return the labels and relationship types mentioned in the statement.
+	 */
+	public static Set<String> labelsInQuery(String cypher) {
+		Set<String> labels = new LinkedHashSet<>();
+		Matcher matcher = LABEL.matcher(STRING_LITERAL.matcher(cypher).replaceAll("''"));
+		while (matcher.find()) {
+			labels.add(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+		}
+		return labels;
+	}
+
+	/**
+	 * @param cypher a Cypher statement.
+	 * @return whether the statement contains clauses writing to the graph.
+	 */
+	public static boolean isWriteQuery(String cypher) {
+		return WRITE_CLAUSE.matcher(STRING_LITERAL.matcher(cypher).replaceAll("''")).find();
+	}
+
+	/**
+	 * @param cypher a Cypher statement writing to the graph.
+	 * @return the labels the statement may touch, {@link #ANY} if they cannot be determined.
+	 */
+	public static Set<String> labelsWrittenByQuery(String cypher) {
+		Set<String> labels = labelsInQuery(cypher);
+		return labels.isEmpty() ? Collections.singleton(ANY) : labels;
+	}
+
+	private static Set<Class<?>> collectNeighbours(Class<?> type, Set<String> relationshipTypes) {
+		Set<Class<?>> neighbours = new LinkedHashSet<>();
+		for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())
+						|| field.isAnnotationPresent(Transient.class)) {
+					continue;
+				}
+				Class<?> fieldType = elementType(field.getGenericType());
+				if (fieldType == null || !isCandidateEntity(fieldType)) {
+					continue;
+				}
+				neighbours.add(fieldType);
+				Relationship relationship = field.getAnnotation(Relationship.class);
+				if (relationship != null && StringUtils.hasText(relationship.type())) {
+					relationshipTypes.add(relationship.type());
+				}
+			}
+		}
+		return neighbours;
+	}
+
+	private static Class<?> elementType(Type type) {
+		if (type instanceof Class) {
+			Class<?> clazz = (Class<?>) type;
+			return clazz.isArray() ? elementType(clazz.getComponentType()) : clazz;
+		}
+		if (type instanceof GenericArrayType) {
+			return elementType(((GenericArrayType) type).getGenericComponentType());
+		}
+		if (type instanceof ParameterizedType) {
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			Class<?> raw = (Class<?>) parameterizedType.getRawType();
+			if (Iterable.class.isAssignableFrom(raw) && parameterizedType.getActualTypeArguments().length == 1) {
+				return elementType(parameterizedType.getActualTypeArguments()[0]);
+			}
+			return raw;
+		}
+		return null;
+	}
+
+	private static boolean isCandidateEntity(Class<?> type) {
+		if (type.isPrimitive() || type.isEnum() || type.isAnnotation()) {
+			return false;
+		}
+		String name = type.getName();
+		return !(name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("org.neo4j.ogm."));
+	}
+}
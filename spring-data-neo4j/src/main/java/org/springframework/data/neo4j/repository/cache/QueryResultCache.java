@@ -0,0 +1,228 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Size-bounded cache of repository query results, used for methods annotated with
+ * {@link org.springframework.data.neo4j.annotation.CachedQuery}.
+ * <p>
+ * Every entry is tagged with the labels and relationship types its query reads. Entries are evicted in least recently
+ * used order once {@link #setMaxSize(int) the maximum size} is reached, when their time to live has elapsed, or when a
+ * write touching one of their labels is reported through {@link #invalidateAfterCommit(Collection)}. One instance is
+ * registered per repository configuration.
+ */
+public class QueryResultCache {
+
+	private static final int DEFAULT_MAX_SIZE = 1000;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	private int maxSize = DEFAULT_MAX_SIZE;
+	private long invalidations;
+
+	private final Map<Object, Entry> entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+			return size() > maxSize;
+		}
+	};
+
+	/**
+	 * Sets the maximum number of cached results. Defaults to {@literal 1000}.
+	 */
+	public synchronized void setMaxSize(int maxSize) {
+		Assert.isTrue(maxSize > 0, "maxSize must be greater than 0");
+		this.maxSize = maxSize;
+		Iterator<Object> keys = entries.keySet().iterator();
+		while (entries.size() > maxSize && keys.hasNext()) {
+			keys.next();
+			keys.remove();
+		}
+	}
+
+	public synchronized int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @param key the cache key.
+	 * @return the cached result, or {@literal null} if there is none or it has expired.
+	 */
+	public synchronized ValueWrapper get(Object key) {
+		Entry entry = entries.get(key);
+		if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+			entries.remove(key);
+			entry = null;
+		}
+		if (entry == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return new SimpleValueWrapper(entry.value);
+	}
+
+	/**
+	 * @return a stamp to pass to {@link #put(Object, Object, long, Set, long)} before computing a result.
+	 */
+	public synchronized long getInvalidationCount() {
+		return invalidations;
+	}
+
+	/**
+	 * Caches the given result, unless an invalidation happened since the given stamp was taken, as the result might
+	 * have been computed before the write was committed.
+	 *
+	 * @param key the cache key.
+	 * @param value the result, may be {@literal null}.
+	 * @param ttlMillis the time to live of the entry.
+	 * @param labels the labels and relationship types read to compute the result.
+	 * @param stamp the {@link #getInvalidationCount() invalidation count} before the result was computed.
+	 */
+	public synchronized void put(Object key, Object value, long ttlMillis, Set<String> labels, long stamp) {
+		if (stamp != invalidations) {
+			return;
+		}
+		entries.put(key, new Entry(value, System.currentTimeMillis() + ttlMillis, labels));
+	}
+
+	/**
+	 * Evicts all entries tagged with one of the given labels straight away.
+	 *
+	 * @param labels the labels written to, {@link EntityLabels#ANY} evicts all entries.
+	 */
+	public synchronized void invalidate(Collection<String> labels) {
+		invalidations++;
+		if (labels.contains(EntityLabels.ANY)) {
+			entries.clear();
+			return;
+		}
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			Entry entry = iterator.next();
+			if (entry.labels.contains(EntityLabels.ANY) || !Collections.disjoint(entry.labels, labels)) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Reports a write to the given labels. Within a transaction entries are evicted once it has committed, otherwise
+	 * straight away.
+	 *
+	 * @param labels the labels written to, {@link EntityLabels#ANY} evicts all entries.
+	 */
+	public void invalidateAfterCommit(Collection<String> labels) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			invalidate(labels);
+			return;
+		}
+		PendingInvalidation pending = (PendingInvalidation) TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			pending = new PendingInvalidation();
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(new InvalidationSynchronization(pending));
+		}
+		pending.labels.addAll(labels);
+	}
+
+	/**
+	 * @param labels the labels read by a query.
+	 * @return whether the current transaction wrote to one of the given labels, in which case cached results must not
+	 * be used nor stored.
+	 */
+	public boolean isInvalidatedInCurrentTransaction(Collection<String> labels) {
+		PendingInvalidation pending = (PendingInvalidation) TransactionSynchronizationManager.getResource(this);
+		return pending != null && (pending.labels.contains(EntityLabels.ANY) || labels.contains(EntityLabels.ANY)
+				|| !Collections.disjoint(pending.labels, labels));
+	}
+
+	public synchronized void clear() {
+		invalidations++;
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	private static class Entry {
+
+		private final Object value;
+		private final long expiresAt;
+		private final Set<String> labels;
+
+		Entry(Object value, long expiresAt, Set<String> labels) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+			this.labels = labels;
+		}
+	}
+
+	private static class PendingInvalidation {
+
+		private final Set<String> labels = new HashSet<>();
+	}
+
+	private class InvalidationSynchronization extends TransactionSynchronizationAdapter {
+
+		private final PendingInvalidation pending;
+
+		InvalidationSynchronization(PendingInvalidation pending) {
+			this.pending = pending;
+		}
+
+		@Override
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResource(QueryResultCache.this);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(QueryResultCache.this, pending);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(QueryResultCache.this);
+			if (status == STATUS_COMMITTED) {
+				invalidate(pending.labels);
+			}
+		}
+	}
+}
@@ -18,6 +18,7 @@ import java.lang.annotation.*;
 import org.neo4j.ogm.session.SessionFactory;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.neo4j.repository.query.QueryResolutionMode;
 import org.springframework.data.neo4j.repository.support.Neo4jRepositoryFactoryBean;
 import org.springframework.data.repository.config.DefaultRepositoryBaseClass;
 import org.springframework.data.repository.query.QueryLookupStrategy;
@@ -126,4 +127,60 @@ public @interface EnableNeo4jRepositories {
      * @return whether to enable default transactions, defaults to {@literal true}.
      */
     boolean enableDefaultTransactions() default true;
+
+    /**
+     * Configures whether the Cypher of all {@code @Query} methods and their count queries is explained against the
+     * database once the application context has started, warming up the query plan cache and failing the startup on
+     * invalid Cypher. Defaults to {@literal false}.
+     *
+     * @return whether to warm up the queries of the repositories.
+     * @see org.springframework.data.neo4j.repository.query.QueryWarmup
+     */
+    boolean warmUpQueries() default false;
+
+    /**
+     * Configures when the queries of repository query methods are created. {@link QueryResolutionMode#LAZY} and
+     * {@link QueryResolutionMode#BACKGROUND} speed up the startup at the price of reporting invalid methods only on
+     * invocation, {@link QueryResolutionMode#STRICT} creates queries in parallel but still fails the startup on invalid
+     * methods. Defaults to {@link QueryResolutionMode#EAGER}.
+     *
+     * @return when to create the queries of the repositories.
+     */
+    QueryResolutionMode queryResolution() default QueryResolutionMode.EAGER;
+
+    /**
+     * Configures the name of the {@link org.springframework.data.neo4j.repository.query.FanOutLimits} bean capping the
+     * number of neighbours loaded per relationship type by depth loads of the repositories and their derived finders.
+     * Defaults to no limits.
+     *
+     * @return the name of the fan-out limits bean.
+     */
+    String fanOutLimitsRef() default "";
+
+    /**
+     * Configures the name of the {@link org.springframework.data.neo4j.repository.cache.EntityCache} bean shared by all
+     * Sessions that the repositories look up entities by id in. Defaults to no cache.
+     *
+     * @return the name of the entity cache bean.
+     */
+    String entityCacheRef() default "";
+
+    /**
+     * Configures whether {@code save} and {@code delete} of several entities write them ordered by graph id rather than
+     * in iteration order, so that concurrent writers touching the same nodes take their locks in the same order
+     * instead of deadlocking. Defaults to {@literal false}.
+     *
+     * @return whether to order the entities of batch writes.
+     */
+    boolean orderWrites() default false;
+
+    /**
+     * Configures the duration in milliseconds from which invocations of repository query methods are written to the
+     * slow query log. Defaults to {@literal -1}, which leaves the slow query log disabled and does not trace the
+     * statements of repository invocations for it.
+     *
+     * @return the slow query threshold in milliseconds, negative to disable the slow query log.
+     * @see org.springframework.data.neo4j.metrics.SlowQueryLog
+     */
+    long slowQueryThreshold() default -1;
 }
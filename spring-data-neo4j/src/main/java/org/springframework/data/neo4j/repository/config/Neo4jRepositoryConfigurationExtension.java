@@ -25,13 +25,21 @@ import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.metrics.plan.QueryPlanCapture;
+import org.springframework.data.neo4j.reactive.ReactiveQueryExecutor;
 import org.springframework.data.neo4j.repository.Neo4jRepository;
+import org.springframework.data.neo4j.repository.ReactiveNeo4jRepository;
+import org.springframework.data.neo4j.repository.cache.QueryResultCache;
+import org.springframework.data.neo4j.repository.query.BackgroundQueryResolver;
+import org.springframework.data.neo4j.repository.query.QueryWarmup;
 import org.springframework.data.neo4j.repository.support.Neo4jRepositoryFactoryBean;
 import org.springframework.data.neo4j.repository.support.SessionBeanDefinitionRegistrarPostProcessor;
 import org.springframework.data.repository.config.AnnotationRepositoryConfigurationSource;
 import org.springframework.data.repository.config.RepositoryConfigurationExtensionSupport;
 import org.springframework.data.repository.config.RepositoryConfigurationSource;
 import org.springframework.data.repository.config.XmlRepositoryConfigurationSource;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -49,6 +57,20 @@ public class Neo4jRepositoryConfigurationExtension extends RepositoryConfigurati
 	private static final String NEO4J_MAPPING_CONTEXT_BEAN_NAME = "neo4jMappingContext";
 	private static final String ENABLE_DEFAULT_TRANSACTIONS_ATTRIBUTE = "enableDefaultTransactions";
 	private static final String SESSION_BEAN_DEFINITION_REGISTRAR_POST_PROCESSOR_BEAN_NAME = "sessionBeanDefinitionRegistrarPostProcessor";
+	private static final String REACTIVE_QUERY_EXECUTOR_BEAN_NAME = "neo4jReactiveQueryExecutor";
+	private static final String QUERY_RESULT_CACHE_BEAN_NAME = "neo4jQueryResultCache";
+	private static final String SLOW_QUERY_LOG_BEAN_NAME = "neo4jSlowQueryLog";
+	private static final String SLOW_QUERY_THRESHOLD_ATTRIBUTE = "slowQueryThreshold";
+	private static final String QUERY_PLAN_CAPTURE_BEAN_NAME = "neo4jQueryPlanCapture";
+	private static final String QUERY_WARMUP_BEAN_NAME = "neo4jQueryWarmup";
+	private static final String WARM_UP_QUERIES_ATTRIBUTE = "warmUpQueries";
+	private static final String ORDER_WRITES_ATTRIBUTE = "orderWrites";
+	private static final String BACKGROUND_QUERY_RESOLVER_BEAN_NAME = "neo4jBackgroundQueryResolver";
+	private static final String QUERY_RESOLUTION_ATTRIBUTE = "queryResolution";
+	private static final String FAN_OUT_LIMITS_REF_ATTRIBUTE = "fanOutLimitsRef";
+	private static final String ENTITY_CACHE_REF_ATTRIBUTE = "entityCacheRef";
+	private static final boolean REACTIVE_STREAMS_PRESENT = ClassUtils.isPresent("org.reactivestreams.Publisher",
+			Neo4jRepositoryConfigurationExtension.class.getClassLoader());
 
 	/*
 	 * (non-Javadoc)
@@ -94,6 +116,9 @@ public class Neo4jRepositoryConfigurationExtension extends RepositoryConfigurati
 	 */
 	@Override
 	protected Collection<Class<?>> getIdentifyingTypes() {
+		if (REACTIVE_STREAMS_PRESENT) {
+			return Arrays.<Class<?>>asList(Neo4jRepository.class, ReactiveNeo4jRepository.class);
+		}
 		return Collections.<Class<?>>singleton(Neo4jRepository.class);
 	}
 
@@ -108,6 +133,23 @@ public class Neo4jRepositoryConfigurationExtension extends RepositoryConfigurati
 		builder.addPropertyValue("transactionManager",
 				transactionManagerRef == null ? DEFAULT_TRANSACTION_MANAGER_BEAN_NAME : transactionManagerRef);
 		builder.addPropertyReference("mappingContext", NEO4J_MAPPING_CONTEXT_BEAN_NAME);
+		builder.addPropertyReference("reactiveQueryExecutor", REACTIVE_QUERY_EXECUTOR_BEAN_NAME);
+		builder.addPropertyReference("queryResultCache", QUERY_RESULT_CACHE_BEAN_NAME);
+		if (getSlowQueryThreshold(source) != null) {
+			builder.addPropertyReference("slowQueryLog", SLOW_QUERY_LOG_BEAN_NAME);
+		}
+		builder.addPropertyReference("queryPlanCapture", QUERY_PLAN_CAPTURE_BEAN_NAME);
+		builder.addPropertyReference("backgroundQueryResolver", BACKGROUND_QUERY_RESOLVER_BEAN_NAME);
+
+		String fanOutLimitsRef = source.getAttribute(FAN_OUT_LIMITS_REF_ATTRIBUTE);
+		if (StringUtils.hasText(fanOutLimitsRef)) {
+			builder.addPropertyReference("fanOutLimits", fanOutLimitsRef);
+		}
+
+		String entityCacheRef = source.getAttribute(ENTITY_CACHE_REF_ATTRIBUTE);
+		if (StringUtils.hasText(entityCacheRef)) {
+			builder.addPropertyReference("entityCache", entityCacheRef);
+		}
 	}
 
 	/*
@@ -121,6 +163,14 @@ public class Neo4jRepositoryConfigurationExtension extends RepositoryConfigurati
 
 		builder.addPropertyValue(ENABLE_DEFAULT_TRANSACTIONS_ATTRIBUTE,
 				attributes.getBoolean(ENABLE_DEFAULT_TRANSACTIONS_ATTRIBUTE));
+
+		if (attributes.getBoolean(WARM_UP_QUERIES_ATTRIBUTE)) {
+			builder.addPropertyReference("queryWarmup", QUERY_WARMUP_BEAN_NAME);
+		}
+
+		builder.addPropertyValue("queryResolutionMode", attributes.getEnum(QUERY_RESOLUTION_ATTRIBUTE));
+
+		builder.addPropertyValue(ORDER_WRITES_ATTRIBUTE, attributes.getBoolean(ORDER_WRITES_ATTRIBUTE));
 	}
 
 	/*
@@ -135,6 +185,22 @@ public class Neo4jRepositoryConfigurationExtension extends RepositoryConfigurati
 		if (StringUtils.hasText(enableDefaultTransactions)) {
 			builder.addPropertyValue(ENABLE_DEFAULT_TRANSACTIONS_ATTRIBUTE, enableDefaultTransactions);
 		}
+
+		if (Boolean.parseBoolean(config.getAttribute(WARM_UP_QUERIES_ATTRIBUTE))) {
+			builder.addPropertyReference("queryWarmup", QUERY_WARMUP_BEAN_NAME);
+		}
+
+		String queryResolution = config.getAttribute(QUERY_RESOLUTION_ATTRIBUTE);
+
+		if (StringUtils.hasText(queryResolution)) {
+			builder.addPropertyValue("queryResolutionMode", queryResolution);
+		}
+
+		String orderWrites = config.getAttribute(ORDER_WRITES_ATTRIBUTE);
+
+		if (StringUtils.hasText(orderWrites)) {
+			builder.addPropertyValue(ORDER_WRITES_ATTRIBUTE, orderWrites);
+		}
 	}
 
 	/*
@@ -153,5 +219,42 @@ public class Neo4jRepositoryConfigurationExtension extends RepositoryConfigurati
 
 		registerIfNotAlreadyRegistered(new RootBeanDefinition(Neo4jMappingContextFactoryBean.class), registry,
 				NEO4J_MAPPING_CONTEXT_BEAN_NAME, source);
+
+		registerIfNotAlreadyRegistered(new RootBeanDefinition(ReactiveQueryExecutor.class), registry,
+				REACTIVE_QUERY_EXECUTOR_BEAN_NAME, source);
+
+		registerIfNotAlreadyRegistered(new RootBeanDefinition(QueryResultCache.class), registry,
+				QUERY_RESULT_CACHE_BEAN_NAME, source);
+
+		Long slowQueryThreshold = getSlowQueryThreshold(config);
+		if (slowQueryThreshold != null) {
+			RootBeanDefinition slowQueryLog = new RootBeanDefinition(SlowQueryLog.class);
+			slowQueryLog.getPropertyValues().add("thresholdMillis", slowQueryThreshold);
+			registerIfNotAlreadyRegistered(slowQueryLog, registry, SLOW_QUERY_LOG_BEAN_NAME, source);
+		}
+
+		registerIfNotAlreadyRegistered(new RootBeanDefinition(QueryPlanCapture.class), registry,
+				QUERY_PLAN_CAPTURE_BEAN_NAME, source);
+
+		registerIfNotAlreadyRegistered(new RootBeanDefinition(QueryWarmup.class), registry,
+				QUERY_WARMUP_BEAN_NAME, source);
+
+		registerIfNotAlreadyRegistered(new RootBeanDefinition(BackgroundQueryResolver.class), registry,
+				BACKGROUND_QUERY_RESOLVER_BEAN_NAME, source);
+	}
+
+	/**
+	 * @return the configured slow query threshold in milliseconds, or {@literal null} if the slow query log is not
+	 *         enabled.
+	 */
+	private static Long getSlowQueryThreshold(RepositoryConfigurationSource config) {
+		if (config instanceof AnnotationRepositoryConfigurationSource) {
+			long threshold = ((AnnotationRepositoryConfigurationSource) config).getAttributes()
+					.getNumber(SLOW_QUERY_THRESHOLD_ATTRIBUTE).longValue();
+			return threshold < 0 ? null : threshold;
+		}
+		String threshold = config.getAttribute(SLOW_QUERY_THRESHOLD_ATTRIBUTE);
+		return StringUtils.hasText(threshold) && Long.parseLong(threshold.trim()) >= 0 ? Long.valueOf(threshold.trim())
+				: null;
 	}
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import org.neo4j.ogm.model.QueryStatistics;
+
+/**
+ * {@link QueryStatistics} summing up the statistics of several query executions.
+ */
+public class AggregatedQueryStatistics implements QueryStatistics {
+
+	private int nodesCreated;
+	private int nodesDeleted;
+	private int propertiesSet;
+	private int relationshipsCreated;
+	private int relationshipsDeleted;
+	private int labelsAdded;
+	private int labelsRemoved;
+	private int indexesAdded;
+	private int indexesRemoved;
+	private int constraintsAdded;
+	private int constraintsRemoved;
+
+	/**
+	 * Adds the given statistics to this aggregate.
+	 *
+	 * @param statistics may be {@literal null}.
+	 */
+	public void add(QueryStatistics statistics) {
+		if (statistics == null) {
+			return;
+		}
+		nodesCreated += statistics.getNodesCreated();
+		nodesDeleted += statistics.getNodesDeleted();
+		propertiesSet += statistics.getPropertiesSet();
+		relationshipsCreated += statistics.getRelationshipsCreated();
+		relationshipsDeleted += statistics.getRelationshipsDeleted();
+		labelsAdded += statistics.getLabelsAdded();
+		labelsRemoved += statistics.getLabelsRemoved();
+		indexesAdded += statistics.getIndexesAdded();
+		indexesRemoved += statistics.getIndexesRemoved();
+		constraintsAdded += statistics.getConstraintsAdded();
+		constraintsRemoved += statistics.getConstraintsRemoved();
+	}
+
+	@Override
+	public boolean containsUpdates() {
+		return nodesCreated > 0 || nodesDeleted > 0 || propertiesSet > 0 || relationshipsCreated > 0
+				|| relationshipsDeleted > 0 || labelsAdded > 0 || labelsRemoved > 0 || indexesAdded > 0
+				|| indexesRemoved > 0 || constraintsAdded > 0 || constraintsRemoved > 0;
+	}
+
+	@Override
+	public int getNodesCreated() {
+		return nodesCreated;
+	}
+
+	@Override
+	public int getNodesDeleted() {
+		return nodesDeleted;
+	}
+
+	@Override
+	public int getPropertiesSet() {
+		return propertiesSet;
+	}
+
+	@Override
+	public int getRelationshipsCreated() {
+		return relationshipsCreated;
+	}
+
+	@Override
+	public int getRelationshipsDeleted() {
+		return relationshipsDeleted;
+	}
+
+	@Override
+	public int getLabelsAdded() {
+		return labelsAdded;
+	}
+
+	@Override
+	public int getLabelsRemoved() {
+		return labelsRemoved;
+	}
+
+	@Override
+	public int getIndexesAdded() {
+		return indexesAdded;
+	}
+
+	@Override
+	public int getIndexesRemoved() {
+		return indexesRemoved;
+	}
+
+	@Override
+	public int getConstraintsAdded() {
+		return constraintsAdded;
+	}
+
+	@Override
+	public int getConstraintsRemoved() {
+		return constraintsRemoved;
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.ogm.model.QueryStatistics;
+import org.neo4j.ogm.model.Result;
+
+/**
+ * {@link Result} concatenating the rows and summing up the statistics of several query executions.
+ */
+public class AggregatedResult implements Result {
+
+	private final List<Map<String, Object>> rows = new ArrayList<>();
+	private final AggregatedQueryStatistics statistics = new AggregatedQueryStatistics();
+
+	/**
+	 * Adds the rows and statistics of the given result to this aggregate.
+	 *
+	 * @param result may be {@literal null}.
+	 */
+	public void add(Result result) {
+		if (result == null) {
+			return;
+		}
+		Iterable<Map<String, Object>> results = result.queryResults();
+		if (results != null) {
+			for (Map<String, Object> row : results) {
+				rows.add(row);
+			}
+		}
+		statistics.add(result.queryStatistics());
+	}
+
+	public Iterator<Map<String, Object>> iterator() {
+		return rows.iterator();
+	}
+
+	@Override
+	public Iterable<Map<String, Object>> queryResults() {
+		return rows;
+	}
+
+	@Override
+	public AggregatedQueryStatistics queryStatistics() {
+		return statistics;
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Creates the queries of repositories using {@link QueryResolutionMode#BACKGROUND} or
+ * {@link QueryResolutionMode#STRICT} on a bounded thread pool, so that repositories are available before their queries
+ * are.
+ * <p>
+ * Once all singletons are instantiated, the startup waits for the queries of {@link QueryResolutionMode#STRICT}
+ * repositories and fails naming every invalid method. Failures of other queries are logged and surface on invocation.
+ * One instance is registered per repository configuration; threads are only created on first use.
+ */
+public class BackgroundQueryResolver implements SmartInitializingSingleton, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(BackgroundQueryResolver.class);
+
+	private final List<DeferredRepositoryQuery> strictQueries = new ArrayList<>();
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private boolean awaited;
+
+	private volatile ThreadPoolExecutor threadPoolExecutor;
+
+	/**
+	 * Sets the maximum number of queries created concurrently. Defaults to the number of available processors.
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "parallelism must be greater than 0");
+		this.parallelism = parallelism;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Schedules the creation of the given query. Strict queries submitted after {@link #awaitResolution()} are created
+	 * straight away.
+	 *
+	 * @param query the query to create.
+	 * @param strict whether {@link #awaitResolution()} waits for the query.
+	 */
+	void submit(final DeferredRepositoryQuery query, final boolean strict) {
+		if (strict) {
+			boolean createNow;
+			synchronized (this) {
+				createNow = awaited;
+				if (!createNow) {
+					strictQueries.add(query);
+				}
+			}
+			if (createNow) {
+				query.getQuery();
+				return;
+			}
+		}
+		getThreadPoolExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				Throwable error = query.resolve();
+				if (error != null && !strict) {
+					logger.warn("Could not create the query of {}", query.getName(), error);
+				}
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.SmartInitializingSingleton#afterSingletonsInstantiated()
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		awaitResolution();
+	}
+
+	/**
+	 * Waits for the queries of {@link QueryResolutionMode#STRICT} repositories, helping to create those not started
+	 * yet. Called once all singletons are instantiated when used as a bean.
+	 *
+	 * @throws IllegalStateException if a query method is invalid, naming every invalid method.
+	 */
+	public void awaitResolution() {
+
+		List<DeferredRepositoryQuery> queries;
+		synchronized (this) {
+			queries = new ArrayList<>(strictQueries);
+			strictQueries.clear();
+			awaited = true;
+		}
+
+		StringBuilder invalid = new StringBuilder();
+		Throwable cause = null;
+		for (DeferredRepositoryQuery query : queries) {
+			Throwable error = query.resolve();
+			if (error != null) {
+				invalid.append(System.lineSeparator()).append(query.getName()).append(": ").append(error.getMessage());
+				cause = cause == null ? error : cause;
+			}
+		}
+		if (cause != null) {
+			throw new IllegalStateException("Invalid repository query methods:" + invalid, cause);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		ThreadPoolExecutor executor = this.threadPoolExecutor;
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	private ThreadPoolExecutor getThreadPoolExecutor() {
+		ThreadPoolExecutor executor = this.threadPoolExecutor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = this.threadPoolExecutor;
+				if (executor == null) {
+					CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("neo4j-query-resolution-");
+					threadFactory.setDaemon(true);
+					executor = new ThreadPoolExecutor(parallelism, parallelism, 10L, TimeUnit.SECONDS,
+							new LinkedBlockingQueue<Runnable>(), threadFactory);
+					executor.allowCoreThreadTimeOut(true);
+					this.threadPoolExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.ogm.model.QueryStatistics;
+import org.neo4j.ogm.model.Result;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.annotation.BatchQuery;
+import org.springframework.data.neo4j.exception.BatchQueryFailedException;
+import org.springframework.data.neo4j.metrics.InvocationTrace;
+import org.springframework.data.repository.query.Parameter;
+import org.springframework.data.repository.query.ParameterAccessor;
+import org.springframework.data.repository.query.Parameters;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Specialisation of {@link GraphRepositoryQuery} executing a <code>&#064;Query</code> once per element of a
+ * collection parameter by unwinding batches of elements on the database side.
+ *
+ * @see BatchQuery
+ */
+public class BatchGraphRepositoryQuery extends GraphRepositoryQuery {
+
+	static final String ROWS = "rows";
+	static final String UNWIND_CLAUSE = "UNWIND {" + ROWS + "} AS row ";
+
+	private final String batchParameterKey;
+	private final int batchSize;
+	private final String orderBy;
+
+	public BatchGraphRepositoryQuery(GraphQueryMethod graphQueryMethod, Session session) {
+		super(graphQueryMethod, session);
+		this.batchSize = graphQueryMethod.getBatchSize();
+		this.orderBy = graphQueryMethod.getBatchOrderBy();
+		this.batchParameterKey = findBatchParameterKey(graphQueryMethod);
+		validateReturnType(graphQueryMethod);
+	}
+
+	@Override
+	protected Object execute(Class<?> returnType, Class<?> concreteType, String cypherQuery,
+							 Map<String, Object> queryParams, ParameterAccessor parameterAccessor) {
+
+		Map<String, Object> sharedParams = new HashMap<>(queryParams);
+		List<Object> rows = toList(sharedParams.remove(batchParameterKey));
+		if (orderBy != null) {
+			Collections.sort(rows, new RowComparator(orderBy));
+		}
+		String batchQuery = toBatchQuery(cypherQuery);
+
+		AggregatedResult result = new AggregatedResult();
+		for (int from = 0; from < rows.size(); from += batchSize) {
+			Map<String, Object> params = new HashMap<>(sharedParams);
+			params.put(ROWS, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+			InvocationTrace.statement(batchQuery, params);
+			try {
+				result.add(session.query(batchQuery, params));
+			} catch (RuntimeException e) {
+				// outside of a transaction every batch commits on its own
+				if (from == 0 || TransactionSynchronizationManager.isActualTransactionActive()) {
+					throw e;
+				}
+				String msg = String.format("Batch of rows %d to %d of %s failed, the preceding %d rows are committed",
+						from, Math.min(rows.size(), from + batchSize) - 1, graphQueryMethod.getName(), from);
+				throw new BatchQueryFailedException(msg, from, e);
+			}
+		}
+
+		if (QueryStatistics.class.isAssignableFrom(returnType)) {
+			return result.queryStatistics();
+		}
+		return Result.class.isAssignableFrom(returnType) ? result : null;
+	}
+
+	private static String findBatchParameterKey(GraphQueryMethod graphQueryMethod) {
+		String key = null;
+		Parameters<?, ?> parameters = graphQueryMethod.getParameters();
+		for (int i = 0; i < parameters.getNumberOfParameters(); i++) {
+			Parameter parameter = parameters.getParameter(i);
+			Class<?> type = parameter.getType();
+			if (Iterable.class.isAssignableFrom(type) || type.isArray()) {
+				if (key != null) {
+					throw new IllegalArgumentException(graphQueryMethod.getMethod().getName()
+							+ " must declare exactly one Iterable or array parameter to be used as @BatchQuery");
+				}
+				key = parameter.isNamedParameter() ? parameter.getName() : "" + i;
+			}
+		}
+		if (key == null) {
+			throw new IllegalArgumentException(graphQueryMethod.getMethod().getName()
+					+ " must declare an Iterable or array parameter to be used as @BatchQuery");
+		}
+		return key;
+	}
+
+	private static void validateReturnType(GraphQueryMethod graphQueryMethod) {
+		Class<?> returnType = graphQueryMethod.getMethod().getReturnType();
+		if (!(returnType.equals(void.class) || returnType.equals(Void.class)
+				|| QueryStatistics.class.isAssignableFrom(returnType) || Result.class.isAssignableFrom(returnType))) {
+			throw new IllegalArgumentException(graphQueryMethod.getMethod().getName()
+					+ " must return void, QueryStatistics or Result to be used as @BatchQuery");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> toList(Object rows) {
+		if (rows == null) {
+			return new ArrayList<>();
+		}
+		if (rows.getClass().isArray()) {
+			return new ArrayList<Object>(CollectionUtils.arrayToList(rows));
+		}
+		List<Object> list = new ArrayList<>();
+		for (Object row : (Iterable<Object>) rows) {
+			list.add(row);
+		}
+		return list;
+	}
+
+	/**
+	 * Orders rows by the value at a key of map rows, or by simple rows themselves. Null values come last, numbers are
+	 * compared by value whatever their type and values of different types are grouped by type.
+	 */
+	static class RowComparator implements Comparator<Object> {
+
+		private final String key;
+
+		RowComparator(String key) {
+			this.key = key;
+		}
+
+		@Override
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public int compare(Object left, Object right) {
+			Object leftValue = valueOf(left);
+			Object rightValue = valueOf(right);
+			if (leftValue == null || rightValue == null) {
+				return leftValue == rightValue ? 0 : leftValue == null ? 1 : -1;
+			}
+			if (leftValue instanceof Number && rightValue instanceof Number) {
+				return compareNumbers((Number) leftValue, (Number) rightValue);
+			}
+			if (leftValue.getClass() != rightValue.getClass() || !(leftValue instanceof Comparable)) {
+				return leftValue.getClass().getName().compareTo(rightValue.getClass().getName());
+			}
+			return ((Comparable) leftValue).compareTo(rightValue);
+		}
+
+		private static int compareNumbers(Number left, Number right) {
+			try {
+				return new BigDecimal(left.toString()).compareTo(new BigDecimal(right.toString()));
+			} catch (NumberFormatException e) {
+				// NaN or infinity
+				return Double.compare(left.doubleValue(), right.doubleValue());
+			}
+		}
+
+		private Object valueOf(Object row) {
+			return row instanceof Map ? ((Map<?, ?>) row).get(key) : row;
+		}
+	}
+
+	/**
+	 * @param cypherQuery the Cypher of a {@link org.springframework.data.neo4j.annotation.BatchQuery} method.
+	 * @return the statement actually sent to the database for each batch.
+	 */
+	static String toBatchQuery(String cypherQuery) {
+		return UNWIND_CLAUSE + formatBaseQuery(cypherQuery);
+	}
+}
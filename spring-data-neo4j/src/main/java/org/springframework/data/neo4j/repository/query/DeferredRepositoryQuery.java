@@ -0,0 +1,115 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RunnableFuture;
+
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.repository.query.RepositoryQuery;
+
+/**
+ * {@link RepositoryQuery} whose actual query is only created when first needed, either by the first invocation or by a
+ * {@link BackgroundQueryResolver}, whichever comes first. The {@link QueryMethod} is cheap to build and created up
+ * front, as the repository infrastructure inspects it while the repository is created.
+ *
+ * @see QueryResolutionMode
+ */
+class DeferredRepositoryQuery implements RepositoryQuery {
+
+	private final String name;
+	private final QueryMethod queryMethod;
+	private final RunnableFuture<RepositoryQuery> resolution;
+
+	private volatile RepositoryQuery query;
+
+	/**
+	 * @param name the name of the repository method, used in error messages.
+	 * @param queryMethod the query method of the actual query.
+	 * @param resolution the task creating the actual query, run at most once.
+	 */
+	DeferredRepositoryQuery(String name, QueryMethod queryMethod, RunnableFuture<RepositoryQuery> resolution) {
+		this.name = name;
+		this.queryMethod = queryMethod;
+		this.resolution = resolution;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.repository.query.RepositoryQuery#execute(java.lang.Object[])
+	 */
+	@Override
+	public Object execute(Object[] parameters) {
+		return getQuery().execute(parameters);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.repository.query.RepositoryQuery#getQueryMethod()
+	 */
+	@Override
+	public QueryMethod getQueryMethod() {
+		return queryMethod;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	/**
+	 * Creates the actual query on the current thread unless this has already started elsewhere, in which case it waits
+	 * for it to complete.
+	 *
+	 * @return the failure of the creation, {@literal null} if it succeeded.
+	 */
+	Throwable resolve() {
+		try {
+			getQuery();
+			return null;
+		} catch (RuntimeException | Error e) {
+			return e;
+		}
+	}
+
+	/**
+	 * @return the actual query, created on the current thread if needed.
+	 * @throws RuntimeException the exception thrown by the creation of the query, on every call.
+	 */
+	RepositoryQuery getQuery() {
+
+		RepositoryQuery resolved = query;
+		if (resolved != null) {
+			return resolved;
+		}
+
+		resolution.run();
+		try {
+			resolved = resolution.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the query of " + name, e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Could not create the query of " + name, cause);
+		}
+		query = resolved;
+		return resolved;
+	}
+}
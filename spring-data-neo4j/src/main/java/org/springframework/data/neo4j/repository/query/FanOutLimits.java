@@ -0,0 +1,96 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * Caps the number of neighbours loaded per node and relationship type at each hop of a load with a depth, so that
+ * loading an entity attached to a supernode does not transfer all of its relationships. Relationship types without a
+ * limit of their own use the default limit, if any.
+ *
+ * @see FanOutLoader
+ * @see org.springframework.data.neo4j.repository.PartialLoadAware
+ */
+public class FanOutLimits {
+
+	private final Map<String, Integer> limits = new LinkedHashMap<>();
+	private Integer defaultLimit;
+
+	/**
+	 * Sets the maximum number of neighbours loaded per node for each of the given relationship types.
+	 */
+	public void setLimits(Map<String, Integer> limits) {
+		for (Map.Entry<String, Integer> limit : limits.entrySet()) {
+			setLimit(limit.getKey(), limit.getValue());
+		}
+	}
+
+	/**
+	 * Sets the maximum number of neighbours loaded per node over relationships of the given type.
+	 */
+	public void setLimit(String relationshipType, int limit) {
+		Assert.hasText(relationshipType, "Relationship type must not be empty!");
+		Assert.isTrue(limit >= 0, "Limit must not be negative!");
+		limits.put(relationshipType, limit);
+	}
+
+	/**
+	 * Sets the maximum number of neighbours loaded per node over relationships of types without a limit of their own.
+	 * Unlimited by default.
+	 */
+	public void setDefaultLimit(int defaultLimit) {
+		Assert.isTrue(defaultLimit >= 0, "Limit must not be negative!");
+		this.defaultLimit = defaultLimit;
+	}
+
+	public Map<String, Integer> getLimits() {
+		return Collections.unmodifiableMap(limits);
+	}
+
+	/**
+	 * @return the default limit, or {@literal null} if unlimited.
+	 */
+	public Integer getDefaultLimit() {
+		return defaultLimit;
+	}
+
+	/**
+	 * @return whether no neighbours are ever left out.
+	 */
+	public boolean isEmpty() {
+		return limits.isEmpty() && defaultLimit == null;
+	}
+
+	/**
+	 * @return a Cypher expression evaluating to the limit for the relationship type held by the given variable, or to
+	 *         the given size if unlimited.
+	 */
+	String limitExpression(String typeVariable, String sizeExpression) {
+		String otherwise = defaultLimit != null ? defaultLimit.toString() : sizeExpression;
+		if (limits.isEmpty()) {
+			return otherwise;
+		}
+		StringBuilder expression = new StringBuilder("CASE ").append(typeVariable);
+		for (Map.Entry<String, Integer> limit : limits.entrySet()) {
+			expression.append(" WHEN '").append(limit.getKey().replace("\\", "\\\\").replace("'", "\\'"))
+					.append("' THEN ").append(limit.getValue());
+		}
+		return expression.append(" ELSE ").append(otherwise).append(" END").toString();
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.ogm.model.Result;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.neo4j.metrics.InvocationTrace;
+import org.springframework.data.neo4j.repository.PartialLoadAware;
+import org.springframework.util.Assert;
+
+/**
+ * Loads the relationships of entities up to a depth while respecting {@link FanOutLimits}.
+ * <p>
+ * Each hop runs a statement returning the ids of at most the allowed number of relationships per node and type, along
+ * with the total number of relationships of each type. Once all hops are done, the entities are reloaded with the
+ * selected relationships in a single statement, and entities implementing {@link PartialLoadAware} are told which
+ * relationship types were truncated. The remaining neighbours can be paged through with
+ * {@link #findNeighbours(Object, String, Class, Pageable)}.
+ */
+public class FanOutLoader {
+
+	static final String IDS = "ids";
+	static final String RELATIONSHIPS = "relationships";
+
+	private static final String LOAD_STATEMENT = "MATCH (n) WHERE ID(n) IN {" + IDS + "} WITH collect(n) AS roots"
+			+ " OPTIONAL MATCH p=()-[r]->() WHERE ID(r) IN {" + RELATIONSHIPS + "} RETURN roots, collect(p) AS paths";
+
+	private final Session session;
+	private final String neighboursStatement;
+
+	public FanOutLoader(Session session, FanOutLimits limits) {
+		Assert.notNull(session, "Session must not be null!");
+		Assert.notNull(limits, "FanOutLimits must not be null!");
+		this.session = session;
+		this.neighboursStatement = "MATCH (n) WHERE ID(n) IN {" + IDS + "} MATCH (n)-[r]-(m)"
+				+ " WITH n, type(r) AS type, collect([ID(r), ID(m)]) AS neighbours"
+				+ " RETURN ID(n) AS id, type, size(neighbours) AS degree, neighbours[.."
+				+ limits.limitExpression("type", "size(neighbours)") + "] AS neighbours";
+	}
+
+	/**
+	 * Reloads the given entities with their relationships up to the given depth, keeping their order. Objects that are
+	 * not persisted entities are returned as they are.
+	 *
+	 * @param type the domain type of the entities.
+	 * @param entities the entities to reload.
+	 * @param depth the number of hops to load, {@literal -1} for no limit.
+	 * @return the reloaded entities.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> load(Class<?> type, Iterable<T> entities, int depth) {
+		List<T> roots = new ArrayList<>();
+		List<Long> rootIds = new ArrayList<>();
+		Set<Long> ids = new LinkedHashSet<>();
+		for (T entity : entities) {
+			Long id = entity == null ? null : session.resolveGraphIdFor(entity);
+			roots.add(entity);
+			rootIds.add(id);
+			if (id != null) {
+				ids.add(id);
+			}
+		}
+		if (ids.isEmpty() || depth == 0) {
+			return roots;
+		}
+
+		Set<Long> relationships = new LinkedHashSet<>();
+		Map<Long, Map<String, Long>> truncated = new HashMap<>();
+		Set<Long> visited = new LinkedHashSet<>(ids);
+		Set<Long> frontier = ids;
+		for (int hop = 0; (depth < 0 || hop < depth) && !frontier.isEmpty(); hop++) {
+			Set<Long> next = new LinkedHashSet<>();
+			Map<String, Object> parameters = Collections.<String, Object>singletonMap(IDS, new ArrayList<>(frontier));
+			InvocationTrace.statement(neighboursStatement, parameters);
+			Result result = session.query(neighboursStatement, parameters);
+			for (Map<String, Object> row : result.queryResults()) {
+				List<?> neighbours = asList(row.get("neighbours"));
+				for (Object neighbour : neighbours) {
+					List<?> pair = asList(neighbour);
+					relationships.add(((Number) pair.get(0)).longValue());
+					Long neighbourId = ((Number) pair.get(1)).longValue();
+					if (visited.add(neighbourId)) {
+						next.add(neighbourId);
+					}
+				}
+				long degree = ((Number) row.get("degree")).longValue();
+				if (degree > neighbours.size()) {
+					Long id = ((Number) row.get("id")).longValue();
+					Map<String, Long> degrees = truncated.get(id);
+					if (degrees == null) {
+						degrees = new LinkedHashMap<>();
+						truncated.put(id, degrees);
+					}
+					degrees.put((String) row.get("type"), degree);
+				}
+			}
+			frontier = next;
+		}
+
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put(IDS, new ArrayList<>(ids));
+		parameters.put(RELATIONSHIPS, new ArrayList<>(relationships));
+		InvocationTrace.statement(LOAD_STATEMENT, parameters);
+		Map<Long, Object> loaded = new HashMap<>();
+		for (Object entity : session.query(type, LOAD_STATEMENT, parameters)) {
+			Long id = session.resolveGraphIdFor(entity);
+			if (id != null && ids.contains(id)) {
+				loaded.put(id, entity);
+			}
+		}
+
+		List<T> result = new ArrayList<>(roots.size());
+		for (int i = 0; i < roots.size(); i++) {
+			Long id = rootIds.get(i);
+			Object entity = id == null ? null : loaded.get(id);
+			if (entity instanceof PartialLoadAware) {
+				Map<String, Long> degrees = truncated.get(id);
+				((PartialLoadAware) entity).setTruncatedRelationships(
+						degrees != null ? Collections.unmodifiableMap(degrees) : Collections.<String, Long>emptyMap());
+			}
+			result.add(entity != null ? (T) entity : roots.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Loads a page of the neighbours of the given entity over relationships of the given type, in either direction,
+	 * ordered by relationship id.
+	 *
+	 * @param entity a persisted entity.
+	 * @param relationshipType the relationship type.
+	 * @param neighbourType the domain type of the neighbours.
+	 * @param pageable the page to load.
+	 * @return the page of neighbours, along with the total number of relationships of the type.
+	 */
+	public <N> Page<N> findNeighbours(Object entity, String relationshipType, Class<N> neighbourType, Pageable pageable) {
+		Long id = session.resolveGraphIdFor(entity);
+		Assert.notNull(id, "Entity must be persisted!");
+		Assert.hasText(relationshipType, "Relationship type must not be empty!");
+		Assert.isTrue(relationshipType.indexOf('`') < 0, "Invalid relationship type " + relationshipType);
+		Assert.notNull(pageable, "Pageable must not be null!");
+
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("id", id);
+		parameters.put("skip", pageable.getOffset());
+		parameters.put("limit", pageable.getPageSize());
+		String statement = "MATCH (n)-[r:`" + relationshipType + "`]-(m) WHERE ID(n) = {id}"
+				+ " RETURN m ORDER BY ID(r) SKIP {skip} LIMIT {limit}";
+		InvocationTrace.statement(statement, parameters);
+		List<N> content = new ArrayList<>();
+		for (N neighbour : session.query(neighbourType, statement, parameters)) {
+			content.add(neighbour);
+		}
+
+		String countStatement = "MATCH (n) WHERE ID(n) = {id} RETURN size((n)-[:`" + relationshipType + "`]-())";
+		InvocationTrace.statement(countStatement, parameters);
+		Long total = session.queryForObject(Long.class, countStatement, parameters);
+		return new PageImpl<>(content, pageable, total != null ? total : content.size());
+	}
+
+	String getNeighboursStatement() {
+		return neighboursStatement;
+	}
+
+	private static List<?> asList(Object value) {
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		if (value instanceof Object[]) {
+			return Arrays.asList((Object[]) value);
+		}
+		if (value instanceof List) {
+			return (List<?>) value;
+		}
+		return new ArrayList<>((Collection<?>) value);
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.annotation.EndNode;
+import org.neo4j.ogm.annotation.Relationship;
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.annotation.StartNode;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.session.Session;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.neo4j.metrics.InvocationTrace;
+import org.springframework.data.neo4j.repository.Fetch;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Loads entities together with the relationships on the paths of a {@link Fetch} plan, generating a statement that
+ * matches each path from the root node and collects the matched paths, so that relationships not on a path are left
+ * alone.
+ * <p>
+ * Entities already loaded, e.g. by a derived finder at depth 0, are reloaded by their ids in a single statement, keeping
+ * their order. Statements are cached per domain type and plan.
+ */
+public class FetchPlanExpander {
+
+	static final String IDS = "ids";
+
+	private final Session session;
+	private final ConcurrentMap<String, String> statements = new ConcurrentHashMap<>();
+
+	private final MetaData metaData;
+
+	/**
+	 * @param session the session to load entities with.
+	 * @param metaData the mapping metadata of the session, must not be {@literal null}.
+	 */
+	public FetchPlanExpander(Session session, MetaData metaData) {
+		Assert.notNull(metaData, "MetaData must not be null!");
+		this.session = session;
+		this.metaData = metaData;
+	}
+
+	/**
+	 * Loads all entities of the given type with the relationships on the paths of the given plan.
+	 */
+	public <T> List<T> loadAll(Class<T> type, Fetch fetch) {
+		String cypher = statement(type, fetch, true);
+		Map<String, Object> parameters = Collections.emptyMap();
+		InvocationTrace.statement(cypher, parameters);
+		List<T> result = new ArrayList<>();
+		for (T entity : session.query(type, cypher, parameters)) {
+			if (type.isInstance(entity)) {
+				result.add(entity);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Reloads the given entities with the relationships on the paths of the given plan, keeping their order. Objects
+	 * that are not persisted entities are returned as they are.
+	 *
+	 * @param type the domain type the paths of the plan start at.
+	 * @param entities the entities to reload.
+	 * @param fetch the plan.
+	 * @return the reloaded entities.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> load(Class<?> type, Iterable<T> entities, Fetch fetch) {
+		List<T> roots = new ArrayList<>();
+		List<Long> rootIds = new ArrayList<>();
+		Set<Long> ids = new LinkedHashSet<>();
+		for (T entity : entities) {
+			Long id = entity == null ? null : session.resolveGraphIdFor(entity);
+			roots.add(entity);
+			rootIds.add(id);
+			if (id != null) {
+				ids.add(id);
+			}
+		}
+		if (ids.isEmpty()) {
+			return roots;
+		}
+
+		String cypher = statement(type, fetch, false);
+		Map<String, Object> parameters = Collections.<String, Object>singletonMap(IDS, new ArrayList<>(ids));
+		InvocationTrace.statement(cypher, parameters);
+		Map<Long, Object> loaded = new HashMap<>();
+		for (Object entity : session.query(type, cypher, parameters)) {
+			Long id = session.resolveGraphIdFor(entity);
+			if (id != null && ids.contains(id)) {
+				loaded.put(id, entity);
+			}
+		}
+
+		List<T> result = new ArrayList<>(roots.size());
+		for (int i = 0; i < roots.size(); i++) {
+			Object entity = rootIds.get(i) == null ? null : loaded.get(rootIds.get(i));
+			result.add(entity != null ? (T) entity : roots.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Reloads the entities of a query method result, which may be a single entity, a collection or a {@link Slice}, with
+	 * the relationships on the paths of the given plan.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Object load(Class<?> type, Object result, Fetch fetch) {
+		if (result == null) {
+			return null;
+		}
+		if (result instanceof Slice) {
+			Slice<?> slice = (Slice<?>) result;
+			if (!slice.hasContent()) {
+				return result;
+			}
+			List content = load(type, slice.getContent(), fetch);
+			PageRequest pageable = new PageRequest(slice.getNumber(), slice.getSize(), slice.getSort());
+			return slice instanceof Page ? new PageImpl(content, pageable, ((Page<?>) slice).getTotalElements())
+					: new SliceImpl(content, pageable, slice.hasNext());
+		}
+		if (result instanceof Iterable) {
+			List<?> entities = load(type, (Iterable<?>) result, fetch);
+			return result instanceof Set ? new LinkedHashSet<>(entities) : entities;
+		}
+		return load(type, Collections.singletonList(result), fetch).get(0);
+	}
+
+	String statement(Class<?> type, Fetch fetch, boolean allOfType) {
+		String key = type.getName() + (allOfType ? "#all" : "#ids") + fetch.getPaths();
+		String statement = statements.get(key);
+		if (statement == null) {
+			statement = createStatement(type, fetch, allOfType);
+			statements.putIfAbsent(key, statement);
+		}
+		return statement;
+	}
+
+	private String createStatement(Class<?> type, Fetch fetch, boolean allOfType) {
+		ClassInfo root = metaData.classInfo(type.getName());
+		if (root == null) {
+			throw new IllegalArgumentException("No mapping metadata for " + type.getName());
+		}
+
+		// one pattern per distinct path prefix, so that shorter paths are loaded where longer ones do not match
+		Map<String, String> patterns = new LinkedHashMap<>();
+		for (String path : fetch.getPaths()) {
+			ClassInfo owner = root;
+			StringBuilder pattern = new StringBuilder("(n)");
+			StringBuilder prefix = new StringBuilder();
+			String[] segments = StringUtils.delimitedListToStringArray(path, ".");
+			for (int i = 0; i < segments.length; i++) {
+				if (owner == null) {
+					throw new IllegalArgumentException("Cannot resolve fetch path " + path + " of " + type.getName()
+							+ ": " + segments[i - 1] + " does not lead to an entity");
+				}
+				owner = appendHop(pattern, owner, segments[i], path);
+				pattern.append("()");
+				prefix.append(i > 0 ? "." : "").append(segments[i]);
+				if (!patterns.containsKey(prefix.toString())) {
+					patterns.put(prefix.toString(), pattern.toString());
+				}
+			}
+		}
+
+		StringBuilder cypher = new StringBuilder();
+		if (allOfType) {
+			cypher.append("MATCH (n:`").append(root.neo4jName()).append("`) WITH n");
+		} else {
+			cypher.append("MATCH (n) WHERE ID(n) IN {").append(IDS).append("} WITH n");
+		}
+		StringBuilder returned = new StringBuilder("n");
+		int index = 0;
+		for (String pattern : patterns.values()) {
+			String variable = "p" + index++;
+			cypher.append(" OPTIONAL MATCH ").append(variable).append('=').append(pattern)
+					.append(" WITH ").append(returned)
+					.append(", collect(DISTINCT ").append(variable).append(") AS ").append(variable);
+			returned.append(", ").append(variable);
+		}
+		return cypher.append(" RETURN ").append(returned).toString();
+	}
+
+	/**
+	 * Appends the relationship for the given field to the pattern.
+	 *
+	 * @return the {@link ClassInfo} of the related entity, or {@literal null} if it cannot be resolved
+	 */
+	private ClassInfo appendHop(StringBuilder pattern, ClassInfo owner, String fieldName, String path) {
+		FieldInfo fieldInfo = owner.relationshipFieldByName(fieldName);
+		if (fieldInfo == null) {
+			throw new IllegalArgumentException("Cannot resolve fetch path " + path + ": " + owner.name()
+					+ " has no relationship field " + fieldName);
+		}
+		Field field = owner.getField(fieldInfo);
+		Relationship relationship = field.getAnnotation(Relationship.class);
+		String direction = relationship != null ? relationship.direction() : Relationship.OUTGOING;
+		String relationshipType = fieldInfo.relationship();
+
+		Class<?> target = elementType(field);
+		if (target != null && target.isAnnotationPresent(RelationshipEntity.class)) {
+			RelationshipEntity relationshipEntity = target.getAnnotation(RelationshipEntity.class);
+			if ((relationship == null || relationship.type().isEmpty()) && !relationshipEntity.type().isEmpty()) {
+				relationshipType = relationshipEntity.type();
+			}
+			target = nodeType(target, Relationship.INCOMING.equals(direction) ? StartNode.class : EndNode.class);
+		}
+
+		String hop = "[:`" + relationshipType + "`]";
+		if (Relationship.INCOMING.equals(direction)) {
+			pattern.append("<-").append(hop).append('-');
+		} else if (Relationship.UNDIRECTED.equals(direction)) {
+			pattern.append('-').append(hop).append('-');
+		} else {
+			pattern.append('-').append(hop).append("->");
+		}
+		return target == null ? null : metaData.classInfo(target.getName());
+	}
+
+	private static Class<?> elementType(Field field) {
+		ResolvableType type = ResolvableType.forField(field);
+		if (type.isArray()) {
+			return type.getComponentType().resolve();
+		}
+		Class<?> rawType = type.resolve();
+		if (rawType != null && Collection.class.isAssignableFrom(rawType)) {
+			return type.asCollection().resolveGeneric(0);
+		}
+		return rawType;
+	}
+
+	private static Class<?> nodeType(Class<?> relationshipEntity, final Class<? extends Annotation> annotation) {
+		final List<Class<?>> types = new ArrayList<>(1);
+		ReflectionUtils.doWithFields(relationshipEntity, new ReflectionUtils.FieldCallback() {
+			@Override
+			public void doWith(Field field) {
+				if (types.isEmpty() && field.isAnnotationPresent(annotation)) {
+					types.add(field.getType());
+				}
+			}
+		});
+		return types.isEmpty() ? null : types.get(0);
+	}
+}
@@ -13,14 +13,22 @@
 
 package org.springframework.data.neo4j.repository.query;
 
+import org.neo4j.ogm.MetaData;
 import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.annotation.BatchQuery;
+import org.springframework.data.neo4j.annotation.Query;
+import org.springframework.data.neo4j.repository.query.derived.DerivedGraphRepositoryQuery;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.core.NamedQueries;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.query.QueryLookupStrategy;
 import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
 
 /**
  * @author Mark Angrish
@@ -30,9 +38,64 @@ import java.lang.reflect.Method;
 public class GraphQueryLookupStrategy implements QueryLookupStrategy {
 
     private final Session session;
+    private final QueryWarmup queryWarmup;
+    private final QueryResolutionMode resolutionMode;
+    private final BackgroundQueryResolver backgroundQueryResolver;
+    private FanOutLimits fanOutLimits;
+    private MetaData metaData;
 
     public GraphQueryLookupStrategy(Session session) {
+        this(session, null);
+    }
+
+    /**
+     * Creates a lookup strategy registering the Cypher of <code>&#064;Query</code> methods with the given
+     * {@link QueryWarmup}.
+     *
+     * @param session the session queries are run with.
+     * @param queryWarmup the warm-up to register statements with, may be {@literal null}.
+     */
+    public GraphQueryLookupStrategy(Session session, QueryWarmup queryWarmup) {
+        this(session, queryWarmup, QueryResolutionMode.EAGER, null);
+    }
+
+    /**
+     * Creates a lookup strategy creating queries as defined by the given {@link QueryResolutionMode}.
+     *
+     * @param session the session queries are run with.
+     * @param queryWarmup the warm-up to register statements with, may be {@literal null}.
+     * @param resolutionMode when to create queries.
+     * @param backgroundQueryResolver the resolver creating queries in the background, only required for
+     *            {@link QueryResolutionMode#BACKGROUND} and {@link QueryResolutionMode#STRICT}.
+     */
+    public GraphQueryLookupStrategy(Session session, QueryWarmup queryWarmup, QueryResolutionMode resolutionMode,
+            BackgroundQueryResolver backgroundQueryResolver) {
+        Assert.notNull(resolutionMode, "QueryResolutionMode must not be null!");
+        Assert.isTrue(backgroundQueryResolver != null || resolutionMode == QueryResolutionMode.EAGER
+                || resolutionMode == QueryResolutionMode.LAZY, "BackgroundQueryResolver must not be null!");
         this.session = session;
+        this.queryWarmup = queryWarmup;
+        this.resolutionMode = resolutionMode;
+        this.backgroundQueryResolver = backgroundQueryResolver;
+    }
+
+    /**
+     * Sets the limits on the number of neighbours derived finders load per relationship type.
+     *
+     * @param fanOutLimits the limits, may be {@literal null}.
+     */
+    public void setFanOutLimits(FanOutLimits fanOutLimits) {
+        this.fanOutLimits = fanOutLimits;
+    }
+
+    /**
+     * Sets the mapping metadata of the session, required by methods with a fetch plan and derived finders returning
+     * projections.
+     *
+     * @param metaData the metadata, may be {@literal null}.
+     */
+    public void setMetaData(MetaData metaData) {
+        this.metaData = metaData;
     }
     
     /* 
@@ -40,8 +103,48 @@ public class GraphQueryLookupStrategy implements QueryLookupStrategy {
      * @see org.springframework.data.repository.query.QueryLookupStrategy#resolveQuery(java.lang.reflect.Method, org.springframework.data.repository.core.RepositoryMetadata, org.springframework.data.projection.ProjectionFactory, org.springframework.data.repository.core.NamedQueries)
      */
     @Override
-    public RepositoryQuery resolveQuery(Method method, RepositoryMetadata metadata, ProjectionFactory factory,
-        NamedQueries namedQueries) {
-        return new GraphQueryMethod(method, metadata, factory, session).createQuery();
+    public RepositoryQuery resolveQuery(final Method method, final RepositoryMetadata metadata,
+        final ProjectionFactory factory, NamedQueries namedQueries) {
+
+        String name = metadata.getRepositoryInterface().getSimpleName() + "." + method.getName();
+        if (queryWarmup != null) {
+            registerForWarmup(method, name);
+        }
+        final GraphQueryMethod queryMethod = new GraphQueryMethod(method, metadata, factory, session, metaData);
+        if (resolutionMode == QueryResolutionMode.EAGER) {
+            return createQuery(queryMethod);
+        }
+
+        DeferredRepositoryQuery query = new DeferredRepositoryQuery(name, queryMethod,
+                new FutureTask<>(new Callable<RepositoryQuery>() {
+                    @Override
+                    public RepositoryQuery call() {
+                        return createQuery(queryMethod);
+                    }
+                }));
+        if (resolutionMode != QueryResolutionMode.LAZY) {
+            backgroundQueryResolver.submit(query, resolutionMode == QueryResolutionMode.STRICT);
+        }
+        return query;
+    }
+
+    private RepositoryQuery createQuery(GraphQueryMethod queryMethod) {
+        RepositoryQuery query = queryMethod.createQuery();
+        if (fanOutLimits != null && query instanceof DerivedGraphRepositoryQuery) {
+            ((DerivedGraphRepositoryQuery) query).setFanOutLimits(fanOutLimits);
+        }
+        return query;
+    }
+
+    private void registerForWarmup(Method method, String name) {
+        Query query = method.getAnnotation(Query.class);
+        if (query == null) {
+            return;
+        }
+        queryWarmup.register(session, name, method.getAnnotation(BatchQuery.class) != null
+                ? BatchGraphRepositoryQuery.toBatchQuery(query.value()) : query.value());
+        if (StringUtils.hasText(query.countQuery())) {
+            queryWarmup.register(session, name + " (count query)", query.countQuery());
+        }
     }
 }
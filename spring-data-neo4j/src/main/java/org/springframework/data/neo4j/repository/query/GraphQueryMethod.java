@@ -19,10 +19,14 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 
+import org.neo4j.ogm.MetaData;
 import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.annotation.BatchQuery;
 import org.springframework.data.neo4j.annotation.Depth;
+import org.springframework.data.neo4j.annotation.FetchPlan;
 import org.springframework.data.neo4j.annotation.Query;
 import org.springframework.data.neo4j.annotation.QueryResult;
+import org.springframework.data.neo4j.repository.Fetch;
 import org.springframework.data.neo4j.repository.query.derived.DerivedGraphRepositoryQuery;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.core.RepositoryMetadata;
@@ -37,22 +41,50 @@ import org.springframework.data.repository.query.RepositoryQuery;
 public class GraphQueryMethod extends QueryMethod {
 
     private final Session session;
+    private final MetaData metaData;
     private final Method method;
     private final Query queryAnnotation;
+    private final BatchQuery batchQueryAnnotation;
     private final Integer queryDepthParamIndex;
     private final Integer queryDepth;
+    private final Fetch fetch;
     private boolean staticDepth;
 
     public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session) {
+        this(method, metadata, factory, session, null);
+    }
+
+    /**
+     * @param metaData the mapping metadata of the session, required by methods with a {@link FetchPlan} and derived
+     *            finders returning projections.
+     */
+    public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session,
+            MetaData metaData) {
         super(method, metadata, factory);
         this.method = method;
         this.session = session;
+        this.metaData = metaData;
         this.queryAnnotation = method.getAnnotation(Query.class);
+        this.batchQueryAnnotation = method.getAnnotation(BatchQuery.class);
         this.queryDepthParamIndex = getQueryDepthParamIndex(method);
         this.queryDepth = getStaticQueryDepth(method);
         if (queryDepth!=null && queryDepthParamIndex!=null) {
             throw new IllegalArgumentException(method.getName() + " cannot have both a method @Depth and a parameter @Depth");
         }
+        FetchPlan fetchPlan = method.getAnnotation(FetchPlan.class);
+        this.fetch = fetchPlan != null ? Fetch.of(fetchPlan) : null;
+        if (fetch != null && (queryDepth != null || queryDepthParamIndex != null)) {
+            throw new IllegalArgumentException(method.getName() + " cannot have both a @FetchPlan and a @Depth");
+        }
+        if (fetch != null && batchQueryAnnotation != null) {
+            throw new IllegalArgumentException(method.getName() + " cannot have both a @FetchPlan and a @BatchQuery");
+        }
+        if (batchQueryAnnotation != null && queryAnnotation == null) {
+            throw new IllegalArgumentException(method.getName() + " must declare a @Query to be used as @BatchQuery");
+        }
+        if (batchQueryAnnotation != null && batchQueryAnnotation.batchSize() < 1) {
+            throw new IllegalArgumentException("Batch size of " + method.getName() + " must be greater than 0");
+        }
 
     }
 
@@ -64,6 +96,13 @@ public class GraphQueryMethod extends QueryMethod {
         return method;
     }
 
+    /**
+     * @return the mapping metadata of the session, may be {@literal null}.
+     */
+    public MetaData getMetaData() {
+        return metaData;
+    }
+
     @Override
     public String getNamedQueryName() {
         throw new UnsupportedOperationException("OGM does not currently support named queries.");
@@ -98,6 +137,9 @@ public class GraphQueryMethod extends QueryMethod {
 
     public RepositoryQuery createQuery() {
         if (method.getAnnotation(Query.class) != null) {
+            if (isBatchQuery()) {
+                return new BatchGraphRepositoryQuery(this, session);
+            }
             if (resolveConcreteReturnType().isAnnotationPresent(QueryResult.class)) {
                 return new QueryResultGraphRepositoryQuery(this, session);
             }
@@ -119,6 +161,35 @@ public class GraphQueryMethod extends QueryMethod {
         return staticDepth;
     }
 
+    /**
+     * @return the relationship paths to load with the returned entities, or {@literal null} if the method does not
+     *         declare a {@link FetchPlan}.
+     */
+    public Fetch getFetch() {
+        return fetch;
+    }
+
+    /**
+     * @return whether the query is executed once per element of a collection parameter.
+     * @see BatchQuery
+     */
+    public boolean isBatchQuery() {
+        return batchQueryAnnotation != null;
+    }
+
+    public int getBatchSize() {
+        return batchQueryAnnotation != null ? batchQueryAnnotation.batchSize() : 1;
+    }
+
+    /**
+     * @return the key of the rows a batch query sorts its rows by, or {@literal null} to keep their order.
+     * @see BatchQuery#orderBy()
+     */
+    public String getBatchOrderBy() {
+        return batchQueryAnnotation != null && !batchQueryAnnotation.orderBy().isEmpty() ? batchQueryAnnotation.orderBy()
+                : null;
+    }
+
     private Integer getQueryDepthParamIndex(Method method) {
         Annotation[][] annotations = method.getParameterAnnotations();
         for (int i = 0; i < annotations.length; i++) {
@@ -22,6 +22,7 @@ import org.neo4j.ogm.model.QueryStatistics;
 import org.neo4j.ogm.model.Result;
 import org.neo4j.ogm.session.Session;
 import org.springframework.data.domain.*;
+import org.springframework.data.neo4j.metrics.InvocationTrace;
 import org.springframework.data.repository.query.Parameter;
 import org.springframework.data.repository.query.ParameterAccessor;
 import org.springframework.data.repository.query.Parameters;
@@ -47,10 +48,12 @@ public class GraphRepositoryQuery implements RepositoryQuery {
 
 	protected final GraphQueryMethod graphQueryMethod;
 	protected final Session session;
+	private final FetchPlanExpander fetchPlanExpander;
 
 	public GraphRepositoryQuery(GraphQueryMethod graphQueryMethod, Session session) {
 		this.graphQueryMethod = graphQueryMethod;
 		this.session = session;
+		this.fetchPlanExpander = graphQueryMethod.getFetch() != null ? new FetchPlanExpander(session, graphQueryMethod.getMetaData()) : null;
 	}
 
 	@Override
@@ -62,10 +65,26 @@ public class GraphRepositoryQuery implements RepositoryQuery {
 
 		ParameterAccessor accessor = new ParametersParameterAccessor(graphQueryMethod.getParameters(), parameters);
 		ResultProcessor processor = graphQueryMethod.getResultProcessor();
-		Object result = execute(returnType, concreteType, getQueryString(), params, accessor);
+		Object result;
+		long queryStart = InvocationTrace.queryStarted();
+		try {
+			result = execute(returnType, concreteType, getQueryString(), params, accessor);
+			if (fetchPlanExpander != null && !queryReturnsStatistics()) {
+				result = fetchPlanExpander.load(concreteType, result, graphQueryMethod.getFetch());
+			}
+		} finally {
+			InvocationTrace.queryFinished(queryStart);
+		}
 
-		return Result.class.equals(returnType) ? result :
-				processor.withDynamicProjection(accessor).processResult(result);
+		if (Result.class.equals(returnType)) {
+			return result;
+		}
+		long projectionStart = InvocationTrace.projectionStarted();
+		try {
+			return processor.withDynamicProjection(accessor).processResult(result);
+		} finally {
+			InvocationTrace.projectionFinished(projectionStart);
+		}
 	}
 
 	protected Object execute(Class<?> returnType, Class<?> concreteType, String cypherQuery,
@@ -82,6 +101,7 @@ public class GraphRepositoryQuery implements RepositoryQuery {
 		}
 
 		if (returnType.equals(Void.class) || returnType.equals(void.class)) {
+			InvocationTrace.statement(cypherQuery, queryParams);
 			session.query(cypherQuery, queryParams);
 			return null;
 		}
@@ -90,6 +110,7 @@ public class GraphRepositoryQuery implements RepositoryQuery {
 			return mappedCollection(concreteType, cypherQuery, queryParams, pageable);
 		}
 
+		InvocationTrace.statement(cypherQuery, queryParams);
 		if (queryReturnsStatistics()) {
 			return session.query(cypherQuery, queryParams);
 		}
@@ -157,6 +178,7 @@ public class GraphRepositoryQuery implements RepositoryQuery {
 		if (countQuery == null || !StringUtils.hasText(countQuery)) {
 			return null;
 		}
+		InvocationTrace.statement(countQuery, params);
 		Result countResult = session.query(countQuery, params);
 		if (countResult != null && countResult.iterator().hasNext()) {
 			return ((Number) countResult.iterator().next().values().iterator().next()).longValue();
@@ -195,14 +217,17 @@ public class GraphRepositoryQuery implements RepositoryQuery {
 	private Object mappedCollection(Class<?> concreteType, String cypherQuery, Map<String, Object> queryParams, Pageable pageable) {// Special method to handle SDN Iterable<Map<String, Object>> behaviour.
 		// TODO: Do we really want this method in an OGM? It's a little too low level and/or doesn't really fit.
 		if (Map.class.isAssignableFrom(concreteType)) {
+			InvocationTrace.statement(cypherQuery, queryParams);
 			return session.query(cypherQuery, queryParams).queryResults();
 		}
 		List resultList;
 		if (graphQueryMethod.isPageQuery() || graphQueryMethod.isSliceQuery()) {
 			cypherQuery = addPaging(cypherQuery, queryParams, pageable.getPageNumber(), pageable.getPageSize());
+			InvocationTrace.statement(cypherQuery, queryParams);
 			resultList = (List) session.query(concreteType, cypherQuery, queryParams);
 			return createPage(graphQueryMethod, resultList, pageable, computeCount(queryParams));
 		} else {
+			InvocationTrace.statement(cypherQuery, queryParams);
 			resultList = (List) session.query(concreteType, cypherQuery, queryParams);
 		}
 		return resultList;
@@ -219,7 +244,7 @@ public class GraphRepositoryQuery implements RepositoryQuery {
 		return result;
 	}
 
-	private String formatBaseQuery(String cypherQuery) {
+	static String formatBaseQuery(String cypherQuery) {
 		cypherQuery = cypherQuery.trim();
 		if (cypherQuery.endsWith(";")) {
 			cypherQuery = cypherQuery.substring(0, cypherQuery.length() - 1);
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+/**
+ * Defines when the queries of repository query methods are created, which for derived finders includes parsing the
+ * method name and generating the query definition. The annotations and parameters of query methods are checked while
+ * their repository is created in every mode.
+ *
+ * @see org.springframework.data.neo4j.repository.config.EnableNeo4jRepositories#queryResolution()
+ */
+public enum QueryResolutionMode {
+
+	/**
+	 * Queries are created one by one while their repository is created, failing its creation on an invalid method.
+	 */
+	EAGER,
+
+	/**
+	 * Queries are created on the first invocation of their method, which fails if the method is invalid.
+	 */
+	LAZY,
+
+	/**
+	 * Queries are created in parallel on a {@link BackgroundQueryResolver}. Invocations wait for the query of their
+	 * method if needed and fail if the method is invalid.
+	 */
+	BACKGROUND,
+
+	/**
+	 * Queries are created in parallel as with {@link #BACKGROUND}, but the startup waits for all of them and fails
+	 * naming every invalid method.
+	 */
+	STRICT
+}
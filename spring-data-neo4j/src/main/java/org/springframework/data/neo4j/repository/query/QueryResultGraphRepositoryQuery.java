@@ -30,6 +30,7 @@ import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.transaction.Transaction;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.metrics.InvocationTrace;
 import org.springframework.data.repository.query.ParameterAccessor;
 
 /**
@@ -93,9 +94,11 @@ public class QueryResultGraphRepositoryQuery extends GraphRepositoryQuery {
 							  Pageable pageable) {
 		if (graphQueryMethod.isPageQuery() || graphQueryMethod.isSliceQuery()) {
 			final String query = addPaging(cypherQuery, queryParams, pageable.getPageNumber(), pageable.getPageSize());
+			InvocationTrace.statement(query, queryParams);
 			List<Object> objects = mappedProxyResults(targetType, this.session.query(query, queryParams));
 			return createPage(graphQueryMethod, objects, pageable, computeCount(queryParams));
 		} else {
+			InvocationTrace.statement(cypherQuery, queryParams);
 			return mappedProxyResults(targetType, this.session.query(cypherQuery, queryParams));
 		}
 	}
@@ -106,10 +109,13 @@ public class QueryResultGraphRepositoryQuery extends GraphRepositoryQuery {
 			public Collection<Object> apply(Request requestHandler, Transaction transaction, MetaData metaData) {
 				Collection<Object> toReturn = new ArrayList<>();
 				SingleUseEntityMapper entityMapper = new SingleUseEntityMapper(metaData, new EntityFactory(metaData));
+				InvocationTrace.statement(query, queryParams);
 				Iterable<Map<String, Object>> results = session.query(query, queryParams);
+				long projectionStart = InvocationTrace.projectionStarted();
 				for (Map<String, Object> result : results) {
 					toReturn.add(entityMapper.map(targetType, result));
 				}
+				InvocationTrace.projectionFinished(projectionStart);
 				return toReturn;
 			}
 		});
@@ -118,9 +124,11 @@ public class QueryResultGraphRepositoryQuery extends GraphRepositoryQuery {
 	private List mappedProxyResults(Class<?> targetType, Iterable<Map<String, Object>> queryResults) {
 		List<Object> resultObjects = new ArrayList<>();
 		Class<?>[] interfaces = new Class<?>[]{targetType};
+		long projectionStart = InvocationTrace.projectionStarted();
 		for (Map<String, Object> map : queryResults) {
 			resultObjects.add(newProxyInstance(targetType.getClassLoader(), interfaces, new QueryResultProxy(map)));
 		}
+		InvocationTrace.projectionFinished(projectionStart);
 		return resultObjects;
 	}
 }
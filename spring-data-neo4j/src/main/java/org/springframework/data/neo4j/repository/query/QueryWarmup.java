@@ -0,0 +1,248 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.ogm.exception.CypherException;
+import org.neo4j.ogm.session.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Runs {@code EXPLAIN} for the Cypher of <code>&#064;Query</code> methods and their count queries once all singletons
+ * are instantiated, so that the database has parsed and planned them before the first invocation.
+ * <p>
+ * Statements are explained in parallel, hence sessions must be safe for concurrent use, as the shared session of a
+ * repository configuration is. Statements rejected by the database as invalid fail the startup with an
+ * {@link InvalidDataAccessResourceUsageException} naming every offending method, other failures such as an
+ * unreachable database are only logged. Statements registered after the warm-up, e.g. by lazily initialized
+ * repositories, are explained straight away. One instance is registered per repository configuration and only used by
+ * configurations enabling {@code warmUpQueries}.
+ */
+public class QueryWarmup implements SmartInitializingSingleton {
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryWarmup.class);
+
+	private static final String INVALID_STATEMENT_CODE_PREFIX = "Neo.ClientError.Statement.";
+
+	private final Map<StatementKey, String> pending = new LinkedHashMap<>();
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private boolean warmedUp;
+	private int statementCount;
+	private long durationMillis = -1;
+
+	/**
+	 * Sets the maximum number of statements explained concurrently. Defaults to the number of available processors.
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "parallelism must be greater than 0");
+		this.parallelism = parallelism;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Registers a statement to be explained. Statements already registered for the same session are ignored.
+	 *
+	 * @param session the session the statement is run with.
+	 * @param name the name of the repository method declaring the statement, used in error messages.
+	 * @param cypher the Cypher statement.
+	 * @throws InvalidDataAccessResourceUsageException if the warm-up has already run and the statement is invalid.
+	 */
+	public void register(Session session, String name, String cypher) {
+		Assert.notNull(session, "Session must not be null!");
+		Assert.hasText(cypher, "Cypher statement must not be empty!");
+		StatementKey key = new StatementKey(session, cypher);
+		synchronized (this) {
+			if (!warmedUp) {
+				if (!pending.containsKey(key)) {
+					pending.put(key, name);
+				}
+				return;
+			}
+		}
+		Throwable error = explain(key);
+		if (error != null) {
+			handleFailures(Collections.singletonMap(name, error));
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.SmartInitializingSingleton#afterSingletonsInstantiated()
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		warmUp();
+	}
+
+	/**
+	 * Explains all statements registered so far in parallel. Called once all singletons are instantiated when used
+	 * as a bean.
+	 *
+	 * @throws InvalidDataAccessResourceUsageException if a statement is invalid.
+	 */
+	public void warmUp() {
+
+		final Map<StatementKey, String> statements;
+		synchronized (this) {
+			statements = new LinkedHashMap<>(pending);
+			pending.clear();
+			warmedUp = true;
+		}
+		if (statements.isEmpty()) {
+			return;
+		}
+
+		long start = System.currentTimeMillis();
+		Map<String, Throwable> failures = new LinkedHashMap<>();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, statements.size()),
+				createThreadFactory());
+		try {
+			List<Future<Throwable>> results = new ArrayList<>(statements.size());
+			for (final StatementKey key : statements.keySet()) {
+				results.add(executor.submit(new Callable<Throwable>() {
+					@Override
+					public Throwable call() {
+						return explain(key);
+					}
+				}));
+			}
+			int i = 0;
+			for (String name : statements.values()) {
+				Throwable error = results.get(i++).get();
+				if (error != null) {
+					failures.put(name, error);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while warming up repository queries", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Failed to warm up repository queries", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		long elapsed = System.currentTimeMillis() - start;
+		synchronized (this) {
+			statementCount += statements.size();
+			durationMillis = elapsed;
+		}
+		logger.info("Warmed up {} repository queries in {} ms", statements.size(), elapsed);
+		handleFailures(failures);
+	}
+
+	/**
+	 * @return the number of statements explained during the warm-up.
+	 */
+	public synchronized int getStatementCount() {
+		return statementCount;
+	}
+
+	/**
+	 * @return how long the warm-up took in milliseconds, {@literal -1} if it has not run yet.
+	 */
+	public synchronized long getDurationMillis() {
+		return durationMillis;
+	}
+
+	private static Throwable explain(StatementKey key) {
+		try {
+			key.session.query("EXPLAIN " + key.cypher, Collections.<String, Object>emptyMap());
+			return null;
+		} catch (RuntimeException e) {
+			return e;
+		}
+	}
+
+	private static void handleFailures(Map<String, Throwable> failures) {
+
+		StringBuilder invalid = new StringBuilder();
+		Throwable cause = null;
+		for (Map.Entry<String, Throwable> failure : failures.entrySet()) {
+			if (isInvalidStatement(failure.getValue())) {
+				invalid.append(System.lineSeparator()).append(failure.getKey()).append(": ")
+						.append(failure.getValue().getMessage());
+				cause = cause == null ? failure.getValue() : cause;
+			} else {
+				logger.warn("Could not warm up query of {}: {}", failure.getKey(), failure.getValue().toString());
+			}
+		}
+		if (cause != null) {
+			throw new InvalidDataAccessResourceUsageException("Invalid Cypher in repository queries:" + invalid, cause);
+		}
+	}
+
+	private static boolean isInvalidStatement(Throwable error) {
+		for (Throwable current = error; current != null; current = current.getCause()) {
+			if (current instanceof CypherException) {
+				String code = ((CypherException) current).getCode();
+				return code != null && code.startsWith(INVALID_STATEMENT_CODE_PREFIX);
+			}
+		}
+		return false;
+	}
+
+	private static CustomizableThreadFactory createThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("neo4j-query-warmup-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	private static class StatementKey {
+
+		private final Session session;
+		private final String cypher;
+
+		StatementKey(Session session, String cypher) {
+			this.session = session;
+			this.cypher = cypher;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof StatementKey)) {
+				return false;
+			}
+			StatementKey other = (StatementKey) o;
+			return session == other.session && cypher.equals(other.cypher);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(session) + cypher.hashCode();
+		}
+	}
+}
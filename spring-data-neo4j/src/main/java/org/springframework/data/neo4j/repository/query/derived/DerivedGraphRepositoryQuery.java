@@ -13,6 +13,8 @@
 
 package org.springframework.data.neo4j.repository.query.derived;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -33,11 +35,16 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.Metrics;
 import org.springframework.data.geo.Point;
+import org.springframework.data.neo4j.metrics.InvocationTrace;
+import org.springframework.data.neo4j.repository.query.FanOutLimits;
+import org.springframework.data.neo4j.repository.query.FanOutLoader;
+import org.springframework.data.neo4j.repository.query.FetchPlanExpander;
 import org.springframework.data.neo4j.repository.query.GraphQueryMethod;
 import org.springframework.data.repository.core.EntityMetadata;
 import org.springframework.data.repository.query.ParameterAccessor;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
 import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.repository.query.ResultProcessor;
 import org.springframework.data.repository.query.RepositoryQuery;
 import org.springframework.data.repository.query.parser.PartTree;
 
@@ -55,6 +62,9 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 
 	private final GraphQueryMethod graphQueryMethod;
 	private final PartTree tree;
+	private final FetchPlanExpander fetchPlanExpander;
+	private FanOutLoader fanOutLoader;
+	private final DerivedProjection projection;
 
 	protected final Session session;
 	protected final EntityMetadata info;
@@ -67,11 +77,28 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 		this.info = graphQueryMethod.getEntityInformation();
 		this.tree = new PartTree(graphQueryMethod.getName(), info.getJavaType());
 		this.queryDefinition = new DerivedQueryCreator(tree, info.getJavaType()).createQuery();
+		this.fetchPlanExpander = graphQueryMethod.getFetch() != null ? new FetchPlanExpander(session, graphQueryMethod.getMetaData()) : null;
+		ResultProcessor processor = graphQueryMethod.getResultProcessor();
+		this.projection = DerivedProjection.isProjecting(processor.getReturnedType())
+				? new DerivedProjection(session, graphQueryMethod.getMetaData(), info.getJavaType(), processor) : null;
+	}
+
+	/**
+	 * Sets the limits on the number of neighbours loaded per relationship type. Ignored for methods with a fetch plan.
+	 */
+	public void setFanOutLimits(FanOutLimits fanOutLimits) {
+		boolean limited = fanOutLimits != null && !fanOutLimits.isEmpty() && fetchPlanExpander == null;
+		this.fanOutLoader = limited ? new FanOutLoader(session, fanOutLimits) : null;
 	}
 
 	@Override
 	public Object execute(Object[] parameters) {
-		return doExecute(parameters);
+		long queryStart = InvocationTrace.queryStarted();
+		try {
+			return doExecute(parameters);
+		} finally {
+			InvocationTrace.queryFinished(queryStart);
+		}
 	}
 
 	private Object doExecute(Object[] parameters) {
@@ -92,6 +119,7 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 
 			if (getQueryMethod().getReturnedObjectType().equals(Long.class)) {
 				Filters filters = resolveParams(parameters);
+				traceStatement("count", parameters, null, null);
 				return session.count(info.getJavaType(), filters);
 			} else {
 		 		throw new RuntimeException("Long is required as the return type of a Count query");
@@ -110,6 +138,7 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 		public Object execute(Object[] parameters) {
 
 			Filters filters = resolveParams(parameters);
+			traceStatement("delete", parameters, null, null);
 
 			Class<?> returnType = graphQueryMethod.resolveConcreteReturnType();
 
@@ -141,15 +170,29 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 			Class<?> concreteType = graphQueryMethod.resolveConcreteReturnType();
 
 			int queryDepth = calculateQueryDepth(parameters);
+			// with fan-out limits the relationships are loaded by the fan-out loader
+			boolean fanOutLimited = fanOutLoader != null && queryDepth != 0;
+			int loadDepth = fanOutLimited ? 0 : queryDepth;
 
 			Filters params = resolveParams(parameters);
 			if (returnType.equals(Void.class)) {
 				throw new RuntimeException("Derived Queries must have a return type");
 			}
+			traceStatement("loadAll", parameters, pageable, sort);
+
+			if (projection != null) {
+				return findProjections(returnType, queryDepth, params, pageable, sort);
+			}
 
 			if (Iterable.class.isAssignableFrom(returnType)) {
 				PagingAndSorting pagingAndSorting = configurePagingAndSorting(pageable, sort);
-				List resultList = queryResults(concreteType, queryDepth, params, pagingAndSorting);
+				List resultList = queryResults(concreteType, loadDepth, params, pagingAndSorting);
+
+				if (fetchPlanExpander != null) {
+					resultList = fetchPlanExpander.load(concreteType, resultList, graphQueryMethod.getFetch());
+				} else if (fanOutLimited) {
+					resultList = fanOutLoader.load(concreteType, resultList, queryDepth);
+				}
 
 				if (graphQueryMethod.isPageQuery() || graphQueryMethod.isSliceQuery()) {
 					return createPage(graphQueryMethod, resultList, pageable);
@@ -158,9 +201,13 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 				}
 			}
 
-			Iterator<?> objectIterator = session.loadAll(returnType, params, queryDepth).iterator();
+			Iterator<?> objectIterator = session.loadAll(returnType, params, loadDepth).iterator();
 			if (objectIterator.hasNext()) {
-				return objectIterator.next();
+				Object result = objectIterator.next();
+				if (fanOutLimited) {
+					return fanOutLoader.load(returnType, Collections.singletonList(result), queryDepth).get(0);
+				}
+				return fetchPlanExpander != null ? fetchPlanExpander.load(returnType, result, graphQueryMethod.getFetch()) : result;
 			}
 			return null;
 		}
@@ -170,6 +217,38 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 			return graphQueryMethod;
 		}
 
+		private Object findProjections(Class<?> returnType, int queryDepth, Filters params, Pageable pageable,
+				Sort sort) {
+			boolean iterable = Iterable.class.isAssignableFrom(returnType);
+			List<Object> resultList;
+			if (projection.supportsRows(params)) {
+				Integer skip = null;
+				Integer limit = iterable ? null : 1;
+				if (pageable != null) {
+					skip = pageable.getOffset();
+					// for a slice, need one extra result to determine if there is a next page
+					limit = pageable.getPageSize() + (graphQueryMethod.isSliceQuery() ? 1 : 0);
+				}
+				resultList = projection.find(params, sort != null ? sort : pageable != null ? pageable.getSort() : null,
+						skip, limit);
+			} else {
+				// project the loaded entities, e.g. for filters on related entities or nested projections
+				resultList = new ArrayList<>();
+				for (Object entity : queryResults(info.getJavaType(), queryDepth, params,
+						configurePagingAndSorting(pageable, sort))) {
+					resultList.add(projection.project(entity));
+				}
+			}
+
+			if (!iterable) {
+				return resultList.isEmpty() ? null : resultList.get(0);
+			}
+			if (graphQueryMethod.isPageQuery() || graphQueryMethod.isSliceQuery()) {
+				return createPage(graphQueryMethod, resultList, pageable);
+			}
+			return resultList;
+		}
+
 		private List queryResults(Class<?> concreteType, int queryDepth, Filters params, PagingAndSorting pagingAndSorting) {
 			List resultList;
 			switch (pagingAndSorting.configuration()) {
@@ -197,7 +276,10 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 
 		private int calculateQueryDepth(Object[] parameters) {
 			int queryDepth = DEFAULT_QUERY_DEPTH;
-			if (graphQueryMethod.hasStaticDepth()) {
+			if (fetchPlanExpander != null) {
+				// relationships are loaded by the fetch plan
+				queryDepth = 0;
+			} else if (graphQueryMethod.hasStaticDepth()) {
 				queryDepth = graphQueryMethod.getQueryDepth();
 			} else {
 				if (graphQueryMethod.getQueryDepthParamIndex() != null) {
@@ -215,6 +297,50 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 	}
 
 
+	/**
+	 * Records a description of the query with the active {@link InvocationTrace}, if any. The actual Cypher statement
+	 * is generated by the OGM from the filters and not available here.
+	 */
+	private void traceStatement(String operation, Object[] parameters, Pageable pageable, Sort sort) {
+		if (InvocationTrace.current() == null) {
+			return;
+		}
+		StringBuilder statement = new StringBuilder(operation).append('(')
+				.append(info.getJavaType().getSimpleName()).append(')');
+		Map<String, Object> params = new HashMap<>();
+		List<CypherFilter> cypherFilters = queryDefinition.getCypherFilters();
+		for (int i = 0; i < cypherFilters.size(); i++) {
+			CypherFilter filter = cypherFilters.get(i);
+			if (i == 0) {
+				statement.append(" WHERE ");
+			} else {
+				statement.append(' ').append(filter.getBooleanOperator() != null ? filter.getBooleanOperator() : "AND").append(' ');
+			}
+			if (filter.isNegated()) {
+				statement.append("NOT ");
+			}
+			if (filter.getNestedPropertyName() != null) {
+				statement.append(filter.getNestedPropertyName()).append('.');
+			}
+			statement.append(filter.getPropertyName()).append(' ').append(filter.getComparisonOperator());
+			Integer position = filter.getPropertyPosition();
+			if (position != null && position < parameters.length) {
+				statement.append(" {").append(position).append('}');
+				params.put(String.valueOf(position), parameters[position]);
+			}
+		}
+		if (pageable != null && pageable.getSort() != null) {
+			sort = pageable.getSort();
+		}
+		if (sort != null) {
+			statement.append(" ORDER BY ").append(sort);
+		}
+		if (pageable != null) {
+			statement.append(" SKIP ").append(pageable.getOffset()).append(" LIMIT ").append(pageable.getPageSize());
+		}
+		InvocationTrace.derivedStatement(statement.toString(), params);
+	}
+
 	/**
 	 * Sets values from  parameters supplied by the finder on {@link org.neo4j.ogm.cypher.Filter} built by the {@link GraphQueryMethod}
 	 *
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query.derived;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.cypher.function.PropertyComparison;
+import org.neo4j.ogm.exception.MappingException;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.typeconversion.AttributeConverter;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.model.PreferredConstructorDiscoverer;
+import org.springframework.data.neo4j.metrics.InvocationTrace;
+import org.springframework.data.repository.query.ResultProcessor;
+import org.springframework.data.repository.query.ReturnedType;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Projection of the results of a derived finder returning a closed interface projection or a DTO. When the projected
+ * properties are all simple properties of the domain type and no filter crosses a relationship, the finder runs a
+ * statement returning just these properties, e.g. {@code MATCH (n:`User`) WHERE ... RETURN n.`name` AS `name`}, and
+ * maps the rows straight into the projection. Filters are rendered with the graph property names of their fields;
+ * filters on fields with a property converter, which Neo4j OGM applies to the filter value, are left to OGM as well.
+ * Otherwise the entities are loaded as usual and projected afterwards.
+ *
+ * @see ReturnedType#needsCustomConstruction()
+ */
+class DerivedProjection {
+
+	static final String SKIP = "sdnSkip";
+	static final String LIMIT = "sdnLimit";
+
+	private static final ConversionService CONVERSION_SERVICE = new DefaultConversionService();
+
+	private final Session session;
+	private final MetaData metaData;
+	private final Class<?> domainType;
+	private final ResultProcessor processor;
+	private final List<String> properties;
+	private final List<Class<?>> propertyTypes = new ArrayList<>();
+	private final Constructor<?> constructor;
+
+	private volatile Rows rows;
+
+	DerivedProjection(Session session, MetaData metaData, Class<?> domainType, ResultProcessor processor) {
+		Assert.notNull(metaData, "MetaData must not be null!");
+		this.session = session;
+		this.metaData = metaData;
+		this.domainType = domainType;
+		this.processor = processor;
+		ReturnedType returnedType = processor.getReturnedType();
+		this.properties = returnedType.getInputProperties();
+		Class<?> type = returnedType.getReturnedType();
+		if (type.isInterface()) {
+			this.constructor = null;
+			for (String property : properties) {
+				PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, property);
+				propertyTypes.add(descriptor != null ? descriptor.getPropertyType() : Object.class);
+			}
+		} else {
+			PreferredConstructor<?, ?> preferredConstructor = new PreferredConstructorDiscoverer<>(type).getConstructor();
+			this.constructor = preferredConstructor.getConstructor();
+			for (PreferredConstructor.Parameter<?, ?> parameter : preferredConstructor.getParameters()) {
+				propertyTypes.add(parameter.getRawType());
+			}
+		}
+	}
+
+	/**
+	 * @return whether the results of the given query method are closed interface or DTO projections.
+	 */
+	static boolean isProjecting(ReturnedType returnedType) {
+		return returnedType.isProjecting() && returnedType.needsCustomConstruction()
+				&& !returnedType.getInputProperties().isEmpty();
+	}
+
+	/**
+	 * @return whether the given filters can be applied by a statement returning just the projected properties.
+	 */
+	boolean supportsRows(Filters filters) {
+		Rows rows = rows();
+		if (rows == Rows.UNSUPPORTED) {
+			return false;
+		}
+		for (Filter filter : filters) {
+			if (filter.getNestedPropertyName() != null || !rows.supports(filter)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Runs a statement returning just the projected properties of the entities matching the given filters.
+	 *
+	 * @param skip the number of rows to skip, or {@literal null}.
+	 * @param limit the maximum number of rows to return, or {@literal null}.
+	 */
+	List<Object> find(Filters filters, Sort sort, Integer skip, Integer limit) {
+		Rows rows = rows();
+		StringBuilder cypher = new StringBuilder(rows.match);
+		Map<String, Object> parameters = new HashMap<>();
+		boolean first = true;
+		for (Filter filter : filters) {
+			filter.setPropertyName(rows.graphProperty(filter.getPropertyName()));
+			cypher.append(' ').append(filter.toCypher("n", first).trim());
+			parameters.putAll(filter.parameters());
+			first = false;
+		}
+		cypher.append(rows.returned);
+		if (sort != null) {
+			String separator = " ORDER BY ";
+			for (Sort.Order order : sort) {
+				cypher.append(separator).append("n.`").append(rows.graphProperty(order.getProperty())).append('`')
+						.append(order.isAscending() ? "" : " DESC");
+				separator = ", ";
+			}
+		}
+		if (skip != null) {
+			cypher.append(" SKIP {").append(SKIP).append('}');
+			parameters.put(SKIP, skip);
+		}
+		if (limit != null) {
+			cypher.append(" LIMIT {").append(LIMIT).append('}');
+			parameters.put(LIMIT, limit);
+		}
+
+		String statement = cypher.toString();
+		InvocationTrace.statement(statement, parameters);
+		List<Object> result = new ArrayList<>();
+		for (Map<String, Object> row : session.query(statement, parameters).queryResults()) {
+			Map<String, Object> values = new LinkedHashMap<>();
+			for (String property : properties) {
+				AttributeConverter converter = rows.converters.get(property);
+				Object value = row.get(property);
+				values.put(property, converter != null && value != null ? converter.toEntityAttribute(value) : value);
+			}
+			result.add(project(values));
+		}
+		return result;
+	}
+
+	/**
+	 * Projects a loaded entity.
+	 */
+	Object project(Object entity) {
+		if (entity == null) {
+			return null;
+		}
+		DirectFieldAccessor accessor = new DirectFieldAccessor(entity);
+		Map<String, Object> values = new LinkedHashMap<>();
+		for (String property : properties) {
+			values.put(property, accessor.isReadableProperty(property) ? accessor.getPropertyValue(property) : null);
+		}
+		return project(values);
+	}
+
+	private Object project(Map<String, Object> values) {
+		Object[] arguments = new Object[properties.size()];
+		for (int i = 0; i < arguments.length; i++) {
+			String property = properties.get(i);
+			Object value = values.get(property);
+			Class<?> type = propertyTypes.get(i);
+			if (value != null && !ClassUtils.isAssignableValue(type, value)
+					&& CONVERSION_SERVICE.canConvert(value.getClass(), type)) {
+				value = CONVERSION_SERVICE.convert(value, type);
+				values.put(property, value);
+			}
+			arguments[i] = value;
+		}
+		return constructor != null ? BeanUtils.instantiateClass(constructor, arguments) : processor.processResult(values);
+	}
+
+	private Rows rows() {
+		Rows rows = this.rows;
+		if (rows == null) {
+			rows = resolveRows();
+			this.rows = rows;
+		}
+		return rows;
+	}
+
+	private Rows resolveRows() {
+		ClassInfo classInfo = metaData.classInfo(domainType.getName());
+		if (classInfo == null || classInfo.isInterface() || classInfo.isAbstract()) {
+			return Rows.UNSUPPORTED;
+		}
+		String identity = null;
+		try {
+			identity = classInfo.identityField().getName();
+		} catch (MappingException noIdentityField) {
+			// projections cannot include the id
+		}
+
+		Rows rows = new Rows("MATCH (n:`" + classInfo.neo4jName() + "`)", classInfo);
+		StringBuilder returned = new StringBuilder();
+		for (String property : properties) {
+			returned.append(returned.length() == 0 ? " RETURN " : ", ");
+			if (property.equals(identity)) {
+				returned.append("ID(n)");
+			} else {
+				FieldInfo fieldInfo = classInfo.propertyFieldByName(property);
+				if (fieldInfo == null || fieldInfo.hasCompositeConverter()) {
+					// relationship, nested projection or composite property
+					return Rows.UNSUPPORTED;
+				}
+				if (fieldInfo.hasPropertyConverter()) {
+					rows.converters.put(property, fieldInfo.getPropertyConverter());
+				}
+				returned.append("n.`").append(fieldInfo.property()).append('`');
+			}
+			returned.append(" AS `").append(property).append('`');
+		}
+		rows.returned = returned.toString();
+		return rows;
+	}
+
+	/**
+	 * The parts of the statement returning the projected properties.
+	 */
+	private static class Rows {
+
+		static final Rows UNSUPPORTED = new Rows(null, null);
+
+		private final String match;
+		private final ClassInfo classInfo;
+		private final Map<String, AttributeConverter> converters = new HashMap<>();
+		private String returned;
+
+		Rows(String match, ClassInfo classInfo) {
+			this.match = match;
+			this.classInfo = classInfo;
+		}
+
+		String graphProperty(String property) {
+			FieldInfo fieldInfo = classInfo.propertyFieldByName(property);
+			return fieldInfo != null ? fieldInfo.property() : property;
+		}
+
+		/**
+		 * @return whether the given filter compares a simple property whose value is stored as it is.
+		 */
+		boolean supports(Filter filter) {
+			if (!(filter.getFunction() instanceof PropertyComparison)) {
+				return false;
+			}
+			FieldInfo fieldInfo = classInfo.propertyFieldByName(filter.getPropertyName());
+			return fieldInfo != null && !fieldInfo.hasPropertyConverter() && !fieldInfo.hasCompositeConverter();
+		}
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.repository.support;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Creates deep copies of entities and query results held by the caches shared across sessions, so that no instance
+ * is ever handed to more than one caller. Copies are detached: they are not tracked by any Session, saving one writes
+ * all of its properties.
+ * <p>
+ * Object identity within the copied graph is preserved. Collections, maps, arrays, dates and {@link Optional}s are
+ * copied, strings, enums, numbers, {@code java.time} values and a few other immutable JDK types are shared. Values of
+ * any other JDK type, such as streams, iterators or atomics, and JDK proxies cannot be copied safely: a
+ * {@link NotCopyableException} is thrown for them and the value must not be cached. Lazy relationship collections that
+ * have not been loaded yet are copied as new lazy collections, which load the relationships once accessed.
+ */
+final class DetachedCopy {
+
+	private static final SpringObjenesis OBJENESIS = new SpringObjenesis();
+	private static final ConcurrentMap<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+
+	private final Map<Object, Object> copies = new IdentityHashMap<>();
+	private final Map<Object, Object> lazyBatches = new IdentityHashMap<>();
+
+	private DetachedCopy() {}
+
+	/**
+	 * @param value an entity, a collection of entities or any other query result, may be {@literal null}.
+	 * @return a deep copy of the given value.
+	 * @throws NotCopyableException if the value holds an instance of a type that cannot be copied.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T of(T value) {
+		return (T) new DetachedCopy().copy(value);
+	}
+
+	private Object copy(Object value) {
+		if (value == null || isImmutable(value)) {
+			return value;
+		}
+		Object copy = copies.get(value);
+		if (copy != null) {
+			return copy;
+		}
+		Class<?> type = value.getClass();
+		if (type.isArray()) {
+			return copyArray(value);
+		}
+		if (value instanceof Collection) {
+			return LazyRelationships.isInitialized(value) ? copyCollection((Collection<?>) value)
+					: register(value, LazyRelationships.copyUninitialized(value, lazyBatches));
+		}
+		if (value instanceof Map) {
+			return copyMap((Map<?, ?>) value);
+		}
+		if (value instanceof Date) {
+			return register(value, ((Date) value).clone());
+		}
+		if (value instanceof Calendar) {
+			return register(value, ((Calendar) value).clone());
+		}
+		if (value instanceof Optional) {
+			Optional<?> optional = (Optional<?>) value;
+			return optional.isPresent() ? register(value, Optional.of(copy(optional.get()))) : value;
+		}
+		if (isJdkType(type) || Proxy.isProxyClass(type)) {
+			throw new NotCopyableException(type);
+		}
+		copy = register(value, OBJENESIS.newInstance(type));
+		for (Field field : fieldsOf(type)) {
+			ReflectionUtils.setField(field, copy, copy(ReflectionUtils.getField(field, value)));
+		}
+		return copy;
+	}
+
+	private Object copyArray(Object array) {
+		int length = Array.getLength(array);
+		Object copy = register(array, Array.newInstance(array.getClass().getComponentType(), length));
+		for (int i = 0; i < length; i++) {
+			Array.set(copy, i, copy(Array.get(array, i)));
+		}
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object copyCollection(Collection<?> collection) {
+		Collection<Object> copy = (Collection<Object>) newInstance(collection.getClass());
+		if (copy == null) {
+			if (collection instanceof SortedSet) {
+				copy = new TreeSet<>((Comparator<Object>) ((SortedSet<?>) collection).comparator());
+			} else if (collection instanceof Set) {
+				copy = new LinkedHashSet<>();
+			} else {
+				copy = new ArrayList<>(collection.size());
+			}
+		}
+		register(collection, copy);
+		for (Object element : collection) {
+			copy.add(copy(element));
+		}
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object copyMap(Map<?, ?> map) {
+		Map<Object, Object> copy = (Map<Object, Object>) newInstance(map.getClass());
+		if (copy == null) {
+			copy = map instanceof SortedMap
+					? new TreeMap<>((Comparator<Object>) ((SortedMap<?, ?>) map).comparator())
+					: new LinkedHashMap<>();
+		}
+		register(map, copy);
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			copy.put(copy(entry.getKey()), copy(entry.getValue()));
+		}
+		return copy;
+	}
+
+	private Object register(Object original, Object copy) {
+		copies.put(original, copy);
+		return copy;
+	}
+
+	/**
+	 * Instantiates plain {@code java.util} collections and maps through their default constructor, sorted ones are
+	 * left to the caller as the default constructor would lose their comparator.
+	 */
+	private static Object newInstance(Class<?> type) {
+		if (!type.getName().startsWith("java.util.") || SortedSet.class.isAssignableFrom(type)
+				|| SortedMap.class.isAssignableFrom(type) || !Modifier.isPublic(type.getModifiers())) {
+			return null;
+		}
+		try {
+			Constructor<?> constructor = type.getConstructor();
+			return constructor.newInstance();
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param value must not be {@literal null}.
+	 * @return whether the value is of a JDK type known to be immutable, so that it can be shared.
+	 */
+	static boolean isImmutable(Object value) {
+		Class<?> type = value.getClass();
+		return value instanceof String || value instanceof Enum || value instanceof Class
+				|| ClassUtils.isPrimitiveWrapper(type) || type == BigDecimal.class || type == BigInteger.class
+				|| type == UUID.class || type == Locale.class || type == Currency.class || type == URI.class
+				|| type == URL.class || type == Pattern.class || type.getName().startsWith("java.time.");
+	}
+
+	private static boolean isJdkType(Class<?> type) {
+		return type.getName().startsWith("java.") || type.getName().startsWith("javax.");
+	}
+
+	private static List<Field> fieldsOf(Class<?> type) {
+		List<Field> fields = FIELDS.get(type);
+		if (fields == null) {
+			final List<Field> declared = new ArrayList<>();
+			ReflectionUtils.doWithFields(type, new ReflectionUtils.FieldCallback() {
+				@Override
+				public void doWith(Field field) {
+					ReflectionUtils.makeAccessible(field);
+					declared.add(field);
+				}
+			}, new ReflectionUtils.FieldFilter() {
+				@Override
+				public boolean matches(Field field) {
+					return !Modifier.isStatic(field.getModifiers());
+				}
+			});
+			FIELDS.putIfAbsent(type, declared);
+			fields = declared;
+		}
+		return fields;
+	}
+
+	/**
+	 * Thrown when a value cannot be copied because it holds an instance of a JDK type that is neither a collection, map,
+	 * array or date nor known to be immutable.
+	 */
+	static class NotCopyableException extends IllegalArgumentException {
+
+		private static final long serialVersionUID = 1L;
+
+		NotCopyableException(Class<?> type) {
+			super("Cannot create a detached copy of " + type.getName());
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.neo4j.ogm.session.Session;
+
+/**
+ * Orders the entities of a batch write so that concurrent writers lock the nodes they share in the same order rather
+ * than in their own iteration order, which is what makes them deadlock.
+ * <p>
+ * Entities that already exist come first, by ascending graph id. New entities follow: those implementing
+ * {@link Comparable} grouped by class and in their natural order, then all others in iteration order.
+ */
+final class EntityWriteOrder {
+
+	private static final Comparator<Keyed<?>> COMPARATOR = new Comparator<Keyed<?>>() {
+		@Override
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public int compare(Keyed<?> left, Keyed<?> right) {
+			if (left.id != null || right.id != null) {
+				if (left.id == null) {
+					return 1;
+				}
+				return right.id == null ? -1 : left.id.compareTo(right.id);
+			}
+			boolean leftComparable = left.entity instanceof Comparable;
+			boolean rightComparable = right.entity instanceof Comparable;
+			if (!leftComparable || !rightComparable) {
+				return leftComparable == rightComparable ? 0 : leftComparable ? -1 : 1;
+			}
+			int byClass = left.entity.getClass().getName().compareTo(right.entity.getClass().getName());
+			return byClass != 0 ? byClass : ((Comparable) left.entity).compareTo(right.entity);
+		}
+	};
+
+	private EntityWriteOrder() {}
+
+	/**
+	 * @param entities the entities to write.
+	 * @param session the Session resolving the graph ids of the entities.
+	 * @return a new list holding the entities in write order.
+	 */
+	static <E> List<E> sort(Iterable<E> entities, Session session) {
+		List<Keyed<E>> keyed = new ArrayList<>();
+		for (E entity : entities) {
+			keyed.add(new Keyed<>(entity, session.resolveGraphIdFor(entity)));
+		}
+		Collections.sort(keyed, COMPARATOR);
+		List<E> sorted = new ArrayList<>(keyed.size());
+		for (Keyed<E> entry : keyed) {
+			sorted.add(entry.entity);
+		}
+		return sorted;
+	}
+
+	private static class Keyed<E> {
+
+		private final E entity;
+		private final Long id;
+
+		Keyed(E entity, Long id) {
+			this.entity = entity;
+			this.id = id;
+		}
+	}
+}
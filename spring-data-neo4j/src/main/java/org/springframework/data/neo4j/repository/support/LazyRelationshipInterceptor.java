@@ -0,0 +1,38 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.neo4j.annotation.LazyRelationship;
+import org.springframework.util.Assert;
+
+/**
+ * {@link MethodInterceptor} installing collections loaded on first access into the {@link LazyRelationship} fields of
+ * the entities returned by repository methods.
+ */
+class LazyRelationshipInterceptor implements MethodInterceptor {
+
+	private final LazyRelationships lazyRelationships;
+
+	LazyRelationshipInterceptor(LazyRelationships lazyRelationships) {
+		Assert.notNull(lazyRelationships, "LazyRelationships must not be null!");
+		this.lazyRelationships = lazyRelationships;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		return lazyRelationships.install(invocation.proceed());
+	}
+}
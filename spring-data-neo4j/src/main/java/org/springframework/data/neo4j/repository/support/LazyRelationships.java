@@ -0,0 +1,493 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import java.lang.reflect.Field;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.annotation.Relationship;
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mapping.Association;
+import org.springframework.data.mapping.SimpleAssociationHandler;
+import org.springframework.data.neo4j.annotation.LazyRelationship;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.mapping.Neo4jPersistentEntity;
+import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
+import org.springframework.data.neo4j.metrics.InvocationTrace;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Installs collections loading their neighbours on first access into the {@link LazyRelationship} fields of entities
+ * returned by repositories. The association properties of an entity are taken from the {@link Neo4jMappingContext}.
+ * <p>
+ * All collections installed by one call share a batch per field: the first access to one of them loads the field of up
+ * to {@link LazyRelationship#batchSize()} entities of the batch with one query for the relationships and one for the
+ * neighbours, which get lazy collections of their own.
+ * <p>
+ * Relationship types only mapped by {@link LazyRelationship} fields are {@link #getLazyRelationshipTypes() reported},
+ * so that loads with a depth can leave them out instead of loading them eagerly.
+ */
+public class LazyRelationships {
+
+	static final String IDS = "ids";
+
+	private static final List<LazyProperty> NONE = Collections.emptyList();
+
+	private final Session session;
+	private final Neo4jMappingContext mappingContext;
+	private final ConcurrentMap<Class<?>, List<LazyProperty>> properties = new ConcurrentHashMap<>();
+
+	private final MetaData metaData;
+	private volatile Set<String> lazyRelationshipTypes;
+
+	/**
+	 * @param session the session to load neighbours with.
+	 * @param mappingContext the mapping context to find the association properties of entities in.
+	 * @param metaData the mapping metadata of the session.
+	 */
+	public LazyRelationships(Session session, Neo4jMappingContext mappingContext, MetaData metaData) {
+		Assert.notNull(session, "Session must not be null!");
+		Assert.notNull(mappingContext, "Neo4jMappingContext must not be null!");
+		Assert.notNull(metaData, "MetaData must not be null!");
+		this.session = session;
+		this.mappingContext = mappingContext;
+		this.metaData = metaData;
+	}
+
+	/**
+	 * Installs lazy collections into the entities of a repository method result, which may be a single entity, a
+	 * collection or a {@link Slice}.
+	 *
+	 * @return the given result.
+	 */
+	public Object install(Object result) {
+		if (result instanceof Slice) {
+			install(((Slice<?>) result).getContent());
+		} else if (result instanceof Collection) {
+			install((Collection<?>) result);
+		} else if (result != null) {
+			install(Collections.singletonList(result));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the relationship types mapped by {@link LazyRelationship} fields and by no other relationship field of a
+	 *         persistent entity.
+	 */
+	public Set<String> getLazyRelationshipTypes() {
+		Set<String> lazyRelationshipTypes = this.lazyRelationshipTypes;
+		if (lazyRelationshipTypes == null) {
+			final Set<String> lazyTypes = new LinkedHashSet<>();
+			final Set<String> eagerTypes = new HashSet<>();
+			for (Neo4jPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+				final ClassInfo classInfo = metaData.classInfo(entity.getType().getName());
+				if (classInfo == null) {
+					continue;
+				}
+				entity.doWithAssociations(new SimpleAssociationHandler() {
+					@Override
+					public void doWithAssociation(Association<?> association) {
+						Neo4jPersistentProperty property = (Neo4jPersistentProperty) association.getInverse();
+						FieldInfo fieldInfo = classInfo.relationshipFieldByName(property.getName());
+						if (fieldInfo != null) {
+							(property.isAnnotationPresent(LazyRelationship.class) ? lazyTypes : eagerTypes)
+									.add(fieldInfo.relationship());
+						}
+					}
+				});
+			}
+			lazyTypes.removeAll(eagerTypes);
+			lazyRelationshipTypes = Collections.unmodifiableSet(lazyTypes);
+			this.lazyRelationshipTypes = lazyRelationshipTypes;
+		}
+		return lazyRelationshipTypes;
+	}
+
+	/**
+	 * @return whether the given collection is not a lazy collection or has been loaded.
+	 */
+	public static boolean isInitialized(Object collection) {
+		return !(collection instanceof LazyCollection) || ((LazyCollection) collection).isInitialized();
+	}
+
+	/**
+	 * Creates a collection that loads the same relationships as the given lazy collection once accessed, for a
+	 * {@link DetachedCopy} of its owner. The copies of lazy collections from one batch are given one batch again.
+	 *
+	 * @param collection a lazy collection that is not {@link #isInitialized(Object) initialized}.
+	 * @param batches the batches of the copies made so far, by the batch of the original.
+	 * @return a lazy collection of its own.
+	 */
+	static Object copyUninitialized(Object collection, Map<Object, Object> batches) {
+		LazyCollection lazy = (LazyCollection) collection;
+		Batch batch = (Batch) batches.get(lazy.batch());
+		if (batch == null) {
+			batch = lazy.batch().copy();
+			batches.put(lazy.batch(), batch);
+		}
+		return batch.add(lazy.ownerId());
+	}
+
+	private void install(Collection<?> entities) {
+		Map<LazyProperty, Batch> batches = new HashMap<>();
+		for (Object entity : entities) {
+			List<LazyProperty> lazyProperties = entity == null ? NONE : lazyProperties(entity.getClass());
+			if (lazyProperties.isEmpty()) {
+				continue;
+			}
+			Long id = session.resolveGraphIdFor(entity);
+			if (id == null) {
+				continue;
+			}
+			for (LazyProperty property : lazyProperties) {
+				Object value = ReflectionUtils.getField(property.field, entity);
+				if (value instanceof LazyCollection || value != null && !((Collection<?>) value).isEmpty()) {
+					continue;
+				}
+				Batch batch = batches.get(property);
+				if (batch == null) {
+					batch = new Batch(property);
+					batches.put(property, batch);
+				}
+				ReflectionUtils.setField(property.field, entity, batch.add(id));
+			}
+		}
+	}
+
+	private List<LazyProperty> lazyProperties(Class<?> type) {
+		List<LazyProperty> lazyProperties = properties.get(type);
+		if (lazyProperties == null) {
+			lazyProperties = mappingContext.hasPersistentEntityFor(type) ? resolveLazyProperties(type) : NONE;
+			properties.putIfAbsent(type, lazyProperties);
+		}
+		return lazyProperties;
+	}
+
+	private List<LazyProperty> resolveLazyProperties(final Class<?> type) {
+		final List<LazyProperty> lazyProperties = new ArrayList<>();
+		Neo4jPersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+		entity.doWithAssociations(new SimpleAssociationHandler() {
+			@Override
+			public void doWithAssociation(Association<?> association) {
+				Neo4jPersistentProperty property = (Neo4jPersistentProperty) association.getInverse();
+				LazyRelationship lazy = property.findAnnotation(LazyRelationship.class);
+				if (property.isAssociation() && lazy != null) {
+					lazyProperties.add(new LazyProperty(type, property, lazy));
+				}
+			}
+		});
+		return lazyProperties.isEmpty() ? NONE : lazyProperties;
+	}
+
+	private class LazyProperty {
+
+		private final Field field;
+		private final Class<?> elementType;
+		private final boolean set;
+		private final int batchSize;
+		private final String statement;
+
+		LazyProperty(Class<?> owner, Neo4jPersistentProperty property, LazyRelationship lazy) {
+			String name = owner.getName() + "." + property.getName();
+			Field field = property.getField();
+			if (field == null || !property.isCollectionLike() || field.getType().isArray()) {
+				throw new IllegalStateException("@LazyRelationship field " + name + " must be a collection");
+			}
+			if (field.getType().isAssignableFrom(ArrayList.class)) {
+				this.set = false;
+			} else if (field.getType().isAssignableFrom(LinkedHashSet.class)) {
+				this.set = true;
+			} else {
+				throw new IllegalStateException("@LazyRelationship field " + name
+						+ " must be declared as Collection, List or Set but is " + field.getType().getName());
+			}
+			this.elementType = property.getActualType();
+			if (elementType.isAnnotationPresent(RelationshipEntity.class)) {
+				throw new IllegalStateException("@LazyRelationship field " + name
+						+ " must hold node entities, relationship entities are not supported");
+			}
+			Assert.isTrue(lazy.batchSize() > 0, "Batch size of @LazyRelationship field " + name + " must be positive!");
+			ReflectionUtils.makeAccessible(field);
+			this.field = field;
+			this.batchSize = lazy.batchSize();
+
+			ClassInfo classInfo = metaData.classInfo(owner.getName());
+			FieldInfo fieldInfo = classInfo == null ? null : classInfo.relationshipFieldByName(property.getName());
+			if (fieldInfo == null) {
+				throw new IllegalStateException("No relationship mapping for @LazyRelationship field " + name);
+			}
+			Relationship relationship = field.getAnnotation(Relationship.class);
+			String hop = "[r:`" + fieldInfo.relationship() + "`]";
+			String pattern;
+			if (Relationship.INCOMING.equals(relationship.direction())) {
+				pattern = "(n)<-" + hop + "-(m)";
+			} else if (Relationship.UNDIRECTED.equals(relationship.direction())) {
+				pattern = "(n)-" + hop + "-(m)";
+			} else {
+				pattern = "(n)-" + hop + "->(m)";
+			}
+			this.statement = "MATCH " + pattern + " WHERE ID(n) IN {" + IDS + "}"
+					+ " RETURN ID(n) AS owner, ID(m) AS neighbour ORDER BY ID(r)";
+		}
+	}
+
+	/**
+	 * The lazy collections of one field installed by one call.
+	 */
+	private class Batch {
+
+		private final LazyProperty property;
+		private final List<LazyCollection> pending = new ArrayList<>();
+
+		Batch(LazyProperty property) {
+			this.property = property;
+		}
+
+		Batch copy() {
+			return new Batch(property);
+		}
+
+		LazyCollection add(Long ownerId) {
+			LazyCollection collection = property.set ? new LazySet(this, ownerId) : new LazyList(this, ownerId);
+			pending.add(collection);
+			return collection;
+		}
+
+		synchronized void load(LazyCollection trigger) {
+			if (trigger.isInitialized()) {
+				return;
+			}
+			Map<Long, List<LazyCollection>> owners = new LinkedHashMap<>();
+			owners.put(trigger.ownerId(), new ArrayList<>(Collections.singletonList(trigger)));
+			for (Iterator<LazyCollection> iterator = pending.iterator(); iterator.hasNext();) {
+				LazyCollection collection = iterator.next();
+				if (collection == trigger || collection.isInitialized()) {
+					iterator.remove();
+				} else if (owners.size() < property.batchSize || owners.containsKey(collection.ownerId())) {
+					List<LazyCollection> collections = owners.get(collection.ownerId());
+					if (collections == null) {
+						collections = new ArrayList<>();
+						owners.put(collection.ownerId(), collections);
+					}
+					collections.add(collection);
+					iterator.remove();
+				}
+			}
+
+			Map<String, Object> parameters = Collections.<String, Object>singletonMap(IDS,
+					new ArrayList<>(owners.keySet()));
+			InvocationTrace.statement(property.statement, parameters);
+			Map<Long, List<Long>> neighbourIds = new HashMap<>();
+			Set<Long> ids = new LinkedHashSet<>();
+			for (Map<String, Object> row : session.query(property.statement, parameters).queryResults()) {
+				Long owner = ((Number) row.get("owner")).longValue();
+				Long neighbour = ((Number) row.get("neighbour")).longValue();
+				List<Long> neighbours = neighbourIds.get(owner);
+				if (neighbours == null) {
+					neighbours = new ArrayList<>();
+					neighbourIds.put(owner, neighbours);
+				}
+				neighbours.add(neighbour);
+				ids.add(neighbour);
+			}
+
+			Map<Long, Object> loaded = new HashMap<>();
+			if (!ids.isEmpty()) {
+				Collection<?> neighbours = session.loadAll(property.elementType, new ArrayList<>(ids), 0);
+				install(neighbours);
+				for (Object neighbour : neighbours) {
+					loaded.put(session.resolveGraphIdFor(neighbour), neighbour);
+				}
+			}
+
+			for (Map.Entry<Long, List<LazyCollection>> owner : owners.entrySet()) {
+				List<Object> elements = new ArrayList<>();
+				List<Long> neighbours = neighbourIds.get(owner.getKey());
+				if (neighbours != null) {
+					for (Long neighbour : neighbours) {
+						Object element = loaded.get(neighbour);
+						if (element != null) {
+							elements.add(element);
+						}
+					}
+				}
+				for (LazyCollection collection : owner.getValue()) {
+					collection.initialize(elements);
+				}
+			}
+		}
+	}
+
+	private interface LazyCollection {
+
+		Batch batch();
+
+		Long ownerId();
+
+		boolean isInitialized();
+
+		void initialize(List<Object> elements);
+	}
+
+	private static class LazyList extends AbstractList<Object> implements LazyCollection {
+
+		private final Batch batch;
+		private final Long ownerId;
+		private volatile List<Object> elements;
+
+		LazyList(Batch batch, Long ownerId) {
+			this.batch = batch;
+			this.ownerId = ownerId;
+		}
+
+		@Override
+		public Batch batch() {
+			return batch;
+		}
+
+		@Override
+		public Long ownerId() {
+			return ownerId;
+		}
+
+		@Override
+		public boolean isInitialized() {
+			return elements != null;
+		}
+
+		@Override
+		public void initialize(List<Object> elements) {
+			this.elements = new ArrayList<>(elements);
+		}
+
+		private List<Object> elements() {
+			if (elements == null) {
+				batch.load(this);
+			}
+			return elements;
+		}
+
+		@Override
+		public Object get(int index) {
+			return elements().get(index);
+		}
+
+		@Override
+		public int size() {
+			return elements().size();
+		}
+
+		@Override
+		public Object set(int index, Object element) {
+			return elements().set(index, element);
+		}
+
+		@Override
+		public void add(int index, Object element) {
+			elements().add(index, element);
+			modCount++;
+		}
+
+		@Override
+		public Object remove(int index) {
+			modCount++;
+			return elements().remove(index);
+		}
+	}
+
+	private static class LazySet extends AbstractSet<Object> implements LazyCollection {
+
+		private final Batch batch;
+		private final Long ownerId;
+		private volatile LinkedHashSet<Object> elements;
+
+		LazySet(Batch batch, Long ownerId) {
+			this.batch = batch;
+			this.ownerId = ownerId;
+		}
+
+		@Override
+		public Batch batch() {
+			return batch;
+		}
+
+		@Override
+		public Long ownerId() {
+			return ownerId;
+		}
+
+		@Override
+		public boolean isInitialized() {
+			return elements != null;
+		}
+
+		@Override
+		public void initialize(List<Object> elements) {
+			this.elements = new LinkedHashSet<>(elements);
+		}
+
+		private LinkedHashSet<Object> elements() {
+			if (elements == null) {
+				batch.load(this);
+			}
+			return elements;
+		}
+
+		@Override
+		public Iterator<Object> iterator() {
+			return elements().iterator();
+		}
+
+		@Override
+		public int size() {
+			return elements().size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return elements().contains(o);
+		}
+
+		@Override
+		public boolean add(Object element) {
+			return elements().add(element);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return elements().remove(o);
+		}
+	}
+}
@@ -14,17 +14,40 @@
 package org.springframework.data.neo4j.repository.support;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import org.neo4j.ogm.MetaData;
 import org.neo4j.ogm.session.Neo4jSession;
 import org.neo4j.ogm.session.Session;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.metrics.MetricsRecorder;
+import org.springframework.data.neo4j.metrics.NoOpMetricsRecorder;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.metrics.plan.QueryPlanCapture;
+import org.springframework.data.neo4j.reactive.ReactiveQueryExecutor;
+import org.springframework.data.neo4j.repository.ReactiveNeo4jRepository;
+import org.springframework.data.neo4j.repository.cache.EntityCache;
+import org.springframework.data.neo4j.repository.cache.QueryResultCache;
+import org.springframework.data.neo4j.repository.query.BackgroundQueryResolver;
+import org.springframework.data.neo4j.repository.query.FanOutLimits;
 import org.springframework.data.neo4j.repository.query.GraphQueryLookupStrategy;
+import org.springframework.data.neo4j.repository.query.QueryResolutionMode;
+import org.springframework.data.neo4j.repository.query.QueryWarmup;
+import org.springframework.data.neo4j.transaction.QueryTimeoutWatchdog;
+import org.springframework.data.neo4j.transaction.TransientErrorRetryInterceptor;
 import org.springframework.data.repository.core.EntityInformation;
 import org.springframework.data.repository.core.RepositoryInformation;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
 import org.springframework.data.repository.query.EvaluationContextProvider;
 import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * Neo4j OGM specific generic repository factory.
@@ -36,11 +59,205 @@ import org.springframework.util.Assert;
  */
 public class Neo4jRepositoryFactory extends RepositoryFactorySupport {
 
+	private static final boolean REACTIVE_STREAMS_PRESENT = ClassUtils.isPresent("org.reactivestreams.Publisher",
+			Neo4jRepositoryFactory.class.getClassLoader());
+
 	private final Session session;
 
+	private ReactiveQueryExecutor reactiveQueryExecutor;
+	private PlatformTransactionManager transactionManager;
+	private QueryResultCache queryResultCache;
+	private EntityCache entityCache;
+	private boolean orderedWrites;
+	private MetricsRecorder metricsRecorder;
+	private SlowQueryLog slowQueryLog;
+	private QueryPlanCapture queryPlanCapture;
+	private QueryWarmup queryWarmup;
+	private QueryResolutionMode queryResolutionMode = QueryResolutionMode.EAGER;
+	private BackgroundQueryResolver backgroundQueryResolver;
+	private FanOutLimits fanOutLimits;
+	private Neo4jMappingContext mappingContext;
+	private LazyRelationships lazyRelationships;
+	private TransientErrorRetryInterceptor retryInterceptor;
+
 	public Neo4jRepositoryFactory(Session session) {
 		Assert.notNull(session, "Session must not be null!");
 		this.session = session;
+		addRepositoryProxyPostProcessor(new RepositoryProxyPostProcessor() {
+			@Override
+			public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+				factory.addAdvice(new RepositoryMetricsInterceptor(repositoryInformation.getRepositoryInterface(),
+						getMetricsRecorder(), getSlowQueryLog(), getQueryPlanCapture()));
+			}
+		});
+		addRepositoryProxyPostProcessor(new RepositoryProxyPostProcessor() {
+			@Override
+			public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+				if (retryInterceptor != null) {
+					factory.addAdvice(retryInterceptor);
+				}
+			}
+		});
+		addRepositoryProxyPostProcessor(
+				new QueryTimeoutInterceptor.QueryTimeoutPostProcessor(QueryTimeoutWatchdog.getSharedInstance()));
+		addRepositoryProxyPostProcessor(new RepositoryProxyPostProcessor() {
+			@Override
+			public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+				factory.addAdvice(new QueryResultCacheInterceptor(repositoryInformation, getQueryResultCache(), entityCache));
+			}
+		});
+		addRepositoryProxyPostProcessor(new RepositoryProxyPostProcessor() {
+			@Override
+			public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+				LazyRelationships lazyRelationships = getLazyRelationships();
+				if (lazyRelationships != null) {
+					factory.addAdvice(new LazyRelationshipInterceptor(lazyRelationships));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Configures the {@link ReactiveQueryExecutor} used by {@link ReactiveNeo4jRepository} instances. If none is set a
+	 * dedicated executor is created for the repositories of this factory, whose daemon threads stop once idle for a
+	 * minute; {@link Neo4jRepositoryFactoryBean} always sets an executor it shuts down itself.
+	 *
+	 * @param reactiveQueryExecutor the executor to use
+	 */
+	public void setReactiveQueryExecutor(ReactiveQueryExecutor reactiveQueryExecutor) {
+		this.reactiveQueryExecutor = reactiveQueryExecutor;
+	}
+
+	/**
+	 * Configures the {@link PlatformTransactionManager} used by {@link ReactiveNeo4jRepository} instances to demarcate
+	 * write operations.
+	 *
+	 * @param transactionManager the transaction manager to use
+	 */
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.transactionManager = transactionManager;
+	}
+
+	/**
+	 * Configures the {@link QueryResultCache} serving {@link org.springframework.data.neo4j.annotation.CachedQuery}
+	 * methods. If none is set a dedicated cache is created for the repositories of this factory.
+	 *
+	 * @param queryResultCache the cache to use
+	 */
+	public void setQueryResultCache(QueryResultCache queryResultCache) {
+		this.queryResultCache = queryResultCache;
+	}
+
+	/**
+	 * Configures the {@link EntityCache} shared by all Sessions that repositories look up entities by id in. If none is
+	 * set entities are always loaded.
+	 *
+	 * @param entityCache the cache to use
+	 */
+	public void setEntityCache(EntityCache entityCache) {
+		this.entityCache = entityCache;
+	}
+
+	/**
+	 * Configures the {@link TransientErrorRetryInterceptor} re-running repository methods that fail with a transient
+	 * Neo4j error outside of a transaction. If none is set such errors are thrown straight away.
+	 *
+	 * @param retryInterceptor the interceptor to use
+	 */
+	public void setRetryInterceptor(TransientErrorRetryInterceptor retryInterceptor) {
+		this.retryInterceptor = retryInterceptor;
+	}
+
+	/**
+	 * Configures whether batch saves and deletes of repositories write their entities ordered by graph id, so that
+	 * concurrent writers lock shared nodes in the same order. Defaults to {@literal false}.
+	 *
+	 * @param orderedWrites whether to order batch writes
+	 */
+	public void setOrderedWrites(boolean orderedWrites) {
+		this.orderedWrites = orderedWrites;
+	}
+
+	/**
+	 * Configures the {@link MetricsRecorder} receiving the measurements of all repository method invocations. If none is
+	 * set nothing is measured.
+	 *
+	 * @param metricsRecorder the recorder to use
+	 */
+	public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+		this.metricsRecorder = metricsRecorder;
+	}
+
+	/**
+	 * Configures the {@link SlowQueryLog} receiving slow repository query method invocations. If none is set slow
+	 * invocations are not logged.
+	 *
+	 * @param slowQueryLog the log to use
+	 */
+	public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+		this.slowQueryLog = slowQueryLog;
+	}
+
+	/**
+	 * Configures the {@link QueryPlanCapture} selecting repository methods whose execution plans are captured. If none
+	 * is set a dedicated, disabled capture is created for the repositories of this factory.
+	 *
+	 * @param queryPlanCapture the capture to use
+	 */
+	public void setQueryPlanCapture(QueryPlanCapture queryPlanCapture) {
+		this.queryPlanCapture = queryPlanCapture;
+	}
+
+	/**
+	 * Configures the {@link QueryWarmup} the Cypher of <code>&#064;Query</code> methods is registered with. If none is
+	 * set queries are not warmed up.
+	 *
+	 * @param queryWarmup the warm-up to use
+	 */
+	public void setQueryWarmup(QueryWarmup queryWarmup) {
+		this.queryWarmup = queryWarmup;
+	}
+
+	/**
+	 * Configures when the queries of repository query methods are created. Defaults to
+	 * {@link QueryResolutionMode#EAGER}.
+	 *
+	 * @param queryResolutionMode the mode to use
+	 */
+	public void setQueryResolutionMode(QueryResolutionMode queryResolutionMode) {
+		Assert.notNull(queryResolutionMode, "QueryResolutionMode must not be null!");
+		this.queryResolutionMode = queryResolutionMode;
+	}
+
+	/**
+	 * Configures the {@link BackgroundQueryResolver} creating queries in the background. If none is set a dedicated
+	 * resolver is created for the repositories of this factory when needed.
+	 *
+	 * @param backgroundQueryResolver the resolver to use
+	 */
+	public void setBackgroundQueryResolver(BackgroundQueryResolver backgroundQueryResolver) {
+		this.backgroundQueryResolver = backgroundQueryResolver;
+	}
+
+	/**
+	 * Configures the {@link FanOutLimits} capping the number of neighbours loaded per relationship type by depth loads
+	 * of repositories and derived finders. If none are set all neighbours are loaded.
+	 *
+	 * @param fanOutLimits the limits to use
+	 */
+	public void setFanOutLimits(FanOutLimits fanOutLimits) {
+		this.fanOutLimits = fanOutLimits;
+	}
+
+	/**
+	 * Configures the {@link Neo4jMappingContext} the association properties of returned entities are looked up in to
+	 * install lazy collections into their {@link org.springframework.data.neo4j.annotation.LazyRelationship} fields.
+	 * If none is set such fields are left as loaded.
+	 *
+	 * @param mappingContext the mapping context to use
+	 */
+	public void setMappingContext(Neo4jMappingContext mappingContext) {
+		this.mappingContext = mappingContext;
 	}
 
 	/*
@@ -56,22 +273,129 @@ public class Neo4jRepositoryFactory extends RepositoryFactorySupport {
 	public <T, ID extends Serializable> EntityInformation<T, ID> getEntityInformation(Class<T> type) {
 		Assert.notNull(type, "Domain class must not be null!");
 		Assert.notNull(session, "Session must not be null!");
-		return new GraphEntityInformation(((Neo4jSession)session).metaData(), type);
+		return new GraphEntityInformation(getMetaData(), type);
 	}
 
 	@Override
 	protected Object getTargetRepository(RepositoryInformation information) {
-		return getTargetRepositoryViaReflection(information, information.getDomainType(), session);
+		if (isReactiveRepository(information)) {
+			Object repository = getTargetRepositoryViaReflection(information, information.getDomainType(), session,
+					getReactiveQueryExecutor());
+			if (repository instanceof SimpleReactiveNeo4jRepository) {
+				((SimpleReactiveNeo4jRepository<?, ?>) repository).setTransactionManager(transactionManager);
+				((SimpleReactiveNeo4jRepository<?, ?>) repository).setMetaData(getMetaData());
+			}
+			return repository;
+		}
+		Object repository = getTargetRepositoryViaReflection(information, information.getDomainType(), session);
+		if (repository instanceof SimpleNeo4jRepository) {
+			((SimpleNeo4jRepository<?, ?>) repository).setQueryResultCache(getQueryResultCache());
+			((SimpleNeo4jRepository<?, ?>) repository).setFanOutLimits(getFanOutLimits());
+			((SimpleNeo4jRepository<?, ?>) repository).setEntityCache(entityCache);
+			((SimpleNeo4jRepository<?, ?>) repository).setOrderedWrites(orderedWrites);
+			((SimpleNeo4jRepository<?, ?>) repository).setMetaData(getMetaData());
+		}
+		return repository;
 	}
 
 	@Override
 	protected Class<?> getRepositoryBaseClass(RepositoryMetadata repositoryMetadata) {
-		return SimpleNeo4jRepository.class;
+		return isReactiveRepository(repositoryMetadata) ? SimpleReactiveNeo4jRepository.class : SimpleNeo4jRepository.class;
+	}
+
+	private static boolean isReactiveRepository(RepositoryMetadata repositoryMetadata) {
+		return REACTIVE_STREAMS_PRESENT
+				&& ReactiveNeo4jRepository.class.isAssignableFrom(repositoryMetadata.getRepositoryInterface());
+	}
+
+	/*
+	 * The mapping context holds the metadata the Session was created with, so it is preferred over the Session, which
+	 * might be a shared Session proxy
+	 */
+	private MetaData getMetaData() {
+		return mappingContext != null ? mappingContext.getMetaData() : ((Neo4jSession) session).metaData();
+	}
+
+	private synchronized ReactiveQueryExecutor getReactiveQueryExecutor() {
+		if (reactiveQueryExecutor == null) {
+			reactiveQueryExecutor = new ReactiveQueryExecutor();
+		}
+		return reactiveQueryExecutor;
+	}
+
+	private synchronized QueryResultCache getQueryResultCache() {
+		if (queryResultCache == null) {
+			queryResultCache = new QueryResultCache();
+		}
+		return queryResultCache;
+	}
+
+	private synchronized SlowQueryLog getSlowQueryLog() {
+		if (slowQueryLog == null) {
+			slowQueryLog = new SlowQueryLog();
+			slowQueryLog.setThreshold(-1, TimeUnit.MILLISECONDS);
+		}
+		return slowQueryLog;
+	}
+
+	private synchronized QueryPlanCapture getQueryPlanCapture() {
+		if (queryPlanCapture == null) {
+			queryPlanCapture = new QueryPlanCapture();
+		}
+		return queryPlanCapture;
+	}
+
+	private synchronized BackgroundQueryResolver getBackgroundQueryResolver() {
+		if (backgroundQueryResolver == null) {
+			backgroundQueryResolver = new BackgroundQueryResolver();
+		}
+		return backgroundQueryResolver;
+	}
+
+	private synchronized LazyRelationships getLazyRelationships() {
+		if (lazyRelationships == null && mappingContext != null) {
+			lazyRelationships = new LazyRelationships(session, mappingContext, mappingContext.getMetaData());
+		}
+		return lazyRelationships;
+	}
+
+	/*
+	 * Relationship types only mapped by @LazyRelationship fields are limited to no neighbours, so that loads with a
+	 * depth leave them to the lazy collections
+	 */
+	private FanOutLimits getFanOutLimits() {
+		LazyRelationships lazyRelationships = getLazyRelationships();
+		Set<String> lazyTypes = lazyRelationships != null ? lazyRelationships.getLazyRelationshipTypes()
+				: Collections.<String>emptySet();
+		if (lazyTypes.isEmpty()) {
+			return fanOutLimits;
+		}
+		FanOutLimits limits = new FanOutLimits();
+		if (fanOutLimits != null) {
+			limits.setLimits(fanOutLimits.getLimits());
+			if (fanOutLimits.getDefaultLimit() != null) {
+				limits.setDefaultLimit(fanOutLimits.getDefaultLimit());
+			}
+		}
+		for (String lazyType : lazyTypes) {
+			limits.setLimit(lazyType, 0);
+		}
+		return limits;
+	}
+
+	private MetricsRecorder getMetricsRecorder() {
+		return metricsRecorder != null ? metricsRecorder : NoOpMetricsRecorder.INSTANCE;
 	}
 
 	@Override
 	protected QueryLookupStrategy getQueryLookupStrategy(QueryLookupStrategy.Key key,
 														 EvaluationContextProvider evaluationContextProvider) {
-		return new GraphQueryLookupStrategy(session);
+		boolean background = queryResolutionMode == QueryResolutionMode.BACKGROUND
+				|| queryResolutionMode == QueryResolutionMode.STRICT;
+		GraphQueryLookupStrategy strategy = new GraphQueryLookupStrategy(session, queryWarmup, queryResolutionMode,
+				background ? getBackgroundQueryResolver() : null);
+		strategy.setFanOutLimits(getFanOutLimits());
+		strategy.setMetaData(getMetaData());
+		return strategy;
 	}
 }
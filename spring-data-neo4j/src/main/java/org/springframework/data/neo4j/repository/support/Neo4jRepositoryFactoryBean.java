@@ -16,11 +16,27 @@ package org.springframework.data.neo4j.repository.support;
 import java.io.Serializable;
 
 import org.neo4j.ogm.session.Session;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.metrics.MetricsRecorder;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.metrics.plan.QueryPlanCapture;
+import org.springframework.data.neo4j.reactive.ReactiveQueryExecutor;
+import org.springframework.data.neo4j.repository.cache.EntityCache;
+import org.springframework.data.neo4j.repository.cache.QueryResultCache;
+import org.springframework.data.neo4j.repository.query.BackgroundQueryResolver;
+import org.springframework.data.neo4j.repository.query.FanOutLimits;
+import org.springframework.data.neo4j.repository.query.QueryResolutionMode;
+import org.springframework.data.neo4j.repository.query.QueryWarmup;
+import org.springframework.data.neo4j.transaction.TransientErrorRetryInterceptor;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
 import org.springframework.data.repository.core.support.TransactionalRepositoryFactoryBeanSupport;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.util.Assert;
 
 
@@ -33,10 +49,27 @@ import org.springframework.util.Assert;
  * @author Luanne Misquitta
  * @author Mark Angrish
  */
-public class Neo4jRepositoryFactoryBean<T extends Repository<S, ID>, S, ID extends Serializable> extends TransactionalRepositoryFactoryBeanSupport<T, S, ID> {
+public class Neo4jRepositoryFactoryBean<T extends Repository<S, ID>, S, ID extends Serializable> extends TransactionalRepositoryFactoryBeanSupport<T, S, ID>
+		implements DisposableBean {
 
 	private Session session;
-	
+	private ReactiveQueryExecutor reactiveQueryExecutor;
+	private ReactiveQueryExecutor ownReactiveQueryExecutor;
+	private QueryResultCache queryResultCache;
+	private EntityCache entityCache;
+	private boolean orderWrites;
+	private MetricsRecorder metricsRecorder;
+	private TransientErrorRetryInterceptor retryInterceptor;
+	private SlowQueryLog slowQueryLog;
+	private QueryPlanCapture queryPlanCapture;
+	private QueryWarmup queryWarmup;
+	private QueryResolutionMode queryResolutionMode = QueryResolutionMode.EAGER;
+	private BackgroundQueryResolver backgroundQueryResolver;
+	private FanOutLimits fanOutLimits;
+	private Neo4jMappingContext neo4jMappingContext;
+	private BeanFactory beanFactory;
+	private String transactionManagerName;
+
 	/**
 	 * Creates a new {@link Neo4jRepositoryFactoryBean} for the given repository interface.
 	 * 
@@ -51,6 +84,139 @@ public class Neo4jRepositoryFactoryBean<T extends Repository<S, ID>, S, ID exten
 		this.session = session;
 	}
 
+	/**
+	 * Configures the {@link ReactiveQueryExecutor} shared by all reactive repositories of a configuration. If none is set
+	 * a dedicated executor is created, which is shut down along with this factory bean.
+	 *
+	 * @param reactiveQueryExecutor the executor to use
+	 */
+	public void setReactiveQueryExecutor(ReactiveQueryExecutor reactiveQueryExecutor) {
+		this.reactiveQueryExecutor = reactiveQueryExecutor;
+	}
+
+	/**
+	 * Configures the {@link QueryResultCache} shared by all repositories of a configuration.
+	 *
+	 * @param queryResultCache the cache to use
+	 */
+	public void setQueryResultCache(QueryResultCache queryResultCache) {
+		this.queryResultCache = queryResultCache;
+	}
+
+	/**
+	 * Configures the {@link EntityCache} shared by all Sessions, if any.
+	 *
+	 * @param entityCache the cache to use
+	 */
+	public void setEntityCache(EntityCache entityCache) {
+		this.entityCache = entityCache;
+	}
+
+	/**
+	 * Configures whether batch saves and deletes write their entities ordered by graph id. Defaults to
+	 * {@literal false}.
+	 *
+	 * @param orderWrites whether to order batch writes
+	 */
+	public void setOrderWrites(boolean orderWrites) {
+		this.orderWrites = orderWrites;
+	}
+
+	/**
+	 * Configures the {@link SlowQueryLog} shared by all repositories of a configuration.
+	 *
+	 * @param slowQueryLog the log to use
+	 */
+	public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+		this.slowQueryLog = slowQueryLog;
+	}
+
+	/**
+	 * Configures the {@link QueryPlanCapture} shared by all repositories of a configuration.
+	 *
+	 * @param queryPlanCapture the capture to use
+	 */
+	public void setQueryPlanCapture(QueryPlanCapture queryPlanCapture) {
+		this.queryPlanCapture = queryPlanCapture;
+	}
+
+	/**
+	 * Configures the {@link QueryWarmup} shared by all repositories of a configuration warming up their queries.
+	 *
+	 * @param queryWarmup the warm-up to use
+	 */
+	public void setQueryWarmup(QueryWarmup queryWarmup) {
+		this.queryWarmup = queryWarmup;
+	}
+
+	/**
+	 * Configures when the queries of the repository are created. Defaults to {@link QueryResolutionMode#EAGER}.
+	 *
+	 * @param queryResolutionMode the mode to use
+	 */
+	public void setQueryResolutionMode(QueryResolutionMode queryResolutionMode) {
+		this.queryResolutionMode = queryResolutionMode;
+	}
+
+	/**
+	 * Configures the {@link BackgroundQueryResolver} shared by all repositories of a configuration.
+	 *
+	 * @param backgroundQueryResolver the resolver to use
+	 */
+	public void setBackgroundQueryResolver(BackgroundQueryResolver backgroundQueryResolver) {
+		this.backgroundQueryResolver = backgroundQueryResolver;
+	}
+
+	/**
+	 * Configures the {@link FanOutLimits} capping the number of neighbours loaded per relationship type, if any.
+	 *
+	 * @param fanOutLimits the limits to use
+	 */
+	public void setFanOutLimits(FanOutLimits fanOutLimits) {
+		this.fanOutLimits = fanOutLimits;
+	}
+
+	/**
+	 * Configures the {@link MetricsRecorder} measuring the repository method invocations, if any.
+	 *
+	 * @param metricsRecorder the recorder to use
+	 */
+	@Autowired(required = false)
+	public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+		this.metricsRecorder = metricsRecorder;
+	}
+
+	/**
+	 * Configures the {@link TransientErrorRetryInterceptor} re-running repository methods failing with transient
+	 * errors, if any.
+	 *
+	 * @param retryInterceptor the interceptor to use
+	 */
+	@Autowired(required = false)
+	public void setRetryInterceptor(TransientErrorRetryInterceptor retryInterceptor) {
+		this.retryInterceptor = retryInterceptor;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.repository.core.support.TransactionalRepositoryFactoryBeanSupport#setTransactionManager(java.lang.String)
+	 */
+	@Override
+	public void setTransactionManager(String transactionManager) {
+		super.setTransactionManager(transactionManager);
+		this.transactionManagerName = transactionManager;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.repository.core.support.TransactionalRepositoryFactoryBeanSupport#setBeanFactory(org.springframework.beans.factory.BeanFactory)
+	 */
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+		super.setBeanFactory(beanFactory);
+		this.beanFactory = beanFactory;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport#setMappingContext(org.springframework.data.mapping.context.MappingContext)
@@ -58,6 +224,9 @@ public class Neo4jRepositoryFactoryBean<T extends Repository<S, ID>, S, ID exten
 	@Override
 	public void setMappingContext(MappingContext<?, ?> mappingContext) {
 		super.setMappingContext(mappingContext);
+		if (mappingContext instanceof Neo4jMappingContext) {
+			this.neo4jMappingContext = (Neo4jMappingContext) mappingContext;
+		}
 	}
 
 	@Override
@@ -68,7 +237,53 @@ public class Neo4jRepositoryFactoryBean<T extends Repository<S, ID>, S, ID exten
 
 	@Override
 	protected RepositoryFactorySupport doCreateRepositoryFactory() {
-		return createRepositoryFactory(session);
+		RepositoryFactorySupport factory = createRepositoryFactory(session);
+		if (factory instanceof Neo4jRepositoryFactory) {
+			Neo4jRepositoryFactory neo4jRepositoryFactory = (Neo4jRepositoryFactory) factory;
+			neo4jRepositoryFactory.setReactiveQueryExecutor(getReactiveQueryExecutor());
+			neo4jRepositoryFactory.setTransactionManager(lookupTransactionManager());
+			neo4jRepositoryFactory.setQueryResultCache(queryResultCache);
+			neo4jRepositoryFactory.setEntityCache(entityCache);
+			neo4jRepositoryFactory.setOrderedWrites(orderWrites);
+			neo4jRepositoryFactory.setMetricsRecorder(metricsRecorder);
+			neo4jRepositoryFactory.setRetryInterceptor(retryInterceptor);
+			neo4jRepositoryFactory.setSlowQueryLog(slowQueryLog);
+			neo4jRepositoryFactory.setQueryPlanCapture(queryPlanCapture);
+			neo4jRepositoryFactory.setQueryWarmup(queryWarmup);
+			neo4jRepositoryFactory.setQueryResolutionMode(queryResolutionMode);
+			neo4jRepositoryFactory.setBackgroundQueryResolver(backgroundQueryResolver);
+			neo4jRepositoryFactory.setFanOutLimits(fanOutLimits);
+			neo4jRepositoryFactory.setMappingContext(neo4jMappingContext);
+		}
+		return factory;
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (ownReactiveQueryExecutor != null) {
+			ownReactiveQueryExecutor.destroy();
+			ownReactiveQueryExecutor = null;
+		}
+	}
+
+	private synchronized ReactiveQueryExecutor getReactiveQueryExecutor() {
+		if (reactiveQueryExecutor != null) {
+			return reactiveQueryExecutor;
+		}
+		if (ownReactiveQueryExecutor == null) {
+			ownReactiveQueryExecutor = new ReactiveQueryExecutor();
+		}
+		return ownReactiveQueryExecutor;
+	}
+
+	private PlatformTransactionManager lookupTransactionManager() {
+		if (beanFactory == null) {
+			return null;
+		}
+		if (transactionManagerName != null && beanFactory.containsBean(transactionManagerName)) {
+			return beanFactory.getBean(transactionManagerName, PlatformTransactionManager.class);
+		}
+		return null;
 	}
 
 	/**
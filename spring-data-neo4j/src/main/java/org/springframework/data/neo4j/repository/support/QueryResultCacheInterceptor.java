@@ -0,0 +1,260 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.neo4j.annotation.CachedQuery;
+import org.springframework.data.neo4j.annotation.Query;
+import org.springframework.data.neo4j.repository.cache.EntityCache;
+import org.springframework.data.neo4j.repository.cache.EntityLabels;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.repository.cache.QueryResultCache;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link MethodInterceptor} serving the results of {@link CachedQuery} methods from a {@link QueryResultCache} and
+ * reporting writes of <code>&#064;Query</code> methods and derived delete queries to it.
+ * <p>
+ * The cache holds {@link DetachedCopy detached copies} of the results and every hit returns a copy of its own, so that
+ * callers never share an entity with another session or thread. A cached miss returns a copy as well, so that callers
+ * get the same kind of result either way. Invocations are only cached when all of their arguments
+ * are simple or immutable values, or arrays and collections of those, and when their result can be copied. Any other
+ * invocation, for example one taking an entity, goes to the database.
+ */
+class QueryResultCacheInterceptor implements MethodInterceptor {
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryResultCacheInterceptor.class);
+
+	private static final CacheMetadata NOT_CACHED = new CacheMetadata(-1, null, null);
+
+	private final RepositoryInformation repositoryInformation;
+	private final QueryResultCache cache;
+	private final EntityCache entityCache;
+	private final ConcurrentMap<Method, CacheMetadata> metadata = new ConcurrentHashMap<>();
+
+	QueryResultCacheInterceptor(RepositoryInformation repositoryInformation, QueryResultCache cache,
+			EntityCache entityCache) {
+		Assert.notNull(repositoryInformation, "RepositoryInformation must not be null!");
+		Assert.notNull(cache, "QueryResultCache must not be null!");
+		this.repositoryInformation = repositoryInformation;
+		this.cache = cache;
+		this.entityCache = entityCache;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+
+		CacheMetadata cacheMetadata = getMetadata(invocation.getMethod());
+
+		if (cacheMetadata.writtenLabels != null) {
+			Object result = invocation.proceed();
+			cache.invalidateAfterCommit(cacheMetadata.writtenLabels);
+			if (entityCache != null) {
+				entityCache.evictAfterCommit(cacheMetadata.writtenLabels);
+			}
+			return result;
+		}
+
+		if (cacheMetadata.readLabels == null || cache.isInvalidatedInCurrentTransaction(cacheMetadata.readLabels)) {
+			return invocation.proceed();
+		}
+
+		CacheKey key = CacheKey.of(repositoryInformation.getRepositoryInterface(), invocation.getMethod(),
+				invocation.getArguments());
+		if (key == null) {
+			return invocation.proceed();
+		}
+		ValueWrapper cached = cache.get(key);
+		if (cached != null) {
+			return DetachedCopy.of(cached.get());
+		}
+		long stamp = cache.getInvalidationCount();
+		Object result = invocation.proceed();
+		Object copy;
+		try {
+			copy = DetachedCopy.of(result);
+		} catch (DetachedCopy.NotCopyableException e) {
+			logger.debug("Not caching result of {}: {}", invocation.getMethod(), e.getMessage());
+			return result;
+		}
+		cache.put(key, copy, cacheMetadata.ttlMillis, cacheMetadata.readLabels, stamp);
+		return DetachedCopy.of(result);
+	}
+
+	private CacheMetadata getMetadata(Method method) {
+		CacheMetadata cacheMetadata = metadata.get(method);
+		if (cacheMetadata == null) {
+			cacheMetadata = resolveMetadata(method);
+			metadata.put(method, cacheMetadata);
+		}
+		return cacheMetadata;
+	}
+
+	private CacheMetadata resolveMetadata(Method method) {
+
+		Class<?> domainType = repositoryInformation.getDomainType();
+		Query query = AnnotationUtils.findAnnotation(method, Query.class);
+		boolean queryMethod = repositoryInformation.isQueryMethod(method);
+
+		if (query != null && EntityLabels.isWriteQuery(query.value())) {
+			return new CacheMetadata(-1, null, EntityLabels.labelsWrittenByQuery(query.value()));
+		}
+		if (query == null && queryMethod && (method.getName().startsWith("delete") || method.getName().startsWith("remove"))) {
+			return new CacheMetadata(-1, null, EntityLabels.reachableLabelsOf(domainType));
+		}
+
+		CachedQuery cachedQuery = AnnotationUtils.findAnnotation(method, CachedQuery.class);
+		if (cachedQuery == null || !isCacheable(method.getReturnType())) {
+			return NOT_CACHED;
+		}
+
+		Set<String> labels = new LinkedHashSet<>(EntityLabels.neighbourhoodLabelsOf(domainType));
+		Class<?> returnedType = repositoryInformation.getReturnedDomainClass(method);
+		if (returnedType != null && !ClassUtils.isPrimitiveOrWrapper(returnedType)
+				&& !returnedType.getName().startsWith("java.")) {
+			labels.addAll(EntityLabels.neighbourhoodLabelsOf(returnedType));
+		}
+		if (query != null) {
+			labels.addAll(EntityLabels.labelsInQuery(query.value()));
+		}
+		return new CacheMetadata(cachedQuery.unit().toMillis(cachedQuery.ttl()), labels, null);
+	}
+
+	private static boolean isCacheable(Class<?> returnType) {
+		return !(Iterator.class.isAssignableFrom(returnType) || AutoCloseable.class.isAssignableFrom(returnType)
+				|| returnType.getName().equals("org.reactivestreams.Publisher")
+				|| returnType.getName().startsWith("java.util.concurrent."));
+	}
+
+	private static class CacheMetadata {
+
+		private final long ttlMillis;
+		private final Set<String> readLabels;
+		private final Set<String> writtenLabels;
+
+		CacheMetadata(long ttlMillis, Set<String> readLabels, Set<String> writtenLabels) {
+			this.ttlMillis = ttlMillis;
+			this.readLabels = readLabels;
+			this.writtenLabels = writtenLabels;
+		}
+	}
+
+	private static class CacheKey {
+
+		private static final Object NOT_KEYABLE = new Object();
+
+		private final Class<?> repositoryInterface;
+		private final Method method;
+		private final Object[] arguments;
+		private final int hashCode;
+
+		private CacheKey(Class<?> repositoryInterface, Method method, Object[] arguments) {
+			this.repositoryInterface = repositoryInterface;
+			this.method = method;
+			this.arguments = arguments;
+			this.hashCode = 31 * (31 * repositoryInterface.hashCode() + method.hashCode()) + Arrays.deepHashCode(this.arguments);
+		}
+
+		/**
+		 * @return the key of the invocation, or {@literal null} if one of its arguments is not a simple or immutable value
+		 *         that can be held by the cache without being changed by the caller afterwards.
+		 */
+		static CacheKey of(Class<?> repositoryInterface, Method method, Object[] arguments) {
+			Object[] keyArguments = new Object[arguments == null ? 0 : arguments.length];
+			for (int i = 0; i < keyArguments.length; i++) {
+				keyArguments[i] = keyOf(arguments[i]);
+				if (keyArguments[i] == NOT_KEYABLE) {
+					return null;
+				}
+			}
+			return new CacheKey(repositoryInterface, method, keyArguments);
+		}
+
+		/**
+		 * Copies mutable simple values, arrays and collections, so that later changes of the caller do not alter the key.
+		 */
+		private static Object keyOf(Object argument) {
+			if (argument == null || DetachedCopy.isImmutable(argument) || argument.getClass() == Sort.class
+					|| argument.getClass() == PageRequest.class) {
+				return argument;
+			}
+			if (argument instanceof Date) {
+				return ((Date) argument).clone();
+			}
+			if (argument.getClass().isArray()) {
+				int length = Array.getLength(argument);
+				Object[] copy = new Object[length];
+				for (int i = 0; i < length; i++) {
+					copy[i] = keyOf(Array.get(argument, i));
+					if (copy[i] == NOT_KEYABLE) {
+						return NOT_KEYABLE;
+					}
+				}
+				return copy;
+			}
+			if (argument instanceof Collection) {
+				List<Object> copy = new ArrayList<>(((Collection<?>) argument).size());
+				for (Object element : (Collection<?>) argument) {
+					Object elementKey = keyOf(element);
+					if (elementKey == NOT_KEYABLE) {
+						return NOT_KEYABLE;
+					}
+					copy.add(elementKey);
+				}
+				return argument instanceof Set ? new HashSet<>(copy) : copy;
+			}
+			return NOT_KEYABLE;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey other = (CacheKey) o;
+			return repositoryInterface.equals(other.repositoryInterface) && method.equals(other.method)
+					&& Arrays.deepEquals(arguments, other.arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
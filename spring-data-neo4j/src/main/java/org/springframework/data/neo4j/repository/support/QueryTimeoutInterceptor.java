@@ -0,0 +1,106 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.neo4j.annotation.QueryTimeout;
+import org.springframework.data.neo4j.exception.QueryTimeoutException;
+import org.springframework.data.neo4j.transaction.QueryTimeoutWatchdog;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+import org.springframework.util.Assert;
+
+/**
+ * {@link MethodInterceptor} applying the {@link QueryTimeout}s declared on a repository interface and its methods.
+ * Methods without a timeout are invoked directly.
+ */
+class QueryTimeoutInterceptor implements MethodInterceptor {
+
+	private static final long NO_TIMEOUT = -1L;
+
+	private final Class<?> repositoryInterface;
+	private final QueryTimeoutWatchdog watchdog;
+	private final ConcurrentMap<Method, Long> timeouts = new ConcurrentHashMap<>();
+
+	QueryTimeoutInterceptor(Class<?> repositoryInterface, QueryTimeoutWatchdog watchdog) {
+		Assert.notNull(repositoryInterface, "Repository interface must not be null!");
+		Assert.notNull(watchdog, "QueryTimeoutWatchdog must not be null!");
+		this.repositoryInterface = repositoryInterface;
+		this.watchdog = watchdog;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+
+		Method method = invocation.getMethod();
+		long timeout = getTimeoutMillis(method);
+		if (timeout == NO_TIMEOUT) {
+			return invocation.proceed();
+		}
+
+		String name = repositoryInterface.getSimpleName() + "." + method.getName();
+		QueryTimeoutWatchdog.Watch watch = watchdog.start(name, timeout);
+		Object result;
+		try {
+			result = invocation.proceed();
+		} catch (Throwable e) {
+			if (watch.stop()) {
+				throw new QueryTimeoutException(name + " timed out after " + timeout + " ms", e);
+			}
+			throw e;
+		}
+		if (watch.stop()) {
+			throw new QueryTimeoutException(name + " timed out after " + timeout + " ms");
+		}
+		return result;
+	}
+
+	private long getTimeoutMillis(Method method) {
+		Long timeout = timeouts.get(method);
+		if (timeout == null) {
+			QueryTimeout annotation = AnnotationUtils.findAnnotation(method, QueryTimeout.class);
+			if (annotation == null) {
+				annotation = AnnotationUtils.findAnnotation(repositoryInterface, QueryTimeout.class);
+			}
+			timeout = annotation != null && annotation.value() > 0 ? annotation.unit().toMillis(annotation.value())
+					: NO_TIMEOUT;
+			timeouts.put(method, timeout);
+		}
+		return timeout;
+	}
+
+	/**
+	 * {@link RepositoryProxyPostProcessor} registering a {@link QueryTimeoutInterceptor} with every repository proxy.
+	 */
+	static class QueryTimeoutPostProcessor implements RepositoryProxyPostProcessor {
+
+		private final QueryTimeoutWatchdog watchdog;
+
+		QueryTimeoutPostProcessor(QueryTimeoutWatchdog watchdog) {
+			this.watchdog = watchdog;
+		}
+
+		@Override
+		public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+			factory.addAdvice(new QueryTimeoutInterceptor(repositoryInformation.getRepositoryInterface(), watchdog));
+		}
+	}
+}
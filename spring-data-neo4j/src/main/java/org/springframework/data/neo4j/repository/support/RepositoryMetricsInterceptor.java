@@ -0,0 +1,125 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.Future;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.neo4j.metrics.InvocationTrace;
+import org.springframework.data.neo4j.metrics.MetricsRecorder;
+import org.springframework.data.neo4j.metrics.RepositoryInvocation;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.metrics.plan.PlanMode;
+import org.springframework.data.neo4j.metrics.plan.QueryPlanCapture;
+import org.springframework.util.Assert;
+
+/**
+ * {@link MethodInterceptor} measuring every repository method invocation and reporting it to a
+ * {@link MetricsRecorder} and a {@link SlowQueryLog}, and capturing execution plans for the {@link QueryPlanCapture}.
+ * Registered as the outermost advice so that the measured time includes timeouts and cache lookups, as well as the
+ * retries of a {@link org.springframework.data.neo4j.transaction.TransientErrorRetryInterceptor}: an invocation is
+ * recorded once, however many attempts it took.
+ */
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+	private final Class<?> repositoryInterface;
+	private final MetricsRecorder recorder;
+	private final SlowQueryLog slowQueryLog;
+	private final QueryPlanCapture planCapture;
+
+	RepositoryMetricsInterceptor(Class<?> repositoryInterface, MetricsRecorder recorder, SlowQueryLog slowQueryLog,
+			QueryPlanCapture planCapture) {
+		Assert.notNull(repositoryInterface, "Repository interface must not be null!");
+		Assert.notNull(recorder, "MetricsRecorder must not be null!");
+		Assert.notNull(slowQueryLog, "SlowQueryLog must not be null!");
+		Assert.notNull(planCapture, "QueryPlanCapture must not be null!");
+		this.repositoryInterface = repositoryInterface;
+		this.recorder = recorder;
+		this.slowQueryLog = slowQueryLog;
+		this.planCapture = planCapture;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+
+		boolean recording = recorder.isEnabled();
+		boolean capturing = planCapture.isEnabled();
+		if (!recording && !capturing && !slowQueryLog.isEnabled()) {
+			return invocation.proceed();
+		}
+
+		String name = null;
+		PlanMode planMode = null;
+		if (capturing) {
+			name = repositoryInterface.getSimpleName() + "." + invocation.getMethod().getName();
+			planMode = planCapture.getModeIfDue(repositoryInterface, invocation.getMethod(), name);
+		}
+
+		InvocationTrace trace = InvocationTrace.start();
+		if (planMode != null) {
+			trace.captureCypher();
+		}
+		long start = System.nanoTime();
+		Object result = null;
+		Throwable error = null;
+		try {
+			result = invocation.proceed();
+		} catch (Throwable e) {
+			error = e;
+			throw e;
+		} finally {
+			long duration = System.nanoTime() - start;
+			trace.end();
+			RepositoryInvocation measured = new RepositoryInvocation(repositoryInterface, invocation.getMethod(), duration,
+					trace.getOgmNanos(), trace.getProjectionNanos(), error == null ? countRows(result) : 0L, error);
+			if (recording) {
+				recorder.recordRepositoryInvocation(measured);
+			}
+			slowQueryLog.log(measured, trace);
+		}
+		if (planMode != null) {
+			planCapture.capture(name, planMode, trace.getCypherStatements());
+		}
+		return result;
+	}
+
+	static long countRows(Object result) {
+		if (result == null) {
+			return 0L;
+		}
+		if (result instanceof Collection) {
+			return ((Collection<?>) result).size();
+		}
+		if (result instanceof Slice) {
+			return ((Slice<?>) result).getNumberOfElements();
+		}
+		if (result.getClass().isArray()) {
+			return Array.getLength(result);
+		}
+		if (result instanceof Optional) {
+			return ((Optional<?>) result).isPresent() ? 1L : 0L;
+		}
+		if (result instanceof Iterable || result instanceof Iterator || result instanceof AutoCloseable
+				|| result instanceof Future) {
+			return RepositoryInvocation.UNKNOWN_ROWS;
+		}
+		return 1L;
+	}
+}
@@ -29,6 +29,8 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.support.PersistenceExceptionTranslator;
 import org.springframework.data.neo4j.transaction.SessionFactoryUtils;
+import org.springframework.data.neo4j.transaction.SessionPool;
+import org.springframework.data.neo4j.transaction.SessionSizeLimiter;
 
 /**
  * {@link BeanFactoryPostProcessor} to register a {@link SessionFactoryBeanDefinition} for the
@@ -37,6 +39,10 @@ import org.springframework.data.neo4j.transaction.SessionFactoryUtils;
  *  <p>
  *  A PersistenceExceptionTranslator is added so it gets automatically registered with the Spring exception translation
  *  infrastructure.
+ *  <p>
+ *  If the application context contains a single {@link SessionPool}, the shared session reuses pooled sessions
+ *  outside of transactions. If it contains a single {@link SessionSizeLimiter}, the shared session limits the
+ *  entities tracked by thread-bound sessions.
  *
  * @author Mark Angrish
  */
@@ -56,6 +62,16 @@ public class SessionBeanDefinitionRegistrarPostProcessor implements BeanFactoryP
 				.rootBeanDefinition("org.springframework.data.neo4j.transaction.SharedSessionCreator");
 		builder.setFactoryMethod("createSharedSession");
 		builder.addConstructorArgReference(sfbd.getBeanName());
+		String[] pools = beanFactory.getBeanNamesForType(SessionPool.class, false, false);
+		String[] limiters = beanFactory.getBeanNamesForType(SessionSizeLimiter.class, false, false);
+		if (pools.length == 1) {
+			builder.addConstructorArgReference(pools[0]);
+		} else if (limiters.length == 1) {
+			builder.addConstructorArgValue(null);
+		}
+		if (limiters.length == 1) {
+			builder.addConstructorArgReference(limiters[0]);
+		}
 
 		AbstractBeanDefinition emBeanDefinition = builder.getRawBeanDefinition();
 
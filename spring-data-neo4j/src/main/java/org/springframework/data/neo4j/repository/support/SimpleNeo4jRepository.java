@@ -16,7 +16,10 @@ package org.springframework.data.neo4j.repository.support;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.neo4j.ogm.MetaData;
 import org.neo4j.ogm.cypher.query.Pagination;
@@ -27,7 +30,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.repository.Fetch;
 import org.springframework.data.neo4j.repository.Neo4jRepository;
+import org.springframework.data.neo4j.repository.cache.EntityCache;
+import org.springframework.data.neo4j.repository.cache.EntityLabels;
+import org.springframework.data.neo4j.repository.cache.QueryResultCache;
+import org.springframework.data.neo4j.repository.query.FanOutLimits;
+import org.springframework.data.neo4j.repository.query.FanOutLoader;
+import org.springframework.data.neo4j.repository.query.FetchPlanExpander;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
@@ -52,6 +62,13 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 
 	private Class<T> clazz;
 	private Session session;
+	private QueryResultCache queryResultCache;
+	private EntityCache entityCache;
+	private boolean orderedWrites;
+	private MetaData metaData;
+	private FetchPlanExpander fetchPlanExpander;
+	private FanOutLimits fanOutLimits;
+	private FanOutLoader fanOutLoader;
 
 	/**
 	 * Creates a new {@link SimpleNeo4jRepository} to manage objects of the given domain type.
@@ -67,6 +84,46 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 		this.session = session;
 	}
 
+	/**
+	 * Sets the cache to report writes to, so that cached query results touching the written labels are evicted.
+	 */
+	public void setQueryResultCache(QueryResultCache queryResultCache) {
+		this.queryResultCache = queryResultCache;
+	}
+
+	/**
+	 * Sets the cache shared by all Sessions that {@link #findOne(Serializable, int)} and
+	 * {@link #findAll(Iterable, int)} consult before loading entities, and that writes are reported to.
+	 */
+	public void setEntityCache(EntityCache entityCache) {
+		this.entityCache = entityCache;
+	}
+
+	/**
+	 * Sets whether the entities of {@link #save(Iterable)}, {@link #save(Iterable, int)} and {@link #delete(Iterable)}
+	 * are written ordered by graph id, so that concurrent batch writes touching the same nodes do not deadlock.
+	 * Defaults to {@literal false}, writing them in iteration order.
+	 */
+	public void setOrderedWrites(boolean orderedWrites) {
+		this.orderedWrites = orderedWrites;
+	}
+
+	/**
+	 * Sets the limits on the number of neighbours loaded per relationship type when loading with a depth.
+	 */
+	public void setFanOutLimits(FanOutLimits fanOutLimits) {
+		this.fanOutLimits = fanOutLimits;
+		this.fanOutLoader = null;
+	}
+
+	/**
+	 * Sets the mapping metadata of the session, required to load entities with a {@link Fetch} plan.
+	 */
+	public void setMetaData(MetaData metaData) {
+		this.metaData = metaData;
+		this.fetchPlanExpander = null;
+	}
+
 	protected Class<T> getDomainClass() {
 		return clazz;
 	}
@@ -75,14 +132,16 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 	@Override
 	public <S extends T> S save(S entity) {
 		session.save(entity);
+		invalidateSaved(entity, -1);
 		return entity;
 	}
 
 	@Transactional
 	@Override
 	public <S extends T> Iterable<S> save(Iterable<S> entities) {
-		for (S entity : entities) {
+		for (S entity : inWriteOrder(entities)) {
 			session.save(entity);
+			invalidateSaved(entity, -1);
 		}
 		return entities;
 	}
@@ -90,6 +149,9 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 	@Override
 	public T findOne(ID id) {
 		Assert.notNull(id, ID_MUST_NOT_BE_NULL);
+		if (isFanOutLimited(DEFAULT_QUERY_DEPTH) || isEntityCacheUsable()) {
+			return findOne(id, DEFAULT_QUERY_DEPTH);
+		}
 		return session.load(clazz, id);
 	}
 
@@ -108,21 +170,27 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 	public void delete(ID id) {
 		Object o = findOne(id);
 		if (o != null) {
+			Long graphId = session.resolveGraphIdFor(o);
 			session.delete(o);
+			invalidateDeleted(o, graphId);
 		}
 	}
 
 	@Transactional
 	@Override
 	public void delete(T t) {
+		Long graphId = session.resolveGraphIdFor(t);
 		session.delete(t);
+		invalidateDeleted(t, graphId);
 	}
 
 	@Transactional
 	@Override
 	public void delete(Iterable<? extends T> ts) {
-		for (T t : ts) {
+		for (T t : inWriteOrder(ts)) {
+			Long graphId = session.resolveGraphIdFor(t);
 			session.delete(t);
+			invalidateDeleted(t, graphId);
 		}
 	}
 
@@ -130,24 +198,72 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 	@Override
 	public void deleteAll() {
 		session.deleteAll(clazz);
+		invalidate(clazz);
+		if (entityCache != null) {
+			entityCache.evictAfterCommit(EntityLabels.labelsOf(clazz));
+		}
 	}
 
 	@Transactional
 	@Override
 	public <S extends T> S save(S s, int depth) {
 		session.save(s, depth);
+		invalidateSaved(s, depth);
 		return s;
 	}
 
 	@Transactional
 	@Override
 	public <S extends T> Iterable<S> save(Iterable<S> ses, int depth) {
-		session.save(ses, depth);
+		if (!orderedWrites) {
+			session.save(ses, depth);
+			for (S s : ses) {
+				invalidateSaved(s, depth);
+			}
+			return ses;
+		}
+		// a single save of the collection would write in the order the OGM walks it
+		for (S s : inWriteOrder(ses)) {
+			session.save(s, depth);
+			invalidateSaved(s, depth);
+		}
 		return ses;
 	}
 
 	@Override
 	public T findOne(ID id, int depth) {
+		if (isEntityCacheUsable()) {
+			Object cached = entityCache.get(getEntityCacheLabel(), id, depth);
+			if (clazz.isInstance(cached)) {
+				return clazz.cast(DetachedCopy.of(cached));
+			}
+			long stamp = entityCache.getInvalidationCount();
+			return putInEntityCache(id, depth, doFindOne(id, depth), stamp);
+		}
+		return doFindOne(id, depth);
+	}
+
+	/**
+	 * Caches a copy of the loaded entity and returns another one, so that misses hand out detached copies just like
+	 * hits.
+	 *
+	 * @return a copy of the entity, or the entity itself if it holds values that cannot be copied.
+	 */
+	private T putInEntityCache(Object id, int depth, T entity, long stamp) {
+		try {
+			entityCache.put(getEntityCacheLabel(), id, depth, DetachedCopy.of(entity), labelsReadAt(depth), stamp);
+			return DetachedCopy.of(entity);
+		} catch (DetachedCopy.NotCopyableException e) {
+			// entities holding values that cannot be copied are always read from the database
+			return entity;
+		}
+	}
+
+	private T doFindOne(ID id, int depth) {
+		if (isFanOutLimited(depth)) {
+			T entity = session.load(clazz, id, 0);
+			return entity == null ? null : getFanOutLoader().load(clazz, Collections.singletonList(entity), depth).get(0);
+		}
 		return session.load(clazz, id, depth);
 	}
 
@@ -159,6 +275,9 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 
 	@Override
 	public Iterable<T> findAll(int depth) {
+		if (isFanOutLimited(depth)) {
+			return getFanOutLoader().load(clazz, session.loadAll(clazz, 0), depth);
+		}
 		return session.loadAll(clazz, depth);
 	}
 
@@ -169,7 +288,47 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 
 	@Override
 	public Iterable<T> findAll(Iterable<ID> ids, int depth) {
-		return session.loadAll(clazz, (Collection<ID>) ids, depth);
+		if (!isEntityCacheUsable()) {
+			return doFindAll((Collection<ID>) ids, depth);
+		}
+		Map<ID, T> found = new HashMap<>();
+		List<ID> missing = new ArrayList<>();
+		for (ID id : ids) {
+			Object cached = entityCache.get(getEntityCacheLabel(), id, depth);
+			if (clazz.isInstance(cached)) {
+				found.put(id, clazz.cast(DetachedCopy.of(cached)));
+			} else {
+				missing.add(id);
+			}
+		}
+		if (!missing.isEmpty()) {
+			long stamp = entityCache.getInvalidationCount();
+			for (T entity : doFindAll(missing, depth)) {
+				Long graphId = session.resolveGraphIdFor(entity);
+				if (graphId != null) {
+					T copy = putInEntityCache(graphId, depth, entity, stamp);
+					ID id = idOf(graphId, missing);
+					if (id != null) {
+						found.put(id, copy);
+					}
+				}
+			}
+		}
+		List<T> result = new ArrayList<>(found.size());
+		for (ID id : ids) {
+			T entity = found.get(id);
+			if (entity != null) {
+				result.add(entity);
+			}
+		}
+		return result;
+	}
+
+	private Iterable<T> doFindAll(Collection<ID> ids, int depth) {
+		if (isFanOutLimited(depth)) {
+			return getFanOutLoader().load(clazz, session.loadAll(clazz, ids, 0), depth);
+		}
+		return session.loadAll(clazz, ids, depth);
 	}
 
 	@Override
@@ -179,6 +338,9 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 
 	@Override
 	public Iterable<T> findAll(Sort sort, int depth) {
+		if (isFanOutLimited(depth)) {
+			return getFanOutLoader().load(clazz, session.loadAll(clazz, convert(sort), 0), depth);
+		}
 		return session.loadAll(clazz, convert(sort), depth);
 	}
 
@@ -189,6 +351,9 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 
 	@Override
 	public Iterable<T> findAll(Iterable<ID> ids, Sort sort, int depth) {
+		if (isFanOutLimited(depth)) {
+			return getFanOutLoader().load(clazz, session.loadAll(clazz, (Collection<ID>) ids, convert(sort), 0), depth);
+		}
 		return session.loadAll(clazz, (Collection<ID>) ids, convert(sort), depth);
 	}
 
@@ -199,10 +364,140 @@ public class SimpleNeo4jRepository<T, ID extends Serializable> implements Neo4jR
 
 	@Override
 	public Page<T> findAll(Pageable pageable, int depth) {
+		if (isFanOutLimited(depth)) {
+			Collection<T> data = session.loadAll(clazz, convert(pageable.getSort()), new Pagination(pageable.getPageNumber(), pageable.getPageSize()), 0);
+			return updatePage(pageable, getFanOutLoader().load(clazz, data, depth));
+		}
 		Collection<T> data = session.loadAll(clazz, convert(pageable.getSort()), new Pagination(pageable.getPageNumber(), pageable.getPageSize()), depth);
 		return updatePage(pageable, new ArrayList<T>(data));
 	}
 
+	@Override
+	public T findOne(ID id, Fetch fetch) {
+		Assert.notNull(id, ID_MUST_NOT_BE_NULL);
+		T entity = session.load(clazz, id, 0);
+		return entity == null ? null : getFetchPlanExpander().load(clazz, Collections.singletonList(entity), fetch).get(0);
+	}
+
+	@Override
+	public Iterable<T> findAll(Fetch fetch) {
+		return getFetchPlanExpander().loadAll(clazz, fetch);
+	}
+
+	@Override
+	public Iterable<T> findAll(Iterable<ID> ids, Fetch fetch) {
+		return getFetchPlanExpander().load(clazz, session.loadAll(clazz, (Collection<ID>) ids, 0), fetch);
+	}
+
+	@Override
+	public Iterable<T> findAll(Sort sort, Fetch fetch) {
+		return getFetchPlanExpander().load(clazz, session.loadAll(clazz, convert(sort), 0), fetch);
+	}
+
+	@Override
+	public Page<T> findAll(Pageable pageable, Fetch fetch) {
+		Collection<T> data = session.loadAll(clazz, convert(pageable.getSort()), new Pagination(pageable.getPageNumber(), pageable.getPageSize()), 0);
+		return updatePage(pageable, getFetchPlanExpander().load(clazz, data, fetch));
+	}
+
+	@Override
+	public <N> Page<N> findNeighbours(T entity, String relationshipType, Class<N> neighbourType, Pageable pageable) {
+		Assert.notNull(entity, "Entity must not be null!");
+		FanOutLoader loader = fanOutLimits != null ? getFanOutLoader() : new FanOutLoader(session, new FanOutLimits());
+		return loader.findNeighbours(entity, relationshipType, neighbourType, pageable);
+	}
+
+	/*
+	 * With fan-out limits the roots are loaded at depth 0 by the OGM, then reloaded with the selected relationships
+	 */
+	private boolean isFanOutLimited(int depth) {
+		return depth != 0 && fanOutLimits != null && !fanOutLimits.isEmpty();
+	}
+
+	private FanOutLoader getFanOutLoader() {
+		if (fanOutLoader == null) {
+			fanOutLoader = new FanOutLoader(session, fanOutLimits);
+		}
+		return fanOutLoader;
+	}
+
+	/*
+	 * The roots are loaded at depth 0 by the OGM, then reloaded with the paths of the fetch plan in one statement
+	 */
+	private FetchPlanExpander getFetchPlanExpander() {
+		if (fetchPlanExpander == null) {
+			Assert.state(metaData != null, "MetaData must be set to load entities with a fetch plan!");
+			fetchPlanExpander = new FetchPlanExpander(session, metaData);
+		}
+		return fetchPlanExpander;
+	}
+
+	private <E> Iterable<E> inWriteOrder(Iterable<E> entities) {
+		return orderedWrites ? EntityWriteOrder.sort(entities, session) : entities;
+	}
+
+	private boolean isEntityCacheUsable() {
+		return entityCache != null && entityCache.isUsable();
+	}
+
+	private String getEntityCacheLabel() {
+		return EntityLabels.labelsOf(clazz).iterator().next();
+	}
+
+	/*
+	 * The requested ids may be of another Number type than the graph ids of the loaded entities
+	 */
+	private ID idOf(Long graphId, List<ID> requested) {
+		for (ID id : requested) {
+			if (id instanceof Number && ((Number) id).longValue() == graphId || graphId.equals(id)) {
+				return id;
+			}
+		}
+		return null;
+	}
+
+	private Collection<String> labelsReadAt(int depth) {
+		if (depth == 0) {
+			return EntityLabels.labelsOf(clazz);
+		}
+		return depth == 1 ? EntityLabels.neighbourhoodLabelsOf(clazz) : EntityLabels.reachableLabelsOf(clazz);
+	}
+
+	/*
+	 * Saving with depth 0 only writes the properties of the entity itself, any other depth may write reachable entities
+	 */
+	private void invalidateSaved(Object entity, int depth) {
+		invalidate(entity.getClass());
+		if (entityCache != null) {
+			Long graphId = session.resolveGraphIdFor(entity);
+			if (depth == 0 && graphId != null) {
+				entityCache.evictAfterCommit(entity.getClass(), graphId);
+			} else {
+				entityCache.evictAfterCommit(EntityLabels.reachableLabelsOf(entity.getClass()));
+			}
+		}
+	}
+
+	private void invalidateDeleted(Object entity, Long graphId) {
+		invalidate(entity.getClass());
+		if (entityCache != null) {
+			if (graphId != null) {
+				entityCache.evictAfterCommit(entity.getClass(), graphId);
+			} else {
+				entityCache.evictAfterCommit(EntityLabels.reachableLabelsOf(entity.getClass()));
+			}
+		}
+	}
+
+	/*
+	 * Reports a write of the given entity type to the query result cache, if any
+	 */
+	private void invalidate(Class<?> entityType) {
+		if (queryResultCache != null) {
+			queryResultCache.invalidateAfterCommit(EntityLabels.reachableLabelsOf(entityType));
+		}
+	}
+
 	/*
 	 * Converts a Spring Data Sort object to an OGM SortOrder
 	 */
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.SortOrder;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.session.Session;
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.reactive.ChunkSource;
+import org.springframework.data.neo4j.reactive.ChunkedPublisher;
+import org.springframework.data.neo4j.reactive.ReactiveQueryExecutor;
+import org.springframework.data.neo4j.repository.ReactiveNeo4jRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Default implementation of the {@link ReactiveNeo4jRepository} interface.
+ * <p>
+ * Reads run on the {@link ReactiveQueryExecutor} without a transaction, writes are wrapped in a transaction of
+ * the configured {@link PlatformTransactionManager}.
+ *
+ * @param <T> the type of the entity to handle
+ */
+public class SimpleReactiveNeo4jRepository<T, ID extends Serializable> implements ReactiveNeo4jRepository<T, ID> {
+
+	private static final int DEFAULT_QUERY_DEPTH = 1;
+
+	private final Class<T> clazz;
+	private final Session session;
+	private final ReactiveQueryExecutor executor;
+
+	private TransactionTemplate transactionTemplate;
+	private MetaData metaData;
+
+	private volatile String idQuery;
+
+	/**
+	 * Creates a new {@link SimpleReactiveNeo4jRepository} to manage objects of the given domain type.
+	 *
+	 * @param domainClass must not be {@literal null}.
+	 * @param session must not be {@literal null}.
+	 * @param executor must not be {@literal null}.
+	 */
+	public SimpleReactiveNeo4jRepository(Class<T> domainClass, Session session, ReactiveQueryExecutor executor) {
+		Assert.notNull(domainClass, "Domain class must not be null!");
+		Assert.notNull(session, "Session must not be null!");
+		Assert.notNull(executor, "ReactiveQueryExecutor must not be null!");
+
+		this.clazz = domainClass;
+		this.session = session;
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets the transaction manager used to demarcate write operations.
+	 */
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.transactionTemplate = transactionManager == null ? null : new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Sets the mapping metadata the statements of {@link #findAll(Sort, int)} are derived from, required for unsorted
+	 * reads.
+	 */
+	public void setMetaData(MetaData metaData) {
+		this.metaData = metaData;
+	}
+
+	protected Class<T> getDomainClass() {
+		return clazz;
+	}
+
+	@Override
+	public <S extends T> Publisher<S> save(S entity) {
+		return save(entity, -1);
+	}
+
+	@Override
+	public <S extends T> Publisher<S> save(final S entity, final int depth) {
+		Assert.notNull(entity, "Entity must not be null!");
+		return ChunkedPublisher.single(inTransaction(new Callable<S>() {
+			@Override
+			public S call() {
+				session.save(entity, depth);
+				return entity;
+			}
+		}), executor);
+	}
+
+	@Override
+	public <S extends T> Publisher<S> save(final Iterable<S> entities) {
+		Assert.notNull(entities, "Entities must not be null!");
+		return ChunkedPublisher.deferred(inTransaction(new Callable<Iterable<S>>() {
+			@Override
+			public Iterable<S> call() {
+				for (S entity : entities) {
+					session.save(entity);
+				}
+				return entities;
+			}
+		}), executor);
+	}
+
+	@Override
+	public Publisher<T> findOne(ID id) {
+		return findOne(id, DEFAULT_QUERY_DEPTH);
+	}
+
+	@Override
+	public Publisher<T> findOne(final ID id, final int depth) {
+		Assert.notNull(id, "The given id must not be null!");
+		return ChunkedPublisher.single(new Callable<T>() {
+			@Override
+			public T call() {
+				return session.load(clazz, id, depth);
+			}
+		}, executor);
+	}
+
+	@Override
+	public Publisher<Boolean> exists(final ID id) {
+		Assert.notNull(id, "The given id must not be null!");
+		return ChunkedPublisher.single(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return session.load(clazz, id, 0) != null;
+			}
+		}, executor);
+	}
+
+	@Override
+	public Publisher<T> findAll() {
+		return findAll(DEFAULT_QUERY_DEPTH);
+	}
+
+	@Override
+	public Publisher<T> findAll(int depth) {
+		return findAll(null, depth);
+	}
+
+	@Override
+	public Publisher<T> findAll(Sort sort) {
+		return findAll(sort, DEFAULT_QUERY_DEPTH);
+	}
+
+	@Override
+	public Publisher<T> findAll(Sort sort, final int depth) {
+		if (sort == null || !sort.iterator().hasNext()) {
+			// without an order, chunks fetched by skip and limit could overlap or miss entities
+			return new ChunkedPublisher<>(new ChunkSource<T>() {
+				@Override
+				public List<T> fetch(int chunkNumber, int chunkSize) {
+					return findChunkOrderedById(chunkNumber, chunkSize, depth);
+				}
+			}, executor.getChunkSize(), executor);
+		}
+		final SortOrder sortOrder = convert(sort);
+		return new ChunkedPublisher<>(new ChunkSource<T>() {
+			@Override
+			public List<T> fetch(int chunkNumber, int chunkSize) {
+				return new ArrayList<>(session.loadAll(clazz, sortOrder, new Pagination(chunkNumber, chunkSize), depth));
+			}
+		}, executor.getChunkSize(), executor);
+	}
+
+	@Override
+	public Publisher<Long> count() {
+		return ChunkedPublisher.single(new Callable<Long>() {
+			@Override
+			public Long call() {
+				return session.countEntitiesOfType(clazz);
+			}
+		}, executor);
+	}
+
+	@Override
+	public Publisher<Void> delete(final ID id) {
+		Assert.notNull(id, "The given id must not be null!");
+		return ChunkedPublisher.deferred(inTransaction(new Callable<Iterable<Void>>() {
+			@Override
+			public Iterable<Void> call() {
+				Object entity = session.load(clazz, id);
+				if (entity != null) {
+					session.delete(entity);
+				}
+				return Collections.emptyList();
+			}
+		}), executor);
+	}
+
+	@Override
+	public Publisher<Void> delete(final T entity) {
+		Assert.notNull(entity, "Entity must not be null!");
+		return ChunkedPublisher.deferred(inTransaction(new Callable<Iterable<Void>>() {
+			@Override
+			public Iterable<Void> call() {
+				session.delete(entity);
+				return Collections.emptyList();
+			}
+		}), executor);
+	}
+
+	@Override
+	public Publisher<Void> deleteAll() {
+		return ChunkedPublisher.deferred(inTransaction(new Callable<Iterable<Void>>() {
+			@Override
+			public Iterable<Void> call() {
+				session.deleteAll(clazz);
+				return Collections.emptyList();
+			}
+		}), executor);
+	}
+
+	private List<T> findChunkOrderedById(int chunkNumber, int chunkSize, int depth) {
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("skip", chunkNumber * chunkSize);
+		parameters.put("limit", chunkSize);
+		List<Long> ids = new ArrayList<>();
+		for (Long id : session.query(Long.class, idQuery(), parameters)) {
+			ids.add(id);
+		}
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		Map<Long, T> loaded = new HashMap<>();
+		for (T entity : session.loadAll(clazz, ids, depth)) {
+			loaded.put(session.resolveGraphIdFor(entity), entity);
+		}
+		List<T> chunk = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			T entity = loaded.get(id);
+			if (entity != null) {
+				chunk.add(entity);
+			}
+		}
+		return chunk;
+	}
+
+	private String idQuery() {
+		String query = this.idQuery;
+		if (query == null) {
+			Assert.state(metaData != null, "MetaData must be set to read entities without an order!");
+			ClassInfo classInfo = metaData.classInfo(clazz.getName());
+			if (classInfo == null) {
+				throw new IllegalArgumentException("No mapping metadata for " + clazz.getName());
+			}
+			String pattern = classInfo.isRelationshipEntity() ? "()-[n:`" + classInfo.neo4jName() + "`]->()"
+					: "(n:`" + classInfo.neo4jName() + "`)";
+			query = "MATCH " + pattern + " RETURN ID(n) ORDER BY ID(n) SKIP {skip} LIMIT {limit}";
+			this.idQuery = query;
+		}
+		return query;
+	}
+
+	private <R> Callable<R> inTransaction(final Callable<R> work) {
+		return new Callable<R>() {
+			@Override
+			public R call() throws Exception {
+				if (transactionTemplate == null) {
+					return work.call();
+				}
+				return transactionTemplate.execute(new TransactionCallback<R>() {
+					@Override
+					public R doInTransaction(TransactionStatus status) {
+						try {
+							return work.call();
+						} catch (RuntimeException e) {
+							throw e;
+						} catch (Exception e) {
+							throw new IllegalStateException(e.getMessage(), e);
+						}
+					}
+				});
+			}
+		};
+	}
+
+	/*
+	 * Converts a Spring Data Sort object to an OGM SortOrder
+	 */
+	private SortOrder convert(Sort sort) {
+
+		SortOrder sortOrder = new SortOrder();
+
+		if (sort != null) {
+			for (Sort.Order order : sort) {
+				if (order.isAscending()) {
+					sortOrder.add(order.getProperty());
+				} else {
+					sortOrder.add(SortOrder.Direction.DESC, order.getProperty());
+				}
+			}
+		}
+		return sortOrder;
+	}
+}
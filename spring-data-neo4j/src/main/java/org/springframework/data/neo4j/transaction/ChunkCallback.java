@@ -0,0 +1,29 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+/**
+ * Callback processing the items of a {@link ChunkedTransactionTemplate} job, one at a time, within the transaction of
+ * the current chunk.
+ *
+ * @param <T> the item type.
+ */
+public interface ChunkCallback<T> {
+
+	/**
+	 * Processes one item, typically saving or deleting entities through a repository or the shared Session.
+	 *
+	 * @param item the item to process.
+	 */
+	void doWithItem(T item);
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+/**
+ * Progress of a {@link ChunkedTransactionTemplate} job.
+ */
+public class ChunkProgress {
+
+	private final int chunks;
+	private final int chunkSize;
+	private final long committedCount;
+	private final long processedCount;
+	private final long elapsedMillis;
+
+	/**
+	 * @param chunks the number of chunks committed.
+	 * @param chunkSize the number of items in the last committed chunk.
+	 * @param committedCount the total number of items committed, including those skipped when resuming.
+	 * @param processedCount the number of items committed by this run.
+	 * @param elapsedMillis the time this run has taken so far.
+	 */
+	public ChunkProgress(int chunks, int chunkSize, long committedCount, long processedCount, long elapsedMillis) {
+		this.chunks = chunks;
+		this.chunkSize = chunkSize;
+		this.committedCount = committedCount;
+		this.processedCount = processedCount;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	/**
+	 * @return the number of chunks committed.
+	 */
+	public int getChunks() {
+		return chunks;
+	}
+
+	/**
+	 * @return the number of items in the last committed chunk.
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @return the total number of items committed, including those skipped when resuming. This is the position to
+	 *         resume from.
+	 */
+	public long getCommittedCount() {
+		return committedCount;
+	}
+
+	/**
+	 * @return the number of items committed by this run.
+	 */
+	public long getProcessedCount() {
+		return processedCount;
+	}
+
+	/**
+	 * @return the time this run has taken so far, in milliseconds.
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * @return the number of items committed by this run per second.
+	 */
+	public double getItemsPerSecond() {
+		return processedCount * 1000.0 / Math.max(elapsedMillis, 1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d chunks, %d items committed, %.1f items/s", chunks, committedCount, getItemsPerSecond());
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import java.util.Iterator;
+
+import org.neo4j.ogm.session.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.neo4j.exception.ChunkFailedException;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Template for bulk jobs processing many items in chunks, each in a transaction of its own.
+ * <p>
+ * A chunk is committed after {@link #setChunkSize(int) a number of items} or, if set, once it has been running for
+ * {@link #setMaxChunkMillis(long) a time}, whichever comes first. Chunks run with {@code PROPAGATION_REQUIRES_NEW}, so
+ * they commit even when the job is started within a transaction. With a {@link Neo4jTransactionManager} every chunk
+ * runs in a new Session, and a Session bound to the thread outside of a transaction is cleared after each chunk. With
+ * the embedded driver, which cannot suspend transactions, a job started within a transaction is rejected before its
+ * first chunk.
+ * <p>
+ * If a chunk fails it is rolled back and a {@link ChunkFailedException} reports the number of items committed. Running
+ * the job again with that number as {@code resumeFrom} skips the committed items. The progress of a job is handed to
+ * the {@link ChunkListener} after each chunk, and logged at debug level.
+ * <p>
+ * Example:
+ *
+ * <pre class="code">
+ * ChunkedTransactionTemplate template = new ChunkedTransactionTemplate(transactionManager);
+ * template.setChunkSize(500);
+ * template.execute(people, new ChunkCallback&lt;Person&gt;() {
+ * 	public void doWithItem(Person person) {
+ * 		personRepository.save(person);
+ * 	}
+ * });
+ * </pre>
+ */
+public class ChunkedTransactionTemplate {
+
+	/**
+	 * The default number of items per chunk.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	private static final Logger logger = LoggerFactory.getLogger(ChunkedTransactionTemplate.class);
+
+	private final TransactionTemplate transactionTemplate;
+	private final PlatformTransactionManager transactionManager;
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private long maxChunkMillis;
+	private ChunkListener listener;
+
+	/**
+	 * Creates a template running chunks in transactions of the given transaction manager.
+	 *
+	 * @param transactionManager must not be {@literal null}.
+	 */
+	public ChunkedTransactionTemplate(PlatformTransactionManager transactionManager) {
+		Assert.notNull(transactionManager, "PlatformTransactionManager must not be null");
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.transactionManager = transactionManager;
+	}
+
+	/**
+	 * Sets the maximum number of items per chunk. Defaults to {@value #DEFAULT_CHUNK_SIZE}.
+	 *
+	 * @param chunkSize must be positive.
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "Chunk size must be positive");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Sets the time after which a chunk is committed even if it has fewer items than the chunk size. The time is checked
+	 * after each item. Defaults to {@literal 0}, committing chunks by size only.
+	 *
+	 * @param maxChunkMillis the time in milliseconds, {@literal 0} for none.
+	 */
+	public void setMaxChunkMillis(long maxChunkMillis) {
+		Assert.isTrue(maxChunkMillis >= 0, "Maximum chunk time must not be negative");
+		this.maxChunkMillis = maxChunkMillis;
+	}
+
+	/**
+	 * Sets the timeout of each chunk's transaction, in seconds.
+	 *
+	 * @param timeout the timeout in seconds.
+	 */
+	public void setTimeout(int timeout) {
+		this.transactionTemplate.setTimeout(timeout);
+	}
+
+	/**
+	 * Sets the listener notified after each committed chunk.
+	 *
+	 * @param listener may be {@literal null}.
+	 */
+	public void setListener(ChunkListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Processes all items.
+	 *
+	 * @param items the items to process, must not be {@literal null}.
+	 * @param callback the callback processing each item, must not be {@literal null}.
+	 * @return the progress of the completed job.
+	 * @throws ChunkFailedException if a chunk failed.
+	 */
+	public <T> ChunkProgress execute(Iterable<T> items, ChunkCallback<T> callback) {
+		return execute(items, 0, callback);
+	}
+
+	/**
+	 * Processes all items but the first {@code resumeFrom}, which have been committed by a previous run.
+	 *
+	 * @param items the items to process, must not be {@literal null}. Must iterate in the same order as in the previous
+	 *          run when resuming.
+	 * @param resumeFrom the number of items to skip, see {@link ChunkFailedException#getCommittedCount()}.
+	 * @param callback the callback processing each item, must not be {@literal null}.
+	 * @return the progress of the completed job.
+	 * @throws ChunkFailedException if a chunk failed.
+	 * @throws IllegalTransactionStateException if started within a transaction of a {@link Neo4jTransactionManager}
+	 *           using the embedded driver.
+	 */
+	public <T> ChunkProgress execute(Iterable<T> items, long resumeFrom, final ChunkCallback<T> callback) {
+		Assert.notNull(items, "Items must not be null");
+		Assert.notNull(callback, "ChunkCallback must not be null");
+		Assert.isTrue(resumeFrom >= 0, "Position to resume from must not be negative");
+		if (transactionManager instanceof Neo4jTransactionManager
+				&& TransactionSynchronizationManager.isActualTransactionActive()
+				&& ((Neo4jTransactionManager) transactionManager).isEmbeddedDriver()) {
+			throw new IllegalTransactionStateException("Cannot run chunks in transactions of their own within an "
+					+ "existing transaction: the embedded driver cannot suspend it. Start the job outside of a transaction.");
+		}
+
+		final Iterator<T> iterator = items.iterator();
+		long skipped = 0;
+		while (skipped < resumeFrom && iterator.hasNext()) {
+			iterator.next();
+			skipped++;
+		}
+
+		long start = System.currentTimeMillis();
+		long committed = skipped;
+		int chunks = 0;
+		ChunkProgress progress = new ChunkProgress(0, 0, committed, 0, 0);
+		while (iterator.hasNext()) {
+			int size;
+			try {
+				size = transactionTemplate.execute(new TransactionCallback<Integer>() {
+					@Override
+					public Integer doInTransaction(TransactionStatus status) {
+						return processChunk(iterator, callback);
+					}
+				});
+			} catch (RuntimeException e) {
+				throw new ChunkFailedException("Chunk " + (chunks + 1) + " failed and was rolled back; " + committed
+						+ " items are committed and can be skipped when resuming", committed, chunks + 1, e);
+			}
+			clearBoundSession();
+			chunks++;
+			committed += size;
+			progress = new ChunkProgress(chunks, size, committed, committed - skipped, System.currentTimeMillis() - start);
+			logger.debug("Committed chunk of {} items: {}", size, progress);
+			if (listener != null) {
+				listener.chunkCommitted(progress);
+			}
+		}
+		return progress;
+	}
+
+	private <T> int processChunk(Iterator<T> iterator, ChunkCallback<T> callback) {
+		long chunkStart = maxChunkMillis > 0 ? System.currentTimeMillis() : 0;
+		int size = 0;
+		while (size < chunkSize && iterator.hasNext()) {
+			callback.doWithItem(iterator.next());
+			size++;
+			if (maxChunkMillis > 0 && System.currentTimeMillis() - chunkStart >= maxChunkMillis) {
+				break;
+			}
+		}
+		return size;
+	}
+
+	private void clearBoundSession() {
+		if (!(transactionManager instanceof Neo4jTransactionManager)
+				|| TransactionSynchronizationManager.isActualTransactionActive()) {
+			return;
+		}
+		SessionFactory sessionFactory = ((Neo4jTransactionManager) transactionManager).getSessionFactory();
+		SessionHolder sessionHolder = (SessionHolder) TransactionSynchronizationManager.getResource(sessionFactory);
+		if (sessionHolder != null) {
+			sessionHolder.getSession().clear();
+		}
+	}
+}
@@ -13,7 +13,13 @@
 
 package org.springframework.data.neo4j.transaction;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.neo4j.ogm.service.Components;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
 import org.neo4j.ogm.transaction.Transaction;
@@ -21,7 +27,16 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.neo4j.exception.QueryTimeoutException;
+import org.springframework.data.neo4j.metrics.LatencyHistogram;
+import org.springframework.data.neo4j.metrics.NoOpMetricsRecorder;
+import org.springframework.data.neo4j.metrics.TransactionMetricsRecorder;
+import org.springframework.data.neo4j.metrics.TransactionRollbackCause;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.transaction.*;
 import org.springframework.transaction.support.AbstractPlatformTransactionManager;
 import org.springframework.transaction.support.DefaultTransactionStatus;
@@ -40,16 +55,44 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
  * Neo4j OGM SessionFactory for transactional data access. JTA (usually through
  * {@link org.springframework.transaction.jta.JtaTransactionManager}) has not been tested
  * or considered at the moment.
- * <p>This transaction manager does not support nested transactions or
- * requires new propagation.
+ * <p>This transaction manager supports all propagation behaviours but nested
+ * transactions within an existing one. {@code PROPAGATION_REQUIRES_NEW} suspends the current
+ * transaction and runs the new one in a fresh Session. With the embedded driver, Neo4j
+ * binds transactions to the thread, so a transaction begun while another one is suspended
+ * would silently join it: {@code PROPAGATION_REQUIRES_NEW} within an existing transaction
+ * is rejected with an {@link IllegalTransactionStateException} instead.
+ * {@code PROPAGATION_SUPPORTS} and {@code PROPAGATION_NOT_SUPPORTED} outside
+ * of (respectively suspending) a transaction do not begin a server transaction:
+ * {@link SharedSessionCreator shared Sessions} then run each read in a Session
+ * of its own, in auto-commit mode.
+ * <p>Transaction timeouts are enforced by a {@link QueryTimeoutWatchdog}: once the
+ * timeout has elapsed the transaction is ended on the server, aborting its running
+ * statement, and can only be rolled back, committing it raises a
+ * {@link QueryTimeoutException}.
+ * <p>The transactions begun by this transaction manager are measured: begin and commit
+ * latencies, rollbacks by {@link TransactionRollbackCause cause}, active, read-only and
+ * read-write transactions. The statistics can be read through JMX once exported, e.g. with
+ * {@code @EnableMBeanExport}, and are reported to a {@link TransactionMetricsRecorder}, if set.
  *
  * @author Mark Angrish
  * @see #setSessionFactory
  */
+@ManagedResource(objectName = "org.springframework.data.neo4j:type=TransactionManager",
+		description = "Transactions managed by the Neo4j transaction manager")
 public class Neo4jTransactionManager extends AbstractPlatformTransactionManager implements ResourceTransactionManager, BeanFactoryAware, InitializingBean {
 
+	private static final String EMBEDDED_DRIVER = "org.neo4j.ogm.drivers.embedded.driver.EmbeddedDriver";
+
 	private SessionFactory sessionFactory;
 
+	private QueryTimeoutWatchdog timeoutWatchdog = QueryTimeoutWatchdog.getSharedInstance();
+
+	private TransactionMetricsRecorder transactionMetricsRecorder = NoOpMetricsRecorder.INSTANCE;
+
+	private final TransactionStatistics statistics = new TransactionStatistics();
+
+	private volatile Boolean embeddedDriver;
+
 	/**
 	 * Create a new Neo4jTransactionManager instance.
 	 * <p>An SessionFactory has to be set to be able to use it.
@@ -91,10 +134,44 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 
 
 	/**
-	 * Retrieves a default SessionFactory bean.
+	 * Set the watchdog enforcing transaction timeouts. Defaults to the
+	 * {@link QueryTimeoutWatchdog#getSharedInstance() shared watchdog}.
+	 */
+	public void setTimeoutWatchdog(QueryTimeoutWatchdog timeoutWatchdog) {
+		this.timeoutWatchdog = timeoutWatchdog;
+	}
+
+
+	/**
+	 * Set the recorder the transactions are reported to.
+	 * <p>By default, a single unique bean of type TransactionMetricsRecorder in the
+	 * containing BeanFactory is used, if there is one.
+	 */
+	public void setTransactionMetricsRecorder(TransactionMetricsRecorder transactionMetricsRecorder) {
+		this.transactionMetricsRecorder = (transactionMetricsRecorder != null ? transactionMetricsRecorder
+				: NoOpMetricsRecorder.INSTANCE);
+	}
+
+
+	/**
+	 * Return the recorder the transactions are reported to.
+	 */
+	public TransactionMetricsRecorder getTransactionMetricsRecorder() {
+		return this.transactionMetricsRecorder;
+	}
+
+
+	/**
+	 * Retrieves a default TransactionMetricsRecorder and SessionFactory bean.
 	 */
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+		if (getTransactionMetricsRecorder() == NoOpMetricsRecorder.INSTANCE && beanFactory instanceof ListableBeanFactory) {
+			String[] recorders = ((ListableBeanFactory) beanFactory).getBeanNamesForType(TransactionMetricsRecorder.class, false, false);
+			if (recorders.length == 1) {
+				setTransactionMetricsRecorder(beanFactory.getBean(recorders[0], TransactionMetricsRecorder.class));
+			}
+		}
 		if (getSessionFactory() == null) {
 			setSessionFactory(beanFactory.getBean(SessionFactory.class));
 		}
@@ -109,6 +186,132 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 	}
 
 
+	@ManagedAttribute(description = "Number of currently active transactions")
+	public int getActiveTransactionCount() {
+		return statistics.activeReadOnly.get() + statistics.activeReadWrite.get();
+	}
+
+
+	@ManagedAttribute(description = "Number of currently active read-only transactions")
+	public int getActiveReadOnlyTransactionCount() {
+		return statistics.activeReadOnly.get();
+	}
+
+
+	@ManagedAttribute(description = "Number of read-only transactions begun")
+	public long getReadOnlyTransactionCount() {
+		return statistics.readOnly.get();
+	}
+
+
+	@ManagedAttribute(description = "Number of read-write transactions begun")
+	public long getReadWriteTransactionCount() {
+		return statistics.readWrite.get();
+	}
+
+
+	@ManagedAttribute(description = "Number of transactions that could not be begun")
+	public long getBeginFailureCount() {
+		return statistics.beginFailures.get();
+	}
+
+
+	@ManagedAttribute(description = "Mean time to begin a transaction in milliseconds")
+	public double getBeginMeanMillis() {
+		return statistics.beginLatency.getMeanMillis();
+	}
+
+
+	@ManagedAttribute(description = "99th percentile of the time to begin a transaction in milliseconds")
+	public double getBeginP99Millis() {
+		return statistics.beginLatency.getP99Millis();
+	}
+
+
+	@ManagedAttribute(description = "Number of committed transactions")
+	public long getCommitCount() {
+		return statistics.commits.get();
+	}
+
+
+	@ManagedAttribute(description = "Number of transactions that failed to commit")
+	public long getCommitFailureCount() {
+		return statistics.commitFailures.get();
+	}
+
+
+	@ManagedAttribute(description = "Mean time to commit a transaction in milliseconds")
+	public double getCommitMeanMillis() {
+		return statistics.commitLatency.getMeanMillis();
+	}
+
+
+	@ManagedAttribute(description = "99th percentile of the time to commit a transaction in milliseconds")
+	public double getCommitP99Millis() {
+		return statistics.commitLatency.getP99Millis();
+	}
+
+
+	@ManagedAttribute(description = "Number of rolled back transactions")
+	public long getRollbackCount() {
+		long rollbacks = 0;
+		for (AtomicLong count : statistics.rollbacks.values()) {
+			rollbacks += count.get();
+		}
+		return rollbacks;
+	}
+
+
+	@ManagedAttribute(description = "Number of transactions rolled back by the application, usually after an exception")
+	public long getApplicationRollbackCount() {
+		return getRollbackCount(TransactionRollbackCause.APPLICATION);
+	}
+
+
+	@ManagedAttribute(description = "Number of transactions rolled back because they were marked rollback-only")
+	public long getRollbackOnlyRollbackCount() {
+		return getRollbackCount(TransactionRollbackCause.ROLLBACK_ONLY);
+	}
+
+
+	@ManagedAttribute(description = "Number of transactions rolled back because they timed out")
+	public long getTimeoutRollbackCount() {
+		return getRollbackCount(TransactionRollbackCause.TIMEOUT);
+	}
+
+
+	@ManagedAttribute(description = "Number of transactions rolled back because their commit failed")
+	public long getCommitFailureRollbackCount() {
+		return getRollbackCount(TransactionRollbackCause.COMMIT_FAILURE);
+	}
+
+
+	/**
+	 * Return the number of transactions rolled back for the given cause.
+	 */
+	public long getRollbackCount(TransactionRollbackCause cause) {
+		return statistics.rollbacks.get(cause).get();
+	}
+
+
+	@ManagedAttribute(description = "99th percentile of the lifetime of transactions in milliseconds")
+	public double getTransactionP99Millis() {
+		return statistics.lifetime.getP99Millis();
+	}
+
+
+	@ManagedAttribute(description = "Longest lifetime of a transaction in milliseconds")
+	public double getTransactionMaxMillis() {
+		return statistics.lifetime.getMaxMillis();
+	}
+
+
+	@ManagedOperation(description = "Resets the transaction statistics, except for the active transactions")
+	public void resetStatistics() {
+		statistics.reset();
+	}
+
+
 	@Override
 	public Object getResourceFactory() {
 		return getSessionFactory();
@@ -140,6 +343,12 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 	@Override
 	protected void doBegin(Object transaction, TransactionDefinition definition) throws TransactionException {
 		Neo4jTransactionObject txObject = (Neo4jTransactionObject) transaction;
+		if (txObject.isSuspending() && isEmbeddedDriver()) {
+			throw new IllegalTransactionStateException("Cannot begin a new Neo4j OGM transaction while another one is "
+					+ "suspended: the embedded driver would join the suspended transaction. Use PROPAGATION_REQUIRED or "
+					+ "run the new transaction outside of the existing one.");
+		}
+		long start = System.nanoTime();
 
 		try {
 			if (txObject.getSessionHolder() == null ||
@@ -159,11 +368,6 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 						"Neo4jTransactionManager is not allowed to support custom isolation levels.");
 			}
 
-			if (definition.getPropagationBehavior() != TransactionDefinition.PROPAGATION_REQUIRED) {
-				throw new IllegalTransactionStateException(
-						"Neo4jTransactionManager only supports 'required' propagation.");
-			}
-
 			Transaction transactionData;
 			if (definition.isReadOnly()  && txObject.isNewSessionHolder()) {
 				transactionData = session.beginTransaction(Transaction.Type.READ_ONLY);
@@ -176,6 +380,13 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 				logger.debug("Beginning Transaction [" + transactionData + "] on Session [" + session + "]");
 			}
 
+			int timeout = determineTimeout(definition);
+			if (timeout != TransactionDefinition.TIMEOUT_DEFAULT) {
+				txObject.getSessionHolder().setTimeoutInSeconds(timeout);
+				String name = definition.getName() != null ? definition.getName() : "transaction";
+				txObject.setTimeoutWatch(timeoutWatchdog.start(name, TimeUnit.SECONDS.toMillis(timeout), transactionData));
+			}
+
 			// Bind the session holder to the thread.
 			if (txObject.isNewSessionHolder()) {
 				TransactionSynchronizationManager.bindResource(getSessionFactory(), txObject.getSessionHolder());
@@ -188,11 +399,37 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 			txObject.getSessionHolder().setSynchronizedWithTransaction(true);
 		} catch (TransactionException ex) {
 			closeSessionAfterFailedBegin(txObject);
+			recordBegin(definition.isReadOnly(), System.nanoTime() - start, false);
 			throw ex;
 		} catch (Throwable ex) {
 			closeSessionAfterFailedBegin(txObject);
+			recordBegin(definition.isReadOnly(), System.nanoTime() - start, false);
 			throw new CannotCreateTransactionException("Could not open Neo4j Session for transaction", ex);
 		}
+
+		long begun = System.nanoTime();
+		txObject.setBegun(definition.isReadOnly(), begun);
+		recordBegin(definition.isReadOnly(), begun - start, true);
+	}
+
+
+	/**
+	 * Return whether Neo4j OGM is configured with the embedded driver, which binds
+	 * transactions to the thread.
+	 */
+	boolean isEmbeddedDriver() {
+		Boolean embeddedDriver = this.embeddedDriver;
+		if (embeddedDriver == null) {
+			embeddedDriver = EMBEDDED_DRIVER.equals(
+					Components.configuration().driverConfiguration().getDriverClassName());
+			this.embeddedDriver = embeddedDriver;
+		}
+		return embeddedDriver;
+	}
+
+
+	void setEmbeddedDriver(boolean embeddedDriver) {
+		this.embeddedDriver = embeddedDriver;
 	}
 
 
@@ -203,6 +440,7 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 	 * @param txObject the current transaction
 	 */
 	private void closeSessionAfterFailedBegin(Neo4jTransactionObject txObject) {
+		txObject.stopTimeoutWatch();
 		if (txObject.isNewSessionHolder()) {
 			Session session = txObject.getSessionHolder().getSession();
 			try {
@@ -222,6 +460,7 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 	protected Object doSuspend(Object transaction) {
 		Neo4jTransactionObject txObject = (Neo4jTransactionObject) transaction;
 		txObject.setSessionHolder(null, false);
+		txObject.setSuspending(true);
 		SessionHolder sessionHolder = (SessionHolder)
 				TransactionSynchronizationManager.unbindResource(getSessionFactory());
 		return new SuspendedResourcesHolder(sessionHolder);
@@ -247,6 +486,12 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 		Neo4jTransactionObject txObject = (Neo4jTransactionObject) status.getTransaction();
 		Session session = txObject.getSessionHolder().getSession();
 
+		if (txObject.stopTimeoutWatch()) {
+			throw new QueryTimeoutException("Neo4j OGM transaction on Session [" + session + "] timed out and cannot be committed");
+		}
+
+		long start = System.nanoTime();
+		boolean committed = false;
 		try (Transaction tx = session.getTransaction()) {
 
 			if (status.isDebug()) {
@@ -254,9 +499,12 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 			}
 
 			tx.commit();
+			committed = true;
 		} catch (RuntimeException ex) {
 			DataAccessException dae = SessionFactoryUtils.convertOgmAccessException(ex);
 			throw (dae != null ? dae : ex);
+		} finally {
+			recordCommit(txObject, System.nanoTime() - start, committed);
 		}
 	}
 
@@ -265,6 +513,8 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 	protected void doRollback(DefaultTransactionStatus status) {
 		Neo4jTransactionObject txObject = (Neo4jTransactionObject) status.getTransaction();
 		Session session = txObject.getSessionHolder().getSession();
+		txObject.stopTimeoutWatch();
+		recordRollback(txObject, determineRollbackCause(status, txObject));
 
 		try (Transaction tx = session.getTransaction()) {
 
@@ -274,6 +524,11 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 
 			tx.rollback();
 		} catch (RuntimeException ex) {
+			if (txObject.isTimedOut()) {
+				// the watchdog already ended the transaction on the server
+				logger.debug("Could not roll back timed out Neo4j OGM transaction on Session [" + session + "]", ex);
+				return;
+			}
 			DataAccessException dae = SessionFactoryUtils.convertOgmAccessException(ex);
 			throw (dae != null ? dae : ex);
 		} finally {
@@ -299,6 +554,10 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 	@Override
 	protected void doCleanupAfterCompletion(Object transaction) {
 		Neo4jTransactionObject txObject = (Neo4jTransactionObject) transaction;
+		txObject.stopTimeoutWatch();
+		if (txObject.isBegun()) {
+			recordCompletion(txObject, System.nanoTime() - txObject.getBeginTime());
+		}
 
 		// Remove the session holder from the thread, if still there.
 		if (txObject.isNewSessionHolder()) {
@@ -308,7 +567,14 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 		Transaction rawTransaction = txObject.getTransactionData();
 
 		if (rawTransaction != null && rawTransaction.status().equals(Transaction.Status.OPEN)) {
-			rawTransaction.close();
+			try {
+				rawTransaction.close();
+			} catch (RuntimeException ex) {
+				if (!txObject.isTimedOut()) {
+					throw ex;
+				}
+				logger.debug("Could not close timed out Neo4j OGM transaction [" + rawTransaction + "]", ex);
+			}
 		}
 
 		// Remove the session holder from the thread.
@@ -326,6 +592,61 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 		txObject.getSessionHolder().clear();
 	}
 
+
+	/**
+	 * Determine why the given transaction is rolled back. A timeout takes precedence,
+	 * as the failure it causes usually surfaces as an exception or a failed commit.
+	 */
+	private TransactionRollbackCause determineRollbackCause(DefaultTransactionStatus status, Neo4jTransactionObject txObject) {
+		if (txObject.isTimedOut()) {
+			return TransactionRollbackCause.TIMEOUT;
+		}
+		if (txObject.isCommitFailed()) {
+			return TransactionRollbackCause.COMMIT_FAILURE;
+		}
+		if (status.isLocalRollbackOnly() || status.isGlobalRollbackOnly()) {
+			return TransactionRollbackCause.ROLLBACK_ONLY;
+		}
+		return TransactionRollbackCause.APPLICATION;
+	}
+
+
+	private void recordBegin(boolean readOnly, long durationNanos, boolean successful) {
+		statistics.beginLatency.record(durationNanos);
+		if (successful) {
+			(readOnly ? statistics.readOnly : statistics.readWrite).incrementAndGet();
+			(readOnly ? statistics.activeReadOnly : statistics.activeReadWrite).incrementAndGet();
+		} else {
+			statistics.beginFailures.incrementAndGet();
+		}
+		transactionMetricsRecorder.recordTransactionBegin(readOnly, durationNanos, successful);
+	}
+
+
+	private void recordCommit(Neo4jTransactionObject txObject, long durationNanos, boolean successful) {
+		statistics.commitLatency.record(durationNanos);
+		if (successful) {
+			statistics.commits.incrementAndGet();
+		} else {
+			statistics.commitFailures.incrementAndGet();
+			txObject.setCommitFailed();
+		}
+		transactionMetricsRecorder.recordTransactionCommit(txObject.isReadOnly(), durationNanos, successful);
+	}
+
+
+	private void recordRollback(Neo4jTransactionObject txObject, TransactionRollbackCause cause) {
+		statistics.rollbacks.get(cause).incrementAndGet();
+		transactionMetricsRecorder.recordTransactionRollback(txObject.isReadOnly(), cause);
+	}
+
+
+	private void recordCompletion(Neo4jTransactionObject txObject, long lifetimeNanos) {
+		statistics.lifetime.record(lifetimeNanos);
+		(txObject.isReadOnly() ? statistics.activeReadOnly : statistics.activeReadWrite).decrementAndGet();
+		transactionMetricsRecorder.recordTransactionCompletion(txObject.isReadOnly(), lifetimeNanos);
+	}
+
 	/**
 	 * Neo4j OGM transaction object, representing a SessionHolder.
 	 * Used as transaction object by Neo4jTransactionManager.
@@ -338,6 +659,20 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 
 		private Transaction transactionData;
 
+		private QueryTimeoutWatchdog.Watch timeoutWatch;
+
+		private boolean begun;
+
+		private boolean readOnly;
+
+		private long beginTime;
+
+		private boolean timedOut;
+
+		private boolean commitFailed;
+
+		private boolean suspending;
+
 		void setSessionHolder(
 				SessionHolder sessionHolder, boolean newSessionHolder) {
 			this.sessionHolder = sessionHolder;
@@ -352,6 +687,14 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 			return this.newSessionHolder;
 		}
 
+		void setSuspending(boolean suspending) {
+			this.suspending = suspending;
+		}
+
+		boolean isSuspending() {
+			return this.suspending;
+		}
+
 		boolean hasTransaction() {
 			return (this.sessionHolder != null && this.sessionHolder.isTransactionActive());
 		}
@@ -364,6 +707,146 @@ public class Neo4jTransactionManager extends AbstractPlatformTransactionManager
 		Transaction getTransactionData() {
 			return this.transactionData;
 		}
+
+		void setTimeoutWatch(QueryTimeoutWatchdog.Watch timeoutWatch) {
+			this.timeoutWatch = timeoutWatch;
+		}
+
+		/**
+		 * Stops watching the transaction timeout, if any.
+		 *
+		 * @return whether the timeout has elapsed
+		 */
+		boolean stopTimeoutWatch() {
+			if (this.timeoutWatch != null && this.timeoutWatch.stop()) {
+				this.timedOut = true;
+			}
+			return this.timedOut;
+		}
+
+		boolean isTimedOut() {
+			return this.timedOut;
+		}
+
+		void setBegun(boolean readOnly, long beginTime) {
+			this.begun = true;
+			this.readOnly = readOnly;
+			this.beginTime = beginTime;
+		}
+
+		boolean isBegun() {
+			return this.begun;
+		}
+
+		boolean isReadOnly() {
+			return this.readOnly;
+		}
+
+		long getBeginTime() {
+			return this.beginTime;
+		}
+
+		void setCommitFailed() {
+			this.commitFailed = true;
+		}
+
+		boolean isCommitFailed() {
+			return this.commitFailed;
+		}
+	}
+
+	/**
+	 * Counters and latencies of the transactions begun by a Neo4jTransactionManager.
+	 */
+	private static class TransactionStatistics {
+
+		private final AtomicInteger activeReadOnly = new AtomicInteger();
+
+		private final AtomicInteger activeReadWrite = new AtomicInteger();
+
+		private final AtomicLong readOnly = new AtomicLong();
+
+		private final AtomicLong readWrite = new AtomicLong();
+
+		private final AtomicLong beginFailures = new AtomicLong();
+
+		private final AtomicLong commits = new AtomicLong();
+
+		private final AtomicLong commitFailures = new AtomicLong();
+
+		private final Map<TransactionRollbackCause, AtomicLong> rollbacks = new EnumMap<>(TransactionRollbackCause.class);
+
+		private final Latency beginLatency = new Latency();
+
+		private final Latency commitLatency = new Latency();
+
+		private final Latency lifetime = new Latency();
+
+		TransactionStatistics() {
+			for (TransactionRollbackCause cause : TransactionRollbackCause.values()) {
+				rollbacks.put(cause, new AtomicLong());
+			}
+		}
+
+		void reset() {
+			readOnly.set(0);
+			readWrite.set(0);
+			beginFailures.set(0);
+			commits.set(0);
+			commitFailures.set(0);
+			for (AtomicLong count : rollbacks.values()) {
+				count.set(0);
+			}
+			beginLatency.reset();
+			commitLatency.reset();
+			lifetime.reset();
+		}
+	}
+
+	/**
+	 * Distribution of durations, reported in milliseconds.
+	 */
+	private static class Latency {
+
+		private static final double NANOS_PER_MILLI = 1000000.0;
+
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		private final AtomicLong count = new AtomicLong();
+
+		private final AtomicLong totalNanos = new AtomicLong();
+
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		void record(long nanos) {
+			histogram.record(nanos);
+			count.incrementAndGet();
+			totalNanos.addAndGet(nanos);
+			long max = maxNanos.get();
+			while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+				max = maxNanos.get();
+			}
+		}
+
+		double getMeanMillis() {
+			long calls = count.get();
+			return calls == 0 ? 0 : totalNanos.get() / NANOS_PER_MILLI / calls;
+		}
+
+		double getP99Millis() {
+			return histogram.getPercentile(0.99) / NANOS_PER_MILLI;
+		}
+
+		double getMaxMillis() {
+			return maxNanos.get() / NANOS_PER_MILLI;
+		}
+
+		void reset() {
+			histogram.reset();
+			count.set(0);
+			totalNanos.set(0);
+			maxNanos.set(0);
+		}
 	}
 
 	/**
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.transaction;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.ogm.transaction.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Enforces timeouts of repository methods and Neo4j OGM transactions.
+ * <p>
+ * A {@link Watch} is started on the thread executing the timed work. If it is not stopped before the timeout has
+ * elapsed, the Neo4j OGM transaction of the work is ended on the server: the running statement is aborted and the
+ * transaction rolled back, so the owning thread fails with the error of the driver and the transaction can only be
+ * rolled back. The thread itself is never interrupted. Work running outside of a transaction has no transaction to
+ * end, its statements run to completion. Either way {@link Watch#stop()} reports the expiry, so that the caller can
+ * raise a {@link org.springframework.data.neo4j.exception.QueryTimeoutException}. The number of timeouts is counted
+ * per watched name.
+ * <p>Mainly intended for internal use within the framework.
+ */
+public class QueryTimeoutWatchdog implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryTimeoutWatchdog.class);
+
+	private static final QueryTimeoutWatchdog SHARED_INSTANCE = new QueryTimeoutWatchdog();
+
+	private final ConcurrentMap<String, AtomicLong> timeouts = new ConcurrentHashMap<>();
+
+	private volatile ScheduledThreadPoolExecutor scheduler;
+
+	/**
+	 * @return the watchdog used unless a dedicated one is configured.
+	 */
+	public static QueryTimeoutWatchdog getSharedInstance() {
+		return SHARED_INSTANCE;
+	}
+
+	/**
+	 * Starts watching work of the current thread, ending the Neo4j OGM transaction bound to the thread by
+	 * {@link Neo4jTransactionManager}, if any, once the timeout has elapsed.
+	 *
+	 * @param name the name of the timed work, used to count timeouts.
+	 * @param timeoutMillis the timeout in milliseconds, must be greater than 0.
+	 * @return the started watch, to be stopped by the current thread once the work is done.
+	 */
+	public Watch start(String name, long timeoutMillis) {
+		return start(name, timeoutMillis, currentTransaction());
+	}
+
+	/**
+	 * Starts watching work of the current thread, ending the given Neo4j OGM transaction once the timeout has elapsed.
+	 *
+	 * @param name the name of the timed work, used to count timeouts.
+	 * @param timeoutMillis the timeout in milliseconds, must be greater than 0.
+	 * @param transaction the transaction the work runs in, may be {@literal null}.
+	 * @return the started watch, to be stopped by the current thread once the work is done.
+	 */
+	public Watch start(String name, long timeoutMillis, Transaction transaction) {
+		return start(name, timeoutMillis, transaction != null ? new TransactionTerminator(transaction) : null);
+	}
+
+	Watch start(String name, long timeoutMillis, Runnable expiryAction) {
+		Assert.notNull(name, "Name must not be null");
+		Assert.isTrue(timeoutMillis > 0, "Timeout must be greater than 0");
+		Watch watch = new Watch(name, expiryAction);
+		watch.future = getScheduler().schedule(watch, timeoutMillis, TimeUnit.MILLISECONDS);
+		return watch;
+	}
+
+	/**
+	 * @return the number of timeouts per watched name.
+	 */
+	public Map<String, Long> getTimeoutCounts() {
+		Map<String, Long> counts = new TreeMap<>();
+		for (Map.Entry<String, AtomicLong> entry : timeouts.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().get());
+		}
+		return Collections.unmodifiableMap(counts);
+	}
+
+	/**
+	 * @param name the watched name.
+	 * @return the number of timeouts of the given name.
+	 */
+	public long getTimeoutCount(String name) {
+		AtomicLong count = timeouts.get(name);
+		return count == null ? 0 : count.get();
+	}
+
+	@Override
+	public void destroy() {
+		ScheduledThreadPoolExecutor scheduler = this.scheduler;
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	private static Transaction currentTransaction() {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return null;
+		}
+		for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+			if (resource instanceof SessionHolder && ((SessionHolder) resource).getSession() != null) {
+				Transaction transaction = ((SessionHolder) resource).getSession().getTransaction();
+				if (transaction != null) {
+					return transaction;
+				}
+			}
+		}
+		return null;
+	}
+
+	private void recordTimeout(String name) {
+		AtomicLong count = timeouts.get(name);
+		if (count == null) {
+			AtomicLong newCount = new AtomicLong();
+			count = timeouts.putIfAbsent(name, newCount);
+			if (count == null) {
+				count = newCount;
+			}
+		}
+		count.incrementAndGet();
+	}
+
+	private ScheduledThreadPoolExecutor getScheduler() {
+		ScheduledThreadPoolExecutor scheduler = this.scheduler;
+		if (scheduler == null) {
+			synchronized (this) {
+				scheduler = this.scheduler;
+				if (scheduler == null) {
+					CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("neo4j-timeout-watchdog-");
+					threadFactory.setDaemon(true);
+					scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+					scheduler.setRemoveOnCancelPolicy(true);
+					this.scheduler = scheduler;
+				}
+			}
+		}
+		return scheduler;
+	}
+
+	/**
+	 * Watch over a single piece of timed work.
+	 */
+	public final class Watch implements Runnable {
+
+		private static final int RUNNING = 0;
+		private static final int STOPPED = 1;
+		private static final int EXPIRED = 2;
+
+		private final String name;
+		private final Runnable expiryAction;
+
+		private volatile ScheduledFuture<?> future;
+		private int state = RUNNING;
+
+		private Watch(String name, Runnable expiryAction) {
+			this.name = name;
+			this.expiryAction = expiryAction;
+		}
+
+		/**
+		 * Stops watching. Must be called by the watched thread once the work is done.
+		 *
+		 * @return {@literal true} if the timeout elapsed before the watch was stopped.
+		 */
+		public synchronized boolean stop() {
+			ScheduledFuture<?> future = this.future;
+			if (future != null) {
+				future.cancel(false);
+			}
+			if (state == EXPIRED) {
+				return true;
+			}
+			state = STOPPED;
+			return false;
+		}
+
+		/**
+		 * @return {@literal true} if the timeout elapsed.
+		 */
+		public synchronized boolean isExpired() {
+			return state == EXPIRED;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public void run() {
+			synchronized (this) {
+				if (state != RUNNING) {
+					return;
+				}
+				state = EXPIRED;
+			}
+			recordTimeout(name);
+			if (expiryAction == null) {
+				logger.debug("Timeout of [{}] elapsed", name);
+				return;
+			}
+			logger.debug("Timeout of [{}] elapsed, ending its transaction", name);
+			try {
+				expiryAction.run();
+			} catch (RuntimeException e) {
+				logger.warn("Could not end the transaction of [{}] after its timeout elapsed", name, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Bounded pool of idle Neo4j OGM {@link Session}s per {@link SessionFactory}, reused by
+ * {@link SharedSessionCreator shared Sessions} for calls outside of a transaction instead of opening a new Session,
+ * and building a new mapping context, per call.
+ * <p>
+ * Sessions are cleared when released, so a reused Session starts with an empty mapping context just like a new one.
+ * Sessions with a transaction, and Sessions released while the pool is full, are dropped. Idle Sessions older than the
+ * idle timeout are dropped when the pool is next used.
+ * <p>
+ * Transactional Sessions are never pooled.
+ *
+ * @see SharedSessionCreator#createSharedSession(SessionFactory, SessionPool)
+ */
+public class SessionPool {
+
+	/**
+	 * The default maximum number of idle Sessions per SessionFactory.
+	 */
+	public static final int DEFAULT_MAX_IDLE_SESSIONS = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The default time in milliseconds after which idle Sessions are dropped.
+	 */
+	public static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+	private static final Logger logger = LoggerFactory.getLogger(SessionPool.class);
+
+	private final int maxIdleSessions;
+	private final long idleTimeoutNanos;
+	private final ConcurrentMap<SessionFactory, BlockingDeque<IdleSession>> idleSessions = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a pool keeping up to {@link #DEFAULT_MAX_IDLE_SESSIONS} idle Sessions per SessionFactory for
+	 * {@link #DEFAULT_IDLE_TIMEOUT}.
+	 */
+	public SessionPool() {
+		this(DEFAULT_MAX_IDLE_SESSIONS, DEFAULT_IDLE_TIMEOUT);
+	}
+
+	/**
+	 * Creates a pool with the given bounds.
+	 *
+	 * @param maxIdleSessions the maximum number of idle Sessions kept per SessionFactory, must be positive.
+	 * @param idleTimeoutMillis the time in milliseconds after which idle Sessions are dropped, must be positive.
+	 */
+	public SessionPool(int maxIdleSessions, long idleTimeoutMillis) {
+		Assert.isTrue(maxIdleSessions > 0, "Maximum number of idle Sessions must be positive");
+		Assert.isTrue(idleTimeoutMillis > 0, "Idle timeout must be positive");
+		this.maxIdleSessions = maxIdleSessions;
+		this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+	}
+
+	/**
+	 * Takes the most recently released idle Session of the given SessionFactory, or opens a new one if there is none.
+	 *
+	 * @param sessionFactory the SessionFactory to obtain a Session from.
+	 * @return a Session to be handed back with {@link #release(SessionFactory, Session)}.
+	 */
+	public Session acquire(SessionFactory sessionFactory) {
+		BlockingDeque<IdleSession> sessions = idleSessions.get(sessionFactory);
+		if (sessions != null) {
+			long now = System.nanoTime();
+			evictExpired(sessions, now);
+			IdleSession idle;
+			while ((idle = sessions.pollFirst()) != null) {
+				if (now - idle.releasedAt < idleTimeoutNanos) {
+					return idle.session;
+				}
+			}
+		}
+		return sessionFactory.openSession();
+	}
+
+	/**
+	 * Hands back a Session obtained from {@link #acquire(SessionFactory)}, clearing it for reuse.
+	 *
+	 * @param sessionFactory the SessionFactory the Session was obtained from.
+	 * @param session the Session no longer in use.
+	 */
+	public void release(SessionFactory sessionFactory, Session session) {
+		if (session.getTransaction() != null) {
+			logger.debug("Not pooling Session [{}] with a transaction", session);
+			return;
+		}
+		try {
+			session.clear();
+		} catch (RuntimeException e) {
+			logger.debug("Not pooling Session [{}] that could not be cleared", session, e);
+			return;
+		}
+		BlockingDeque<IdleSession> sessions = idleSessions.get(sessionFactory);
+		if (sessions == null) {
+			BlockingDeque<IdleSession> created = new LinkedBlockingDeque<>(maxIdleSessions);
+			sessions = idleSessions.putIfAbsent(sessionFactory, created);
+			if (sessions == null) {
+				sessions = created;
+			}
+		}
+		long now = System.nanoTime();
+		evictExpired(sessions, now);
+		sessions.offerFirst(new IdleSession(session, now));
+	}
+
+	/**
+	 * @param sessionFactory a SessionFactory.
+	 * @return the number of idle Sessions currently pooled for the given SessionFactory.
+	 */
+	public int getIdleCount(SessionFactory sessionFactory) {
+		BlockingDeque<IdleSession> sessions = idleSessions.get(sessionFactory);
+		return sessions == null ? 0 : sessions.size();
+	}
+
+	/**
+	 * Drops all idle Sessions.
+	 */
+	public void clear() {
+		idleSessions.clear();
+	}
+
+	private void evictExpired(BlockingDeque<IdleSession> sessions, long now) {
+		IdleSession oldest;
+		while ((oldest = sessions.peekLast()) != null && now - oldest.releasedAt >= idleTimeoutNanos) {
+			sessions.remove(oldest);
+		}
+	}
+
+	private static class IdleSession {
+
+		private final Session session;
+		private final long releasedAt;
+
+		IdleSession(Session session, long releasedAt) {
+			this.session = session;
+			this.releasedAt = releasedAt;
+		}
+	}
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mapping.Association;
+import org.springframework.data.mapping.SimpleAssociationHandler;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.mapping.Neo4jPersistentEntity;
+import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Caps the number of entities tracked by the identity map of long-lived Sessions, such as the Sessions bound by
+ * {@link org.springframework.data.neo4j.web.support.OpenSessionInViewFilter} or of long transactions.
+ * <p>
+ * Given to {@link SharedSessionCreator}, the limiter keeps track of the entities that calls to a thread-bound Session
+ * return from loads and queries or save. Only these roots count towards the cap: entities only reachable from them,
+ * such as the related entities loaded with a depth above 0, are neither counted nor detached, so that the cost of a
+ * call does not grow with the size of the Session. The identity map can therefore hold more entities than the cap.
+ * <p>
+ * Once more than the maximum are tracked, the least recently used clean entities are detached from the Session. An
+ * entity is clean if the mapping context of the Session does not consider its properties dirty, and its relationships
+ * still hold the same members as when it was first tracked or last saved. Modified entities are never detached, so the
+ * cap can be exceeded by the number of modified entities. Sessions other than {@link Neo4jSession} have no mapping
+ * context to ask, so their entities are never detached.
+ * <p>
+ * The statistics can be read through JMX once exported, e.g. with {@code @EnableMBeanExport}, to size the cap.
+ *
+ * @see SharedSessionCreator#createSharedSession(org.neo4j.ogm.session.SessionFactory, SessionPool, SessionSizeLimiter)
+ */
+@ManagedResource(objectName = "org.springframework.data.neo4j:type=SessionSizeLimiter",
+		description = "Size of the identity maps of long-lived Sessions")
+public class SessionSizeLimiter {
+
+	private static final Logger logger = LoggerFactory.getLogger(SessionSizeLimiter.class);
+
+	private final Neo4jMappingContext mappingContext;
+	private final Map<Session, TrackedEntities> sessions = Collections.synchronizedMap(new WeakHashMap<Session, TrackedEntities>());
+	private final ConcurrentMap<Class<?>, EntityShape> shapes = new ConcurrentHashMap<>();
+	private final AtomicLong evicted = new AtomicLong();
+	private final AtomicLong skippedDirty = new AtomicLong();
+	private final AtomicLong peakTracked = new AtomicLong();
+	private volatile int maxTrackedEntities;
+
+	/**
+	 * Creates a limiter.
+	 *
+	 * @param mappingContext the mapping context describing the entities, must not be {@literal null}.
+	 * @param maxTrackedEntities the maximum number of entities tracked per Session, must be positive.
+	 */
+	public SessionSizeLimiter(Neo4jMappingContext mappingContext, int maxTrackedEntities) {
+		Assert.notNull(mappingContext, "Neo4jMappingContext must not be null");
+		this.mappingContext = mappingContext;
+		setMaxTrackedEntities(maxTrackedEntities);
+	}
+
+	@ManagedAttribute(description = "Maximum number of entities tracked per Session")
+	public int getMaxTrackedEntities() {
+		return maxTrackedEntities;
+	}
+
+	@ManagedAttribute
+	public void setMaxTrackedEntities(int maxTrackedEntities) {
+		Assert.isTrue(maxTrackedEntities > 0, "Maximum number of tracked entities must be positive");
+		this.maxTrackedEntities = maxTrackedEntities;
+	}
+
+	@ManagedAttribute(description = "Number of Sessions currently tracked")
+	public int getTrackedSessions() {
+		return sessions.size();
+	}
+
+	@ManagedAttribute(description = "Largest number of entities tracked by a Session")
+	public long getPeakTrackedEntities() {
+		return peakTracked.get();
+	}
+
+	@ManagedAttribute(description = "Number of entities detached to stay within the maximum")
+	public long getEvictedEntities() {
+		return evicted.get();
+	}
+
+	@ManagedAttribute(description = "Number of times a modified entity was kept although it was due for eviction")
+	public long getSkippedDirtyEntities() {
+		return skippedDirty.get();
+	}
+
+	@ManagedOperation(description = "Resets the peak, eviction and skip counts")
+	public void resetStatistics() {
+		peakTracked.set(0);
+		evicted.set(0);
+		skippedDirty.set(0);
+	}
+
+	/**
+	 * @param session a Session.
+	 * @return the number of entities currently tracked for the given Session.
+	 */
+	public int getTrackedEntities(Session session) {
+		TrackedEntities tracked = sessions.get(session);
+		return tracked == null ? 0 : tracked.size();
+	}
+
+	/**
+	 * Records the outcome of a call to a thread-bound Session and detaches entities if the Session tracks too many.
+	 *
+	 * @param session the Session called.
+	 * @param methodName the name of the Session method called.
+	 * @param args the arguments of the call.
+	 * @param result the result of the call.
+	 */
+	void afterCall(Session session, String methodName, Object[] args, Object result) {
+		if (methodName.equals("clear") || methodName.equals("purgeDatabase")) {
+			sessions.remove(session);
+			return;
+		}
+		if (methodName.equals("deleteAll")) {
+			// the deleted entities are not known
+			return;
+		}
+		TrackedEntities tracked = sessions.get(session);
+		if (methodName.equals("delete")) {
+			if (tracked != null && args != null && args.length == 1) {
+				tracked.remove(session, args[0]);
+			}
+			return;
+		}
+		Object entities;
+		if (methodName.equals("save")) {
+			entities = args[0];
+		} else if (methodName.startsWith("load") || methodName.startsWith("query")) {
+			entities = result;
+		} else {
+			return;
+		}
+		if (tracked == null) {
+			synchronized (sessions) {
+				tracked = sessions.get(session);
+				if (tracked == null) {
+					tracked = new TrackedEntities();
+					sessions.put(session, tracked);
+				}
+			}
+		}
+		tracked.track(session, entities, methodName.equals("save"));
+		long size = tracked.size();
+		long peak;
+		while (size > (peak = peakTracked.get()) && !peakTracked.compareAndSet(peak, size)) {
+			// retry
+		}
+		if (size > maxTrackedEntities) {
+			tracked.evict(session, maxTrackedEntities);
+		}
+	}
+
+	private EntityShape shapeOf(Class<?> type) {
+		EntityShape shape = shapes.get(type);
+		if (shape == null) {
+			shape = mappingContext.hasPersistentEntityFor(type)
+					? new EntityShape(type, mappingContext.getPersistentEntity(type)) : EntityShape.NONE;
+			shapes.putIfAbsent(type, shape);
+		}
+		return shape;
+	}
+
+	/**
+	 * The entities tracked for one Session, least recently used first.
+	 */
+	private class TrackedEntities {
+
+		private final LinkedHashMap<Long, TrackedEntity> entities = new LinkedHashMap<>(16, 0.75f, true);
+
+		synchronized int size() {
+			return entities.size();
+		}
+
+		synchronized void track(Session session, Object result, boolean saved) {
+			List<Object> candidates = new ArrayList<>();
+			addCandidates(result, candidates);
+			for (Object entity : candidates) {
+				EntityShape shape = shapeOf(entity.getClass());
+				if (shape == EntityShape.NONE) {
+					continue;
+				}
+				Long id = session.resolveGraphIdFor(entity);
+				if (id == null) {
+					continue;
+				}
+				Long key = shape.key(id);
+				// marks the entity as recently used; its relationships are only recorded again once it was saved
+				TrackedEntity tracked = entities.get(key);
+				if (tracked == null || tracked.entity != entity || saved) {
+					entities.put(key, new TrackedEntity(entity, id, shape, shape.relationships(entity)));
+				}
+			}
+		}
+
+		synchronized void remove(Session session, Object entity) {
+			EntityShape shape = shapeOf(entity.getClass());
+			Long id = shape == EntityShape.NONE ? null : session.resolveGraphIdFor(entity);
+			if (id != null) {
+				entities.remove(shape.key(id));
+			}
+		}
+
+		synchronized void evict(Session session, int max) {
+			int count = 0;
+			List<TrackedEntity> dirty = new ArrayList<>();
+			Iterator<TrackedEntity> candidates = entities.values().iterator();
+			while (entities.size() > max && candidates.hasNext()) {
+				TrackedEntity candidate = candidates.next();
+				if (candidate.isDirty(session)) {
+					dirty.add(candidate);
+					continue;
+				}
+				candidates.remove();
+				if (candidate.shape.relationshipEntity) {
+					session.detachRelationshipEntity(candidate.id);
+				} else {
+					session.detachNodeEntity(candidate.id);
+				}
+				count++;
+			}
+			for (TrackedEntity entity : dirty) {
+				// mark as recently used so they are not inspected again on the next eviction
+				entities.get(entity.shape.key(entity.id));
+			}
+			evicted.addAndGet(count);
+			skippedDirty.addAndGet(dirty.size());
+			if (logger.isDebugEnabled()) {
+				logger.debug("Detached {} entities from Session [{}], kept {} modified, {} tracked", count, session,
+						dirty.size(), entities.size());
+			}
+		}
+
+		private void addCandidates(Object value, List<Object> candidates) {
+			if (value == null) {
+				return;
+			}
+			if (value instanceof Iterable) {
+				for (Object element : (Iterable<?>) value) {
+					addCandidates(element, candidates);
+				}
+			} else if (value instanceof Map) {
+				addCandidates(((Map<?, ?>) value).values(), candidates);
+			} else if (value.getClass().isArray() && !value.getClass().getComponentType().isPrimitive()) {
+				for (Object element : (Object[]) value) {
+					addCandidates(element, candidates);
+				}
+			} else {
+				candidates.add(value);
+			}
+		}
+	}
+
+	private static class TrackedEntity {
+
+		private final Object entity;
+		private final Long id;
+		private final EntityShape shape;
+		private final Object[] relationships;
+
+		TrackedEntity(Object entity, Long id, EntityShape shape, Object[] relationships) {
+			this.entity = entity;
+			this.id = id;
+			this.shape = shape;
+			this.relationships = relationships;
+		}
+
+		boolean isDirty(Session session) {
+			if (!(session instanceof Neo4jSession)) {
+				return true;
+			}
+			return ((Neo4jSession) session).context().isDirty(entity) || shape.relationshipsChanged(entity, relationships);
+		}
+	}
+
+	/**
+	 * The relationship fields of an entity class, and whether it is a relationship entity.
+	 */
+	private static class EntityShape {
+
+		static final EntityShape NONE = new EntityShape();
+
+		private final boolean relationshipEntity;
+		private final List<Field> associations = new ArrayList<>();
+
+		private EntityShape() {
+			this.relationshipEntity = false;
+		}
+
+		EntityShape(Class<?> type, Neo4jPersistentEntity<?> entity) {
+			this.relationshipEntity = type.isAnnotationPresent(RelationshipEntity.class);
+			entity.doWithAssociations(new SimpleAssociationHandler() {
+				@Override
+				public void doWithAssociation(Association<?> association) {
+					Field field = ((Neo4jPersistentProperty) association.getInverse()).getField();
+					if (field != null) {
+						ReflectionUtils.makeAccessible(field);
+						associations.add(field);
+					}
+				}
+			});
+		}
+
+		Long key(Long id) {
+			// node and relationship ids overlap
+			return relationshipEntity ? -id - 1 : id;
+		}
+
+		/**
+		 * Records the related entities, by reference, for {@link #relationshipsChanged(Object, Object[])}.
+		 */
+		Object[] relationships(Object entity) {
+			Object[] relationships = new Object[associations.size()];
+			for (int i = 0; i < relationships.length; i++) {
+				Object value = ReflectionUtils.getField(associations.get(i), entity);
+				Object[] members = members(value);
+				relationships[i] = members != null ? members : value;
+			}
+			return relationships;
+		}
+
+		boolean relationshipsChanged(Object entity, Object[] relationships) {
+			for (int i = 0; i < relationships.length; i++) {
+				Object value = ReflectionUtils.getField(associations.get(i), entity);
+				Object[] members = members(value);
+				if (members == null ? value != relationships[i]
+						: !(relationships[i] instanceof Object[]) || !sameMembers(members, (Object[]) relationships[i])) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private static Object[] members(Object value) {
+			if (value instanceof Collection) {
+				return ((Collection<?>) value).toArray();
+			}
+			if (value instanceof Object[]) {
+				return ((Object[]) value).clone();
+			}
+			return null;
+		}
+
+		private static boolean sameMembers(Object[] members, Object[] recorded) {
+			if (members.length != recorded.length) {
+				return false;
+			}
+			for (int i = 0; i < members.length; i++) {
+				if (members[i] != recorded[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
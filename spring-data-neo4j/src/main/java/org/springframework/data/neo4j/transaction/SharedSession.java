@@ -0,0 +1,806 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import static org.neo4j.ogm.transaction.Transaction.Status.*;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.SortOrder;
+import org.neo4j.ogm.model.Result;
+import org.neo4j.ogm.session.GraphCallback;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.event.Event;
+import org.neo4j.ogm.session.event.EventListener;
+import org.neo4j.ogm.transaction.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Shared {@link Session} created by {@link SharedSessionCreator}. Each method calls the current transactional Session,
+ * if any, or else a Session opened for the call, directly. Whether a method requires a transaction is fixed by the
+ * method itself rather than looked up by name.
+ *
+ * @see SharedSessionCreator
+ */
+class SharedSession implements Session {
+
+	private static final Logger logger = LoggerFactory.getLogger(SharedSession.class);
+
+	private static final Set<Transaction.Status> finishedStatuses = EnumSet.of(CLOSED, COMMITTED, ROLLEDBACK);
+
+	private final SessionFactory targetFactory;
+	private final SessionPool pool;
+	private final SessionSizeLimiter limiter;
+
+	SharedSession(SessionFactory targetFactory, SessionPool pool, SessionSizeLimiter limiter) {
+		this.targetFactory = targetFactory;
+		this.pool = pool;
+		this.limiter = limiter;
+	}
+
+	@Override
+	public <T, ID extends Serializable> Collection<T> loadAll(Class<T> type, Collection<ID> ids) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, ids));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T, ID extends Serializable> Collection<T> loadAll(Class<T> type, Collection<ID> ids, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, ids, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T, ID extends Serializable> Collection<T> loadAll(Class<T> type, Collection<ID> ids, SortOrder sortOrder) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, ids, sortOrder));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T, ID extends Serializable> Collection<T> loadAll(Class<T> type, Collection<ID> ids, SortOrder sortOrder, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, ids, sortOrder, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T, ID extends Serializable> Collection<T> loadAll(Class<T> type, Collection<ID> ids, Pagination pagination) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, ids, pagination));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T, ID extends Serializable> Collection<T> loadAll(Class<T> type, Collection<ID> ids, Pagination pagination, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, ids, pagination, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T, ID extends Serializable> Collection<T> loadAll(Class<T> type, Collection<ID> ids, SortOrder sortOrder, Pagination pagination) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, ids, sortOrder, pagination));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T, ID extends Serializable> Collection<T> loadAll(Class<T> type, Collection<ID> ids, SortOrder sortOrder, Pagination pagination, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, ids, sortOrder, pagination, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Collection<T> objects) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(objects));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Collection<T> objects, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(objects, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Collection<T> objects, SortOrder sortOrder) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(objects, sortOrder));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Collection<T> objects, SortOrder sortOrder, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(objects, sortOrder, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Collection<T> objects, Pagination pagination) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(objects, pagination));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Collection<T> objects, Pagination pagination, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(objects, pagination, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Collection<T> objects, SortOrder sortOrder, Pagination pagination) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(objects, sortOrder, pagination));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Collection<T> objects, SortOrder sortOrder, Pagination pagination, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(objects, sortOrder, pagination, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, SortOrder sortOrder) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, sortOrder));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, SortOrder sortOrder, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, sortOrder, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Pagination pagination) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, pagination));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Pagination pagination, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, pagination, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, SortOrder sortOrder, Pagination pagination) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, sortOrder, pagination));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, SortOrder sortOrder, Pagination pagination, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, sortOrder, pagination, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filter filter) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filter));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filter filter, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filter, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filter filter, SortOrder sortOrder) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filter, sortOrder));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filter filter, SortOrder sortOrder, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filter, sortOrder, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filter filter, Pagination pagination) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filter, pagination));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filter filter, Pagination pagination, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filter, pagination, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filter filter, SortOrder sortOrder, Pagination pagination) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filter, sortOrder, pagination));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filter filter, SortOrder sortOrder, Pagination pagination, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filter, sortOrder, pagination, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filters filters) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filters));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filters filters, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filters, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filters filters, SortOrder sortOrder) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filters, sortOrder));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filters filters, SortOrder sortOrder, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filters, sortOrder, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filters filters, Pagination pagination) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filters, pagination));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filters filters, Pagination pagination, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filters, pagination, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filters filters, SortOrder sortOrder, Pagination pagination) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filters, sortOrder, pagination));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Collection<T> loadAll(Class<T> type, Filters filters, SortOrder sortOrder, Pagination pagination, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "loadAll", target.loadAll(type, filters, sortOrder, pagination, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T, ID extends Serializable> T load(Class<T> type, ID id) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "load", target.load(type, id));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T, ID extends Serializable> T load(Class<T> type, ID id, int depth) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "load", target.load(type, id, depth));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> void save(T object) {
+		Session target = transactionalSession("save");
+		target.save(object);
+		changed(target, "save", object);
+	}
+
+	@Override
+	public <T> void save(T object, int depth) {
+		Session target = transactionalSession("save");
+		target.save(object, depth);
+		changed(target, "save", object);
+	}
+
+	@Override
+	public <T> void delete(T object) {
+		Session target = transactionalSession("delete");
+		target.delete(object);
+		changed(target, "delete", object);
+	}
+
+	@Override
+	public <T> void deleteAll(Class<T> type) {
+		Session target = transactionalSession("deleteAll");
+		target.deleteAll(type);
+	}
+
+	@Override
+	public <T> Object delete(Class<T> type, Iterable<Filter> filters, boolean listResults) {
+		Session target = transactionalSession("delete");
+		return target.delete(type, filters, listResults);
+	}
+
+	@Override
+	public void purgeDatabase() {
+		Session target = transactionalSession("purgeDatabase");
+		target.purgeDatabase();
+		cleared(target);
+	}
+
+	@Override
+	public void clear() {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			target.clear();
+			cleared(bound);
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public Transaction getTransaction() {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return target.getTransaction();
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public Transaction beginTransaction() {
+		throw notAllowedToBeginTransaction();
+	}
+
+	@Override
+	public Transaction beginTransaction(Transaction.Type type) {
+		throw notAllowedToBeginTransaction();
+	}
+
+	@Override
+	public <T> T doInTransaction(GraphCallback<T> graphCallback) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return target.doInTransaction(graphCallback);
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> T queryForObject(Class<T> objectType, String cypher, Map<String, ?> parameters) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "queryForObject", target.queryForObject(objectType, cypher, parameters));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public <T> Iterable<T> query(Class<T> objectType, String cypher, Map<String, ?> parameters) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "query", target.query(objectType, cypher, parameters));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public Result query(String cypher, Map<String, ?> parameters) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "query", target.query(cypher, parameters));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public Result query(String cypher, Map<String, ?> parameters, boolean readOnly) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return loaded(bound, "query", target.query(cypher, parameters, readOnly));
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public long countEntitiesOfType(Class<?> entity) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return target.countEntitiesOfType(entity);
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public long count(Class<?> clazz, Iterable<Filter> filters) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return target.count(clazz, filters);
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public Long resolveGraphIdFor(Object possibleEntity) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return target.resolveGraphIdFor(possibleEntity);
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public boolean detachNodeEntity(Long id) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return target.detachNodeEntity(id);
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public boolean detachRelationshipEntity(Long id) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return target.detachRelationshipEntity(id);
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public EventListener register(EventListener eventListener) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return target.register(eventListener);
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public boolean dispose(EventListener eventListener) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return target.dispose(eventListener);
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public void notifyListeners(Event event) {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			target.notifyListeners(event);
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public boolean eventsEnabled() {
+		Session bound = SessionFactoryUtils.getSession(targetFactory);
+		Session target = bound != null ? bound : openSession();
+		try {
+			return target.eventsEnabled();
+		} finally {
+			closeSession(bound, target);
+		}
+	}
+
+	@Override
+	public String toString() {
+		// Deliver toString without touching a target Session.
+		return "Shared Session proxy for target factory [" + targetFactory + "]";
+	}
+
+	private Session transactionalSession(String methodName) {
+		Session target = SessionFactoryUtils.getSession(targetFactory);
+		if (target == null || (!TransactionSynchronizationManager.isActualTransactionActive()
+				&& target.getTransaction() != null
+				&& finishedStatuses.contains(target.getTransaction().status()))) {
+			throw new IllegalStateException("No Session with actual transaction available " +
+					"for current thread - cannot reliably process '" + methodName + "' call");
+		}
+		return target;
+	}
+
+	private Session openSession() {
+		logger.debug("Creating new Session for shared Session invocation");
+		return pool != null ? pool.acquire(targetFactory) : targetFactory.openSession();
+	}
+
+	private void closeSession(Session bound, Session target) {
+		if (bound != null) {
+			return;
+		}
+		if (pool != null) {
+			pool.release(targetFactory, target);
+		} else {
+			SessionFactoryUtils.closeSession(target);
+		}
+	}
+
+	private <R> R loaded(Session bound, String methodName, R result) {
+		if (bound != null && limiter != null) {
+			limiter.afterCall(bound, methodName, null, result);
+		}
+		return result;
+	}
+
+	private void changed(Session target, String methodName, Object entity) {
+		if (limiter != null) {
+			limiter.afterCall(target, methodName, new Object[] { entity }, null);
+		}
+	}
+
+	private void cleared(Session bound) {
+		if (bound != null && limiter != null) {
+			limiter.afterCall(bound, "clear", null, null);
+		}
+	}
+
+	private static IllegalStateException notAllowedToBeginTransaction() {
+		return new IllegalStateException("Not allowed to create transaction on shared Session - " +
+				"use Spring transactions instead");
+	}
+}
@@ -13,21 +13,8 @@
 
 package org.springframework.data.neo4j.transaction;
 
-import static org.neo4j.ogm.transaction.Transaction.Status.*;
-
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
-import java.util.EnumSet;
-import java.util.HashSet;
-import java.util.Set;
-
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Delegate for creating a shareable Neo4j OGM {@link Session}
@@ -36,106 +23,54 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
  * an application SessionFactory.
  * It will delegate all calls to the current transactional Session, if any;
  * otherwise it will fall back to a newly created Session per operation.
+ * <p>A shared Session created with a {@link SessionPool} takes the Sessions
+ * for calls outside of a transaction from the pool and hands them back
+ * afterwards.
+ * <p>A shared Session created with a {@link SessionSizeLimiter} reports the
+ * calls to a thread-bound Session to the limiter, which detaches entities
+ * once the Session tracks too many.
+ * <p>The shared Session implements each {@link Session} method by calling
+ * the target Session directly rather than through reflection.
  *
  * @author Mark Angrish
  * @see Neo4jTransactionManager
  */
 public class SharedSessionCreator {
 
-	private static final Set<String> transactionRequiringMethods = new HashSet<>(4);
-
-	static {
-		transactionRequiringMethods.add("deleteAll");
-		transactionRequiringMethods.add("save");
-		transactionRequiringMethods.add("delete");
-		transactionRequiringMethods.add("purgeDatabase");
-	}
-
 	/**
 	 * Create a transactional Session proxy for the given SessionFactory.
 	 *
 	 * @param sessionFactory SessionFactory to obtain Sessions from as needed
-	 * {@code createSession} call (may be {@code null})
-	 * Session. Allows the addition or specification of proprietary interfaces.
 	 * @return a shareable transactional Session proxy
 	 */
 	public static Session createSharedSession(SessionFactory sessionFactory) {
-
-		return (Session) Proxy.newProxyInstance(
-				SharedSessionCreator.class.getClassLoader(),
-				new Class<?>[]{Session.class}, new SharedSessionInvocationHandler(sessionFactory));
+		return createSharedSession(sessionFactory, null, null);
 	}
 
-
 	/**
-	 * Invocation handler that delegates all calls to the current
-	 * transactional Session, if any; else, it will fall back
-	 * to a newly created Session per operation.
+	 * Create a transactional Session proxy for the given SessionFactory,
+	 * reusing pooled Sessions outside of a transaction.
+	 *
+	 * @param sessionFactory SessionFactory to obtain Sessions from as needed
+	 * @param sessionPool pool of Sessions for calls outside of a transaction
+	 * @return a shareable transactional Session proxy
 	 */
-	private static class SharedSessionInvocationHandler implements InvocationHandler {
-
-		private final Logger logger = LoggerFactory.getLogger(getClass());
-
-		private final SessionFactory targetFactory;
-		private final ClassLoader proxyClassLoader;
-
-		public SharedSessionInvocationHandler(SessionFactory target) {
-			this.targetFactory = target;
-			this.proxyClassLoader = this.targetFactory.getClass().getClassLoader();
-		}
-
-
-		@Override
-		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-			// Invocation on Session interface coming in...
-
-			if (method.getName().equals("equals")) {
-				// Only consider equal when proxies are identical.
-				return (proxy == args[0]);
-			} else if (method.getName().equals("hashCode")) {
-				// Use hashCode of Session proxy.
-				return hashCode();
-			} else if (method.getName().equals("toString")) {
-				// Deliver toString without touching a target Session.
-				return "Shared Session proxy for target factory [" + targetFactory + "]";
-			} else if (method.getName().equals("beginTransaction")) {
-				throw new IllegalStateException(
-						"Not allowed to create transaction on shared Session - " +
-								"use Spring transactions instead");
-			}
-
-			// Determine current Session: either the transactional one
-			// managed by the factory or a temporary one for the given invocation.
-			Session target = SessionFactoryUtils.getSession(this.targetFactory);
-
-			if (transactionRequiringMethods.contains(method.getName())) {
-				if (target == null || (!TransactionSynchronizationManager.isActualTransactionActive()
-						&& target.getTransaction() != null
-						&& EnumSet.of(CLOSED, COMMITTED, ROLLEDBACK).contains(target.getTransaction().status()))) {
-					throw new IllegalStateException("No Session with actual transaction available " +
-							"for current thread - cannot reliably process '" + method.getName() + "' call");
-				}
-			}
-
-			// Regular Session operations.
-			boolean isNewSession = false;
-			if (target == null) {
-				logger.debug("Creating new Session for shared Session invocation");
-				target = this.targetFactory.openSession();
-				isNewSession = true;
-			}
-
-			// Invoke method on current Session.
-			try {
+	public static Session createSharedSession(SessionFactory sessionFactory, SessionPool sessionPool) {
+		return createSharedSession(sessionFactory, sessionPool, null);
+	}
 
-				return method.invoke(target, args);
-			} catch (InvocationTargetException ex) {
-				throw ex.getTargetException();
-			} finally {
-				if (isNewSession) {
-					SessionFactoryUtils.closeSession(target);
-				}
-			}
-		}
+	/**
+	 * Create a transactional Session proxy for the given SessionFactory,
+	 * reusing pooled Sessions outside of a transaction and limiting the
+	 * entities tracked by thread-bound Sessions.
+	 *
+	 * @param sessionFactory SessionFactory to obtain Sessions from as needed
+	 * @param sessionPool pool of Sessions for calls outside of a transaction (may be {@code null})
+	 * @param sessionSizeLimiter limiter of the entities tracked by thread-bound Sessions
+	 * @return a shareable transactional Session proxy
+	 */
+	public static Session createSharedSession(SessionFactory sessionFactory, SessionPool sessionPool,
+			SessionSizeLimiter sessionSizeLimiter) {
+		return new SharedSession(sessionFactory, sessionPool, sessionSizeLimiter);
 	}
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.transaction;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.neo4j.ogm.authentication.Credentials;
+import org.neo4j.ogm.authentication.UsernamePasswordCredentials;
+import org.neo4j.ogm.service.Components;
+import org.neo4j.ogm.transaction.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Ends the server side work of a Neo4j OGM transaction from a thread other than the one running it.
+ * <p>
+ * Neo4j OGM only lets the thread owning a transaction roll it back, so the native transaction of the driver is ended
+ * instead: the Bolt session is reset, which aborts the running statement and rolls back its transaction, the embedded
+ * transaction is terminated, and the transaction of the HTTP endpoint is rolled back. The owning thread gets the
+ * failure of the running statement, or of its next one, and the OGM transaction can then only be rolled back.
+ */
+final class TransactionTerminator implements Runnable {
+
+	private static final Logger logger = LoggerFactory.getLogger(TransactionTerminator.class);
+
+	private static final String BOLT_SESSION = "org.neo4j.driver.v1.Session";
+	private static final String EMBEDDED_TRANSACTION = "org.neo4j.graphdb.Transaction";
+	private static final String HTTP_TRANSACTION = "org.neo4j.ogm.drivers.http.transaction.HttpTransaction";
+
+	private final Transaction transaction;
+
+	TransactionTerminator(Transaction transaction) {
+		this.transaction = transaction;
+	}
+
+	@Override
+	public void run() {
+		if (!terminate(transaction)) {
+			logger.debug("Could not terminate Neo4j OGM transaction [{}], its statements run to completion", transaction);
+		}
+	}
+
+	/**
+	 * @param transaction the Neo4j OGM transaction to end, may be {@literal null}.
+	 * @return whether the native transaction of the driver was found and ended.
+	 */
+	static boolean terminate(Object transaction) {
+		if (transaction == null) {
+			return false;
+		}
+		try {
+			for (Class<?> type = transaction.getClass(); type != Object.class; type = type.getSuperclass()) {
+				for (Field field : type.getDeclaredFields()) {
+					ReflectionUtils.makeAccessible(field);
+					Object value = field.get(transaction);
+					if (value == null) {
+						continue;
+					}
+					if (implementsInterface(value, BOLT_SESSION)) {
+						invoke(value, "reset");
+						return true;
+					}
+					if (implementsInterface(value, EMBEDDED_TRANSACTION)) {
+						invoke(value, "terminate");
+						return true;
+					}
+					if (HTTP_TRANSACTION.equals(type.getName()) && "url".equals(field.getName())) {
+						rollbackHttpTransaction((String) value);
+						return true;
+					}
+				}
+			}
+		} catch (Exception e) {
+			logger.warn("Could not terminate Neo4j OGM transaction [{}]", transaction, e);
+		}
+		return false;
+	}
+
+	private static boolean implementsInterface(Object value, String interfaceName) {
+		for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(value.getClass())) {
+			if (type.getName().equals(interfaceName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void invoke(Object target, String methodName) {
+		Method method = ReflectionUtils.findMethod(target.getClass(), methodName);
+		if (method == null) {
+			throw new IllegalStateException(target.getClass().getName() + " has no method " + methodName);
+		}
+		ReflectionUtils.makeAccessible(method);
+		ReflectionUtils.invokeMethod(method, target);
+	}
+
+	private static void rollbackHttpTransaction(String url) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		connection.setRequestMethod("DELETE");
+		Credentials<?> credentials = Components.configuration().driverConfiguration().getCredentials();
+		if (credentials instanceof UsernamePasswordCredentials) {
+			UsernamePasswordCredentials usernamePassword = (UsernamePasswordCredentials) credentials;
+			String userInfo = usernamePassword.getUsername() + ":" + usernamePassword.getPassword();
+			connection.setRequestProperty("Authorization",
+					"Basic " + Base64.getEncoder().encodeToString(userInfo.getBytes(StandardCharsets.UTF_8)));
+		}
+		try {
+			int status = connection.getResponseCode();
+			if (status >= 400) {
+				throw new IOException("HTTP status " + status + " rolling back " + url);
+			}
+		} finally {
+			connection.disconnect();
+		}
+	}
+}
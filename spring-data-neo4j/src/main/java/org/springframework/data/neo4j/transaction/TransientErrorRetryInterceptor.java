@@ -0,0 +1,209 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.neo4j.ogm.exception.CypherException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.data.neo4j.exception.BatchQueryFailedException;
+import org.springframework.data.neo4j.exception.Neo4jErrorStatusCodes;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * {@link MethodInterceptor} re-running a unit of work that failed with a retryable Neo4j {@code TransientError}, such
+ * as a deadlock, a lock timeout or a leader switch, as classified by {@link Neo4jErrorStatusCodes#isRetryable(String)}.
+ * <p>
+ * Attempts are separated by an exponential backoff with jitter: the n-th retry waits between half and all of
+ * {@code initialBackoff * multiplier^(n-1)}, capped at the maximum backoff, so that contending callers do not retry in
+ * lockstep. Once the maximum number of attempts is reached the last error is rethrown.
+ * <p>
+ * A retry re-runs the whole transaction, so the interceptor has to be applied outside of the transactional boundary:
+ * invocations made while a transaction is already active are not retried. A single bean of this type is picked up by
+ * the repository factories and wraps the repository methods; it can also be applied to
+ * <code>&#064;Transactional</code> service methods through an advisor ordered before the transaction advisor. The
+ * statistics can be read through JMX once exported, e.g. with {@code @EnableMBeanExport}.
+ */
+@ManagedResource(objectName = "org.springframework.data.neo4j:type=TransientErrorRetry",
+		description = "Retries of units of work failing with transient Neo4j errors")
+public class TransientErrorRetryInterceptor implements MethodInterceptor {
+
+	private static final Logger logger = LoggerFactory.getLogger(TransientErrorRetryInterceptor.class);
+
+	private final AtomicLong retries = new AtomicLong();
+	private final AtomicLong recoveries = new AtomicLong();
+	private final AtomicLong exhaustions = new AtomicLong();
+
+	private volatile int maxAttempts = 3;
+	private volatile long initialBackoffMillis = 50;
+	private volatile long maxBackoffMillis = 2000;
+	private volatile double multiplier = 2;
+
+	@ManagedAttribute(description = "Maximum number of attempts, including the first one")
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Sets the maximum number of attempts, including the first one. Defaults to {@literal 3}.
+	 */
+	@ManagedAttribute
+	public void setMaxAttempts(int maxAttempts) {
+		Assert.isTrue(maxAttempts > 0, "maxAttempts must be greater than 0");
+		this.maxAttempts = maxAttempts;
+	}
+
+	@ManagedAttribute(description = "Backoff before the first retry in milliseconds")
+	public long getInitialBackoffMillis() {
+		return initialBackoffMillis;
+	}
+
+	/**
+	 * Sets the backoff before the first retry. Defaults to {@literal 50} milliseconds.
+	 */
+	@ManagedAttribute
+	public void setInitialBackoffMillis(long initialBackoffMillis) {
+		Assert.isTrue(initialBackoffMillis >= 0, "initialBackoffMillis must not be negative");
+		this.initialBackoffMillis = initialBackoffMillis;
+	}
+
+	@ManagedAttribute(description = "Maximum backoff between two attempts in milliseconds")
+	public long getMaxBackoffMillis() {
+		return maxBackoffMillis;
+	}
+
+	/**
+	 * Sets the maximum backoff between two attempts. Defaults to {@literal 2000} milliseconds.
+	 */
+	@ManagedAttribute
+	public void setMaxBackoffMillis(long maxBackoffMillis) {
+		Assert.isTrue(maxBackoffMillis >= 0, "maxBackoffMillis must not be negative");
+		this.maxBackoffMillis = maxBackoffMillis;
+	}
+
+	@ManagedAttribute(description = "Factor the backoff grows by with every retry")
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	/**
+	 * Sets the factor the backoff grows by with every retry. Defaults to {@literal 2}.
+	 */
+	@ManagedAttribute
+	public void setMultiplier(double multiplier) {
+		Assert.isTrue(multiplier >= 1, "multiplier must be at least 1");
+		this.multiplier = multiplier;
+	}
+
+	@ManagedAttribute(description = "Number of retries")
+	public long getRetryCount() {
+		return retries.get();
+	}
+
+	@ManagedAttribute(description = "Number of units of work that succeeded after at least one retry")
+	public long getRecoveryCount() {
+		return recoveries.get();
+	}
+
+	@ManagedAttribute(description = "Number of units of work given up on after the maximum number of attempts")
+	public long getExhaustionCount() {
+		return exhaustions.get();
+	}
+
+	@ManagedOperation(description = "Resets the retry, recovery and exhaustion counts")
+	public void resetStatistics() {
+		retries.set(0);
+		recoveries.set(0);
+		exhaustions.set(0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.aopalliance.intercept.MethodInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)
+	 */
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		if (TransactionSynchronizationManager.isActualTransactionActive()
+				|| !(invocation instanceof ProxyMethodInvocation)) {
+			return invocation.proceed();
+		}
+		ProxyMethodInvocation proxyInvocation = (ProxyMethodInvocation) invocation;
+		for (int attempt = 1;; attempt++) {
+			try {
+				Object result = proxyInvocation.invocableClone().proceed();
+				if (attempt > 1) {
+					recoveries.incrementAndGet();
+				}
+				return result;
+			} catch (Throwable ex) {
+				if (!isRetryable(ex)) {
+					throw ex;
+				}
+				if (attempt >= maxAttempts) {
+					exhaustions.incrementAndGet();
+					logger.warn("Giving up on {} after {} attempts", invocation.getMethod(), attempt);
+					throw ex;
+				}
+				long backoff = backoffMillis(attempt);
+				logger.debug("Retrying {} in {} ms after transient error: {}", invocation.getMethod(), backoff,
+						ex.getMessage());
+				try {
+					sleep(backoff);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw ex;
+				}
+				retries.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * @param ex an exception thrown by a unit of work.
+	 * @return whether the exception or one of its causes is a {@link CypherException} with a retryable code, unless
+	 *         part of the work was already committed as reported by a {@link BatchQueryFailedException}.
+	 */
+	public static boolean isRetryable(Throwable ex) {
+		for (Throwable current = ex; current != null; current = current.getCause()) {
+			if (current instanceof BatchQueryFailedException) {
+				return false;
+			}
+			if (current instanceof CypherException && Neo4jErrorStatusCodes.isRetryable(((CypherException) current).getCode())) {
+				return true;
+			}
+			if (current.getCause() == current) {
+				break;
+			}
+		}
+		return false;
+	}
+
+	long backoffMillis(int attempt) {
+		double exponential = initialBackoffMillis * Math.pow(multiplier, attempt - 1);
+		long backoff = (long) Math.min(exponential, maxBackoffMillis);
+		return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff - backoff / 2 + 1);
+	}
+
+	void sleep(long millis) throws InterruptedException {
+		Thread.sleep(millis);
+	}
+}
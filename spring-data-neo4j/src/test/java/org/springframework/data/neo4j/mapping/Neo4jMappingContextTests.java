@@ -0,0 +1,87 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.annotation.typeconversion.Convert;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.typeconversion.UuidStringConverter;
+
+/**
+ * Unit tests for {@link Neo4jMappingContext}.
+ */
+public class Neo4jMappingContextTests {
+
+	private MetaData metaData;
+
+	@Before
+	public void setUp() {
+		Set<ClassInfo> classInfos = new LinkedHashSet<>();
+		for (String name : Arrays.asList(Person.class.getName(), "org.example.Missing", Address.class.getName())) {
+			ClassInfo classInfo = mock(ClassInfo.class);
+			when(classInfo.name()).thenReturn(name);
+			classInfos.add(classInfo);
+		}
+		metaData = mock(MetaData.class);
+		when(metaData.persistentEntities()).thenReturn(classInfos);
+	}
+
+	@Test
+	public void addsEntitiesLoadedInParallelAndReportsTheirInitialisationTimes() {
+		Neo4jMappingContext context = new Neo4jMappingContext(metaData, 2);
+
+		assertTrue(context.hasPersistentEntityFor(Person.class));
+		assertTrue(context.hasPersistentEntityFor(Address.class));
+		assertFalse(context.hasPersistentEntityFor(UUID.class));
+		assertEquals(Arrays.asList(Person.class.getName(), Address.class.getName()),
+				Arrays.asList(context.getEntityInitialisationTimes().keySet().toArray()));
+		for (Long nanos : context.getEntityInitialisationTimes().values()) {
+			assertTrue(nanos >= 0);
+		}
+	}
+
+	@Test
+	public void addsSameEntitiesOnCallingThread() {
+		Neo4jMappingContext context = new Neo4jMappingContext(metaData, 1);
+
+		assertTrue(context.hasPersistentEntityFor(Person.class));
+		assertTrue(context.hasPersistentEntityFor(Address.class));
+		assertEquals(2, context.getEntityInitialisationTimes().size());
+	}
+
+	static class Person {
+
+		Long id;
+		String name;
+
+		@Convert(UuidStringConverter.class)
+		UUID uuid;
+	}
+
+	static class Address {
+
+		Long id;
+		String street;
+	}
+}
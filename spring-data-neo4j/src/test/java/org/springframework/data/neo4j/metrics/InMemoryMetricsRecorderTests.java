@@ -0,0 +1,86 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.neo4j.exception.QueryTimeoutException;
+
+/**
+ * Unit tests for {@link InMemoryMetricsRecorder}.
+ */
+public class InMemoryMetricsRecorderTests {
+
+	private final InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+
+	private Method findByName;
+
+	@Before
+	public void setUp() throws Exception {
+		findByName = PersonRepository.class.getMethod("findByName", String.class);
+	}
+
+	@Test
+	public void aggregatesInvocationsPerMethod() {
+		recorder.recordRepositoryInvocation(new RepositoryInvocation(PersonRepository.class, findByName, 2000000, 0, 500000, 3, null));
+		recorder.recordRepositoryInvocation(new RepositoryInvocation(PersonRepository.class, findByName, 4000000, 0, 500000, 1, null));
+		recorder.recordRepositoryInvocation(new RepositoryInvocation(PersonRepository.class, findByName, 6000000, 0, 0, 0,
+				new IllegalStateException()));
+		recorder.recordRepositoryInvocation(new RepositoryInvocation(PersonRepository.class, findByName, 8000000, 0, 0, 0,
+				new QueryTimeoutException("timed out")));
+
+		MethodStatistics statistics = recorder.getStatistics("PersonRepository.findByName");
+
+		assertEquals(4, statistics.getCalls());
+		assertEquals(2, statistics.getErrors());
+		assertEquals(1, statistics.getTimeouts());
+		assertEquals(4, statistics.getRows());
+		assertEquals(5.0, statistics.getMean(), 0.001);
+		assertEquals(1.0, statistics.getProjectionTime(), 0.001);
+		assertEquals(4.0, statistics.getP50(), 4.0 / 16);
+		assertEquals(8.0, statistics.getP99(), 8.0 / 16);
+	}
+
+	@Test
+	public void ignoresUnknownRowCounts() {
+		recorder.recordRepositoryInvocation(new RepositoryInvocation(PersonRepository.class, findByName, 1000, 0, 0,
+				RepositoryInvocation.UNKNOWN_ROWS, null));
+
+		assertEquals(0, recorder.getStatistics("PersonRepository.findByName").getRows());
+	}
+
+	@Test
+	public void resetDiscardsStatistics() {
+		recorder.recordRepositoryInvocation(new RepositoryInvocation(PersonRepository.class, findByName, 1000, 0, 0, 1, null));
+
+		Map<String, MethodStatistics> statistics = recorder.getStatistics();
+		assertEquals(1, statistics.size());
+		assertTrue(statistics.containsKey("PersonRepository.findByName"));
+
+		recorder.reset();
+
+		assertTrue(recorder.getStatistics().isEmpty());
+		assertNull(recorder.getStatistics("PersonRepository.findByName"));
+	}
+
+	interface PersonRepository {
+
+		Object findByName(String name);
+	}
+}
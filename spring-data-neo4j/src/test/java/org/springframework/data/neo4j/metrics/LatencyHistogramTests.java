@@ -0,0 +1,55 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTests {
+
+	@Test
+	public void bucketsContainTheirValues() {
+		long[] values = { 0, 1, 15, 16, 17, 31, 32, 1000, 123456789, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+		for (long value : values) {
+			long upperBound = LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(value));
+			assertTrue(value + " exceeds bucket bound " + upperBound, upperBound >= value);
+			assertTrue(value + " has a bucket bound too coarse " + upperBound, upperBound - value <= value / 16 + 1);
+		}
+	}
+
+	@Test
+	public void computesPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * 1000);
+		}
+
+		assertEquals(50000, histogram.getPercentile(0.5), 50000 / 16);
+		assertEquals(95000, histogram.getPercentile(0.95), 95000 / 16);
+		assertEquals(100000, histogram.getPercentile(1.0), 100000 / 16);
+	}
+
+	@Test
+	public void returnsZeroWhenEmpty() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(42);
+		histogram.reset();
+
+		assertEquals(0, histogram.getPercentile(0.99));
+	}
+}
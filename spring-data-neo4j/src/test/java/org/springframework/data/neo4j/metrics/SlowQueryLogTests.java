@@ -0,0 +1,131 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SlowQueryLog}.
+ */
+public class SlowQueryLogTests {
+
+	private final SlowQueryLog log = new SlowQueryLog();
+
+	private Method findByName;
+
+	@Before
+	public void setUp() throws Exception {
+		findByName = PersonRepository.class.getMethod("findByName", String.class);
+		log.setThreshold(10, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void logsInvocationsExceedingThreshold() {
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("name", "Jim");
+		parameters.put("ids", Arrays.asList(1, 2, 3));
+
+		assertTrue(log.log(invocation(20), trace("MATCH (p:Person) WHERE p.name = {name} RETURN p", parameters)));
+		assertFalse(log.log(invocation(5), trace("MATCH (p:Person) RETURN p", parameters)));
+
+		List<SlowQuery> entries = log.getEntries();
+		assertEquals(1, entries.size());
+		SlowQuery entry = entries.get(0);
+		assertEquals("PersonRepository.findByName", entry.getName());
+		assertEquals(Arrays.asList("MATCH (p:Person) WHERE p.name = {name} RETURN p"), entry.getStatements());
+		assertEquals("<String>", entry.getParameters().get("name"));
+		assertEquals("<" + Arrays.asList().getClass().getSimpleName() + "[3]>", entry.getParameters().get("ids"));
+		assertEquals(20.0, entry.getDuration(), 0.001);
+		assertEquals(15.0, entry.getOgmTime(), 0.001);
+		assertEquals(2.0, entry.getProjectionTime(), 0.001);
+		assertEquals(4, entry.getRows());
+	}
+
+	@Test
+	public void logsParameterValuesWhenEnabled() {
+		log.setLogParameterValues(true);
+
+		log.log(invocation(20), trace("MATCH (p:Person) WHERE p.name = {name} RETURN p",
+				Collections.<String, Object>singletonMap("name", "Jim")));
+
+		assertEquals("Jim", log.getEntries().get(0).getParameters().get("name"));
+	}
+
+	@Test
+	public void ignoresInvocationsWithoutStatements() {
+		InvocationTrace trace = InvocationTrace.start();
+		trace.end();
+
+		assertFalse(log.log(invocation(20), trace));
+		assertTrue(log.getEntries().isEmpty());
+	}
+
+	@Test
+	public void negativeThresholdDisablesLog() {
+		log.setThreshold(-1, TimeUnit.MILLISECONDS);
+
+		assertFalse(log.isEnabled());
+		assertFalse(log.log(invocation(20), trace("MATCH (n) RETURN n", null)));
+	}
+
+	@Test
+	public void keepsMostRecentEntries() {
+		log.setCapacity(2);
+		for (int i = 1; i <= 3; i++) {
+			log.log(invocation(20), trace("RETURN " + i, null));
+		}
+
+		List<SlowQuery> entries = log.getEntries();
+		assertEquals(2, entries.size());
+		assertEquals(Arrays.asList("RETURN 2"), entries.get(0).getStatements());
+		assertEquals(Arrays.asList("RETURN 3"), entries.get(1).getStatements());
+
+		log.setCapacity(1);
+		assertEquals(Arrays.asList("RETURN 3"), log.getEntries().get(0).getStatements());
+
+		log.clear();
+		assertTrue(log.getEntries().isEmpty());
+	}
+
+	private RepositoryInvocation invocation(long durationMillis) {
+		return new RepositoryInvocation(PersonRepository.class, findByName, TimeUnit.MILLISECONDS.toNanos(durationMillis),
+				TimeUnit.MILLISECONDS.toNanos(15), TimeUnit.MILLISECONDS.toNanos(2), 4, null);
+	}
+
+	private static InvocationTrace trace(String statement, Map<String, ?> parameters) {
+		InvocationTrace trace = InvocationTrace.start();
+		try {
+			InvocationTrace.statement(statement, parameters);
+			InvocationTrace.statement(statement, parameters);
+		} finally {
+			trace.end();
+		}
+		return trace;
+	}
+
+	interface PersonRepository {
+
+		Object findByName(String name);
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics.plan;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HttpPlanExecutor}.
+ */
+public class HttpPlanExecutorTests {
+
+	@Test
+	public void readsProfiledOperators() {
+		Map<String, Object> scan = new HashMap<>();
+		scan.put("operatorType", "NodeByLabelScan");
+		scan.put("identifiers", Arrays.asList("p"));
+		scan.put("Rows", 3);
+		scan.put("DbHits", 4);
+		scan.put("EstimatedRows", 3.0);
+		scan.put("LabelName", ":Person");
+		Map<String, Object> root = new HashMap<>();
+		root.put("operatorType", "ProduceResults");
+		root.put("identifiers", Arrays.asList("p"));
+		root.put("Rows", 3);
+		root.put("DbHits", 0);
+		root.put("children", Collections.singletonList(scan));
+
+		QueryPlan plan = HttpPlanExecutor.readOperator(root);
+
+		assertEquals("ProduceResults", plan.getOperatorType());
+		assertEquals(Arrays.asList("ProduceResults", "NodeByLabelScan"), plan.getOperatorTypes());
+		assertEquals(4, plan.getTotalDbHits());
+		QueryPlan child = plan.getChildren().get(0);
+		assertEquals(3, child.getRows());
+		assertEquals(3.0, child.getEstimatedRows(), 0.001);
+		assertEquals(":Person", child.getArguments().get("LabelName"));
+		assertFalse(child.getArguments().containsKey("DbHits"));
+	}
+
+	@Test
+	public void readsExplainedOperators() {
+		Map<String, Object> root = new HashMap<>();
+		root.put("operatorType", "ProduceResults");
+		root.put("EstimatedRows", 10.0);
+
+		QueryPlan plan = HttpPlanExecutor.readOperator(root);
+
+		assertFalse(plan.isProfiled());
+		assertEquals(QueryPlan.NOT_PROFILED, plan.getTotalDbHits());
+		assertEquals(10.0, plan.getEstimatedRows(), 0.001);
+	}
+}
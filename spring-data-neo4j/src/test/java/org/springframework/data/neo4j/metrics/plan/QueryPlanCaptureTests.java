@@ -0,0 +1,199 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.metrics.plan;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.neo4j.annotation.CapturePlan;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for {@link QueryPlanCapture}.
+ */
+public class QueryPlanCaptureTests {
+
+	private static final String STATEMENT = "MATCH (p:Person) WHERE p.name = {name} RETURN p";
+
+	private final QueryPlanCapture capture = new QueryPlanCapture();
+	private final StubPlanExecutor executor = new StubPlanExecutor();
+
+	@Before
+	public void setUp() {
+		capture.setPlanExecutor(executor);
+		capture.setExecutor(new SyncTaskExecutor());
+		capture.setEnabled(true);
+		capture.setCaptureInterval(0, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void selectsMethodsByAnnotationOrPattern() throws Exception {
+		Method findByName = PersonRepository.class.getMethod("findByName", String.class);
+		Method findByAge = PersonRepository.class.getMethod("findByAge", int.class);
+		Method countAll = ProfiledRepository.class.getMethod("countAll");
+
+		assertEquals(PlanMode.PROFILE, capture.getModeIfDue(PersonRepository.class, findByName, "PersonRepository.findByName"));
+		assertNull(capture.getModeIfDue(PersonRepository.class, findByAge, "PersonRepository.findByAge"));
+		assertEquals(PlanMode.EXPLAIN, capture.getModeIfDue(ProfiledRepository.class, countAll, "ProfiledRepository.countAll"));
+
+		capture.setMethodPatterns("PersonRepository.find*");
+		assertEquals(PlanMode.EXPLAIN, capture.getModeIfDue(PersonRepository.class, findByAge, "PersonRepository.findByAge"));
+
+		capture.setEnabled(false);
+		assertNull(capture.getModeIfDue(PersonRepository.class, findByName, "PersonRepository.findByName"));
+	}
+
+	@Test
+	public void capturesAtMostOncePerInterval() throws Exception {
+		Method findByName = PersonRepository.class.getMethod("findByName", String.class);
+		capture.setCaptureInterval(1, TimeUnit.HOURS);
+		executor.plans.add(plan(10, "NodeIndexSeek"));
+
+		capture.capture("PersonRepository.findByName", PlanMode.PROFILE, statements());
+
+		assertNull(capture.getModeIfDue(PersonRepository.class, findByName, "PersonRepository.findByName"));
+		assertEquals(1, capture.getCapturedPlans("PersonRepository.findByName").size());
+	}
+
+	@Test
+	public void flagsGrowingDbHitsAsRegression() {
+		executor.plans.add(plan(10, "NodeIndexSeek"));
+		executor.plans.add(plan(15, "NodeIndexSeek"));
+		executor.plans.add(plan(100, "NodeIndexSeek"));
+
+		capture.capture("PersonRepository.findByName", PlanMode.PROFILE, statements());
+		capture.capture("PersonRepository.findByName", PlanMode.PROFILE, statements());
+		assertTrue(capture.getRegressions().isEmpty());
+
+		capture.capture("PersonRepository.findByName", PlanMode.PROFILE, statements());
+
+		List<CapturedPlan> regressions = capture.getRegressions();
+		assertEquals(1, regressions.size());
+		assertEquals(STATEMENT, regressions.get(0).getStatement());
+		assertEquals(15, regressions.get(0).getPreviousPlan().getTotalDbHits());
+		assertEquals(100, regressions.get(0).getPlan().getTotalDbHits());
+		assertEquals(1, capture.getRegressionDescriptions().length);
+	}
+
+	@Test
+	public void flagsChangedOperatorsAsRegression() {
+		executor.plans.add(plan(QueryPlan.NOT_PROFILED, "NodeIndexSeek"));
+		executor.plans.add(plan(QueryPlan.NOT_PROFILED, "NodeByLabelScan"));
+
+		capture.capture("PersonRepository.findByName", PlanMode.EXPLAIN, statements());
+		capture.capture("PersonRepository.findByName", PlanMode.EXPLAIN, statements());
+
+		CapturedPlan captured = capture.getCapturedPlans("PersonRepository.findByName").get(0);
+		assertTrue(captured.isRegression());
+		assertTrue(captured.getRegression().contains("NodeByLabelScan"));
+		assertTrue(capture.describePlans("PersonRepository.findByName").contains("NodeByLabelScan"));
+	}
+
+	@Test
+	public void doesNotFlagCheaperPlans() {
+		executor.plans.add(plan(100, "NodeByLabelScan"));
+		executor.plans.add(plan(10, "NodeIndexSeek"));
+
+		capture.capture("PersonRepository.findByName", PlanMode.PROFILE, statements());
+		capture.capture("PersonRepository.findByName", PlanMode.PROFILE, statements());
+
+		assertTrue(capture.getRegressions().isEmpty());
+		assertArrayEquals(new String[] { "PersonRepository.findByName" }, capture.getCapturedMethods());
+
+		capture.clear();
+		assertEquals(0, capture.getCapturedMethods().length);
+	}
+
+	@Test
+	public void explainsWriteStatementsInsteadOfProfiling() {
+		executor.plans.add(plan(QueryPlan.NOT_PROFILED, "NodeIndexSeek"));
+
+		capture.capture("PersonRepository.rename", PlanMode.PROFILE, Collections.<String, Map<String, ?>>singletonMap(
+				"MATCH (p:Person) WHERE p.name = {name} SET p.name = 'Jack'", Collections.singletonMap("name", "Jim")));
+
+		assertEquals(Collections.singletonList(PlanMode.EXPLAIN), executor.modes);
+	}
+
+	@Test
+	public void explainsStatementsWithinTransactionsInsteadOfProfiling() {
+		executor.plans.add(plan(QueryPlan.NOT_PROFILED, "NodeIndexSeek"));
+		executor.plans.add(plan(10, "NodeIndexSeek"));
+
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			capture.capture("PersonRepository.findByName", PlanMode.PROFILE, statements());
+		} finally {
+			TransactionSynchronizationManager.setActualTransactionActive(false);
+		}
+		capture.capture("PersonRepository.findByName", PlanMode.PROFILE, statements());
+
+		assertEquals(Arrays.asList(PlanMode.EXPLAIN, PlanMode.PROFILE), executor.modes);
+	}
+
+	@Test
+	public void ignoresFailingExecutor() {
+		capture.capture("PersonRepository.findByName", PlanMode.PROFILE, statements());
+
+		assertTrue(capture.getCapturedPlans("PersonRepository.findByName").isEmpty());
+	}
+
+	private static Map<String, Map<String, ?>> statements() {
+		return Collections.<String, Map<String, ?>>singletonMap(STATEMENT,
+				Collections.singletonMap("name", "Jim"));
+	}
+
+	private static QueryPlan plan(long dbHits, String leafOperator) {
+		QueryPlan leaf = new QueryPlan(leafOperator, Arrays.asList("p"), 1, dbHits, 1.0, null, null);
+		return new QueryPlan("ProduceResults", Arrays.asList("p"), 1, dbHits == QueryPlan.NOT_PROFILED ? dbHits : 0,
+				1.0, null, Collections.singletonList(leaf));
+	}
+
+	static class StubPlanExecutor implements PlanExecutor {
+
+		private final List<QueryPlan> plans = new LinkedList<>();
+		private final List<PlanMode> modes = new LinkedList<>();
+
+		@Override
+		public QueryPlan execute(PlanMode mode, String statement, Map<String, ?> parameters) {
+			modes.add(mode);
+			if (plans.isEmpty()) {
+				throw new IllegalStateException("No plan");
+			}
+			return plans.remove(0);
+		}
+	}
+
+	interface PersonRepository {
+
+		@CapturePlan(PlanMode.PROFILE)
+		Object findByName(String name);
+
+		Object findByAge(int age);
+	}
+
+	@CapturePlan
+	interface ProfiledRepository {
+
+		long countAll();
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.reactive;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Unit tests for {@link ChunkedPublisher}.
+ */
+public class ChunkedPublisherTests {
+
+	private static final Executor SAME_THREAD = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	@Test
+	public void fetchesChunksOnlyWhenDemandIsSignalled() {
+		CountingSource source = new CountingSource(10);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+
+		new ChunkedPublisher<>(source, 4, SAME_THREAD).subscribe(subscriber);
+		assertThat(source.fetchedChunks, is(empty()));
+
+		subscriber.subscription.request(3);
+		assertThat(subscriber.values, contains(0, 1, 2));
+		assertThat(source.fetchedChunks, contains(0));
+
+		subscriber.subscription.request(2);
+		assertThat(subscriber.values, contains(0, 1, 2, 3, 4));
+		assertThat(source.fetchedChunks, contains(0, 1));
+		assertFalse(subscriber.completed);
+
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertThat(subscriber.values, hasSize(10));
+		assertThat(source.fetchedChunks, contains(0, 1, 2));
+		assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void stopsFetchingAfterCancel() {
+		CountingSource source = new CountingSource(10);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+
+		new ChunkedPublisher<>(source, 4, SAME_THREAD).subscribe(subscriber);
+		subscriber.subscription.request(1);
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(5);
+
+		assertThat(subscriber.values, contains(0));
+		assertThat(source.fetchedChunks, contains(0));
+		assertFalse(subscriber.completed);
+	}
+
+	@Test
+	public void signalsErrorOnNonPositiveRequest() {
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+
+		new ChunkedPublisher<>(new CountingSource(10), 4, SAME_THREAD).subscribe(subscriber);
+		subscriber.subscription.request(0);
+
+		assertThat(subscriber.error, is(instanceOf(IllegalArgumentException.class)));
+	}
+
+	@Test
+	public void signalsErrorWhenFetchFails() {
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		ChunkSource<Integer> failing = new ChunkSource<Integer>() {
+			@Override
+			public List<Integer> fetch(int chunkNumber, int chunkSize) {
+				throw new IllegalArgumentException("boom");
+			}
+		};
+
+		new ChunkedPublisher<>(failing, 4, SAME_THREAD).subscribe(subscriber);
+		subscriber.subscription.request(1);
+
+		assertThat(subscriber.error, is(notNullValue()));
+		assertThat(subscriber.values, is(empty()));
+	}
+
+	private static class CountingSource implements ChunkSource<Integer> {
+
+		private final int total;
+		private final List<Integer> fetchedChunks = new ArrayList<>();
+
+		CountingSource(int total) {
+			this.total = total;
+		}
+
+		@Override
+		public List<Integer> fetch(int chunkNumber, int chunkSize) {
+			fetchedChunks.add(chunkNumber);
+			List<Integer> chunk = new ArrayList<>();
+			for (int i = chunkNumber * chunkSize; i < Math.min(total, (chunkNumber + 1) * chunkSize); i++) {
+				chunk.add(i);
+			}
+			return chunk;
+		}
+	}
+
+	private static class RecordingSubscriber implements Subscriber<Integer> {
+
+		private final List<Integer> values = new ArrayList<>();
+		private Subscription subscription;
+		private Throwable error;
+		private boolean completed;
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(Integer value) {
+			values.add(value);
+		}
+
+		@Override
+		public void onError(Throwable error) {
+			this.error = error;
+		}
+
+		@Override
+		public void onComplete() {
+			this.completed = true;
+		}
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.repository.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for {@link EntityCache}.
+ */
+public class EntityCacheTests {
+
+	private final EntityCache cache = new EntityCache();
+
+	@After
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		TransactionSynchronizationManager.unbindResourceIfPossible(cache);
+	}
+
+	@Test
+	public void servesEntitiesLoadedAtLeastAsDeep() {
+		Object person = new Object();
+		cache.put("Person", 1L, 1, person, labels("Person"), cache.getInvalidationCount());
+
+		assertSame(person, cache.get("Person", 1, 0));
+		assertSame(person, cache.get("Person", 1L, 1));
+		assertNull(cache.get("Person", 1L, 2));
+		assertNull(cache.get("Person", 1L, -1));
+		assertNull(cache.get("Movie", 1L, 0));
+		assertEquals(2, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+
+		cache.put("Person", 1L, 0, new Object(), labels("Person"), cache.getInvalidationCount());
+		assertSame(person, cache.get("Person", 1L, 1));
+
+		Object deeper = new Object();
+		cache.put("Person", 1L, -1, deeper, labels("Person"), cache.getInvalidationCount());
+		assertSame(deeper, cache.get("Person", 1L, 5));
+	}
+
+	@Test
+	public void admitsEntitiesRequestedMoreOftenThanTheEldest() {
+		cache.setMaxSize(2);
+		for (long id = 1; id <= 2; id++) {
+			cache.get("Person", id, 0);
+			cache.put("Person", id, 0, id, labels("Person"), cache.getInvalidationCount());
+		}
+
+		cache.get("Person", 3L, 0);
+		cache.put("Person", 3L, 0, 3L, labels("Person"), cache.getInvalidationCount());
+
+		assertEquals(1, cache.getRejectionCount());
+		assertNull(cache.get("Person", 3L, 0));
+		cache.put("Person", 3L, 0, 3L, labels("Person"), cache.getInvalidationCount());
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(3L, cache.get("Person", 3L, 0));
+		assertNull(cache.get("Person", 1L, 0));
+		assertEquals(2L, cache.get("Person", 2L, 0));
+	}
+
+	@Test
+	public void ignoresEntitiesLoadedBeforeAnEviction() {
+		long stamp = cache.getInvalidationCount();
+		cache.evictAfterCommit(Collections.singleton("Movie"));
+
+		cache.put("Person", 1L, 0, new Object(), labels("Person"), stamp);
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void evictsEntityAndDeeperEntriesReadingItsLabel() {
+		cache.put("Person", 1L, 0, "p1", labels("Person"), cache.getInvalidationCount());
+		cache.put("Person", 2L, 0, "p2", labels("Person"), cache.getInvalidationCount());
+		cache.put("Movie", 1L, 1, "m1", labels("Movie", "ACTED_IN", "Person"), cache.getInvalidationCount());
+		cache.put("Movie", 2L, 0, "m2", labels("Movie"), cache.getInvalidationCount());
+
+		cache.evictAfterCommit(Person.class, 1L);
+
+		assertNull(cache.get("Person", 1L, 0));
+		assertEquals("p2", cache.get("Person", 2L, 0));
+		assertNull(cache.get("Movie", 1L, 0));
+		assertEquals("m2", cache.get("Movie", 2L, 0));
+	}
+
+	@Test
+	public void evictsEntriesByLabel() {
+		cache.put("Person", 1L, 0, "p1", labels("Person"), cache.getInvalidationCount());
+		cache.put("Movie", 1L, 1, "m1", labels("Movie", "ACTED_IN", "Person"), cache.getInvalidationCount());
+		cache.put("Movie", 2L, 0, "m2", labels("Movie"), cache.getInvalidationCount());
+
+		cache.evictAfterCommit(Collections.singleton("ACTED_IN"));
+
+		assertEquals("p1", cache.get("Person", 1L, 0));
+		assertNull(cache.get("Movie", 1L, 0));
+		assertEquals("m2", cache.get("Movie", 2L, 0));
+
+		cache.evictAfterCommit(Collections.singleton(EntityLabels.ANY));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void defersEvictionUntilCommit() {
+		cache.put("Person", 1L, 0, "p1", labels("Person"), cache.getInvalidationCount());
+		TransactionSynchronizationManager.initSynchronization();
+
+		cache.evictAfterCommit(Person.class, 1L);
+
+		assertEquals("p1", cache.get("Person", 1L, 0));
+
+		completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+		assertNull(cache.get("Person", 1L, 0));
+		assertFalse(TransactionSynchronizationManager.hasResource(cache));
+	}
+
+	@Test
+	public void evictsOnRollback() {
+		cache.put("Person", 1L, 0, "p1", labels("Person"), cache.getInvalidationCount());
+		TransactionSynchronizationManager.initSynchronization();
+		long stamp = cache.getInvalidationCount();
+
+		cache.evictAfterCommit(Person.class, 1L);
+		completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+		cache.put("Person", 1L, 0, "p1", labels("Person"), stamp);
+
+		assertNull(cache.get("Person", 1L, 0));
+		assertFalse(TransactionSynchronizationManager.hasResource(cache));
+	}
+
+	@Test
+	public void isNotUsableWithinReadWriteTransactions() {
+		assertTrue(cache.isUsable());
+
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertTrue(cache.isUsable());
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		assertFalse(cache.isUsable());
+	}
+
+	private static void completeTransaction(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		for (TransactionSynchronization synchronization : synchronizations) {
+			synchronization.afterCompletion(status);
+		}
+	}
+
+	private static Set<String> labels(String... labels) {
+		return new HashSet<>(Arrays.asList(labels));
+	}
+
+	static class Person {
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.cache;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.neo4j.ogm.annotation.NodeEntity;
+import org.neo4j.ogm.annotation.Relationship;
+
+/**
+ * Unit tests for {@link EntityLabels}.
+ */
+public class EntityLabelsTests {
+
+	@Test
+	public void resolvesLabelsOfClassHierarchy() {
+		assertThat(EntityLabels.labelsOf(Actor.class), contains("Actor", "Human"));
+	}
+
+	@Test
+	public void resolvesNeighbourhoodAndReachableLabels() {
+		assertThat(EntityLabels.neighbourhoodLabelsOf(Actor.class), containsInAnyOrder("Actor", "Human", "ACTED_IN", "Film"));
+		assertThat(EntityLabels.neighbourhoodLabelsOf(Actor.class), not(hasItem("Studio")));
+		assertThat(EntityLabels.reachableLabelsOf(Actor.class), hasItem("Studio"));
+	}
+
+	@Test
+	public void extractsLabelsFromQueries() {
+		Set<String> labels = EntityLabels.labelsInQuery(
+				"MATCH (a:Actor)-[:ACTED_IN]->(m:`Feature Film`) WHERE a.name = 'x:Ignored' RETURN m");
+
+		assertThat(labels, containsInAnyOrder("Actor", "ACTED_IN", "Feature Film"));
+	}
+
+	@Test
+	public void detectsWriteQueries() {
+		assertTrue(EntityLabels.isWriteQuery("MATCH (a:Actor) SET a.name = {name}"));
+		assertTrue(EntityLabels.isWriteQuery("merge (a:Actor {name: {name}})"));
+		assertFalse(EntityLabels.isWriteQuery("MATCH (a:Actor) WHERE a.name = 'DELETE' RETURN a"));
+		assertThat(EntityLabels.labelsWrittenByQuery("MATCH (n) DETACH DELETE n"), contains(EntityLabels.ANY));
+	}
+
+	@NodeEntity(label = "Human")
+	static class Person {
+		Long id;
+		String name;
+	}
+
+	static class Actor extends Person {
+		@Relationship(type = "ACTED_IN")
+		List<Movie> movies;
+	}
+
+	@NodeEntity(label = "Film")
+	static class Movie {
+		Long id;
+		Studio studio;
+	}
+
+	static class Studio {
+		Long id;
+	}
+}
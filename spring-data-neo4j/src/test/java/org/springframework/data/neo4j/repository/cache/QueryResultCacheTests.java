@@ -0,0 +1,144 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for {@link QueryResultCache}.
+ */
+public class QueryResultCacheTests {
+
+	private final QueryResultCache cache = new QueryResultCache();
+
+	@After
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		TransactionSynchronizationManager.unbindResourceIfPossible(cache);
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedEntries() {
+		cache.setMaxSize(2);
+		cache.put("a", 1, 60000, labels("Person"), cache.getInvalidationCount());
+		cache.put("b", 2, 60000, labels("Person"), cache.getInvalidationCount());
+		assertNotNull(cache.get("a"));
+
+		cache.put("c", 3, 60000, labels("Person"), cache.getInvalidationCount());
+
+		assertEquals(2, cache.size());
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+	}
+
+	@Test
+	public void expiresEntriesAfterTimeToLive() throws Exception {
+		cache.put("a", 1, 10, labels("Person"), cache.getInvalidationCount());
+		Thread.sleep(50);
+
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void cachesNullResults() {
+		cache.put("a", null, 60000, labels("Person"), cache.getInvalidationCount());
+
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("a").get());
+		assertEquals(2, cache.getHitCount());
+	}
+
+	@Test
+	public void invalidatesEntriesByLabel() {
+		cache.put("persons", 1, 60000, labels("Person"), cache.getInvalidationCount());
+		cache.put("movies", 2, 60000, labels("Movie", "ACTED_IN"), cache.getInvalidationCount());
+		cache.put("all", 3, 60000, labels(EntityLabels.ANY), cache.getInvalidationCount());
+
+		cache.invalidate(Collections.singleton("ACTED_IN"));
+
+		assertNotNull(cache.get("persons"));
+		assertNull(cache.get("movies"));
+		assertNull(cache.get("all"));
+
+		cache.invalidate(Collections.singleton(EntityLabels.ANY));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void doesNotCacheResultComputedBeforeInvalidation() {
+		long stamp = cache.getInvalidationCount();
+
+		cache.invalidate(Collections.singleton("Movie"));
+		cache.put("persons", 1, 60000, labels("Person"), stamp);
+
+		assertNull(cache.get("persons"));
+		cache.put("persons", 1, 60000, labels("Person"), cache.getInvalidationCount());
+		assertNotNull(cache.get("persons"));
+	}
+
+	@Test
+	public void defersInvalidationUntilCommit() {
+		cache.put("persons", 1, 60000, labels("Person"), cache.getInvalidationCount());
+		TransactionSynchronizationManager.initSynchronization();
+
+		cache.invalidateAfterCommit(Collections.singleton("Person"));
+
+		assertNotNull(cache.get("persons"));
+		assertTrue(cache.isInvalidatedInCurrentTransaction(labels("Person", "Movie")));
+		assertFalse(cache.isInvalidatedInCurrentTransaction(labels("Movie")));
+
+		completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+		assertNull(cache.get("persons"));
+		assertFalse(TransactionSynchronizationManager.hasResource(cache));
+	}
+
+	@Test
+	public void discardsInvalidationOnRollback() {
+		cache.put("persons", 1, 60000, labels("Person"), cache.getInvalidationCount());
+		TransactionSynchronizationManager.initSynchronization();
+
+		cache.invalidateAfterCommit(Collections.singleton("Person"));
+		completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		assertNotNull(cache.get("persons"));
+	}
+
+	private static void completeTransaction(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		for (TransactionSynchronization synchronization : synchronizations) {
+			synchronization.afterCompletion(status);
+		}
+	}
+
+	private static Set<String> labels(String... labels) {
+		return new HashSet<>(Arrays.asList(labels));
+	}
+}
@@ -34,6 +34,7 @@ import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.ApplicationContext;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
 import org.springframework.data.neo4j.repository.support.SessionBeanDefinitionRegistrarPostProcessor;
 import org.springframework.data.repository.config.RepositoryConfigurationExtension;
 import org.springframework.data.repository.config.RepositoryConfigurationSource;
@@ -86,6 +87,27 @@ public class Neo4jRepositoryConfigurationExtensionTests {
 		assertOnlyOnePersistenceAnnotationBeanPostProcessorRegistered(factory, beanName);
 	}
 
+	@Test
+	public void doesNotRegisterSlowQueryLogByDefault() {
+
+		DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+
+		new Neo4jRepositoryConfigurationExtension().registerBeansForRoot(factory, configSource);
+
+		assertThat(factory.containsBeanDefinition("neo4jSlowQueryLog"), is(false));
+	}
+
+	@Test
+	public void registersSlowQueryLogWithConfiguredThreshold() {
+
+		DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+		when(configSource.getAttribute("slowQueryThreshold")).thenReturn("200");
+
+		new Neo4jRepositoryConfigurationExtension().registerBeansForRoot(factory, configSource);
+
+		assertThat(factory.getBean("neo4jSlowQueryLog", SlowQueryLog.class).getThresholdMillis(), is(200L));
+	}
+
 	@Test
 	public void guardsAgainstNullJavaTypesReturnedFromNeo4jMetaData() throws Exception {
 
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.neo4j.ogm.model.QueryStatistics;
+import org.neo4j.ogm.model.Result;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.annotation.BatchQuery;
+import org.springframework.data.neo4j.annotation.Query;
+import org.springframework.data.neo4j.exception.BatchQueryFailedException;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for {@link BatchGraphRepositoryQuery}.
+ */
+public class BatchGraphRepositoryQueryTests {
+
+	private Session session;
+
+	@Before
+	public void setUp() {
+		session = mock(Session.class);
+
+		QueryStatistics statistics = mock(QueryStatistics.class);
+		given(statistics.getNodesCreated()).willReturn(2);
+		given(statistics.getPropertiesSet()).willReturn(3);
+
+		Result result = mock(Result.class);
+		given(result.queryResults()).willReturn(Collections.<Map<String, Object>>emptyList());
+		given(result.queryStatistics()).willReturn(statistics);
+
+		given(session.query(anyString(), anyMapOf(String.class, Object.class))).willReturn(result);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void executesOneUnwindStatementPerBatchAndAggregatesStatistics() throws Exception {
+		RepositoryQuery query = createQuery("merge", List.class, String.class);
+		assertTrue(query instanceof BatchGraphRepositoryQuery);
+
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			Map<String, Object> row = new HashMap<>();
+			row.put("name", "person" + i);
+			rows.add(row);
+		}
+
+		QueryStatistics statistics = (QueryStatistics) query.execute(new Object[] { rows, "Person" });
+
+		ArgumentCaptor<String> cypher = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<Map> params = ArgumentCaptor.forClass(Map.class);
+		verify(session, times(3)).query(cypher.capture(), params.capture());
+
+		assertEquals("UNWIND {rows} AS row MERGE (p:Person {name: row.name}) SET p.kind = {kind}", cypher.getValue());
+		assertEquals(2, ((List) params.getAllValues().get(0).get("rows")).size());
+		assertEquals(2, ((List) params.getAllValues().get(1).get("rows")).size());
+		assertEquals(1, ((List) params.getAllValues().get(2).get("rows")).size());
+		assertEquals("Person", params.getValue().get("kind"));
+		assertFalse(params.getValue().containsKey("people"));
+
+		assertEquals(6, statistics.getNodesCreated());
+		assertEquals(9, statistics.getPropertiesSet());
+		assertTrue(statistics.containsUpdates());
+	}
+
+	@After
+	public void tearDown() {
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+	}
+
+	@Test
+	public void reportsRowsCommittedBeforeFailedBatch() throws Exception {
+		RepositoryQuery query = createQuery("mergeNamesInPairs", String[].class);
+		IllegalStateException failure = new IllegalStateException("Failed");
+		given(session.query(anyString(), anyMapOf(String.class, Object.class))).willReturn(null).willReturn(null)
+				.willThrow(failure);
+
+		try {
+			query.execute(new Object[] { new String[] { "a", "b", "c", "d", "e" } });
+			fail("Expected BatchQueryFailedException");
+		} catch (BatchQueryFailedException e) {
+			assertEquals(4, e.getCommittedRowCount());
+			assertSame(failure, e.getCause());
+		}
+	}
+
+	@Test
+	public void rethrowsFailureOfFirstBatch() throws Exception {
+		RepositoryQuery query = createQuery("mergeNamesInPairs", String[].class);
+		IllegalStateException failure = new IllegalStateException("Failed");
+		given(session.query(anyString(), anyMapOf(String.class, Object.class))).willThrow(failure);
+
+		try {
+			query.execute(new Object[] { new String[] { "a", "b", "c" } });
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertSame(failure, e);
+		}
+	}
+
+	@Test
+	public void rethrowsFailureWithinTransaction() throws Exception {
+		RepositoryQuery query = createQuery("mergeNamesInPairs", String[].class);
+		IllegalStateException failure = new IllegalStateException("Failed");
+		given(session.query(anyString(), anyMapOf(String.class, Object.class))).willReturn(null).willThrow(failure);
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+
+		try {
+			query.execute(new Object[] { new String[] { "a", "b", "c" } });
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertSame(failure, e);
+		}
+	}
+
+	@Test
+	public void doesNotQueryForEmptyBatch() throws Exception {
+		RepositoryQuery query = createQuery("merge", List.class, String.class);
+
+		QueryStatistics statistics = (QueryStatistics) query.execute(new Object[] { Collections.emptyList(), "Person" });
+
+		verify(session, never()).query(anyString(), anyMapOf(String.class, Object.class));
+		assertFalse(statistics.containsUpdates());
+	}
+
+	@Test
+	public void acceptsArrayParameter() throws Exception {
+		RepositoryQuery query = createQuery("mergeNames", String[].class);
+
+		Object result = query.execute(new Object[] { new String[] { "a", "b", "c" } });
+
+		verify(session, times(1)).query(anyString(), anyMapOf(String.class, Object.class));
+		assertNull(result);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void sortsRowsByOrderByKeyWithoutChangingArgument() throws Exception {
+		RepositoryQuery query = createQuery("mergeOrdered", List.class);
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (Object id : Arrays.<Object>asList(3L, null, 1, 2.5)) {
+			Map<String, Object> row = new HashMap<>();
+			row.put("id", id);
+			rows.add(row);
+		}
+
+		query.execute(new Object[] { rows });
+
+		ArgumentCaptor<Map> params = ArgumentCaptor.forClass(Map.class);
+		verify(session).query(anyString(), params.capture());
+		List<Object> ids = new ArrayList<>();
+		for (Map<String, Object> row : (List<Map<String, Object>>) params.getValue().get("rows")) {
+			ids.add(row.get("id"));
+		}
+		assertEquals(Arrays.<Object>asList(1, 2.5, 3L, null), ids);
+		assertEquals(3L, rows.get(0).get("id"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void sortsSimpleRowsByValue() throws Exception {
+		RepositoryQuery query = createQuery("mergeNamesOrdered", String[].class);
+		String[] names = { "c", "a", "b" };
+
+		query.execute(new Object[] { names });
+
+		ArgumentCaptor<Map> params = ArgumentCaptor.forClass(Map.class);
+		verify(session).query(anyString(), params.capture());
+		assertEquals(Arrays.asList("a", "b", "c"), params.getValue().get("rows"));
+		assertEquals("c", names[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsBatchQueryWithoutCollectionParameter() throws Exception {
+		createQuery("withoutRows", String.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsBatchQueryReturningEntities() throws Exception {
+		createQuery("returningEntities", List.class);
+	}
+
+	private RepositoryQuery createQuery(String name, Class<?>... parameterTypes) throws Exception {
+		return new GraphQueryMethod(SampleRepository.class.getMethod(name, parameterTypes),
+				new DefaultRepositoryMetadata(SampleRepository.class), new SpelAwareProxyProjectionFactory(), session)
+				.createQuery();
+	}
+
+	interface SampleRepository extends Repository<Object, Long> {
+
+		@BatchQuery(batchSize = 2)
+		@Query("MERGE (p:Person {name: row.name}) SET p.kind = {kind};")
+		QueryStatistics merge(@Param("people") List<Map<String, Object>> people, @Param("kind") String kind);
+
+		@BatchQuery
+		@Query("MERGE (p:Person {name: row})")
+		void mergeNames(@Param("names") String[] names);
+
+		@BatchQuery(batchSize = 2)
+		@Query("MERGE (p:Person {name: row})")
+		void mergeNamesInPairs(@Param("names") String[] names);
+
+		@BatchQuery(orderBy = "id")
+		@Query("MATCH (p:Person) WHERE id(p) = row.id SET p.visited = true")
+		void mergeOrdered(@Param("people") List<Map<String, Object>> people);
+
+		@BatchQuery(orderBy = "name")
+		@Query("MERGE (p:Person {name: row})")
+		void mergeNamesOrdered(@Param("names") String[] names);
+
+		@BatchQuery
+		@Query("MERGE (p:Person {name: {name}})")
+		void withoutRows(@Param("name") String name);
+
+		@BatchQuery
+		@Query("MERGE (p:Person {name: row}) RETURN p")
+		List<Object> returningEntities(@Param("names") List<String> names);
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.model.Result;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.repository.PartialLoadAware;
+
+/**
+ * Unit tests for {@link FanOutLoader}.
+ */
+public class FanOutLoaderTests {
+
+	private Session session;
+	private FanOutLimits limits;
+
+	@Before
+	public void setUp() {
+		session = mock(Session.class);
+		limits = new FanOutLimits();
+		limits.setLimit("FOLLOWS", 2);
+		limits.setLimit("IT'S", 5);
+		limits.setDefaultLimit(10);
+	}
+
+	@Test
+	public void slicesNeighboursByRelationshipType() {
+		assertEquals("MATCH (n) WHERE ID(n) IN {ids} MATCH (n)-[r]-(m)"
+				+ " WITH n, type(r) AS type, collect([ID(r), ID(m)]) AS neighbours"
+				+ " RETURN ID(n) AS id, type, size(neighbours) AS degree,"
+				+ " neighbours[..CASE type WHEN 'FOLLOWS' THEN 2 WHEN 'IT\\'S' THEN 5 ELSE 10 END] AS neighbours",
+				new FanOutLoader(session, limits).getNeighboursStatement());
+	}
+
+	@Test
+	public void slicesNothingWithoutLimits() {
+		assertTrue(new FanOutLoader(session, new FanOutLimits()).getNeighboursStatement()
+				.endsWith("neighbours[..size(neighbours)] AS neighbours"));
+	}
+
+	@Test
+	public void reloadsEntitiesWithSelectedRelationshipsAndFlagsTruncatedTypes() {
+		Person first = new Person();
+		Person second = new Person();
+		Person firstLoaded = new Person();
+		Person secondLoaded = new Person();
+		when(session.resolveGraphIdFor(first)).thenReturn(1L);
+		when(session.resolveGraphIdFor(second)).thenReturn(2L);
+		when(session.resolveGraphIdFor(firstLoaded)).thenReturn(1L);
+		when(session.resolveGraphIdFor(secondLoaded)).thenReturn(2L);
+		Result result = mock(Result.class);
+		when(result.queryResults()).thenReturn(Arrays.asList(
+				row(1L, "FOLLOWS", 7L, Arrays.asList(Arrays.asList(10L, 3L), Arrays.asList(11L, 4L))),
+				row(2L, "LIVES_AT", 1L, Collections.singletonList(Arrays.asList(12L, 5L)))));
+		when(session.query(anyString(), anyMapOf(String.class, Object.class))).thenReturn(result);
+		when(session.query(eq(Person.class), anyString(), anyMapOf(String.class, Object.class)))
+				.thenReturn(Arrays.asList(secondLoaded, firstLoaded));
+
+		List<Person> loaded = new FanOutLoader(session, limits).load(Person.class, Arrays.asList(first, second), 1);
+
+		assertEquals(Arrays.asList(firstLoaded, secondLoaded), loaded);
+		assertEquals(Collections.singletonMap("FOLLOWS", 7L), firstLoaded.truncated);
+		assertEquals(Collections.<String, Long>emptyMap(), secondLoaded.truncated);
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("ids", Arrays.asList(1L, 2L));
+		parameters.put("relationships", Arrays.asList(10L, 11L, 12L));
+		verify(session).query(eq(Person.class), contains("ID(r) IN {relationships}"), eq(parameters));
+		verify(session, times(1)).query(anyString(), anyMapOf(String.class, Object.class));
+	}
+
+	@Test
+	public void doesNotQueryForDepthZero() {
+		Person person = new Person();
+		when(session.resolveGraphIdFor(person)).thenReturn(1L);
+
+		assertSame(person, new FanOutLoader(session, limits).load(Person.class, Collections.singletonList(person), 0)
+				.get(0));
+		verify(session, never()).query(anyString(), anyMapOf(String.class, Object.class));
+		verify(session, never()).query(eq(Person.class), anyString(), anyMapOf(String.class, Object.class));
+	}
+
+	private static Map<String, Object> row(Long id, String type, Long degree, List<?> neighbours) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", id);
+		row.put("type", type);
+		row.put("degree", degree);
+		row.put("neighbours", neighbours);
+		return row;
+	}
+
+	static class Person implements PartialLoadAware {
+
+		Long id;
+		Map<String, Long> truncated;
+
+		@Override
+		public void setTruncatedRelationships(Map<String, Long> truncatedDegrees) {
+			this.truncated = truncatedDegrees;
+		}
+	}
+}
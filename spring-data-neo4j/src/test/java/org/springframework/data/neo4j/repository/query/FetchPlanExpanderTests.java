@@ -0,0 +1,146 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.annotation.Relationship;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.repository.Fetch;
+
+/**
+ * Unit tests for {@link FetchPlanExpander}.
+ */
+public class FetchPlanExpanderTests {
+
+	private Session session;
+	private FetchPlanExpander expander;
+
+	@Before
+	public void setUp() throws Exception {
+		MetaData metaData = mock(MetaData.class);
+		ClassInfo person = classInfo(metaData, Person.class);
+		relationship(person, Person.class, "addresses", "ADDRESSES");
+		relationship(person, Person.class, "orders", "PLACED");
+		relationship(classInfo(metaData, Order.class), Order.class, "items", "ITEMS");
+
+		session = mock(Session.class);
+		expander = new FetchPlanExpander(session, metaData);
+	}
+
+	@Test
+	public void matchesEachPathPrefixOnce() {
+		assertEquals("MATCH (n) WHERE ID(n) IN {ids} WITH n"
+				+ " OPTIONAL MATCH p0=(n)-[:`ADDRESSES`]->() WITH n, collect(DISTINCT p0) AS p0"
+				+ " OPTIONAL MATCH p1=(n)<-[:`PLACED`]-() WITH n, p0, collect(DISTINCT p1) AS p1"
+				+ " OPTIONAL MATCH p2=(n)<-[:`PLACED`]-()-[:`ITEMS`]->() WITH n, p0, p1, collect(DISTINCT p2) AS p2"
+				+ " RETURN n, p0, p1, p2",
+				expander.statement(Person.class, Fetch.paths("addresses", "orders.items", "orders"), false));
+	}
+
+	@Test
+	public void matchesAllNodesWithLabel() {
+		assertEquals("MATCH (n:`Person`) WITH n RETURN n", expander.statement(Person.class, Fetch.paths(), true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnknownRelationshipField() {
+		expander.statement(Person.class, Fetch.paths("orders.customer"), false);
+	}
+
+	@Test
+	public void reloadsPersistedEntitiesInOrder() {
+		Person first = new Person();
+		Person second = new Person();
+		Person transientPerson = new Person();
+		Person firstLoaded = new Person();
+		Person secondLoaded = new Person();
+		when(session.resolveGraphIdFor(first)).thenReturn(1L);
+		when(session.resolveGraphIdFor(second)).thenReturn(2L);
+		when(session.resolveGraphIdFor(firstLoaded)).thenReturn(1L);
+		when(session.resolveGraphIdFor(secondLoaded)).thenReturn(2L);
+		when(session.query(eq(Person.class), anyString(), anyMapOf(String.class, Object.class)))
+				.thenReturn(Arrays.asList(secondLoaded, firstLoaded));
+
+		List<Person> loaded = expander.load(Person.class, Arrays.asList(first, second, transientPerson),
+				Fetch.paths("addresses"));
+
+		assertEquals(Arrays.asList(firstLoaded, secondLoaded, transientPerson), loaded);
+		verify(session).query(eq(Person.class), contains("ID(n) IN {ids}"),
+				eq(Collections.<String, Object>singletonMap("ids", Arrays.asList(1L, 2L))));
+	}
+
+	@Test
+	public void doesNotQueryWithoutPersistedEntities() {
+		Person person = new Person();
+
+		assertSame(person, expander.load(Person.class, (Object) person, Fetch.paths("addresses")));
+		verify(session, never()).query(eq(Person.class), anyString(), anyMapOf(String.class, Object.class));
+	}
+
+	private static ClassInfo classInfo(MetaData metaData, Class<?> type) {
+		ClassInfo classInfo = mock(ClassInfo.class);
+		when(classInfo.name()).thenReturn(type.getName());
+		when(classInfo.neo4jName()).thenReturn(type.getSimpleName());
+		when(metaData.classInfo(type.getName())).thenReturn(classInfo);
+		return classInfo;
+	}
+
+	private static void relationship(ClassInfo owner, Class<?> type, String name, String relationshipType)
+			throws Exception {
+		FieldInfo fieldInfo = mock(FieldInfo.class);
+		when(fieldInfo.relationship()).thenReturn(relationshipType);
+		when(owner.relationshipFieldByName(name)).thenReturn(fieldInfo);
+		when(owner.getField(fieldInfo)).thenReturn(type.getDeclaredField(name));
+	}
+
+	static class Person {
+
+		Long id;
+		Set<Address> addresses;
+
+		@Relationship(type = "PLACED", direction = Relationship.INCOMING)
+		List<Order> orders;
+	}
+
+	static class Address {
+
+		Long id;
+	}
+
+	static class Order {
+
+		Long id;
+		Item[] items;
+		Map<String, Object> customer;
+	}
+
+	static class Item {
+
+		Long id;
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.model.QueryStatistics;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.neo4j.annotation.BatchQuery;
+import org.springframework.data.neo4j.annotation.Query;
+import org.springframework.data.neo4j.repository.support.Neo4jRepositoryFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.query.RepositoryQuery;
+
+/**
+ * Unit tests for the {@link QueryResolutionMode}s of {@link GraphQueryLookupStrategy}.
+ */
+public class QueryResolutionModeTests {
+
+	private Session session;
+	private BackgroundQueryResolver resolver;
+
+	@Before
+	public void setUp() {
+		session = mock(Session.class);
+		resolver = new BackgroundQueryResolver();
+		resolver.setParallelism(2);
+	}
+
+	@After
+	public void tearDown() {
+		resolver.destroy();
+	}
+
+	@Test(expected = PropertyReferenceException.class)
+	public void eagerResolutionFailsOnInvalidMethod() throws Exception {
+		resolve(QueryResolutionMode.EAGER, "findByInvalid");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void lazyResolutionValidatesQueryMethodStraightAway() throws Exception {
+		resolve(QueryResolutionMode.LAZY, "batchWithoutQuery");
+	}
+
+	@Test
+	public void lazyResolutionDefersQueryCreationToFirstInvocation() throws Exception {
+		RepositoryQuery query = resolve(QueryResolutionMode.LAZY, "merge");
+
+		assertTrue(query instanceof DeferredRepositoryQuery);
+		assertTrue(query.getQueryMethod() instanceof GraphQueryMethod);
+		assertTrue(query.execute(new Object[] { Collections.emptyList() }) instanceof QueryStatistics);
+	}
+
+	@Test
+	public void lazyResolutionFailsOnInvocationOfInvalidMethod() throws Exception {
+		RepositoryQuery query = resolve(QueryResolutionMode.LAZY, "findByInvalid");
+
+		assertTrue(query.getQueryMethod() instanceof GraphQueryMethod);
+		for (int i = 0; i < 2; i++) {
+			try {
+				query.execute(new Object[] { Collections.emptyList() });
+				fail("Expected PropertyReferenceException");
+			} catch (PropertyReferenceException e) {
+				assertTrue(e.getMessage().contains("invalid"));
+			}
+		}
+	}
+
+	@Test
+	public void lazyResolutionDefersQueryCreationWhenRepositoryIsCreated() {
+		Neo4jRepositoryFactory factory = new Neo4jRepositoryFactory(mock(Neo4jSession.class));
+		factory.setQueryResolutionMode(QueryResolutionMode.LAZY);
+
+		SampleRepository repository = factory.getRepository(SampleRepository.class);
+
+		try {
+			repository.findByInvalid(Collections.<String>emptyList());
+			fail("Expected PropertyReferenceException");
+		} catch (PropertyReferenceException e) {
+			assertTrue(e.getMessage().contains("invalid"));
+		}
+	}
+
+	@Test
+	public void backgroundResolutionCreatesQueriesOnResolver() throws Exception {
+		DeferredRepositoryQuery query = (DeferredRepositoryQuery) resolve(QueryResolutionMode.BACKGROUND, "merge");
+		resolve(QueryResolutionMode.BACKGROUND, "findByInvalid");
+
+		resolver.awaitResolution();
+
+		assertTrue(query.getQuery() instanceof BatchGraphRepositoryQuery);
+	}
+
+	@Test
+	public void strictResolutionFailsOnInvalidMethods() throws Exception {
+		resolve(QueryResolutionMode.STRICT, "merge");
+		resolve(QueryResolutionMode.STRICT, "findByInvalid");
+
+		try {
+			resolver.awaitResolution();
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage().contains("SampleRepository.findByInvalid"));
+			assertFalse(e.getMessage().contains("SampleRepository.merge"));
+		}
+	}
+
+	@Test(expected = PropertyReferenceException.class)
+	public void strictResolutionCreatesQueriesStraightAwayOnceAwaited() throws Exception {
+		resolver.awaitResolution();
+
+		resolve(QueryResolutionMode.STRICT, "findByInvalid");
+	}
+
+	private RepositoryQuery resolve(QueryResolutionMode mode, String name) throws Exception {
+		return new GraphQueryLookupStrategy(session, null, mode, resolver).resolveQuery(
+				SampleRepository.class.getMethod(name, List.class), new DefaultRepositoryMetadata(SampleRepository.class),
+				new SpelAwareProxyProjectionFactory(), null);
+	}
+
+	interface SampleRepository extends Repository<Object, Long> {
+
+		@BatchQuery
+		@Query("MERGE (p:Person {name: row})")
+		QueryStatistics merge(@Param("names") List<String> names);
+
+		@BatchQuery
+		QueryStatistics batchWithoutQuery(@Param("names") List<String> names);
+
+		List<Object> findByInvalid(List<String> names);
+	}
+}
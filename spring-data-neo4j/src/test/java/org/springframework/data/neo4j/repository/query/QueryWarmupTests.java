@@ -0,0 +1,151 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.neo4j.ogm.exception.CypherException;
+import org.neo4j.ogm.model.QueryStatistics;
+import org.neo4j.ogm.session.Session;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.neo4j.annotation.BatchQuery;
+import org.springframework.data.neo4j.annotation.Query;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Unit tests for {@link QueryWarmup}.
+ */
+public class QueryWarmupTests {
+
+	private Session session;
+	private QueryWarmup warmup;
+
+	@Before
+	public void setUp() {
+		session = mock(Session.class);
+		warmup = new QueryWarmup();
+		warmup.setParallelism(2);
+	}
+
+	@Test
+	public void explainsAnnotatedAndCountQueriesOnWarmup() throws Exception {
+		resolve("findByName", String.class);
+		resolve("findPage", Pageable.class);
+		resolve("merge", List.class);
+
+		verify(session, never()).query(anyString(), anyMapOf(String.class, Object.class));
+
+		warmup.warmUp();
+
+		ArgumentCaptor<String> cypher = ArgumentCaptor.forClass(String.class);
+		verify(session, times(4)).query(cypher.capture(), anyMapOf(String.class, Object.class));
+		assertTrue(cypher.getAllValues().contains("EXPLAIN MATCH (p:Person {name: {name}}) RETURN p"));
+		assertTrue(cypher.getAllValues().contains("EXPLAIN MATCH (p:Person) RETURN p"));
+		assertTrue(cypher.getAllValues().contains("EXPLAIN MATCH (p:Person) RETURN count(p)"));
+		assertTrue(cypher.getAllValues().contains("EXPLAIN UNWIND {rows} AS row MERGE (p:Person {name: row})"));
+		assertEquals(4, warmup.getStatementCount());
+		assertTrue(warmup.getDurationMillis() >= 0);
+	}
+
+	@Test
+	public void explainsRepeatedStatementsOnce() {
+		warmup.register(session, "A.find", "MATCH (n) RETURN n");
+		warmup.register(session, "B.find", "MATCH (n) RETURN n");
+
+		warmup.warmUp();
+
+		verify(session, times(1)).query(anyString(), anyMapOf(String.class, Object.class));
+	}
+
+	@Test
+	public void failsOnInvalidStatementNamingTheMethod() {
+		given(session.query(eq("EXPLAIN MATCH (n RETURN n"), anyMapOf(String.class, Object.class)))
+				.willThrow(new CypherException("Error executing Cypher", "Neo.ClientError.Statement.SyntaxError",
+						"Invalid input 'R'"));
+		warmup.register(session, "PersonRepository.valid", "MATCH (n) RETURN n");
+		warmup.register(session, "PersonRepository.invalid", "MATCH (n RETURN n");
+
+		try {
+			warmup.warmUp();
+			fail("Expected InvalidDataAccessResourceUsageException");
+		} catch (InvalidDataAccessResourceUsageException e) {
+			assertTrue(e.getMessage().contains("PersonRepository.invalid"));
+			assertFalse(e.getMessage().contains("PersonRepository.valid:"));
+		}
+	}
+
+	@Test
+	public void onlyLogsOtherFailures() {
+		given(session.query(anyString(), anyMapOf(String.class, Object.class)))
+				.willThrow(new CypherException("Error executing Cypher", "Neo.TransientError.General.DatabaseUnavailable",
+						"Unavailable"));
+		warmup.register(session, "PersonRepository.find", "MATCH (n) RETURN n");
+
+		warmup.warmUp();
+
+		assertEquals(1, warmup.getStatementCount());
+	}
+
+	@Test(expected = InvalidDataAccessResourceUsageException.class)
+	public void explainsStatementsRegisteredAfterWarmupStraightAway() {
+		given(session.query(anyString(), anyMapOf(String.class, Object.class)))
+				.willThrow(new CypherException("Error executing Cypher", "Neo.ClientError.Statement.SyntaxError",
+						"Invalid input"));
+		warmup.warmUp();
+
+		warmup.register(session, "PersonRepository.invalid", "MATCH (n RETURN n");
+	}
+
+	@Test
+	public void doesNotRegisterWithoutWarmup() throws Exception {
+		Method method = SampleRepository.class.getMethod("findByName", String.class);
+		new GraphQueryLookupStrategy(session).resolveQuery(method, new DefaultRepositoryMetadata(SampleRepository.class),
+				new SpelAwareProxyProjectionFactory(), null);
+
+		warmup.warmUp();
+
+		verify(session, never()).query(anyString(), anyMapOf(String.class, Object.class));
+	}
+
+	private void resolve(String name, Class<?>... parameterTypes) throws Exception {
+		Method method = SampleRepository.class.getMethod(name, parameterTypes);
+		new GraphQueryLookupStrategy(session, warmup).resolveQuery(method,
+				new DefaultRepositoryMetadata(SampleRepository.class), new SpelAwareProxyProjectionFactory(), null);
+	}
+
+	interface SampleRepository extends Repository<Object, Long> {
+
+		@Query("MATCH (p:Person {name: {name}}) RETURN p")
+		List<Object> findByName(@Param("name") String name);
+
+		@Query(value = "MATCH (p:Person) RETURN p", countQuery = "MATCH (p:Person) RETURN count(p)")
+		Page<Object> findPage(Pageable pageable);
+
+		@BatchQuery
+		@Query("MERGE (p:Person {name: row});")
+		QueryStatistics merge(@Param("names") List<String> names);
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query.derived;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.cypher.ComparisonOperator;
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.model.Result;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.ResultProcessor;
+import org.springframework.data.repository.query.ReturnedType;
+
+/**
+ * Unit tests for {@link DerivedProjection}.
+ */
+public class DerivedProjectionTests {
+
+	private Session session;
+	private MetaData metaData;
+
+	@Before
+	public void setUp() {
+		ClassInfo classInfo = mock(ClassInfo.class);
+		when(classInfo.neo4jName()).thenReturn("User");
+		FieldInfo identity = mock(FieldInfo.class);
+		when(identity.getName()).thenReturn("id");
+		when(classInfo.identityField()).thenReturn(identity);
+		FieldInfo name = mock(FieldInfo.class);
+		when(name.property()).thenReturn("fullName");
+		when(classInfo.propertyFieldByName("name")).thenReturn(name);
+		FieldInfo joined = mock(FieldInfo.class);
+		when(joined.property()).thenReturn("joined");
+		when(joined.hasPropertyConverter()).thenReturn(true);
+		when(classInfo.propertyFieldByName("joined")).thenReturn(joined);
+		metaData = mock(MetaData.class);
+		when(metaData.classInfo(User.class.getName())).thenReturn(classInfo);
+
+		session = mock(Session.class);
+	}
+
+	@Test
+	public void detectsClosedProjectionsAndDtos() {
+		assertTrue(DerivedProjection.isProjecting(returnedType(UserSummary.class)));
+		assertTrue(DerivedProjection.isProjecting(returnedType(UserDto.class)));
+		assertFalse(DerivedProjection.isProjecting(returnedType(User.class)));
+		assertFalse(DerivedProjection.isProjecting(returnedType(Long.class)));
+	}
+
+	@Test
+	public void returnsOnlyProjectedPropertiesAndMapsRowsIntoDto() {
+		Result result = mock(Result.class);
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", 7);
+		row.put("name", "Jane");
+		when(result.queryResults()).thenReturn(Collections.singletonList(row));
+		when(session.query(anyString(), anyMapOf(String.class, Object.class))).thenReturn(result);
+		DerivedProjection projection = new DerivedProjection(session, metaData, User.class, processor(UserDto.class));
+
+		assertTrue(projection.supportsRows(new Filters()));
+		List<Object> dtos = projection.find(new Filters(), new Sort(Sort.Direction.DESC, "name"), 20, 10);
+
+		assertEquals(1, dtos.size());
+		assertEquals(Long.valueOf(7L), ((UserDto) dtos.get(0)).id);
+		assertEquals("Jane", ((UserDto) dtos.get(0)).name);
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("sdnSkip", 20);
+		parameters.put("sdnLimit", 10);
+		verify(session).query("MATCH (n:`User`) RETURN ID(n) AS `id`, n.`fullName` AS `name`"
+				+ " ORDER BY n.`fullName` DESC SKIP {sdnSkip} LIMIT {sdnLimit}", parameters);
+	}
+
+	@Test
+	public void handsRowsOfInterfaceProjectionsToResultProcessor() {
+		Result result = mock(Result.class);
+		when(result.queryResults()).thenReturn(
+				Collections.singletonList(Collections.<String, Object>singletonMap("name", "Jane")));
+		when(session.query(anyString(), anyMapOf(String.class, Object.class))).thenReturn(result);
+		ResultProcessor processor = processor(UserSummary.class);
+		UserSummary summary = mock(UserSummary.class);
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("name", "Jane");
+		when(processor.processResult(values)).thenReturn(summary);
+		DerivedProjection projection = new DerivedProjection(session, metaData, User.class, processor);
+
+		assertEquals(Arrays.<Object>asList(summary), projection.find(new Filters(), null, null, null));
+		verify(session).query("MATCH (n:`User`) RETURN n.`fullName` AS `name`", Collections.<String, Object>emptyMap());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void rendersFiltersWithGraphPropertyNames() {
+		Result result = mock(Result.class);
+		when(result.queryResults()).thenReturn(Collections.<Map<String, Object>>emptyList());
+		when(session.query(anyString(), anyMapOf(String.class, Object.class))).thenReturn(result);
+		DerivedProjection projection = new DerivedProjection(session, metaData, User.class, processor(UserDto.class));
+		Filters filters = new Filters();
+		filters.add(filter("name", "Jane"));
+
+		assertTrue(projection.supportsRows(filters));
+		projection.find(filters, null, null, null);
+
+		ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<Map> parameters = ArgumentCaptor.forClass(Map.class);
+		verify(session).query(statement.capture(), parameters.capture());
+		assertTrue(statement.getValue(), statement.getValue().startsWith("MATCH (n:`User`) WHERE n.`fullName` = "));
+		assertFalse(statement.getValue(), statement.getValue().contains("n.`name`"));
+		assertTrue(parameters.getValue().containsValue("Jane"));
+	}
+
+	@Test
+	public void fallsBackToEntitiesForFiltersOnConvertedProperties() {
+		DerivedProjection projection = new DerivedProjection(session, metaData, User.class, processor(UserDto.class));
+		Filters filters = new Filters();
+		filters.add(filter("joined", "2017-01-01"));
+
+		assertFalse(projection.supportsRows(filters));
+	}
+
+	@Test
+	public void fallsBackToEntitiesForRelationshipProperties() {
+		DerivedProjection projection = new DerivedProjection(session, metaData, User.class, processor(UserWithFriends.class));
+
+		assertFalse(projection.supportsRows(new Filters()));
+	}
+
+	@Test
+	public void projectsLoadedEntities() {
+		User user = new User();
+		user.id = 3L;
+		user.name = "John";
+		DerivedProjection projection = new DerivedProjection(session, metaData, User.class, processor(UserDto.class));
+
+		UserDto dto = (UserDto) projection.project(user);
+
+		assertEquals(Long.valueOf(3L), dto.id);
+		assertEquals("John", dto.name);
+	}
+
+	private static Filter filter(String property, Object value) {
+		CypherFilter cypherFilter = new CypherFilter();
+		cypherFilter.setPropertyName(property);
+		cypherFilter.setPropertyPosition(0);
+		cypherFilter.setOwnerEntityType(User.class);
+		cypherFilter.setComparisonOperator(ComparisonOperator.EQUALS);
+		cypherFilter.getFunctionAdapter().setValueFromArgs(Collections.<Integer, Object>singletonMap(0, value));
+		return cypherFilter.toFilter();
+	}
+
+	private static ReturnedType returnedType(Class<?> type) {
+		return ReturnedType.of(type, User.class, new SpelAwareProxyProjectionFactory());
+	}
+
+	private static ResultProcessor processor(Class<?> type) {
+		ResultProcessor processor = mock(ResultProcessor.class);
+		when(processor.getReturnedType()).thenReturn(returnedType(type));
+		return processor;
+	}
+
+	static class User {
+
+		Long id;
+		String name;
+		List<User> friends;
+	}
+
+	interface UserSummary {
+
+		String getName();
+	}
+
+	interface UserWithFriends {
+
+		String getName();
+
+		List<UserSummary> getFriends();
+	}
+
+	static class UserDto {
+
+		final Long id;
+		final String name;
+
+		UserDto(Long id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+	}
+}
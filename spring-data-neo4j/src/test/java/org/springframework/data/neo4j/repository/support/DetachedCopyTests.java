@@ -0,0 +1,116 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.repository.support;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DetachedCopy}.
+ */
+public class DetachedCopyTests {
+
+	@Test
+	public void copiesEntityGraphPreservingIdentity() {
+		Person person = new Person(1L, "Tom");
+		Movie movie = new Movie(2L, "Big");
+		person.movies.add(movie);
+		movie.actors.add(person);
+
+		Person copy = DetachedCopy.of(person);
+
+		assertNotSame(person, copy);
+		assertEquals(Long.valueOf(1), copy.id);
+		assertSame(person.name, copy.name);
+		assertNotSame(person.movies, copy.movies);
+		assertNotSame(movie, copy.movies.get(0));
+		assertSame(copy, copy.movies.get(0).actors.get(0));
+		assertNotSame(person.born, copy.born);
+		assertEquals(person.born, copy.born);
+	}
+
+	@Test
+	public void mutatingCopyDoesNotChangeOriginal() {
+		Person person = new Person(1L, "Tom");
+
+		Person copy = DetachedCopy.of(person);
+		copy.name = "Tim";
+		copy.movies.add(new Movie(3L, "Splash"));
+
+		assertEquals("Tom", person.name);
+		assertTrue(person.movies.isEmpty());
+	}
+
+	@Test
+	public void copiesCollectionsOfEntities() {
+		List<Person> people = Arrays.asList(new Person(1L, "Tom"), new Person(2L, "Meg"));
+
+		List<Person> copy = DetachedCopy.of(people);
+
+		assertEquals(2, copy.size());
+		assertNotSame(people.get(0), copy.get(0));
+		assertEquals("Meg", copy.get(1).name);
+		assertNull(DetachedCopy.of(null));
+		assertSame("value", DetachedCopy.of("value"));
+	}
+
+	@Test
+	public void copiesContentOfOptional() {
+		Person person = new Person(1L, "Tom");
+
+		Optional<Person> copy = DetachedCopy.of(Optional.of(person));
+
+		assertTrue(copy.isPresent());
+		assertNotSame(person, copy.get());
+		assertEquals("Tom", copy.get().name);
+		assertFalse(DetachedCopy.of(Optional.empty()).isPresent());
+	}
+
+	@Test(expected = DetachedCopy.NotCopyableException.class)
+	public void refusesToCopyMutableJdkTypes() {
+		DetachedCopy.of(Arrays.asList(new Person(1L, "Tom"), new AtomicLong()));
+	}
+
+	static class Person {
+
+		Long id;
+		String name;
+		Date born = new Date(0);
+		List<Movie> movies = new ArrayList<>();
+
+		Person(Long id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+	}
+
+	static class Movie {
+
+		Long id;
+		String title;
+		List<Person> actors = new ArrayList<>();
+
+		Movie(Long id, String title) {
+			this.id = id;
+			this.title = title;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.repository.support;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.neo4j.ogm.session.Session;
+
+/**
+ * Unit tests for {@link EntityWriteOrder} and the ordered batch writes of {@link SimpleNeo4jRepository}.
+ */
+public class EntityWriteOrderTests {
+
+	private Session session;
+
+	@Before
+	public void setUp() {
+		session = mock(Session.class);
+	}
+
+	@Test
+	public void ordersExistingEntitiesByIdThenNewComparableEntitiesThenOthers() {
+		Object other = new Object();
+		Name bob = new Name("bob");
+		Name alice = new Name("alice");
+		Name existing = new Name("zoe");
+		Object second = new Object();
+		when(session.resolveGraphIdFor(existing)).thenReturn(7L);
+		when(session.resolveGraphIdFor(second)).thenReturn(3L);
+
+		List<Object> sorted = EntityWriteOrder.sort(Arrays.asList(other, bob, existing, alice, second), session);
+
+		assertEquals(Arrays.asList(second, existing, alice, bob, other), sorted);
+	}
+
+	@Test
+	public void savesAndDeletesInIdOrderWhenEnabled() {
+		Name first = new Name("a");
+		Name second = new Name("b");
+		when(session.resolveGraphIdFor(first)).thenReturn(1L);
+		when(session.resolveGraphIdFor(second)).thenReturn(2L);
+		SimpleNeo4jRepository<Name, Long> repository = new SimpleNeo4jRepository<>(Name.class, session);
+		repository.setOrderedWrites(true);
+
+		repository.save(Arrays.asList(second, first));
+		repository.delete(Arrays.asList(second, first));
+
+		InOrder inOrder = inOrder(session);
+		inOrder.verify(session).save(first);
+		inOrder.verify(session).save(second);
+		inOrder.verify(session).delete(first);
+		inOrder.verify(session).delete(second);
+	}
+
+	@Test
+	public void savesEachEntityWithDepthInIdOrderWhenEnabled() {
+		Name first = new Name("a");
+		Name second = new Name("b");
+		when(session.resolveGraphIdFor(first)).thenReturn(1L);
+		when(session.resolveGraphIdFor(second)).thenReturn(2L);
+		SimpleNeo4jRepository<Name, Long> repository = new SimpleNeo4jRepository<>(Name.class, session);
+		repository.setOrderedWrites(true);
+
+		repository.save(Arrays.asList(second, first), 1);
+
+		InOrder inOrder = inOrder(session);
+		inOrder.verify(session).save(first, 1);
+		inOrder.verify(session).save(second, 1);
+		verify(session, never()).save(anyCollectionOf(Name.class), anyInt());
+	}
+
+	@Test
+	public void keepsIterationOrderByDefault() {
+		Name first = new Name("a");
+		Name second = new Name("b");
+		when(session.resolveGraphIdFor(first)).thenReturn(1L);
+		when(session.resolveGraphIdFor(second)).thenReturn(2L);
+		SimpleNeo4jRepository<Name, Long> repository = new SimpleNeo4jRepository<>(Name.class, session);
+
+		repository.save(Arrays.asList(second, first));
+
+		InOrder inOrder = inOrder(session);
+		inOrder.verify(session).save(second);
+		inOrder.verify(session).save(first);
+	}
+
+	static class Name implements Comparable<Name> {
+
+		Long id;
+		final String value;
+
+		Name(String value) {
+			this.value = value;
+		}
+
+		@Override
+		public int compareTo(Name other) {
+			return value.compareTo(other.value);
+		}
+	}
+}
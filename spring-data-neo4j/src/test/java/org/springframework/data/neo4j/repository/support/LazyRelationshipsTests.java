@@ -0,0 +1,161 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.annotation.Relationship;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.model.Result;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.annotation.LazyRelationship;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+
+/**
+ * Unit tests for {@link LazyRelationships}.
+ */
+public class LazyRelationshipsTests {
+
+	private Session session;
+	private LazyRelationships lazyRelationships;
+
+	@Before
+	public void setUp() {
+		ClassInfo classInfo = mock(ClassInfo.class);
+		when(classInfo.name()).thenReturn(Person.class.getName());
+		when(classInfo.isInterface()).thenReturn(true);
+		FieldInfo fieldInfo = mock(FieldInfo.class);
+		when(fieldInfo.relationship()).thenReturn("FOLLOWS");
+		when(classInfo.relationshipFieldByName("followers")).thenReturn(fieldInfo);
+		FieldInfo friendsInfo = mock(FieldInfo.class);
+		when(friendsInfo.relationship()).thenReturn("FRIEND");
+		when(classInfo.relationshipFieldByName("friends")).thenReturn(friendsInfo);
+		MetaData metaData = mock(MetaData.class);
+		when(metaData.persistentEntities()).thenReturn(Collections.singleton(classInfo));
+		when(metaData.classInfo(Person.class.getName())).thenReturn(classInfo);
+
+		session = mock(Session.class);
+		lazyRelationships = new LazyRelationships(session, new Neo4jMappingContext(metaData, 1), metaData);
+	}
+
+	@Test
+	public void loadsFieldOfAllEntitiesOfResultOnFirstAccess() {
+		Person first = person(1L);
+		Person second = person(2L);
+		Person follower = person(3L);
+		Result result = mock(Result.class);
+		when(result.queryResults()).thenReturn(Arrays.asList(row(1L, 3L), row(2L, 3L)));
+		when(session.query(anyString(), anyMapOf(String.class, Object.class))).thenReturn(result);
+		when(session.loadAll(Person.class, Arrays.asList(3L), 0)).thenReturn(Collections.singletonList(follower));
+
+		lazyRelationships.install(Arrays.asList(first, second));
+
+		assertFalse(LazyRelationships.isInitialized(first.followers));
+		assertFalse(LazyRelationships.isInitialized(second.followers));
+		assertNull(first.friends);
+		assertEquals(Collections.singleton(follower), first.followers);
+		assertTrue(LazyRelationships.isInitialized(second.followers));
+		assertEquals(Collections.singleton(follower), second.followers);
+		assertFalse(LazyRelationships.isInitialized(follower.followers));
+		verify(session).query(
+				"MATCH (n)<-[r:`FOLLOWS`]-(m) WHERE ID(n) IN {ids} RETURN ID(n) AS owner, ID(m) AS neighbour ORDER BY ID(r)",
+				Collections.<String, Object>singletonMap("ids", Arrays.asList(1L, 2L)));
+		verify(session, times(1)).query(anyString(), anyMapOf(String.class, Object.class));
+	}
+
+	@Test
+	public void detachedCopiesKeepUnloadedRelationshipsLazy() {
+		Person first = person(1L);
+		Person second = person(2L);
+		Person follower = person(3L);
+		Result result = mock(Result.class);
+		when(result.queryResults()).thenReturn(Arrays.asList(row(1L, 3L), row(2L, 3L)));
+		when(session.query(anyString(), anyMapOf(String.class, Object.class))).thenReturn(result);
+		when(session.loadAll(Person.class, Arrays.asList(3L), 0)).thenReturn(Collections.singletonList(follower));
+		lazyRelationships.install(Arrays.asList(first, second));
+
+		List<Person> copies = DetachedCopy.of(Arrays.asList(first, second));
+
+		assertNotSame(first.followers, copies.get(0).followers);
+		assertFalse(LazyRelationships.isInitialized(copies.get(0).followers));
+		assertEquals(Collections.singleton(follower), copies.get(0).followers);
+		assertTrue(LazyRelationships.isInitialized(copies.get(1).followers));
+		assertFalse(LazyRelationships.isInitialized(first.followers));
+		verify(session, times(1)).query(anyString(), anyMapOf(String.class, Object.class));
+	}
+
+	@Test
+	public void leavesLoadedRelationshipsAlone() {
+		Person person = person(1L);
+		Person follower = person(2L);
+		person.followers.add(follower);
+		Set<Person> followers = person.followers;
+
+		assertSame(person, lazyRelationships.install(person));
+
+		assertSame(followers, person.followers);
+		verify(session, never()).query(anyString(), anyMapOf(String.class, Object.class));
+	}
+
+	@Test
+	public void reportsRelationshipTypesOnlyMappedByLazyFields() {
+		assertEquals(Collections.singleton("FOLLOWS"), lazyRelationships.getLazyRelationshipTypes());
+	}
+
+	@Test
+	public void ignoresResultsWithoutEntities() {
+		assertEquals(Long.valueOf(42L), lazyRelationships.install(42L));
+		verify(session, never()).resolveGraphIdFor(any());
+	}
+
+	private Person person(Long id) {
+		Person person = new Person();
+		person.id = id;
+		when(session.resolveGraphIdFor(person)).thenReturn(id);
+		return person;
+	}
+
+	private static Map<String, Object> row(Long owner, Long neighbour) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("owner", owner);
+		row.put("neighbour", neighbour);
+		return row;
+	}
+
+	static class Person {
+
+		Long id;
+
+		@LazyRelationship
+		@Relationship(type = "FOLLOWS", direction = Relationship.INCOMING)
+		Set<Person> followers = new HashSet<>();
+
+		@Relationship(type = "FRIEND")
+		List<Person> friends;
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.ogm.config.Configuration;
+import org.neo4j.ogm.exception.CypherException;
+import org.neo4j.ogm.session.SessionFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.neo4j.domain.sample.User;
+import org.springframework.data.neo4j.transaction.Neo4jTransactionManager;
+import org.springframework.data.neo4j.transaction.SharedSessionCreator;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmark of concurrent {@link SimpleNeo4jRepository#save(Iterable)} and
+ * {@link SimpleNeo4jRepository#save(Iterable, int)} calls updating overlapping, shuffled batches of the same few nodes
+ * on the embedded driver, with and without {@link SimpleNeo4jRepository#setOrderedWrites(boolean) ordered writes}.
+ * Besides the throughput, the {@code commits} and {@code deadlocks} counters report how many batches committed and
+ * how many were rolled back because Neo4j detected a deadlock.
+ * <p>
+ * Run with {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class OrderedWritesBenchmark {
+
+	private static final int NODES = 20;
+	private static final int BATCH_SIZE = 10;
+	private static final String DEADLOCK_DETECTED = "Neo.TransientError.Transaction.DeadlockDetected";
+
+	@Param({ "false", "true" })
+	public boolean orderedWrites;
+
+	/**
+	 * The depth passed to {@code save(Iterable, int)}, {@literal -1} to call {@code save(Iterable)}.
+	 */
+	@Param({ "-1", "0" })
+	public int depth;
+
+	private SimpleNeo4jRepository<User, Long> repository;
+	private TransactionTemplate transactionTemplate;
+	private final List<Long> ids = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void createNodes() {
+		Configuration configuration = new Configuration();
+		configuration.driverConfiguration().setDriverClassName("org.neo4j.ogm.drivers.embedded.driver.EmbeddedDriver");
+		SessionFactory sessionFactory = new SessionFactory(configuration, User.class.getPackage().getName());
+		transactionTemplate = new TransactionTemplate(new Neo4jTransactionManager(sessionFactory));
+		repository = new SimpleNeo4jRepository<>(User.class, SharedSessionCreator.createSharedSession(sessionFactory));
+		repository.setOrderedWrites(orderedWrites);
+
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				for (int i = 0; i < NODES; i++) {
+					ids.add(repository.save(new User("user" + i, "benchmark", "user" + i + "@example.org")).getId());
+				}
+			}
+		});
+	}
+
+	@Benchmark
+	public void saveShuffledBatch(Outcomes outcomes) {
+		List<Long> shuffled = new ArrayList<>(ids);
+		Collections.shuffle(shuffled, ThreadLocalRandom.current());
+		final List<Long> batch = shuffled.subList(0, BATCH_SIZE);
+		try {
+			transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+				@Override
+				protected void doInTransactionWithoutResult(TransactionStatus status) {
+					List<User> users = new ArrayList<>();
+					for (User user : repository.findAll(batch, 0)) {
+						user.setAge(user.getAge() + 1);
+						users.add(user);
+					}
+					Collections.shuffle(users, ThreadLocalRandom.current());
+					if (depth < 0) {
+						repository.save(users);
+					} else {
+						repository.save(users, depth);
+					}
+				}
+			});
+			outcomes.commits++;
+		} catch (RuntimeException e) {
+			if (!isDeadlock(e)) {
+				throw e;
+			}
+			outcomes.deadlocks++;
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(OrderedWritesBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	/*
+	 * The embedded driver may surface the kernel exception rather than a CypherException carrying the status code
+	 */
+	private static boolean isDeadlock(Throwable ex) {
+		for (Throwable current = ex; current != null && current.getCause() != current; current = current.getCause()) {
+			if (current instanceof CypherException && DEADLOCK_DETECTED.equals(((CypherException) current).getCode())
+					|| current.getClass().getSimpleName().equals("DeadlockDetectedException")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Per-thread outcomes of the batches, reported as additional results.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Outcomes {
+
+		public long commits;
+		public long deadlocks;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			commits = 0;
+			deadlocks = 0;
+		}
+	}
+}
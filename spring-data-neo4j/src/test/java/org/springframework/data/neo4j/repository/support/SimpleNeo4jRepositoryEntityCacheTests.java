@@ -0,0 +1,189 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.repository.support;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.repository.cache.EntityCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for the {@link EntityCache} lookups of {@link SimpleNeo4jRepository}.
+ */
+public class SimpleNeo4jRepositoryEntityCacheTests {
+
+	private Session session;
+	private EntityCache entityCache;
+	private SimpleNeo4jRepository<Person, Long> repository;
+
+	@Before
+	public void setUp() {
+		session = mock(Session.class);
+		entityCache = new EntityCache();
+		repository = new SimpleNeo4jRepository<>(Person.class, session);
+		repository.setEntityCache(entityCache);
+	}
+
+	@After
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		TransactionSynchronizationManager.unbindResourceIfPossible(entityCache);
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	public void servesRepeatedFindOneFromCache() {
+		Person person = person(1L);
+		when(session.load(Person.class, 1L, 1)).thenReturn(person);
+
+		assertEquals(Long.valueOf(1L), repository.findOne(1L).id);
+		assertEquals(Long.valueOf(1L), repository.findOne(1L, 1).id);
+		assertEquals(Long.valueOf(1L), repository.findOne(1L, 0).id);
+
+		verify(session, times(1)).load(Person.class, 1L, 1);
+		assertEquals(2, entityCache.getHitCount());
+	}
+
+	@Test
+	public void loadsOnlyMissingIdsOfFindAll() {
+		Person first = person(1L);
+		Person second = person(2L);
+		when(session.load(Person.class, 1L, 1)).thenReturn(first);
+		when(session.loadAll(Person.class, Collections.singletonList(2L), 1)).thenReturn(Collections.singletonList(second));
+		when(session.resolveGraphIdFor(second)).thenReturn(2L);
+		repository.findOne(1L);
+
+		assertEquals(Arrays.asList(2L, 1L), idsOf(repository.findAll(Arrays.asList(2L, 1L))));
+		assertEquals(Arrays.asList(1L, 2L), idsOf(repository.findAll(Arrays.asList(1L, 2L))));
+
+		verify(session, times(1)).loadAll(Person.class, Collections.singletonList(2L), 1);
+	}
+
+	@Test
+	public void bypassesCacheWithinReadWriteTransactions() {
+		Person person = person(1L);
+		when(session.load(Person.class, 1L, 1)).thenReturn(person);
+		repository.findOne(1L);
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+
+		repository.findOne(1L);
+
+		verify(session, times(2)).load(Person.class, 1L, 1);
+	}
+
+	@Test
+	public void evictsSavedEntity() {
+		Person person = person(1L);
+		when(session.load(Person.class, 1L, 1)).thenReturn(person);
+		when(session.resolveGraphIdFor(person)).thenReturn(1L);
+		repository.findOne(1L);
+
+		repository.save(person, 0);
+		repository.findOne(1L);
+
+		verify(session, times(2)).load(Person.class, 1L, 1);
+	}
+
+	@Test
+	public void handsOutCopiesOfCachedEntities() {
+		Person person = person(1L);
+		person.name = "Frodo";
+		when(session.load(Person.class, 1L, 1)).thenReturn(person);
+		repository.findOne(1L);
+
+		Person first = repository.findOne(1L);
+		Person second = repository.findOne(1L);
+		first.name = "Bilbo";
+		person.name = "Sam";
+
+		assertNotSame(first, second);
+		assertEquals("Frodo", second.name);
+		assertEquals("Frodo", repository.findOne(1L).name);
+	}
+
+	@Test
+	public void handsOutCopiesOfLoadedEntities() {
+		Person person = person(1L);
+		person.name = "Frodo";
+		when(session.load(Person.class, 1L, 1)).thenReturn(person);
+
+		Person loaded = repository.findOne(1L);
+		loaded.name = "Bilbo";
+
+		assertNotSame(person, loaded);
+		assertEquals("Frodo", repository.findOne(1L).name);
+	}
+
+	@Test
+	public void evictsEntityModifiedInRolledBackTransaction() {
+		Person person = person(1L);
+		person.name = "Frodo";
+		when(session.load(Person.class, 1L, 1)).thenReturn(person);
+		when(session.resolveGraphIdFor(person)).thenReturn(1L);
+		repository.findOne(1L);
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+
+		Person modified = repository.findOne(1L);
+		modified.name = "Bilbo";
+		repository.save(modified, 0);
+		completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+		repository.findOne(1L);
+
+		verify(session, times(3)).load(Person.class, 1L, 1);
+		assertEquals(0, entityCache.getHitCount());
+	}
+
+	private static void completeTransaction(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+		for (TransactionSynchronization synchronization : synchronizations) {
+			synchronization.afterCompletion(status);
+		}
+	}
+
+	private static List<Long> idsOf(Iterable<Person> people) {
+		List<Long> ids = new ArrayList<>();
+		for (Person person : people) {
+			ids.add(person.id);
+		}
+		return ids;
+	}
+
+	private static Person person(Long id) {
+		Person person = new Person();
+		person.id = id;
+		return person;
+	}
+
+	static class Person {
+
+		Long id;
+		String name;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.transaction.Transaction;
+import org.springframework.data.neo4j.exception.ChunkFailedException;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for {@link ChunkedTransactionTemplate}.
+ */
+public class ChunkedTransactionTemplateTests {
+
+	private static final List<Integer> ITEMS = Arrays.asList(1, 2, 3, 4, 5);
+
+	private SessionFactory sessionFactory;
+	private Session session;
+	private Transaction transaction;
+	private Neo4jTransactionManager transactionManager;
+	private ChunkedTransactionTemplate template;
+	private List<ChunkProgress> progress;
+
+	@Before
+	public void setUp() {
+		sessionFactory = mock(SessionFactory.class);
+		session = mock(Session.class);
+		transaction = mock(Transaction.class);
+		when(sessionFactory.openSession()).thenReturn(session);
+		when(session.getTransaction()).thenReturn(transaction);
+
+		transactionManager = new Neo4jTransactionManager(sessionFactory);
+		template = new ChunkedTransactionTemplate(transactionManager);
+		template.setChunkSize(2);
+		progress = new ArrayList<>();
+		template.setListener(new ChunkListener() {
+			@Override
+			public void chunkCommitted(ChunkProgress chunkProgress) {
+				progress.add(chunkProgress);
+			}
+		});
+	}
+
+	@After
+	public void tearDown() {
+		assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+		assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+	}
+
+	@Test
+	public void commitsEveryChunkSizeItems() {
+		final List<Integer> processed = new ArrayList<>();
+
+		ChunkProgress result = template.execute(ITEMS, new ChunkCallback<Integer>() {
+			@Override
+			public void doWithItem(Integer item) {
+				assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+				processed.add(item);
+			}
+		});
+
+		assertEquals(ITEMS, processed);
+		verify(transaction, times(3)).commit();
+		assertEquals(3, progress.size());
+		assertEquals(2, progress.get(0).getCommittedCount());
+		assertEquals(4, progress.get(1).getCommittedCount());
+		assertEquals(1, result.getChunkSize());
+		assertEquals(5, result.getCommittedCount());
+		assertEquals(3, result.getChunks());
+	}
+
+	@Test
+	public void rollsBackFailedChunkAndResumesAfterLastCommittedChunk() {
+		final List<Integer> processed = new ArrayList<>();
+		ChunkCallback<Integer> failingOnFour = new ChunkCallback<Integer>() {
+			@Override
+			public void doWithItem(Integer item) {
+				if (item == 4 && !processed.contains(-4)) {
+					processed.add(-4);
+					throw new IllegalStateException("boom");
+				}
+				processed.add(item);
+			}
+		};
+
+		try {
+			template.execute(ITEMS, failingOnFour);
+			fail("Expected ChunkFailedException");
+		} catch (ChunkFailedException e) {
+			assertEquals(2, e.getCommittedCount());
+			assertEquals(2, e.getChunkNumber());
+			assertTrue(e.getCause() instanceof IllegalStateException);
+
+			template.execute(ITEMS, e.getCommittedCount(), failingOnFour);
+		}
+
+		assertEquals(Arrays.asList(1, 2, 3, -4, 3, 4, 5), processed);
+		verify(transaction).rollback();
+		verify(transaction, times(3)).commit();
+		assertEquals(5, progress.get(progress.size() - 1).getCommittedCount());
+		assertEquals(3, progress.get(progress.size() - 1).getProcessedCount());
+	}
+
+	@Test
+	public void commitsChunkOnceMaxChunkTimeHasElapsed() {
+		template.setChunkSize(100);
+		template.setMaxChunkMillis(1);
+
+		template.execute(ITEMS.subList(0, 3), new ChunkCallback<Integer>() {
+			@Override
+			public void doWithItem(Integer item) {
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+
+		verify(transaction, times(3)).commit();
+		assertEquals(3, progress.size());
+	}
+
+	@Test
+	public void clearsSessionBoundOutsideOfTransactionAfterEachChunk() {
+		Session bound = mock(Session.class);
+		when(bound.getTransaction()).thenReturn(transaction);
+		TransactionSynchronizationManager.bindResource(sessionFactory, new SessionHolder(bound));
+		try {
+			template.execute(ITEMS, new ChunkCallback<Integer>() {
+				@Override
+				public void doWithItem(Integer item) {}
+			});
+		} finally {
+			TransactionSynchronizationManager.unbindResource(sessionFactory);
+		}
+
+		verify(bound, times(3)).clear();
+	}
+
+	@Test
+	public void rejectsJobWithinTransactionOnEmbeddedDriver() {
+		transactionManager.setEmbeddedDriver(true);
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			template.execute(ITEMS, new ChunkCallback<Integer>() {
+				@Override
+				public void doWithItem(Integer item) {
+					fail("No chunk must run");
+				}
+			});
+			fail("Expected IllegalTransactionStateException");
+		} catch (IllegalTransactionStateException e) {
+			assertTrue(e.getMessage().contains("embedded driver"));
+		} finally {
+			TransactionSynchronizationManager.setActualTransactionActive(false);
+		}
+
+		verify(sessionFactory, never()).openSession();
+		assertTrue(progress.isEmpty());
+	}
+}
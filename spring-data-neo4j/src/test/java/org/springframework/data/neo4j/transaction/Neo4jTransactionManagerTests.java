@@ -16,6 +16,12 @@ import org.neo4j.ogm.model.Result;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
 import org.neo4j.ogm.transaction.Transaction;
+import org.springframework.data.neo4j.exception.QueryTimeoutException;
+import org.springframework.data.neo4j.metrics.TransactionMetricsRecorder;
+import org.springframework.data.neo4j.metrics.TransactionRollbackCause;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.UnexpectedRollbackException;
 import org.springframework.transaction.support.TransactionCallback;
@@ -45,6 +51,7 @@ public class Neo4jTransactionManagerTests {
 		tx = mock(Transaction.class);
 
 		tm = new Neo4jTransactionManager(sf);
+		tm.setEmbeddedDriver(false);
 		tt = new TransactionTemplate(tm);
 
 		given(session.getTransaction()).willReturn(tx);
@@ -146,6 +153,58 @@ public class Neo4jTransactionManagerTests {
 		verify(tx).close();
 	}
 
+	@Test
+	public void testTransactionTimeout() throws Exception {
+
+		tt.setTimeout(1);
+
+		try {
+			tt.execute(new TransactionCallback() {
+				@Override
+				public Object doInTransaction(TransactionStatus status) {
+					sleep(1500);
+					return null;
+				}
+			});
+			fail("Should have thrown QueryTimeoutException");
+		} catch (QueryTimeoutException ex) {
+			// expected
+		}
+
+		assertFalse("Thread interrupted", Thread.currentThread().isInterrupted());
+		assertTrue("Transaction Synchronization still has a thread bound session", !TransactionSynchronizationManager.hasResource(sf));
+
+		verify(session).beginTransaction();
+		verify(tx, never()).commit();
+		verify(tx).rollback();
+		verify(tx).close();
+		assertEquals(1, tm.getTimeoutRollbackCount());
+		assertEquals(0, tm.getCommitCount());
+	}
+
+	@Test
+	public void testTransactionTimeoutIgnoresFailedRollbackOfEndedTransaction() throws Exception {
+
+		willThrow(new IllegalStateException("Transaction terminated")).given(tx).rollback();
+		tt.setTimeout(1);
+
+		try {
+			tt.execute(new TransactionCallback() {
+				@Override
+				public Object doInTransaction(TransactionStatus status) {
+					sleep(1500);
+					return null;
+				}
+			});
+			fail("Should have thrown QueryTimeoutException");
+		} catch (QueryTimeoutException ex) {
+			// expected
+		}
+
+		assertTrue("Transaction Synchronization still has a thread bound session", !TransactionSynchronizationManager.hasResource(sf));
+		assertEquals(1, tm.getTimeoutRollbackCount());
+	}
+
 	@Test
 	public void testParticipatingTransactionWithCommit() throws Exception {
 		final List l = new ArrayList();
@@ -194,6 +253,134 @@ public class Neo4jTransactionManagerTests {
 		verify(tx).close();
 	}
 
+	@Test
+	public void testRequiresNewSuspendsTransactionAndUsesFreshSession() throws Exception {
+		final Session newSession = mock(Session.class);
+		Transaction newTx = mock(Transaction.class);
+		given(sf.openSession()).willReturn(session, newSession);
+		given(newSession.getTransaction()).willReturn(newTx);
+		final TransactionTemplate requiresNew = new TransactionTemplate(tm);
+		requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		tt.execute(new TransactionCallback() {
+			@Override
+			public Object doInTransaction(TransactionStatus status) {
+				requiresNew.execute(new TransactionCallback() {
+					@Override
+					public Object doInTransaction(TransactionStatus status) {
+						assertTrue(status.isNewTransaction());
+						assertSame(newSession, ((SessionHolder) TransactionSynchronizationManager.getResource(sf)).getSession());
+						return null;
+					}
+				});
+				assertSame(session, ((SessionHolder) TransactionSynchronizationManager.getResource(sf)).getSession());
+				return null;
+			}
+		});
+
+		verify(session).beginTransaction();
+		verify(newSession).beginTransaction();
+		verify(newTx).commit();
+		verify(tx).commit();
+	}
+
+	@Test
+	public void testRequiresNewWithinTransactionIsRejectedWithEmbeddedDriver() throws Exception {
+		tm.setEmbeddedDriver(true);
+		final TransactionTemplate requiresNew = new TransactionTemplate(tm);
+		requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		tt.execute(new TransactionCallback() {
+			@Override
+			public Object doInTransaction(TransactionStatus status) {
+				try {
+					requiresNew.execute(new TransactionCallback() {
+						@Override
+						public Object doInTransaction(TransactionStatus status) {
+							fail("Should not begin a new transaction");
+							return null;
+						}
+					});
+					fail("Should have thrown IllegalTransactionStateException");
+				} catch (IllegalTransactionStateException expected) {
+				}
+				assertSame(session, ((SessionHolder) TransactionSynchronizationManager.getResource(sf)).getSession());
+				return null;
+			}
+		});
+
+		verify(sf, times(1)).openSession();
+		verify(session, times(1)).beginTransaction();
+		verify(tx).commit();
+	}
+
+	@Test
+	public void testRequiresNewWithoutTransactionIsAllowedWithEmbeddedDriver() throws Exception {
+		tm.setEmbeddedDriver(true);
+		tt.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		tt.execute(new TransactionCallback() {
+			@Override
+			public Object doInTransaction(TransactionStatus status) {
+				assertTrue(status.isNewTransaction());
+				return null;
+			}
+		});
+
+		verify(tx).commit();
+	}
+
+	@Test
+	public void testSupportsWithoutTransactionRunsInAutoCommit() throws Exception {
+		final Session sharedSession = SharedSessionCreator.createSharedSession(sf);
+		tt.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+
+		tt.execute(new TransactionCallback() {
+			@Override
+			public Object doInTransaction(TransactionStatus status) {
+				assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+				assertFalse(TransactionSynchronizationManager.hasResource(sf));
+				sharedSession.query("MATCH (n) RETURN n", Collections.<String, Object>emptyMap());
+				return null;
+			}
+		});
+
+		verify(session).query("MATCH (n) RETURN n", Collections.<String, Object>emptyMap());
+		verify(session, never()).beginTransaction();
+		verify(tx, never()).commit();
+	}
+
+	@Test
+	public void testNotSupportedSuspendsTransaction() throws Exception {
+		final Session autoCommitSession = mock(Session.class);
+		given(sf.openSession()).willReturn(session, autoCommitSession);
+		final Session sharedSession = SharedSessionCreator.createSharedSession(sf);
+		final TransactionTemplate notSupported = new TransactionTemplate(tm);
+		notSupported.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+
+		tt.execute(new TransactionCallback() {
+			@Override
+			public Object doInTransaction(TransactionStatus status) {
+				notSupported.execute(new TransactionCallback() {
+					@Override
+					public Object doInTransaction(TransactionStatus status) {
+						assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+						assertFalse(TransactionSynchronizationManager.hasResource(sf));
+						sharedSession.query("MATCH (n) RETURN n", Collections.<String, Object>emptyMap());
+						return null;
+					}
+				});
+				assertTrue(TransactionSynchronizationManager.hasResource(sf));
+				return null;
+			}
+		});
+
+		verify(autoCommitSession).query("MATCH (n) RETURN n", Collections.<String, Object>emptyMap());
+		verify(autoCommitSession, never()).beginTransaction();
+		verify(session).beginTransaction();
+		verify(tx).commit();
+	}
+
 	@Test
 	@Ignore("Still being tested. Not sure why this is failing.")
 	public void testParticipatingTransactionWithRollbackOnly() throws Exception {
@@ -221,6 +408,115 @@ public class Neo4jTransactionManagerTests {
 		verify(tx).close();
 	}
 
+	@Test
+	public void testTransactionMetricsOfCommittedAndRolledBackTransactions() throws Exception {
+		TransactionMetricsRecorder recorder = mock(TransactionMetricsRecorder.class);
+		tm.setTransactionMetricsRecorder(recorder);
+
+		tt.execute(new TransactionCallback() {
+			@Override
+			public Object doInTransaction(TransactionStatus status) {
+				assertEquals(1, tm.getActiveTransactionCount());
+				assertEquals(0, tm.getActiveReadOnlyTransactionCount());
+				return null;
+			}
+		});
+
+		tt.setReadOnly(true);
+		try {
+			tt.execute(new TransactionCallback() {
+				@Override
+				public Object doInTransaction(TransactionStatus status) {
+					assertEquals(1, tm.getActiveReadOnlyTransactionCount());
+					throw new RuntimeException("application exception");
+				}
+			});
+			fail("Should have thrown RuntimeException");
+		} catch (RuntimeException ex) {
+			// expected
+		}
+
+		assertEquals(0, tm.getActiveTransactionCount());
+		assertEquals(1, tm.getReadWriteTransactionCount());
+		assertEquals(1, tm.getReadOnlyTransactionCount());
+		assertEquals(1, tm.getCommitCount());
+		assertEquals(1, tm.getRollbackCount());
+		assertEquals(1, tm.getApplicationRollbackCount());
+		assertTrue(tm.getTransactionMaxMillis() >= 0);
+
+		verify(recorder).recordTransactionBegin(eq(false), anyLong(), eq(true));
+		verify(recorder).recordTransactionCommit(eq(false), anyLong(), eq(true));
+		verify(recorder).recordTransactionCompletion(eq(false), anyLong());
+		verify(recorder).recordTransactionBegin(eq(true), anyLong(), eq(true));
+		verify(recorder).recordTransactionRollback(true, TransactionRollbackCause.APPLICATION);
+		verify(recorder).recordTransactionCompletion(eq(true), anyLong());
+
+		tm.resetStatistics();
+		assertEquals(0, tm.getReadWriteTransactionCount());
+		assertEquals(0, tm.getRollbackCount());
+	}
+
+	@Test
+	public void testTransactionMetricsOfRollbackOnlyAndFailedCommit() throws Exception {
+		TransactionMetricsRecorder recorder = mock(TransactionMetricsRecorder.class);
+		tm.setTransactionMetricsRecorder(recorder);
+
+		tt.execute(new TransactionCallback() {
+			@Override
+			public Object doInTransaction(TransactionStatus status) {
+				status.setRollbackOnly();
+				return null;
+			}
+		});
+
+		willThrow(new RuntimeException("commit failed")).given(tx).commit();
+		try {
+			tt.execute(new TransactionCallback() {
+				@Override
+				public Object doInTransaction(TransactionStatus status) {
+					return null;
+				}
+			});
+			fail("Should have thrown RuntimeException");
+		} catch (RuntimeException ex) {
+			// expected
+		}
+
+		assertEquals(0, tm.getActiveTransactionCount());
+		assertEquals(0, tm.getCommitCount());
+		assertEquals(1, tm.getCommitFailureCount());
+		assertEquals(1, tm.getRollbackOnlyRollbackCount());
+		assertEquals(1, tm.getCommitFailureRollbackCount());
+		assertEquals(2, tm.getRollbackCount());
+
+		verify(recorder).recordTransactionRollback(false, TransactionRollbackCause.ROLLBACK_ONLY);
+		verify(recorder).recordTransactionCommit(eq(false), anyLong(), eq(false));
+		verify(recorder).recordTransactionRollback(false, TransactionRollbackCause.COMMIT_FAILURE);
+		verify(recorder, times(2)).recordTransactionCompletion(eq(false), anyLong());
+	}
+
+	@Test
+	public void testBeginFailureIsCountedButNotActive() throws Exception {
+		given(session.beginTransaction()).willThrow(new RuntimeException("no connection"));
+
+		try {
+			tt.execute(new TransactionCallback() {
+				@Override
+				public Object doInTransaction(TransactionStatus status) {
+					fail("Should not have begun a transaction");
+					return null;
+				}
+			});
+			fail("Should have thrown CannotCreateTransactionException");
+		} catch (CannotCreateTransactionException ex) {
+			// expected
+		}
+
+		assertEquals(1, tm.getBeginFailureCount());
+		assertEquals(0, tm.getActiveTransactionCount());
+		assertEquals(0, tm.getReadWriteTransactionCount());
+	}
+
 //
 //	@Test
 //	public void testTransactionCommitWithPreBound() throws Exception {
@@ -410,4 +706,12 @@ public class Neo4jTransactionManagerTests {
 //		assertTrue(!TransactionSynchronizationManager.isSynchronizationActive());
 //	}
 //
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException ex) {
+			fail("Should not have been interrupted");
+		}
+	}
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.transaction;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link QueryTimeoutWatchdog}.
+ */
+public class QueryTimeoutWatchdogTests {
+
+	private final QueryTimeoutWatchdog watchdog = new QueryTimeoutWatchdog();
+
+	@After
+	public void tearDown() {
+		watchdog.destroy();
+	}
+
+	@Test
+	public void endsTransactionOnceTimeoutElapsed() throws Exception {
+		final CountDownLatch ended = new CountDownLatch(1);
+		QueryTimeoutWatchdog.Watch watch = watchdog.start("PersonRepository.findAll", 50, new Runnable() {
+			@Override
+			public void run() {
+				ended.countDown();
+			}
+		});
+
+		assertTrue(ended.await(5, TimeUnit.SECONDS));
+		assertTrue(watch.isExpired());
+		assertTrue(watch.stop());
+		assertFalse(Thread.currentThread().isInterrupted());
+		assertEquals(1, watchdog.getTimeoutCount("PersonRepository.findAll"));
+		assertEquals(Long.valueOf(1), watchdog.getTimeoutCounts().get("PersonRepository.findAll"));
+	}
+
+	@Test
+	public void doesNotEndTransactionOfWorkStoppedInTime() throws Exception {
+		Runnable expiryAction = mock(Runnable.class);
+		QueryTimeoutWatchdog.Watch watch = watchdog.start("PersonRepository.findAll", 100, expiryAction);
+
+		assertFalse(watch.stop());
+		Thread.sleep(200);
+
+		assertFalse(watch.isExpired());
+		verify(expiryAction, never()).run();
+		assertEquals(0, watchdog.getTimeoutCount("PersonRepository.findAll"));
+	}
+
+	@Test
+	public void reportsExpiryOfWorkOutsideOfTransaction() throws Exception {
+		QueryTimeoutWatchdog.Watch watch = watchdog.start("PersonRepository.findAll", 50);
+		Thread.sleep(200);
+
+		assertTrue(watch.stop());
+		assertFalse(Thread.currentThread().isInterrupted());
+	}
+
+	@Test
+	public void terminatesNativeEmbeddedTransaction() {
+		org.neo4j.graphdb.Transaction nativeTransaction = mock(org.neo4j.graphdb.Transaction.class);
+
+		assertTrue(TransactionTerminator.terminate(new EmbeddedTransactionStub(nativeTransaction)));
+		verify(nativeTransaction).terminate();
+		assertFalse(TransactionTerminator.terminate(new Object()));
+		assertFalse(TransactionTerminator.terminate(null));
+	}
+
+	static class EmbeddedTransactionStub {
+
+		private final org.neo4j.graphdb.Transaction nativeTransaction;
+
+		EmbeddedTransactionStub(org.neo4j.graphdb.Transaction nativeTransaction) {
+			this.nativeTransaction = nativeTransaction;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.transaction.Transaction;
+
+/**
+ * Unit tests for {@link SessionPool}.
+ */
+public class SessionPoolTests {
+
+	private SessionFactory sessionFactory;
+	private Session first;
+	private Session second;
+
+	@Before
+	public void setUp() {
+		sessionFactory = mock(SessionFactory.class);
+		first = mock(Session.class);
+		second = mock(Session.class);
+		when(sessionFactory.openSession()).thenReturn(first, second);
+	}
+
+	@Test
+	public void reusesClearedSessions() {
+		SessionPool pool = new SessionPool(2, 60000);
+
+		Session session = pool.acquire(sessionFactory);
+		pool.release(sessionFactory, session);
+
+		assertSame(first, pool.acquire(sessionFactory));
+		assertSame(second, pool.acquire(sessionFactory));
+		verify(first).clear();
+		verify(sessionFactory, times(2)).openSession();
+	}
+
+	@Test
+	public void dropsSessionsBeyondMaximum() {
+		SessionPool pool = new SessionPool(1, 60000);
+
+		Session session1 = pool.acquire(sessionFactory);
+		Session session2 = pool.acquire(sessionFactory);
+		pool.release(sessionFactory, session1);
+		pool.release(sessionFactory, session2);
+
+		assertEquals(1, pool.getIdleCount(sessionFactory));
+	}
+
+	@Test
+	public void dropsSessionsWithTransaction() {
+		SessionPool pool = new SessionPool(1, 60000);
+		when(first.getTransaction()).thenReturn(mock(Transaction.class));
+
+		pool.release(sessionFactory, pool.acquire(sessionFactory));
+
+		assertEquals(0, pool.getIdleCount(sessionFactory));
+		verify(first, never()).clear();
+	}
+
+	@Test
+	public void dropsIdleSessionsAfterTimeout() throws Exception {
+		SessionPool pool = new SessionPool(2, 1);
+
+		pool.release(sessionFactory, pool.acquire(sessionFactory));
+		Thread.sleep(10);
+
+		assertSame(second, pool.acquire(sessionFactory));
+		assertEquals(0, pool.getIdleCount(sessionFactory));
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.context.MappingContext;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+
+/**
+ * Unit tests for {@link SessionSizeLimiter}.
+ */
+public class SessionSizeLimiterTests {
+
+	private Neo4jSession session;
+	private MappingContext context;
+	private SessionSizeLimiter limiter;
+
+	@Before
+	public void setUp() {
+		ClassInfo classInfo = mock(ClassInfo.class);
+		when(classInfo.name()).thenReturn(Person.class.getName());
+		when(classInfo.isInterface()).thenReturn(true);
+		FieldInfo fieldInfo = mock(FieldInfo.class);
+		when(fieldInfo.relationship()).thenReturn("FOLLOWS");
+		when(classInfo.relationshipFieldByName("followers")).thenReturn(fieldInfo);
+		MetaData metaData = mock(MetaData.class);
+		when(metaData.persistentEntities()).thenReturn(Collections.singleton(classInfo));
+		when(metaData.classInfo(Person.class.getName())).thenReturn(classInfo);
+
+		session = mock(Neo4jSession.class);
+		context = mock(MappingContext.class);
+		when(session.context()).thenReturn(context);
+		limiter = new SessionSizeLimiter(new Neo4jMappingContext(metaData, 1), 2);
+	}
+
+	@Test
+	public void detachesLeastRecentlyUsedEntities() {
+		Person first = person(1L);
+		Person second = person(2L);
+		Person third = person(3L);
+
+		limiter.afterCall(session, "load", null, first);
+		limiter.afterCall(session, "load", null, second);
+		limiter.afterCall(session, "load", null, first);
+		limiter.afterCall(session, "save", new Object[] { third }, null);
+
+		verify(session).detachNodeEntity(2L);
+		verify(session, never()).detachNodeEntity(1L);
+		assertEquals(2, limiter.getTrackedEntities(session));
+		assertEquals(1, limiter.getEvictedEntities());
+		assertEquals(3, limiter.getPeakTrackedEntities());
+	}
+
+	@Test
+	public void keepsModifiedEntities() {
+		Person first = person(1L);
+		Person second = person(2L);
+		limiter.afterCall(session, "load", null, first);
+		limiter.afterCall(session, "load", null, second);
+		first.name = "changed";
+		when(context.isDirty(first)).thenReturn(true);
+
+		limiter.afterCall(session, "loadAll", null, Collections.singletonList(person(3L)));
+
+		verify(session, never()).detachNodeEntity(1L);
+		verify(session).detachNodeEntity(2L);
+		assertEquals(1, limiter.getSkippedDirtyEntities());
+		assertEquals(2, limiter.getTrackedEntities(session));
+	}
+
+	@Test
+	public void keepsEntitiesModifiedBeforeBeingLoadedAgain() {
+		Person first = person(1L);
+		limiter.afterCall(session, "load", null, first);
+		first.followers.add(person(4L));
+		limiter.afterCall(session, "load", null, first);
+
+		limiter.afterCall(session, "load", null, person(2L));
+		limiter.afterCall(session, "load", null, person(3L));
+
+		verify(session, never()).detachNodeEntity(1L);
+		verify(session).detachNodeEntity(2L);
+	}
+
+	@Test
+	public void detachesSavedEntities() {
+		Person first = person(1L);
+		limiter.afterCall(session, "load", null, first);
+		first.followers.add(person(4L));
+		limiter.afterCall(session, "save", new Object[] { first }, null);
+
+		limiter.afterCall(session, "load", null, person(2L));
+		limiter.afterCall(session, "load", null, person(3L));
+
+		verify(session).detachNodeEntity(1L);
+		assertEquals(0, limiter.getSkippedDirtyEntities());
+	}
+
+	@Test
+	public void tracksReturnedEntitiesUntilSessionIsCleared() {
+		Person person = person(1L);
+		person.followers.add(person(2L));
+
+		limiter.afterCall(session, "query", null, Collections.singleton(person));
+		assertEquals(1, limiter.getTrackedEntities(session));
+		assertEquals(1, limiter.getTrackedSessions());
+
+		limiter.afterCall(session, "delete", new Object[] { person }, null);
+		assertEquals(0, limiter.getTrackedEntities(session));
+
+		limiter.afterCall(session, "clear", new Object[0], null);
+		assertEquals(0, limiter.getTrackedEntities(session));
+		verify(session, never()).detachNodeEntity(anyLong());
+		verify(session, never()).resolveGraphIdFor(person.followers.iterator().next());
+	}
+
+	@Test
+	public void keepsEntitiesWithReplacedRelationshipMembers() {
+		Person first = person(1L);
+		Person follower = person(4L);
+		first.followers.add(follower);
+		limiter.afterCall(session, "load", null, first);
+		first.followers.remove(follower);
+		first.followers.add(person(5L));
+
+		limiter.afterCall(session, "load", null, person(2L));
+		limiter.afterCall(session, "load", null, person(3L));
+
+		verify(session, never()).detachNodeEntity(1L);
+		verify(session).detachNodeEntity(2L);
+		assertEquals(1, limiter.getSkippedDirtyEntities());
+	}
+
+	@Test
+	public void neverDetachesFromSessionsWithoutMappingContext() {
+		Session other = mock(Session.class);
+		for (long id = 1; id <= 3; id++) {
+			Person person = new Person();
+			person.id = id;
+			when(other.resolveGraphIdFor(person)).thenReturn(id);
+			limiter.afterCall(other, "load", null, person);
+		}
+
+		verify(other, never()).detachNodeEntity(anyLong());
+		assertEquals(3, limiter.getTrackedEntities(other));
+	}
+
+	private Person person(Long id) {
+		Person person = new Person();
+		person.id = id;
+		when(session.resolveGraphIdFor(person)).thenReturn(id);
+		return person;
+	}
+
+	static class Person {
+
+		Long id;
+		String name;
+		Set<Person> followers = new HashSet<>();
+	}
+}
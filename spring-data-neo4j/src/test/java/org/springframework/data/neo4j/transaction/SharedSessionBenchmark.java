@@ -0,0 +1,162 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import static org.mockito.Mockito.*;
+import static org.neo4j.ogm.transaction.Transaction.Status.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.ogm.model.Result;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Benchmark of a call through the shared Session created by {@link SharedSessionCreator} against the same call through
+ * the JDK proxy with a reflective invocation handler it replaced. Both delegate to a transactional Session bound to the
+ * thread, which itself does nothing, so the difference is the cost of the delegation.
+ * <p>
+ * Run with {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SharedSessionBenchmark {
+
+	private static final String CYPHER = "MATCH (n) RETURN n";
+	private static final Map<String, Object> PARAMETERS = Collections.emptyMap();
+
+	private SessionFactory sessionFactory;
+	private Session delegate;
+	private Session reflective;
+
+	@Setup(Level.Trial)
+	public void bindTransactionalSession() {
+		sessionFactory = mock(SessionFactory.class);
+		Session target = (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Session.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						return null;
+					}
+				});
+		TransactionSynchronizationManager.bindResource(sessionFactory, new SessionHolder(target));
+		delegate = SharedSessionCreator.createSharedSession(sessionFactory);
+		reflective = (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Session.class },
+				new ReflectiveInvocationHandler(sessionFactory));
+	}
+
+	@TearDown(Level.Trial)
+	public void unbindTransactionalSession() {
+		TransactionSynchronizationManager.unbindResource(sessionFactory);
+	}
+
+	@Benchmark
+	public Result delegateQuery() {
+		return delegate.query(CYPHER, PARAMETERS);
+	}
+
+	@Benchmark
+	public Result reflectiveQuery() {
+		return reflective.query(CYPHER, PARAMETERS);
+	}
+
+	@Benchmark
+	public Object delegateSave() {
+		delegate.save(CYPHER);
+		return delegate;
+	}
+
+	@Benchmark
+	public Object reflectiveSave() {
+		reflective.save(CYPHER);
+		return reflective;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SharedSessionBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	/**
+	 * The invocation handler previously backing shared Sessions, reduced to calls within a transaction.
+	 */
+	private static class ReflectiveInvocationHandler implements InvocationHandler {
+
+		private static final Set<String> transactionRequiringMethods = new HashSet<>(Arrays.asList(
+				"deleteAll", "save", "delete", "purgeDatabase"));
+
+		private final SessionFactory targetFactory;
+
+		ReflectiveInvocationHandler(SessionFactory targetFactory) {
+			this.targetFactory = targetFactory;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getName().equals("equals")) {
+				return (proxy == args[0]);
+			} else if (method.getName().equals("hashCode")) {
+				return hashCode();
+			} else if (method.getName().equals("toString")) {
+				return "Shared Session proxy for target factory [" + targetFactory + "]";
+			} else if (method.getName().equals("beginTransaction")) {
+				throw new IllegalStateException("Not allowed to create transaction on shared Session");
+			}
+
+			Session target = SessionFactoryUtils.getSession(this.targetFactory);
+
+			if (transactionRequiringMethods.contains(method.getName())) {
+				if (target == null || (!TransactionSynchronizationManager.isActualTransactionActive()
+						&& target.getTransaction() != null
+						&& EnumSet.of(CLOSED, COMMITTED, ROLLEDBACK).contains(target.getTransaction().status()))) {
+					throw new IllegalStateException("No Session with actual transaction available");
+				}
+			}
+
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+}
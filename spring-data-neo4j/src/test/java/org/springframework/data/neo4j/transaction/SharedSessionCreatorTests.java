@@ -17,9 +17,12 @@ import static org.hamcrest.core.IsNull.*;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Collections;
+
 import org.junit.Test;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Unit tests for {@link SharedSessionCreator}.
@@ -48,4 +51,49 @@ public class SharedSessionCreatorTests {
 		Session session = SharedSessionCreator.createSharedSession(sessionFactory);
 		session.delete(new Object());
 	}
+
+	@Test
+	public void reusesPooledSessionsOutsideOfTransactions() {
+		SessionFactory sessionFactory = mock(SessionFactory.class);
+		Session pooled = mock(Session.class);
+		when(sessionFactory.openSession()).thenReturn(pooled);
+
+		Session session = SharedSessionCreator.createSharedSession(sessionFactory, new SessionPool());
+		session.query("MATCH (n) RETURN n", Collections.<String, Object>emptyMap());
+		session.query("MATCH (n) RETURN n", Collections.<String, Object>emptyMap());
+
+		verify(sessionFactory, times(1)).openSession();
+		verify(pooled, times(2)).query("MATCH (n) RETURN n", Collections.<String, Object>emptyMap());
+		verify(pooled, times(2)).clear();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void beginTransactionIsRejected() {
+		SharedSessionCreator.createSharedSession(mock(SessionFactory.class)).beginTransaction();
+	}
+
+	@Test
+	public void delegatesToTransactionalSession() {
+		SessionFactory sessionFactory = mock(SessionFactory.class);
+		Session transactional = mock(Session.class);
+		Session session = SharedSessionCreator.createSharedSession(sessionFactory);
+		Session other = SharedSessionCreator.createSharedSession(sessionFactory);
+
+		TransactionSynchronizationManager.bindResource(sessionFactory, new SessionHolder(transactional));
+		try {
+			session.save("entity");
+			session.query("MATCH (n) RETURN n", Collections.<String, Object>emptyMap());
+
+			assertTrue(session.equals(session));
+			assertFalse(session.equals(other));
+			assertThat(session.hashCode(), is(session.hashCode()));
+			assertTrue(session.toString().startsWith("Shared Session proxy"));
+		} finally {
+			TransactionSynchronizationManager.unbindResource(sessionFactory);
+		}
+
+		verify(transactional).save("entity");
+		verify(transactional).query("MATCH (n) RETURN n", Collections.<String, Object>emptyMap());
+		verify(sessionFactory, never()).openSession();
+	}
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c)  [2011-2017] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.exception.CypherException;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.neo4j.exception.BatchQueryFailedException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for {@link TransientErrorRetryInterceptor}.
+ */
+public class TransientErrorRetryInterceptorTests {
+
+	private static final String DEADLOCK = "Neo.TransientError.Transaction.DeadlockDetected";
+
+	private final List<Long> sleeps = new ArrayList<>();
+	private TransientErrorRetryInterceptor interceptor;
+	private FlakyWork work;
+	private Work proxy;
+
+	@Before
+	public void setUp() {
+		interceptor = new TransientErrorRetryInterceptor() {
+			@Override
+			void sleep(long millis) {
+				sleeps.add(millis);
+			}
+		};
+		interceptor.setInitialBackoffMillis(100);
+		interceptor.setMaxBackoffMillis(300);
+		work = new FlakyWork();
+		ProxyFactory factory = new ProxyFactory(work);
+		factory.addInterface(Work.class);
+		factory.addAdvice(interceptor);
+		proxy = (Work) factory.getProxy();
+	}
+
+	@After
+	public void tearDown() {
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+	}
+
+	@Test
+	public void retriesTransientErrorsWithGrowingBackoff() {
+		interceptor.setMaxAttempts(4);
+		work.failures = 3;
+
+		assertEquals("done", proxy.run());
+
+		assertEquals(4, work.attempts);
+		assertEquals(3, sleeps.size());
+		assertTrue(sleeps.get(0) >= 50 && sleeps.get(0) <= 100);
+		assertTrue(sleeps.get(1) >= 100 && sleeps.get(1) <= 200);
+		assertTrue(sleeps.get(2) >= 150 && sleeps.get(2) <= 300);
+		assertEquals(3, interceptor.getRetryCount());
+		assertEquals(1, interceptor.getRecoveryCount());
+		assertEquals(0, interceptor.getExhaustionCount());
+	}
+
+	@Test
+	public void givesUpAfterMaximumAttempts() {
+		work.failures = 5;
+
+		try {
+			proxy.run();
+			fail("Expected the transient error to be rethrown");
+		} catch (ConcurrencyFailureException e) {
+			assertEquals(3, work.attempts);
+		}
+		assertEquals(2, interceptor.getRetryCount());
+		assertEquals(1, interceptor.getExhaustionCount());
+	}
+
+	@Test
+	public void doesNotRetryOtherErrors() {
+		work.failures = 1;
+		work.code = "Neo.ClientError.Statement.SyntaxError";
+
+		try {
+			proxy.run();
+			fail("Expected the error to be rethrown");
+		} catch (ConcurrencyFailureException e) {
+			assertEquals(1, work.attempts);
+		}
+		assertTrue(sleeps.isEmpty());
+	}
+
+	@Test
+	public void doesNotRetryWithinActiveTransaction() {
+		work.failures = 1;
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+
+		try {
+			proxy.run();
+			fail("Expected the transient error to be rethrown");
+		} catch (ConcurrencyFailureException e) {
+			assertEquals(1, work.attempts);
+		}
+	}
+
+	@Test
+	public void classifiesTransientErrors() {
+		assertTrue(TransientErrorRetryInterceptor.isRetryable(new CypherException("Error", DEADLOCK, "")));
+		assertFalse(TransientErrorRetryInterceptor.isRetryable(
+				new CypherException("Error", "Neo.TransientError.General.OutOfMemoryError", "")));
+		assertFalse(TransientErrorRetryInterceptor.isRetryable(new IllegalStateException()));
+		assertFalse(TransientErrorRetryInterceptor.isRetryable(
+				new BatchQueryFailedException("Failed", 2, new CypherException("Error", DEADLOCK, ""))));
+	}
+
+	interface Work {
+
+		String run();
+	}
+
+	static class FlakyWork implements Work {
+
+		int failures;
+		int attempts;
+		String code = DEADLOCK;
+
+		@Override
+		public String run() {
+			if (attempts++ < failures) {
+				throw new ConcurrencyFailureException("Failed", new CypherException("Error", code, "Deadlock"));
+			}
+			return "done";
+		}
+	}
+}